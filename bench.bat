@@ -0,0 +1,3 @@
+call mvn install -B -f binder-processor/pom.xml
+call mvn -B -f benchmarks/pom.xml clean package
+java -jar benchmarks/target/benchmarks.jar -rf json -rff benchmarks/results.json %*
@@ -0,0 +1,173 @@
+package org.nullinside.notification_app.alerts;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures adding, removing and rescheduling alerts on an {@link AlertsManager} that already holds a number of
+ * alerts.
+ * <p>
+ * Every trial gets its own manager rather than the singleton so nothing leaks from one alert count to the next.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlertsManagerBenchmark {
+    /**
+     * How long the registered alerts wait between checks in milliseconds. Long enough that they are only ever
+     * checked when a benchmark reschedules them.
+     */
+    private static final long UPDATE_INTERVAL = TimeUnit.HOURS.toMillis(1);
+    /**
+     * The number of alerts registered with the manager.
+     */
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int alertCount;
+    /**
+     * The number of scheduler shards of the manager.
+     */
+    @Param({"1"})
+    public int shardCount;
+    /**
+     * The number of worker threads running the checks, 0 to run them on the alert manager thread.
+     */
+    @Param({"0", "1", "4", "16"})
+    public int workers;
+    /**
+     * The manager under test.
+     */
+    private AlertsManager manager;
+    /**
+     * The alerts registered with the {@link #manager} for the whole trial.
+     */
+    private BenchmarkAlert[] alerts;
+    /**
+     * The position in {@link #alerts} of the next alert to reschedule.
+     */
+    private int nextReschedule;
+
+    /**
+     * Creates the manager and fills it with enabled alerts.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        manager = new AlertsManager(shardCount);
+        manager.setWorkerCount(workers);
+        alerts = new BenchmarkAlert[alertCount];
+        for (int i = 0; i < alertCount; i++) {
+            alerts[i] = new BenchmarkAlert(UPDATE_INTERVAL, true);
+            manager.addAlert(alerts[i]);
+        }
+    }
+
+    /**
+     * Stops the manager.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        manager.dispose();
+    }
+
+    /**
+     * Adds as many alerts again as the manager already holds and removes them one at a time.
+     *
+     * @param batch The alerts to add.
+     * @return The manager, so the work can't be optimized away.
+     */
+    @Benchmark
+    public AlertsManager addThenRemoveAll(Batch batch) {
+        for (var alert : batch.alerts) {
+            manager.addAlert(alert);
+        }
+
+        for (var alert : batch.alerts) {
+            manager.removeAlert(alert);
+        }
+
+        return manager;
+    }
+
+    /**
+     * Adds as many alerts again as the manager already holds in one batch and removes them in another.
+     *
+     * @param batch The alerts to add.
+     * @return The manager, so the work can't be optimized away.
+     */
+    @Benchmark
+    public AlertsManager addAlertsThenRemoveAlerts(Batch batch) {
+        var alerts = Arrays.asList(batch.alerts);
+        manager.addAlerts(alerts);
+        manager.removeAlerts(alerts);
+        return manager;
+    }
+
+    /**
+     * Adds a single alert to the full manager and removes it again.
+     *
+     * @return The alert, so the work can't be optimized away.
+     */
+    @Benchmark
+    public IAlert addAndRemoveOne() {
+        var alert = new BenchmarkAlert(UPDATE_INTERVAL, false);
+        manager.addAlert(alert);
+        manager.removeAlert(alert);
+        return alert;
+    }
+
+    /**
+     * Disables and re-enables a registered alert, which moves it to the head of its shard's queue.
+     *
+     * @return The alert, so the work can't be optimized away.
+     */
+    @Benchmark
+    public IAlert reschedule() {
+        var alert = alerts[nextReschedule];
+        nextReschedule = (nextReschedule + 1) % alerts.length;
+
+        alert.config.setIsEnabled(false);
+        alert.config.setIsEnabled(true);
+        return alert;
+    }
+
+    /**
+     * Fresh alerts for {@link #addThenRemoveAll(Batch)} and {@link #addAlertsThenRemoveAlerts(Batch)}. Kept apart
+     * from the rest of the state so that only those benchmarks pay for creating them before every call.
+     */
+    @State(Scope.Thread)
+    public static class Batch {
+        /**
+         * The alerts to add.
+         */
+        private BenchmarkAlert[] alerts;
+
+        /**
+         * Creates the alerts. An alert can't be reused once it is removed since it's disposed of.
+         *
+         * @param benchmark The benchmark the alerts are for.
+         */
+        @Setup(Level.Invocation)
+        public void setUp(AlertsManagerBenchmark benchmark) {
+            alerts = new BenchmarkAlert[benchmark.alertCount];
+            for (int i = 0; i < alerts.length; i++) {
+                alerts[i] = new BenchmarkAlert(UPDATE_INTERVAL, false);
+            }
+        }
+    }
+}
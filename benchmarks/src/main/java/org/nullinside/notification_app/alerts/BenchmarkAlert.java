@@ -0,0 +1,94 @@
+package org.nullinside.notification_app.alerts;
+
+import javafx.scene.Parent;
+import javafx.scene.layout.VBox;
+import org.nullinside.notification_app.config.AbstractAlertConfig;
+
+/**
+ * An alert with a real configuration whose check does nothing, so a benchmark only measures the scheduler.
+ */
+public class BenchmarkAlert extends AbstractAlert {
+    /**
+     * The alert configuration. Benchmarks change it directly since going through the alert would write the
+     * global config to disk.
+     */
+    public final AbstractAlertConfig config = new AbstractAlertConfig() {
+    };
+
+    /**
+     * Instantiates a new instance of the class.
+     *
+     * @param updateInterval The update interval in milliseconds.
+     * @param isEnabled      True if the alert should be checked, false otherwise.
+     */
+    public BenchmarkAlert(long updateInterval, boolean isEnabled) {
+        config.setUpdateInterval(updateInterval);
+        config.setIsEnabled(isEnabled);
+    }
+
+    /**
+     * Gets the alert configuration.
+     *
+     * @return The alert configuration object.
+     */
+    @Override
+    protected AbstractAlertConfig getConfigObject() {
+        return config;
+    }
+
+    /**
+     * Gets the alert configuration in JSON string format.
+     *
+     * @return The alert configuration in JSON string format.
+     */
+    @Override
+    public String getConfig() {
+        return null;
+    }
+
+    /**
+     * Sets the alert configuration in JSON string format.
+     *
+     * @param config The alert configuration in JSON string format.
+     */
+    @Override
+    public void setConfig(String config) {
+
+    }
+
+    /**
+     * Gets the window GUI to display when configuring the alert.
+     *
+     * @return The window GUI to display when configuring the alert.
+     */
+    @Override
+    public Parent getGui() {
+        return null;
+    }
+
+    /**
+     * Sets the preview GUI to display in the list of all alerts.
+     *
+     * @param parent The parent that houses the alert in the alert list.
+     */
+    @Override
+    public void setPreviewRow(VBox parent) {
+
+    }
+
+    /**
+     * Executes the logic of alert. Does nothing.
+     */
+    @Override
+    public void check() {
+
+    }
+
+    /**
+     * Dispose of managed and unmanaged resources used by the alert.
+     */
+    @Override
+    public void dispose() {
+
+    }
+}
@@ -0,0 +1,166 @@
+package org.nullinside.notification_app.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.nullinside.notification_app.alerts.AlertsManager;
+import org.nullinside.notification_app.alerts.IAlert;
+import org.nullinside.notification_app.alerts.TwitchChatAlert;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading the configuration and creating its alerts at startup, from the JSON configuration file and
+ * from the binary snapshot next to it.
+ * <p>
+ * The configuration file lives under the user's home directory, so the home directory is pointed at a temporary
+ * directory for the trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConfigStartupBenchmark {
+    /**
+     * The number of alerts in the configuration.
+     */
+    @Param({"10000"})
+    public int alertCount;
+    /**
+     * The temporary directory standing in for the user's home directory.
+     */
+    private Path home;
+    /**
+     * The configuration file.
+     */
+    private Path file;
+
+    /**
+     * Writes a configuration with disabled Twitch chat alerts, along with its binary snapshot.
+     *
+     * @throws IOException Thrown if the temporary directory can't be created.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        home = Files.createTempDirectory("notification-app-benchmark");
+        System.setProperty("user.home", home.toString());
+        file = home.resolve("AppData/Roaming/nullinside/notification-app/config.json");
+        var config = GlobalConfig.getInstance();
+        config.configSaveDelay = TimeUnit.HOURS.toMillis(1);
+        config.initialize();
+
+        // Disabled so that nothing tries to connect to Twitch.
+        var alertConfig = new ObjectMapper().writeValueAsString(new TwitchChatAlertConfig("client-id",
+                "client-secret", "username", "oauth:token", "channel", "C:\\sounds\\chat.wav"));
+        var alerts = new ArrayList<IAlert>(alertCount);
+        for (int i = 0; i < alertCount; i++) {
+            var alert = new TwitchChatAlert();
+            alert.setConfig(alertConfig);
+            alerts.add(alert);
+        }
+
+        AlertsManager.getInstance().addAlerts(alerts);
+        if (!config.writeConfiguration() || null == new BinaryConfigSnapshot(file).getSnapshotFile()) {
+            throw new IllegalStateException("Failed to write the configuration");
+        }
+    }
+
+    /**
+     * Stops the alerts manager and deletes the temporary directory.
+     *
+     * @throws IOException Thrown if the temporary directory can't be deleted.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        GlobalConfig.getInstance().shutdown();
+        AlertsManager.getInstance().dispose();
+        try (var paths = Files.walk(home)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    /**
+     * Reads the JSON configuration file and creates the alerts from their JSON configurations.
+     *
+     * @return The alerts.
+     */
+    @Benchmark
+    public List<IAlert> loadJson() {
+        return createAlerts(GlobalConfig.readConfiguration(file));
+    }
+
+    /**
+     * Reads the binary snapshot and creates the alerts from their binary configurations.
+     *
+     * @return The alerts.
+     */
+    @Benchmark
+    public List<IAlert> loadBinarySnapshot() {
+        return createAlerts(GlobalConfig.readBinarySnapshot(file));
+    }
+
+    /**
+     * Reads the binary snapshot and creates stand ins for the alerts, the way the application does at startup
+     * with {@link GlobalConfig#lazyAlertStartup} on.
+     *
+     * @return The stand ins.
+     */
+    @Benchmark
+    public List<IAlert> loadBinarySnapshotLazy() {
+        var config = GlobalConfig.readBinarySnapshot(file);
+        checkConfiguration(config);
+        var alerts = new ArrayList<IAlert>(config.alertConfigs.size());
+        for (var alertConfig : config.alertConfigs) {
+            alerts.add(GlobalConfig.createLazyAlert(alertConfig, Runnable::run));
+        }
+
+        return alerts;
+    }
+
+    /**
+     * Creates the alerts of a configuration the way the application does at startup.
+     *
+     * @param config The configuration.
+     * @return The alerts.
+     */
+    private List<IAlert> createAlerts(GlobalConfig config) {
+        checkConfiguration(config);
+        var alerts = new ArrayList<IAlert>(config.alertConfigs.size());
+        for (var alertConfig : config.alertConfigs) {
+            alerts.add(GlobalConfig.createAlert(alertConfig));
+        }
+
+        return alerts;
+    }
+
+    /**
+     * Makes sure the whole configuration was read.
+     *
+     * @param config The configuration.
+     */
+    private void checkConfiguration(GlobalConfig config) {
+        if (null == config || config.alertConfigs.size() != alertCount) {
+            throw new IllegalStateException("Failed to read the configuration");
+        }
+    }
+}
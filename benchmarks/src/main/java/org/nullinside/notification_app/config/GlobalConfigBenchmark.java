@@ -0,0 +1,135 @@
+package org.nullinside.notification_app.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.nullinside.notification_app.alerts.AlertsManager;
+import org.nullinside.notification_app.alerts.TwitchChatAlert;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures saving the configuration of the alerts to disk, either one changed alert at a time or all of them.
+ * <p>
+ * The configuration file lives under the user's home directory, so the home directory is pointed at a temporary
+ * directory for the trial. Each trial runs in its own forked JVM, which keeps the singletons from leaking from one
+ * alert count to the next.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GlobalConfigBenchmark {
+    /**
+     * The number of alerts whose configuration is saved.
+     */
+    @Param({"10", "100", "1000", "10000"})
+    public int alertCount;
+    /**
+     * The temporary directory standing in for the user's home directory.
+     */
+    private Path home;
+    /**
+     * The configuration under test.
+     */
+    private GlobalConfig config;
+    /**
+     * The alert that is changed when saving a single alert.
+     */
+    private TwitchChatAlert changedAlert;
+
+    /**
+     * Fills the alerts manager with disabled Twitch chat alerts and loads the configuration.
+     *
+     * @throws IOException Thrown if the temporary directory can't be created.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        home = Files.createTempDirectory("notification-app-benchmark");
+        System.setProperty("user.home", home.toString());
+        config = GlobalConfig.getInstance();
+
+        // Keep the background writes out of the way, the benchmarks write on their own thread.
+        config.configSaveDelay = TimeUnit.HOURS.toMillis(1);
+        config.initialize();
+
+        // Disabled so that nothing tries to connect to Twitch.
+        var alertConfig = new ObjectMapper().writeValueAsString(new TwitchChatAlertConfig("client-id",
+                "client-secret", "username", "oauth:token", "channel", "C:\\sounds\\chat.wav"));
+        var manager = AlertsManager.getInstance();
+        for (int i = 0; i < alertCount; i++) {
+            var alert = new TwitchChatAlert();
+            alert.setConfig(alertConfig);
+            manager.addAlert(alert);
+            changedAlert = alert;
+        }
+
+        config.updateSavedConfigurations();
+        config.flush();
+    }
+
+    /**
+     * Stops the alerts manager and deletes the temporary directory.
+     *
+     * @throws IOException Thrown if the temporary directory can't be deleted.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        config.shutdown();
+        AlertsManager.getInstance().dispose();
+        try (var paths = Files.walk(home)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    /**
+     * Rebuilds the saved configurations from the alerts manager and writes them to disk, which is what the
+     * background save does after an alert is added, removed or changed.
+     *
+     * @return True if successful, false otherwise.
+     */
+    @Benchmark
+    public boolean updateSavedConfigurations() {
+        config.updateSavedConfigurations();
+        return config.flush();
+    }
+
+    /**
+     * Saves the configuration of a single changed alert, which appends it to the configuration journal.
+     *
+     * @return True if successful, false otherwise.
+     */
+    @Benchmark
+    public boolean updateSavedConfiguration() {
+        config.updateSavedConfiguration(changedAlert);
+        return config.flush();
+    }
+
+    /**
+     * Writes the whole configuration to disk, reusing the saved configurations of the alerts.
+     *
+     * @return True if successful, false otherwise.
+     */
+    @Benchmark
+    public boolean writeConfiguration() {
+        return config.writeConfiguration();
+    }
+}
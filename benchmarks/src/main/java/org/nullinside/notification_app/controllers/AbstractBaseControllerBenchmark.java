@@ -0,0 +1,96 @@
+package org.nullinside.notification_app.controllers;
+
+import javafx.application.Platform;
+import javafx.scene.control.PasswordField;
+import javafx.scene.control.TextField;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures binding the configuration GUIs to their configuration objects through the generated binders.
+ * <p>
+ * JavaFX controls can't be created until the JavaFX toolkit is started, so this needs a desktop to run on. The
+ * controls are never shown.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AbstractBaseControllerBenchmark {
+    /**
+     * The controller whose controls are bound.
+     */
+    private TwitchChatAlertController controller;
+
+    /**
+     * Starts the JavaFX toolkit, creates the controller and fills in its controls.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        try {
+            Platform.startup(() -> {
+            });
+        } catch (IllegalStateException e) {
+            // Already started, nothing to do.
+        }
+
+        controller = new TwitchChatAlertController();
+        controller.cClientId = new PasswordField();
+        controller.cClientSecret = new PasswordField();
+        controller.cUsername = new TextField();
+        controller.cOauth = new PasswordField();
+        controller.cChannel = new TextField();
+        controller.cAlertSoundFilename = new TextField();
+
+        controller.cClientId.setText("client-id");
+        controller.cClientSecret.setText("client-secret");
+        controller.cUsername.setText("username");
+        controller.cOauth.setText("oauth:token");
+        controller.cChannel.setText("channel");
+        controller.cAlertSoundFilename.setText("C:\\sounds\\chat.wav");
+    }
+
+    /**
+     * Builds a new configuration from the controls and swaps it in, which is what happens when the user saves.
+     *
+     * @return The new configuration, so the work can't be optimized away.
+     */
+    @Benchmark
+    public Object updatePropertiesWithControls() {
+        controller.updatePropertiesWithControls();
+        return controller.config;
+    }
+
+    /**
+     * Fills the controls in from the configuration, which is what happens when the GUI opens.
+     *
+     * @return The controller, so the work can't be optimized away.
+     */
+    @Benchmark
+    public Object updateControlsWithProperties() {
+        controller.updateControlsWithProperties();
+        return controller;
+    }
+
+    /**
+     * Stops the JavaFX toolkit.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Platform.exit();
+    }
+}
@@ -0,0 +1,115 @@
+package org.nullinside.tts;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the utterances spoken per second when a process is started for every utterance and when one process is
+ * kept running, which is the difference between {@link TtsEngineType#POWERSHELL} and
+ * {@link TtsEngineType#POWERSHELL_PERSISTENT}.
+ * <p>
+ * The engine is a Java virtual machine that speaks nothing, so what is measured is the cost of getting text to an
+ * engine and hearing back from it. Starting a virtual machine is in the same league as starting PowerShell, though
+ * PowerShell loading the voice on top of that makes starting it slower still.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TtsEngineBenchmark {
+    /**
+     * True to keep one process running, false to start one for every utterance.
+     */
+    @Param({"false", "true"})
+    public boolean reuseProcess;
+    /**
+     * The engine under test.
+     */
+    private ITtsEngine engine;
+
+    /**
+     * Creates the engine.
+     *
+     * @throws URISyntaxException Thrown if the benchmarks can't be found to run the engine from.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws URISyntaxException {
+        var java = ProcessHandle.current().info().command().orElse("java");
+        var classes = Path.of(Engine.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        var command = List.of(java, "-Xshare:auto", "-XX:TieredStopAtLevel=1", "-cp", classes.toString(),
+                Engine.class.getName(), Boolean.toString(reuseProcess));
+        engine = reuseProcess ? new PersistentProcessEngine(command) : new OneShotProcessEngine(command);
+    }
+
+    /**
+     * Disposes of the engine.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.dispose();
+    }
+
+    /**
+     * Speaks a chat message.
+     *
+     * @throws IOException          Thrown if the engine failed.
+     * @throws InterruptedException Thrown if interrupted.
+     */
+    @Benchmark
+    public void speak() throws IOException, InterruptedException {
+        engine.speak("Thanks for the follow!");
+    }
+
+    /**
+     * The engine process. Reads utterances and acknowledges them without speaking them.
+     */
+    public static class Engine {
+        /**
+         * Runs the engine.
+         *
+         * @param args "true" to talk the protocol of {@link PersistentProcessEngine}, "false" to read one utterance
+         *             and exit.
+         * @throws IOException Thrown if the standard streams fail.
+         */
+        public static void main(String[] args) throws IOException {
+            var input = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+            if (!Boolean.parseBoolean(args[0])) {
+                while (-1 != input.read()) {
+                    // Reading the utterance is all there is to do.
+                }
+
+                return;
+            }
+
+            System.out.println(PersistentProcessEngine.READY);
+            System.out.flush();
+            String line;
+            while (null != (line = input.readLine())) {
+                System.out.println(PersistentProcessEngine.DONE + '\t' + line.substring(0, line.indexOf('\t')));
+                System.out.flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package org.nullinside.utilities;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads and writes a field of an object or the child of an object using "parent.child.field" syntax.
+ * <p>
+ * Finding a field through reflection means walking the class hierarchy one class at a time and making the field
+ * accessible, every time. An accessor does all of that once, the first time a path is asked for, and keeps a
+ * {@link MethodHandle} for each field along the path. Accessors are cached by class and path, so after the first
+ * time getting an accessor and using it doesn't allocate anything.
+ * <p>
+ * The application doesn't bind anything by path, the controllers use the binders generated by the binder processor.
+ * This lives with the benchmarks to compare a cached reflective lookup against the uncached
+ * {@link ReflectionUtilities#getFieldNested(Class, String, Object)}.
+ */
+public final class FieldAccessor {
+    /**
+     * Looks up the method handles of the fields.
+     */
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    /**
+     * The type every getter is adapted to so it can be invoked exactly: takes the object, returns the value.
+     */
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    /**
+     * The type every setter is adapted to so it can be invoked exactly: takes the object and the value.
+     */
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    /**
+     * Cached in place of a path that doesn't exist, so it isn't looked for again.
+     */
+    private static final FieldAccessor NOT_FOUND = new FieldAccessor(null, null, null, null);
+    /**
+     * The accessors of each class by path. Goes away along with the class.
+     */
+    private static final ClassValue<ConcurrentHashMap<String, FieldAccessor>> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected ConcurrentHashMap<String, FieldAccessor> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    /**
+     * The getters of the fields leading up to the field, in order.
+     */
+    private final MethodHandle[] parents;
+    /**
+     * The field.
+     */
+    private final Field field;
+    /**
+     * The getter of the field.
+     */
+    private final MethodHandle getter;
+    /**
+     * The setter of the field, null if it is final and has to be set through {@link #field}.
+     */
+    private final MethodHandle setter;
+
+    /**
+     * Instantiates a new instance of the class.
+     *
+     * @param parents The getters of the fields leading up to the field, in order.
+     * @param field   The field.
+     * @param getter  The getter of the field.
+     * @param setter  The setter of the field, null if it can't be set through a method handle.
+     */
+    private FieldAccessor(MethodHandle[] parents, Field field, MethodHandle getter, MethodHandle setter) {
+        this.parents = parents;
+        this.field = field;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    /**
+     * Gets the accessor of a field in a class or the child of a class using "parent.child.field" syntax.
+     *
+     * @param klass The class to search for the field in.
+     * @param path  The name of the field.
+     * @return The accessor, null if the field doesn't exist.
+     */
+    public static FieldAccessor of(Class<?> klass, String path) {
+        var accessors = ACCESSORS.get(klass);
+        var accessor = accessors.get(path);
+        if (null == accessor) {
+            // Two threads may both resolve it, they'll come up with the same thing.
+            accessor = resolve(klass, path);
+            accessors.putIfAbsent(path, null != accessor ? accessor : NOT_FOUND);
+        }
+
+        return NOT_FOUND != accessor ? accessor : null;
+    }
+
+    /**
+     * Finds every field along a path and creates the method handles for them.
+     *
+     * @param klass The class to search for the field in.
+     * @param path  The name of the field.
+     * @return The accessor, null if the field doesn't exist.
+     */
+    private static FieldAccessor resolve(Class<?> klass, String path) {
+        var names = path.split("\\.");
+        var parents = new MethodHandle[names.length - 1];
+        try {
+            for (int i = 0; i < names.length; i++) {
+                var field = ReflectionUtilities.getField(klass, names[i]);
+                if (null == field) {
+                    return null;
+                }
+
+                field.setAccessible(true);
+                var getter = adapt(LOOKUP.unreflectGetter(field), field).asType(GETTER_TYPE);
+                if (i < parents.length) {
+                    parents[i] = getter;
+                    klass = field.getType();
+                    continue;
+                }
+
+                // Java won't hand out a setter for a final field, those are set through reflection instead.
+                MethodHandle setter = null;
+                if (!Modifier.isFinal(field.getModifiers())) {
+                    setter = adapt(LOOKUP.unreflectSetter(field), field).asType(SETTER_TYPE);
+                }
+
+                return new FieldAccessor(parents, field, getter, setter);
+            }
+        } catch (IllegalAccessException | RuntimeException e) {
+            e.printStackTrace();
+        }
+
+        return null;
+    }
+
+    /**
+     * Makes the method handle of a static field take the object as well, like the one of an instance field.
+     *
+     * @param handle The method handle of the field.
+     * @param field  The field.
+     * @return The method handle taking the object first.
+     */
+    private static MethodHandle adapt(MethodHandle handle, Field field) {
+        return Modifier.isStatic(field.getModifiers()) ? MethodHandles.dropArguments(handle, 0, Object.class) :
+                handle;
+    }
+
+    /**
+     * Gets the field.
+     *
+     * @return The field.
+     */
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * Gets the object the field belongs to, following the path from an object.
+     *
+     * @param instance The object the path starts at.
+     * @return The object holding the field, null if something along the path is null.
+     */
+    public Object getTarget(Object instance) {
+        var target = instance;
+        try {
+            for (var parent : parents) {
+                if (null == target) {
+                    return null;
+                }
+
+                target = (Object) parent.invokeExact(target);
+            }
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+
+        return target;
+    }
+
+    /**
+     * Gets the value of the field, following the path from an object.
+     *
+     * @param instance The object the path starts at.
+     * @return The value, null if something along the path is null.
+     */
+    public Object get(Object instance) {
+        var target = getTarget(instance);
+        if (null == target) {
+            return null;
+        }
+
+        try {
+            return (Object) getter.invokeExact(target);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Sets the value of the field, following the path from an object.
+     *
+     * @param instance The object the path starts at.
+     * @param value    The value.
+     * @throws NullPointerException Thrown if something along the path is null.
+     */
+    public void set(Object instance, Object value) {
+        var target = getTarget(instance);
+        if (null == target) {
+            throw new NullPointerException("Nothing to set " + field.getName() + " on");
+        }
+
+        try {
+            if (null != setter) {
+                setter.invokeExact(target, value);
+            } else {
+                field.set(target, value);
+            }
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Passes unchecked exceptions through and wraps the rest.
+     *
+     * @param e The exception thrown by a method handle.
+     * @return The exception to throw.
+     */
+    private static RuntimeException rethrow(Throwable e) {
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+
+        return e instanceof RuntimeException ? (RuntimeException) e : new IllegalStateException(e);
+    }
+}
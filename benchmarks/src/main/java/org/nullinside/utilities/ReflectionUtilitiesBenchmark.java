@@ -0,0 +1,89 @@
+package org.nullinside.utilities;
+
+import javafx.util.Pair;
+import org.nullinside.notification_app.controllers.TwitchChatAlertController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures looking up fields by "parent.child.field" path and reading them.
+ * <p>
+ * {@link ReflectionUtilities#getFieldNested(Class, String, Object)} searches the class hierarchy every time, the
+ * cached {@link FieldAccessor} is compared against it. Run with {@code -prof gc} to see the allocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReflectionUtilitiesBenchmark {
+    /**
+     * The controller to look the fields up on. Its controls are never touched so they are left unset.
+     */
+    private final TwitchChatAlertController controller = new TwitchChatAlertController();
+
+    /**
+     * Finds a field declared directly on the controller.
+     *
+     * @return The field and the object it acts on.
+     */
+    @Benchmark
+    public Pair<Object, Field> getFieldNested() {
+        return ReflectionUtilities.getFieldNested(TwitchChatAlertController.class, "config", controller);
+    }
+
+    /**
+     * Finds a field of the controller's configuration, which walks through the configuration field first.
+     *
+     * @return The field and the object it acts on.
+     */
+    @Benchmark
+    public Pair<Object, Field> getFieldNestedChild() {
+        return ReflectionUtilities.getFieldNested(TwitchChatAlertController.class, "config.channel", controller);
+    }
+
+    /**
+     * Finds a field of the controller's configuration that is declared on a parent class of the configuration.
+     *
+     * @return The field and the object it acts on.
+     */
+    @Benchmark
+    public Pair<Object, Field> getFieldNestedInherited() {
+        return ReflectionUtilities.getFieldNested(TwitchChatAlertController.class, "config.updateInterval",
+                controller);
+    }
+
+    /**
+     * Reads a field of the controller's configuration, searching for it every time.
+     *
+     * @return The value of the field.
+     * @throws IllegalAccessException Thrown if the field can't be read.
+     */
+    @Benchmark
+    public Object readNestedSearched() throws IllegalAccessException {
+        var pair = ReflectionUtilities.getFieldNested(TwitchChatAlertController.class, "config.channel", controller);
+        pair.getValue().setAccessible(true);
+        return pair.getValue().get(pair.getKey());
+    }
+
+    /**
+     * Reads a field of the controller's configuration through its cached accessor.
+     *
+     * @return The value of the field.
+     */
+    @Benchmark
+    public Object readNestedAccessor() {
+        return FieldAccessor.of(TwitchChatAlertController.class, "config.channel").get(controller);
+    }
+}
@@ -0,0 +1,461 @@
+package org.nullinside.binder;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Generates a {@code org.nullinside.utilities.ConfigBinder} for every controller annotated with
+ * {@code org.nullinside.utilities.BindConfig}.
+ * <p>
+ * The binder reads and writes the controls and the configuration directly, so nothing is looked up by name at
+ * runtime. The new configuration is created through the constructor whose String parameters are named after the
+ * bound properties, in whatever order the constructor declares them. A path that doesn't exist, a field the binder
+ * can't see or a configuration without a matching constructor fails the build instead of the save.
+ * <p>
+ * The annotations are looked up by name so the processor doesn't depend on the application.
+ */
+@SupportedAnnotationTypes({ConfigBinderProcessor.BIND_CONFIG, ConfigBinderProcessor.BIND_PROPERTY})
+public class ConfigBinderProcessor extends AbstractProcessor {
+    /**
+     * The annotation marking a controller.
+     */
+    static final String BIND_CONFIG = "org.nullinside.utilities.BindConfig";
+    /**
+     * The annotation marking a control.
+     */
+    static final String BIND_PROPERTY = "org.nullinside.utilities.BindProperty";
+    /**
+     * The interface the binders implement.
+     */
+    private static final String CONFIG_BINDER = "org.nullinside.utilities.ConfigBinder";
+    /**
+     * The type every control has to be, it is where the text is read from and written to.
+     */
+    private static final String TEXT_CONTROL = "javafx.scene.control.TextInputControl";
+
+    /**
+     * Gets the latest version of Java supported, the processor only looks at fields and constructors.
+     *
+     * @return The latest supported version.
+     */
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * Generates the binders of the controllers in a round.
+     *
+     * @param annotations The annotations present in the round.
+     * @param roundEnv    The round.
+     * @return True, the annotations belong to this processor.
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        var bindConfig = processingEnv.getElementUtils().getTypeElement(BIND_CONFIG);
+        if (null == bindConfig) {
+            return false;
+        }
+
+        for (var element : roundEnv.getElementsAnnotatedWith(bindConfig)) {
+            try {
+                generate(element);
+            } catch (BindException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), e.element);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Generates the binder of a controller.
+     *
+     * @param element The controller.
+     * @throws BindException Thrown if the controller can't be bound.
+     */
+    private void generate(Element element) throws BindException {
+        if (ElementKind.CLASS != element.getKind() ||
+                NestingKind.TOP_LEVEL != ((TypeElement) element).getNestingKind()) {
+            throw new BindException(element, "Only top level classes can be bound to a configuration");
+        }
+
+        var controller = (TypeElement) element;
+        var packageName = processingEnv.getElementUtils().getPackageOf(controller).getQualifiedName().toString();
+        var path = resolvePath(controller, packageName);
+        var configType = (TypeElement) processingEnv.getTypeUtils().asElement(path.get(path.size() - 1).asType());
+        if (configType.getModifiers().contains(Modifier.ABSTRACT)) {
+            throw new BindException(controller, "The configuration " + configType + " can't be abstract");
+        }
+
+        var controls = findControls(controller, configType, packageName);
+        var constructor = findConstructor(configType, controls.keySet(), packageName);
+        if (null == constructor) {
+            throw new BindException(controller, String.format(
+                    "%s has no constructor taking exactly (%s) as String parameters", configType.getQualifiedName(),
+                    String.join(", ", controls.keySet())));
+        }
+
+        var binderName = controller.getSimpleName() + "Binder";
+        var qualifiedName = packageName.isEmpty() ? binderName : packageName + "." + binderName;
+        try (var writer = processingEnv.getFiler().createSourceFile(qualifiedName, controller).openWriter()) {
+            write(writer, packageName, binderName, controller, configType, path, controls, constructor);
+        } catch (IOException e) {
+            throw new BindException(controller, "Failed to write " + qualifiedName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Finds the fields leading from a controller to its configuration.
+     *
+     * @param controller  The controller.
+     * @param packageName The package the binder is generated in.
+     * @return The fields in order, the last one holds the configuration.
+     * @throws BindException Thrown if the path is invalid.
+     */
+    private List<VariableElement> resolvePath(TypeElement controller, String packageName) throws BindException {
+        var value = getValue(controller, BIND_CONFIG);
+        var fields = new ArrayList<VariableElement>();
+        TypeMirror type = controller.asType();
+        for (var name : value.split("\\.", -1)) {
+            if (TypeKind.DECLARED != type.getKind()) {
+                throw new BindException(controller, "Can't follow " + value + " through " + type);
+            }
+
+            var field = findField((TypeElement) processingEnv.getTypeUtils().asElement(type), name);
+            if (null == field) {
+                throw new BindException(controller, "No field " + name + " in " + type + " for " + value);
+            }
+
+            checkField(controller, field, packageName);
+            fields.add(field);
+            type = field.asType();
+        }
+
+        var config = fields.get(fields.size() - 1);
+        if (TypeKind.DECLARED != type.getKind()) {
+            throw new BindException(controller, "The configuration " + value + " isn't a class");
+        }
+
+        if (config.getModifiers().contains(Modifier.FINAL)) {
+            throw new BindException(controller, "The configuration " + value + " can't be final, it is replaced");
+        }
+
+        return fields;
+    }
+
+    /**
+     * Finds the bound controls of a controller and its parent classes.
+     *
+     * @param controller  The controller.
+     * @param configType  The configuration.
+     * @param packageName The package the binder is generated in.
+     * @return The controls by the name of the configuration field they are bound to.
+     * @throws BindException Thrown if a control is invalid.
+     */
+    private LinkedHashMap<String, VariableElement> findControls(TypeElement controller, TypeElement configType,
+                                                                String packageName) throws BindException {
+        var types = processingEnv.getTypeUtils();
+        var textControl = processingEnv.getElementUtils().getTypeElement(TEXT_CONTROL);
+        var string = processingEnv.getElementUtils().getTypeElement(String.class.getName()).asType();
+        var controls = new LinkedHashMap<String, VariableElement>();
+        for (var type = controller; null != type; type = getSuperclass(type)) {
+            for (var control : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                var property = getValue(control, BIND_PROPERTY);
+                if (null == property) {
+                    continue;
+                }
+
+                checkField(control, control, packageName);
+                if (null != textControl && !types.isAssignable(control.asType(), textControl.asType())) {
+                    throw new BindException(control, "Bound controls have to be a " + TEXT_CONTROL);
+                }
+
+                var field = findField(configType, property);
+                if (null == field) {
+                    throw new BindException(control, "No field " + property + " in " + configType);
+                }
+
+                checkField(control, field, packageName);
+                if (!types.isSameType(string, field.asType())) {
+                    throw new BindException(control, configType + "." + property + " isn't a String");
+                }
+
+                if (null != controls.putIfAbsent(property, control)) {
+                    throw new BindException(control, property + " is bound to more than one control");
+                }
+            }
+        }
+
+        if (controls.isEmpty()) {
+            throw new BindException(controller, "No controls are bound to the configuration");
+        }
+
+        return controls;
+    }
+
+    /**
+     * Finds the constructor of a configuration taking exactly the bound properties.
+     *
+     * @param configType  The configuration.
+     * @param properties  The names of the bound properties.
+     * @param packageName The package the binder is generated in.
+     * @return The constructor, null if there isn't one.
+     */
+    private ExecutableElement findConstructor(TypeElement configType, Set<String> properties, String packageName) {
+        var string = processingEnv.getElementUtils().getTypeElement(String.class.getName()).asType();
+        for (var constructor : ElementFilter.constructorsIn(configType.getEnclosedElements())) {
+            var parameters = constructor.getParameters();
+            if (!isVisible(constructor, packageName) || parameters.size() != properties.size()) {
+                continue;
+            }
+
+            var names = new HashSet<String>();
+            for (var parameter : parameters) {
+                if (processingEnv.getTypeUtils().isSameType(string, parameter.asType())) {
+                    names.add(parameter.getSimpleName().toString());
+                }
+            }
+
+            if (names.equals(properties)) {
+                return constructor;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Writes the source of a binder.
+     *
+     * @param writer      Where to write the source.
+     * @param packageName The package of the binder.
+     * @param binderName  The simple name of the binder.
+     * @param controller  The controller.
+     * @param configType  The configuration.
+     * @param path        The fields leading from the controller to the configuration.
+     * @param controls    The controls by the name of the configuration field they are bound to.
+     * @param constructor The constructor of the configuration taking the bound properties.
+     * @throws IOException Thrown if the write fails.
+     */
+    private void write(Writer writer, String packageName, String binderName, TypeElement controller,
+                       TypeElement configType, List<VariableElement> path,
+                       LinkedHashMap<String, VariableElement> controls, ExecutableElement constructor)
+            throws IOException {
+        var types = processingEnv.getTypeUtils();
+        var controllerName = types.erasure(controller.asType()).toString();
+        var configName = types.erasure(configType.asType()).toString();
+        var source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+
+        source.append("/**\n")
+                .append(" * Binds the controls of {@link ").append(controllerName).append("} to its configuration.\n")
+                .append(" * <p>\n")
+                .append(" * Generated by {@code ").append(getClass().getName()).append("}, don't edit it.\n")
+                .append(" */\n")
+                .append("final class ").append(binderName).append(" implements ").append(CONFIG_BINDER)
+                .append("<").append(controllerName).append(", ").append(configName).append("> {\n")
+                .append("    /**\n")
+                .append("     * The binder, it doesn't hold on to anything.\n")
+                .append("     */\n")
+                .append("    static final ").append(binderName).append(" INSTANCE = new ").append(binderName)
+                .append("();\n\n")
+                .append("    /**\n")
+                .append("     * Instantiates a new instance of the class.\n")
+                .append("     */\n")
+                .append("    private ").append(binderName).append("() {\n")
+                .append("    }\n\n");
+
+        source.append("    @Override\n")
+                .append("    public void updateControls(").append(controllerName).append(" controller) {\n")
+                .append("        var config = getConfig(controller);\n")
+                .append("        if (null == config) {\n")
+                .append("            return;\n")
+                .append("        }\n\n");
+        for (var control : controls.entrySet()) {
+            source.append("        controller.").append(control.getValue().getSimpleName()).append(".setText(config.")
+                    .append(control.getKey()).append(");\n");
+        }
+
+        source.append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public ").append(configName).append(" getConfig(").append(controllerName)
+                .append(" controller) {\n");
+        var parent = "controller";
+        for (int i = 0; i < path.size() - 1; i++) {
+            var next = "parent" + i;
+            source.append("        var ").append(next).append(" = ").append(parent).append(".")
+                    .append(path.get(i).getSimpleName()).append(";\n")
+                    .append("        if (null == ").append(next).append(") {\n")
+                    .append("            return null;\n")
+                    .append("        }\n\n");
+            parent = next;
+        }
+
+        var fullPath = path.stream().map(field -> field.getSimpleName().toString()).collect(Collectors.joining("."));
+        source.append("        return ").append(parent).append(".").append(path.get(path.size() - 1).getSimpleName())
+                .append(";\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public ").append(configName).append(" createConfig(").append(controllerName)
+                .append(" controller) {\n")
+                .append("        return new ").append(configName).append("(");
+        var parameters = constructor.getParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            source.append(0 == i ? "\n" : ",\n")
+                    .append("                controller.")
+                    .append(controls.get(parameters.get(i).getSimpleName().toString()).getSimpleName())
+                    .append(".getText()");
+        }
+
+        source.append(");\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public void setConfig(").append(controllerName).append(" controller, ").append(configName)
+                .append(" config) {\n")
+                .append("        controller.").append(fullPath).append(" = config;\n")
+                .append("    }\n")
+                .append("}\n");
+        writer.write(source.toString());
+    }
+
+    /**
+     * Makes sure the binder can use a field.
+     *
+     * @param owner       The element to report a problem on.
+     * @param field       The field.
+     * @param packageName The package the binder is generated in.
+     * @throws BindException Thrown if the binder can't use the field.
+     */
+    private void checkField(Element owner, VariableElement field, String packageName) throws BindException {
+        var name = field.getEnclosingElement().getSimpleName() + "." + field.getSimpleName();
+        if (field.getModifiers().contains(Modifier.STATIC)) {
+            throw new BindException(owner, name + " can't be static");
+        }
+
+        if (!isVisible(field, packageName)) {
+            throw new BindException(owner, name + " isn't visible to " + packageName + ", it can't be private");
+        }
+    }
+
+    /**
+     * Gets a flag indicating whether a member can be used from a package.
+     *
+     * @param member      The field or constructor.
+     * @param packageName The package.
+     * @return True if it can be used, false otherwise.
+     */
+    private boolean isVisible(Element member, String packageName) {
+        var owner = member.getEnclosingElement();
+        var samePackage = processingEnv.getElementUtils().getPackageOf(member).getQualifiedName()
+                .contentEquals(packageName);
+        if (member.getModifiers().contains(Modifier.PRIVATE)) {
+            return false;
+        }
+
+        if (!member.getModifiers().contains(Modifier.PUBLIC) || !owner.getModifiers().contains(Modifier.PUBLIC)) {
+            return samePackage;
+        }
+
+        return true;
+    }
+
+    /**
+     * Finds a field in a class or its parent classes.
+     *
+     * @param type The class.
+     * @param name The name of the field.
+     * @return The field, null if not found.
+     */
+    private VariableElement findField(TypeElement type, String name) {
+        for (var current = type; null != current; current = getSuperclass(current)) {
+            for (var field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                if (field.getSimpleName().contentEquals(name)) {
+                    return field;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the parent class of a class.
+     *
+     * @param type The class.
+     * @return The parent class, null if there isn't one.
+     */
+    private TypeElement getSuperclass(TypeElement type) {
+        var superclass = type.getSuperclass();
+        return TypeKind.DECLARED == superclass.getKind() ?
+                (TypeElement) processingEnv.getTypeUtils().asElement(superclass) : null;
+    }
+
+    /**
+     * Gets the value of one of our annotations on an element.
+     *
+     * @param element    The element.
+     * @param annotation The fully qualified name of the annotation.
+     * @return The value, null if the element isn't annotated.
+     */
+    private String getValue(Element element, String annotation) {
+        for (var mirror : element.getAnnotationMirrors()) {
+            var type = (TypeElement) mirror.getAnnotationType().asElement();
+            if (!type.getQualifiedName().contentEquals(annotation)) {
+                continue;
+            }
+
+            for (var entry : mirror.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("value")) {
+                    return entry.getValue().getValue().toString();
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Thrown when a controller can't be bound.
+     */
+    private static class BindException extends Exception {
+        /**
+         * The element to report the problem on.
+         */
+        private final transient Element element;
+
+        /**
+         * Instantiates a new instance of the class.
+         *
+         * @param element The element to report the problem on.
+         * @param message The problem.
+         */
+        BindException(Element element, String message) {
+            super(message);
+            this.element = element;
+        }
+    }
+}
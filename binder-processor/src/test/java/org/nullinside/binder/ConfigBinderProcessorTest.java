@@ -0,0 +1,248 @@
+package org.nullinside.binder;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link ConfigBinderProcessor} by compiling small controllers with it.
+ */
+class ConfigBinderProcessorTest {
+    /**
+     * Stands in for the annotations and the binder interface of the application.
+     */
+    private static final String[][] LIBRARY = {
+            {"org.nullinside.utilities.BindConfig", "package org.nullinside.utilities;\n" +
+                    "public @interface BindConfig { String value(); }"},
+            {"org.nullinside.utilities.BindProperty", "package org.nullinside.utilities;\n" +
+                    "public @interface BindProperty { String value(); }"},
+            {"org.nullinside.utilities.ConfigBinder", "package org.nullinside.utilities;\n" +
+                    "public interface ConfigBinder<T, C> {\n" +
+                    "    void updateControls(T controller);\n" +
+                    "    C getConfig(T controller);\n" +
+                    "    C createConfig(T controller);\n" +
+                    "    void setConfig(T controller, C config);\n" +
+                    "}"},
+            {"javafx.scene.control.TextInputControl", "package javafx.scene.control;\n" +
+                    "public class TextInputControl {\n" +
+                    "    private String text;\n" +
+                    "    public String getText() { return text; }\n" +
+                    "    public void setText(String text) { this.text = text; }\n" +
+                    "}"},
+            {"test.config.Config", "package test.config;\n" +
+                    "public class Config {\n" +
+                    "    public final String first;\n" +
+                    "    public final String second;\n" +
+                    "    public Config(String second, String first) {\n" +
+                    "        this.first = first;\n" +
+                    "        this.second = second;\n" +
+                    "    }\n" +
+                    "}"},
+            {"test.config.Holder", "package test.config;\n" +
+                    "public class Holder { public Config config; }"},
+    };
+    /**
+     * The directory the classes are compiled to, deleted after every test.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Tests that a generated binder passes the controls to the constructor by name rather than by order and follows
+     * nested paths.
+     */
+    @Test
+    void generatesBinder() throws Exception {
+        var errors = compile("test.Controller", "package test;\n" +
+                "import javafx.scene.control.TextInputControl;\n" +
+                "import org.nullinside.utilities.*;\n" +
+                "@BindConfig(\"holder.config\")\n" +
+                "public class Controller {\n" +
+                "    @BindProperty(\"first\") TextInputControl a = new TextInputControl();\n" +
+                "    @BindProperty(\"second\") TextInputControl b = new TextInputControl();\n" +
+                "    test.config.Holder holder = new test.config.Holder();\n" +
+                "}");
+        assertEquals(List.of(), errors, "Compilation failed");
+        assertTrue(Files.exists(directory.resolve("test/ControllerBinder.class")), "Binder not generated");
+
+        try (var loader = new URLClassLoader(new URL[]{directory.toUri().toURL()})) {
+            var controllerClass = loader.loadClass("test.Controller");
+            var controllerConstructor = controllerClass.getDeclaredConstructor();
+            controllerConstructor.setAccessible(true);
+            var controller = controllerConstructor.newInstance();
+            var binderClass = loader.loadClass("test.ControllerBinder");
+            var instance = binderClass.getDeclaredField("INSTANCE");
+            instance.setAccessible(true);
+            var binder = instance.get(null);
+            var binderInterface = loader.loadClass("org.nullinside.utilities.ConfigBinder");
+
+            assertNull(binderInterface.getMethod("getConfig", Object.class).invoke(binder, controller),
+                    "Configuration before it is set");
+
+            var textClass = loader.loadClass("javafx.scene.control.TextInputControl");
+            var setText = textClass.getMethod("setText", String.class);
+            setText.invoke(getField(controller, "a"), "one");
+            setText.invoke(getField(controller, "b"), "two");
+            var config = binderInterface.getMethod("createConfig", Object.class).invoke(binder, controller);
+            assertEquals("one", config.getClass().getField("first").get(config), "Wrong first argument");
+            assertEquals("two", config.getClass().getField("second").get(config), "Wrong second argument");
+
+            binderInterface.getMethod("setConfig", Object.class, Object.class).invoke(binder, controller, config);
+            assertSame(config, binderInterface.getMethod("getConfig", Object.class).invoke(binder, controller),
+                    "Configuration not set");
+
+            setText.invoke(getField(controller, "a"), "changed");
+            binderInterface.getMethod("updateControls", Object.class).invoke(binder, controller);
+            assertEquals("one", textClass.getMethod("getText").invoke(getField(controller, "a")),
+                    "Control not updated");
+        }
+    }
+
+    /**
+     * Tests that a configuration without a constructor taking the bound properties fails the build.
+     */
+    @Test
+    void reportsMissingConstructor() throws IOException {
+        var errors = compile("test.Controller", "package test;\n" +
+                "import javafx.scene.control.TextInputControl;\n" +
+                "import org.nullinside.utilities.*;\n" +
+                "@BindConfig(\"config\")\n" +
+                "public class Controller {\n" +
+                "    @BindProperty(\"first\") TextInputControl a;\n" +
+                "    test.config.Config config;\n" +
+                "}");
+        assertEquals(1, errors.size(), "Wrong errors: " + errors);
+        assertTrue(errors.get(0).contains("no constructor taking exactly (first)"), "Wrong error: " + errors);
+    }
+
+    /**
+     * Tests that missing fields, private controls and final configurations fail the build.
+     */
+    @Test
+    void reportsInvalidFields() throws IOException {
+        var errors = compile("test.Controller", "package test;\n" +
+                "import javafx.scene.control.TextInputControl;\n" +
+                "import org.nullinside.utilities.*;\n" +
+                "@BindConfig(\"config\")\n" +
+                "public class Controller {\n" +
+                "    @BindProperty(\"first\") private TextInputControl a;\n" +
+                "    test.config.Config config;\n" +
+                "}");
+        assertEquals(1, errors.size(), "Wrong errors: " + errors);
+        assertTrue(errors.get(0).contains("it can't be private"), "Wrong error: " + errors);
+
+        errors = compile("test.Controller", "package test;\n" +
+                "import javafx.scene.control.TextInputControl;\n" +
+                "import org.nullinside.utilities.*;\n" +
+                "@BindConfig(\"missing\")\n" +
+                "public class Controller {\n" +
+                "    @BindProperty(\"first\") TextInputControl a;\n" +
+                "}");
+        assertEquals(1, errors.size(), "Wrong errors: " + errors);
+        assertTrue(errors.get(0).contains("No field missing"), "Wrong error: " + errors);
+
+        errors = compile("test.Controller", "package test;\n" +
+                "import javafx.scene.control.TextInputControl;\n" +
+                "import org.nullinside.utilities.*;\n" +
+                "@BindConfig(\"config\")\n" +
+                "public class Controller {\n" +
+                "    @BindProperty(\"first\") TextInputControl a;\n" +
+                "    @BindProperty(\"second\") TextInputControl b;\n" +
+                "    final test.config.Config config = null;\n" +
+                "}");
+        assertEquals(1, errors.size(), "Wrong errors: " + errors);
+        assertTrue(errors.get(0).contains("can't be final"), "Wrong error: " + errors);
+    }
+
+    /**
+     * Compiles a controller along with the stand ins for the application.
+     *
+     * @param name   The fully qualified name of the controller.
+     * @param source The source of the controller.
+     * @return The errors.
+     * @throws IOException Thrown if the compiler can't be closed.
+     */
+    private List<String> compile(String name, String source) throws IOException {
+        var sources = new ArrayList<JavaFileObject>();
+        for (var library : LIBRARY) {
+            sources.add(new Source(library[0], library[1]));
+        }
+
+        sources.add(new Source(name, source));
+        var compiler = ToolProvider.getSystemJavaCompiler();
+        var diagnostics = new DiagnosticCollector<JavaFileObject>();
+        try (var files = compiler.getStandardFileManager(diagnostics, null, null)) {
+            var task = compiler.getTask(null, files, diagnostics, List.of("-d", directory.toString()), null,
+                    sources);
+            task.setProcessors(List.of(new ConfigBinderProcessor()));
+            task.call();
+        }
+
+        return diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> Diagnostic.Kind.ERROR == diagnostic.getKind())
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Reads a field of an object.
+     *
+     * @param instance The object.
+     * @param name     The name of the field.
+     * @return The value.
+     * @throws ReflectiveOperationException Thrown if the field can't be read.
+     */
+    private static Object getField(Object instance, String name) throws ReflectiveOperationException {
+        var field = instance.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(instance);
+    }
+
+    /**
+     * A source file held in memory.
+     */
+    private static class Source extends SimpleJavaFileObject {
+        /**
+         * The source.
+         */
+        private final String source;
+
+        /**
+         * Instantiates a new instance of the class.
+         *
+         * @param name   The fully qualified name of the class.
+         * @param source The source.
+         */
+        Source(String name, String source) {
+            super(URI.create("string:///" + name.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.source = source;
+        }
+
+        /**
+         * Gets the source.
+         *
+         * @param ignoreEncodingErrors Ignored.
+         * @return The source.
+         */
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+        }
+    }
+}
@@ -1,2 +1,3 @@
+call mvn install -B -f binder-processor/pom.xml
 call mvn install:install-file -B -Dfile=./lib/pircbotx-2.2.1.jar -DpomFile=./lib/pircbotx-2.2.1.pom
 call mvn clean javafx:run
\ No newline at end of file
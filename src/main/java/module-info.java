@@ -4,6 +4,12 @@ module org.nullinside {
     requires com.fasterxml.jackson.databind;
     requires pircbotx;
     requires javafx.media;
+    requires java.management;
+    requires java.desktop;
+
+    uses org.nullinside.notification_app.alerts.IAlertFactory;
+    provides org.nullinside.notification_app.alerts.IAlertFactory
+            with org.nullinside.notification_app.alerts.TwitchChatAlertFactory;
 
     opens org.nullinside.notification_app.controllers to javafx.fxml;
     opens org.nullinside.notification_app.alerts to javafx.fxml;
@@ -15,4 +21,7 @@ module org.nullinside {
     exports org.nullinside.notification_app.controllers;
     exports org.nullinside.notification_app.config;
     exports org.nullinside.utilities;
+    exports org.nullinside.twitch;
+    exports org.nullinside.sound;
+    exports org.nullinside.tts;
 }
\ No newline at end of file
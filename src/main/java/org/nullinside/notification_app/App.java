@@ -101,10 +101,11 @@ public class App extends Application {
      */
     @Override
     public void stop() {
+        // Save anything still waiting to be saved while the alerts are still around to be read.
+        var config = GlobalConfig.getInstance();
+        config.shutdown();
+
         var manager = AlertsManager.getInstance();
         manager.dispose();
-
-        var config = GlobalConfig.getInstance();
-        config.writeConfiguration();
     }
 }
\ No newline at end of file
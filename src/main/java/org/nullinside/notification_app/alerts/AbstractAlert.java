@@ -75,7 +75,7 @@ public abstract class AbstractAlert implements IAlert {
         config.setIsEnabled(isEnabled);
 
         // When we update the enabled state we need to update the written configuration file.
-        GlobalConfig.getInstance().updateSavedConfigurations();
+        GlobalConfig.getInstance().updateSavedConfiguration(this);
 
         // Update the subscribers with changes to the enabled state.
         invokeEnabledChanged(isEnabled);
@@ -118,6 +118,10 @@ public abstract class AbstractAlert implements IAlert {
         // If someone subscribes to us, they want to know about updates to the underlying config.
         if (subToConfig) {
             var config = getConfigObject();
+            if (null == config) {
+                return;
+            }
+
             config.addEnabledSubscribers((enabled, configObj) -> {
                 invokeEnabledChanged(enabled);
             });
@@ -154,7 +158,106 @@ public abstract class AbstractAlert implements IAlert {
         config.setUpdateInterval(updateInterval);
 
         // When we update the interval we need to update the written configuration file.
-        GlobalConfig.getInstance().updateSavedConfigurations();
+        GlobalConfig.getInstance().updateSavedConfiguration(this);
+    }
+
+    /**
+     * Gets how the next check is scheduled relative to the previous one.
+     *
+     * @return The schedule mode.
+     */
+    @Override
+    public ScheduleMode getScheduleMode() {
+        var config = getConfigObject();
+        if (null == config) {
+            return ScheduleMode.FIXED_RATE;
+        }
+
+        return config.getScheduleMode();
+    }
+
+    /**
+     * Sets how the next check is scheduled relative to the previous one.
+     *
+     * @param scheduleMode The schedule mode.
+     */
+    @Override
+    public void setScheduleMode(ScheduleMode scheduleMode) {
+        var config = getConfigObject();
+        if (null == config) {
+            return;
+        }
+
+        config.setScheduleMode(scheduleMode);
+
+        // When we update the schedule we need to update the written configuration file.
+        GlobalConfig.getInstance().updateSavedConfiguration(this);
+    }
+
+    /**
+     * Gets what to do when a {@link ScheduleMode#FIXED_RATE} alert misses one or more checks.
+     *
+     * @return The catch up policy.
+     */
+    @Override
+    public CatchUpPolicy getCatchUpPolicy() {
+        var config = getConfigObject();
+        if (null == config) {
+            return CatchUpPolicy.COALESCE;
+        }
+
+        return config.getCatchUpPolicy();
+    }
+
+    /**
+     * Sets what to do when a {@link ScheduleMode#FIXED_RATE} alert misses one or more checks.
+     *
+     * @param catchUpPolicy The catch up policy.
+     */
+    @Override
+    public void setCatchUpPolicy(CatchUpPolicy catchUpPolicy) {
+        var config = getConfigObject();
+        if (null == config) {
+            return;
+        }
+
+        config.setCatchUpPolicy(catchUpPolicy);
+
+        // When we update the schedule we need to update the written configuration file.
+        GlobalConfig.getInstance().updateSavedConfiguration(this);
+    }
+
+    /**
+     * Gets the longest a check may take before the alert manager interrupts it.
+     *
+     * @return The check timeout in milliseconds, 0 to use the alert manager's default.
+     */
+    @Override
+    public long getCheckTimeout() {
+        var config = getConfigObject();
+        if (null == config) {
+            return 0;
+        }
+
+        return config.getCheckTimeout();
+    }
+
+    /**
+     * Sets the longest a check may take before the alert manager interrupts it.
+     *
+     * @param checkTimeout The check timeout in milliseconds, 0 to use the alert manager's default.
+     */
+    @Override
+    public void setCheckTimeout(long checkTimeout) {
+        var config = getConfigObject();
+        if (null == config) {
+            return;
+        }
+
+        config.setCheckTimeout(checkTimeout);
+
+        // When we update the timeout we need to update the written configuration file.
+        GlobalConfig.getInstance().updateSavedConfiguration(this);
     }
 
     /**
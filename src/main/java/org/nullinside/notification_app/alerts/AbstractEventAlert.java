@@ -0,0 +1,14 @@
+package org.nullinside.notification_app.alerts;
+
+/**
+ * An abstract alert containing common operations by an alert that sends messages when something happens rather
+ * than being checked every update interval.
+ */
+public abstract class AbstractEventAlert extends AbstractAlert implements IEventAlert {
+    /**
+     * Event alerts are never checked, they send messages through the sink given to {@link #start(AlertMessageEvent)}.
+     */
+    @Override
+    public void check() {
+    }
+}
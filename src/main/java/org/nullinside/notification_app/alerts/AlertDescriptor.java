@@ -0,0 +1,90 @@
+package org.nullinside.notification_app.alerts;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The part of an alert's configuration the {@link AlertsManager} needs to schedule it. Saved alongside the alert's
+ * configuration so the alert can be scheduled before it is created, see {@link LazyAlert}.
+ */
+public class AlertDescriptor {
+    /**
+     * True if enabled, false otherwise.
+     */
+    public boolean isEnabled;
+    /**
+     * The update interval in milliseconds.
+     */
+    public long updateInterval;
+    /**
+     * How the next check is scheduled relative to the previous one.
+     */
+    public ScheduleMode scheduleMode = ScheduleMode.FIXED_RATE;
+    /**
+     * What to do when a {@link ScheduleMode#FIXED_RATE} alert misses one or more checks.
+     */
+    public CatchUpPolicy catchUpPolicy = CatchUpPolicy.COALESCE;
+    /**
+     * The longest a check may take in milliseconds, 0 to use the alert manager's default.
+     */
+    public long checkTimeout;
+
+    /**
+     * Instantiates a instance of the class.
+     */
+    public AlertDescriptor() {
+
+    }
+
+    /**
+     * Instantiates a instance of the class describing an alert as it is right now.
+     *
+     * @param alert The alert.
+     */
+    public AlertDescriptor(IAlert alert) {
+        isEnabled = alert.getIsEnabled();
+        updateInterval = alert.getUpdateInterval();
+        scheduleMode = alert.getScheduleMode();
+        catchUpPolicy = alert.getCatchUpPolicy();
+        checkTimeout = alert.getCheckTimeout();
+    }
+
+    /**
+     * Reads a descriptor written by {@link #toBytes()}.
+     *
+     * @param input The buffer to read from, positioned at the start of the descriptor.
+     * @return The descriptor.
+     * @throws java.nio.BufferUnderflowException Thrown if the buffer ends before the descriptor does.
+     * @throws IllegalArgumentException          Thrown if the descriptor is invalid.
+     */
+    public static AlertDescriptor fromBytes(ByteBuffer input) {
+        var descriptor = new AlertDescriptor();
+        descriptor.isEnabled = 0 != input.get();
+        descriptor.updateInterval = input.getLong();
+        var scheduleMode = input.get();
+        var catchUpPolicy = input.get();
+        descriptor.checkTimeout = input.getLong();
+        if (scheduleMode < 0 || scheduleMode >= ScheduleMode.values().length ||
+                catchUpPolicy < 0 || catchUpPolicy >= CatchUpPolicy.values().length) {
+            throw new IllegalArgumentException("Invalid alert descriptor");
+        }
+
+        descriptor.scheduleMode = ScheduleMode.values()[scheduleMode];
+        descriptor.catchUpPolicy = CatchUpPolicy.values()[catchUpPolicy];
+        return descriptor;
+    }
+
+    /**
+     * Converts the descriptor to a fixed size binary format.
+     *
+     * @return The descriptor in binary format.
+     */
+    public byte[] toBytes() {
+        var output = ByteBuffer.allocate(19);
+        output.put((byte) (isEnabled ? 1 : 0));
+        output.putLong(updateInterval);
+        output.put((byte) scheduleMode.ordinal());
+        output.put((byte) catchUpPolicy.ordinal());
+        output.putLong(checkTimeout);
+        return output.array();
+    }
+}
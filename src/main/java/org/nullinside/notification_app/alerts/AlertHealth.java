@@ -0,0 +1,21 @@
+package org.nullinside.notification_app.alerts;
+
+/**
+ * How well the checks of an alert have been going according to its {@link AlertsManager}.
+ */
+public enum AlertHealth {
+    /**
+     * The last check succeeded, or the alert hasn't been checked yet. The alert is checked on its normal schedule.
+     */
+    HEALTHY,
+    /**
+     * The last checks failed or timed out. The alert is checked less often, doubling the wait after every
+     * consecutive failure, until a check succeeds.
+     */
+    BACKING_OFF,
+    /**
+     * The alert failed too many times in a row and is no longer checked. Disabling and enabling the alert gives it
+     * a fresh start.
+     */
+    QUARANTINED
+}
@@ -1,5 +1,7 @@
 package org.nullinside.notification_app.alerts;
 
+import java.util.List;
+
 /**
  * An event for subscribing to updates on the list of alerts.
  */
@@ -11,4 +13,20 @@ public interface AlertListUpdatedEvent {
      * @param alert The alert.
      */
     void onAlertListUpdated(boolean added, IAlert alert);
+
+    /**
+     * Invoked once for alerts that were added or removed together, such as through
+     * {@link AlertsManager#addAlerts(java.util.Collection)}. A single addition or removal is a batch of one.
+     * <p>
+     * By default this calls {@link #onAlertListUpdated(boolean, IAlert)} for each alert. Override it to handle the
+     * whole batch at once.
+     *
+     * @param added  True if the alerts were added, false if removed.
+     * @param alerts The alerts in the order they were added or removed. Read only.
+     */
+    default void onAlertListBatchUpdated(boolean added, List<IAlert> alerts) {
+        for (var alert : alerts) {
+            onAlertListUpdated(added, alert);
+        }
+    }
 }
@@ -0,0 +1,37 @@
+package org.nullinside.notification_app.alerts;
+
+/**
+ * Something an {@link IEventAlert} wants to tell the user about.
+ */
+public class AlertMessage {
+    /**
+     * The alert the message came from.
+     */
+    public final IAlert source;
+    /**
+     * Who or what the message is about, for example the user that typed in chat.
+     */
+    public final String title;
+    /**
+     * The message.
+     */
+    public final String text;
+    /**
+     * The time the message was created in milliseconds since the epoch.
+     */
+    public final long timestamp;
+
+    /**
+     * Instantiates a new instance of the class.
+     *
+     * @param source The alert the message came from.
+     * @param title  Who or what the message is about, for example the user that typed in chat.
+     * @param text   The message.
+     */
+    public AlertMessage(IAlert source, String title, String text) {
+        this.source = source;
+        this.title = title;
+        this.text = text;
+        this.timestamp = System.currentTimeMillis();
+    }
+}
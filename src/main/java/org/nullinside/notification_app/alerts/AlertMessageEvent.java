@@ -0,0 +1,13 @@
+package org.nullinside.notification_app.alerts;
+
+/**
+ * An event for subscribing to the messages sent by {@link IEventAlert} alerts.
+ */
+public interface AlertMessageEvent {
+    /**
+     * Invoked when an alert sends a message.
+     *
+     * @param message The message.
+     */
+    void onAlertMessage(AlertMessage message);
+}
@@ -0,0 +1,215 @@
+package org.nullinside.notification_app.alerts;
+
+import org.nullinside.utilities.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The check statistics of an alert, or of every alert in an {@link AlertsManager}.
+ * <p>
+ * Recording is done on the alert manager and worker threads for every check so it never allocates.
+ */
+public class AlertMetrics implements AlertMetricsMXBean {
+    /**
+     * The time between when checks were due and when they started.
+     */
+    private final LatencyHistogram scheduleLag = new LatencyHistogram();
+    /**
+     * The time checks took.
+     */
+    private final LatencyHistogram checkDuration = new LatencyHistogram();
+    /**
+     * The number of failed checks.
+     */
+    private final LongAdder failures = new LongAdder();
+    /**
+     * The number of skipped checks.
+     */
+    private final LongAdder skips = new LongAdder();
+    /**
+     * The number of checks that ran past their deadline.
+     */
+    private final LongAdder timeouts = new LongAdder();
+    /**
+     * The number of messages sent by event alerts.
+     */
+    private final LongAdder messages = new LongAdder();
+
+    /**
+     * Records a check that ran.
+     *
+     * @param lagNanos      The time between when the check was due and when it started in nanoseconds.
+     * @param durationNanos The time the check took in nanoseconds.
+     */
+    void recordCheck(long lagNanos, long durationNanos) {
+        scheduleLag.record(lagNanos);
+        checkDuration.record(durationNanos);
+    }
+
+    /**
+     * Records a check that failed.
+     */
+    void recordFailure() {
+        failures.increment();
+    }
+
+    /**
+     * Records a check that was due but skipped.
+     */
+    void recordSkip() {
+        skips.increment();
+    }
+
+    /**
+     * Records a check that ran past its deadline.
+     */
+    void recordTimeout() {
+        timeouts.increment();
+    }
+
+    /**
+     * Records a message sent by an event alert.
+     */
+    void recordMessage() {
+        messages.increment();
+    }
+
+    /**
+     * Gets the histogram of the time between when checks were due and when they started.
+     *
+     * @return The schedule lag histogram.
+     */
+    public LatencyHistogram getScheduleLag() {
+        return scheduleLag;
+    }
+
+    /**
+     * Gets the histogram of the time checks took.
+     *
+     * @return The check duration histogram.
+     */
+    public LatencyHistogram getCheckDuration() {
+        return checkDuration;
+    }
+
+    /**
+     * Gets the number of checks that ran.
+     *
+     * @return The number of checks.
+     */
+    @Override
+    public long getCheckCount() {
+        return checkDuration.getCount();
+    }
+
+    /**
+     * Gets the number of checks that failed.
+     *
+     * @return The number of failed checks.
+     */
+    @Override
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * Gets the number of checks that were due but skipped.
+     *
+     * @return The number of skipped checks.
+     */
+    @Override
+    public long getSkipCount() {
+        return skips.sum();
+    }
+
+    /**
+     * Gets the number of checks that ran past their deadline.
+     *
+     * @return The number of timed out checks.
+     */
+    @Override
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    /**
+     * Gets the number of messages sent by event alerts.
+     *
+     * @return The number of messages.
+     */
+    @Override
+    public long getMessageCount() {
+        return messages.sum();
+    }
+
+    /**
+     * Gets the average time between when checks were due and when they started.
+     *
+     * @return The average schedule lag in milliseconds.
+     */
+    @Override
+    public double getScheduleLagMeanMillis() {
+        return toMillis(scheduleLag.getMean());
+    }
+
+    /**
+     * Gets the schedule lag that 99% of checks started within.
+     *
+     * @return The 99th percentile schedule lag in milliseconds.
+     */
+    @Override
+    public double getScheduleLagP99Millis() {
+        return toMillis(scheduleLag.getPercentile(99));
+    }
+
+    /**
+     * Gets the longest time between when a check was due and when it started.
+     *
+     * @return The longest schedule lag in milliseconds.
+     */
+    @Override
+    public double getScheduleLagMaxMillis() {
+        return toMillis(scheduleLag.getMax());
+    }
+
+    /**
+     * Gets the average time checks took.
+     *
+     * @return The average check duration in milliseconds.
+     */
+    @Override
+    public double getCheckDurationMeanMillis() {
+        return toMillis(checkDuration.getMean());
+    }
+
+    /**
+     * Gets the duration that 99% of checks finished within.
+     *
+     * @return The 99th percentile check duration in milliseconds.
+     */
+    @Override
+    public double getCheckDurationP99Millis() {
+        return toMillis(checkDuration.getPercentile(99));
+    }
+
+    /**
+     * Gets the longest time a check took.
+     *
+     * @return The longest check duration in milliseconds.
+     */
+    @Override
+    public double getCheckDurationMaxMillis() {
+        return toMillis(checkDuration.getMax());
+    }
+
+    /**
+     * Converts nanoseconds to fractional milliseconds.
+     *
+     * @param nanos The time in nanoseconds.
+     * @return The time in milliseconds.
+     */
+    static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,85 @@
+package org.nullinside.notification_app.alerts;
+
+/**
+ * The JMX view of the check statistics of an alert, or of every alert in an {@link AlertsManager}.
+ */
+public interface AlertMetricsMXBean {
+    /**
+     * Gets the number of checks that ran.
+     *
+     * @return The number of checks.
+     */
+    long getCheckCount();
+
+    /**
+     * Gets the number of checks that failed.
+     *
+     * @return The number of failed checks.
+     */
+    long getFailureCount();
+
+    /**
+     * Gets the number of checks that were due but skipped, either because the previous check was still running
+     * or because the {@link CatchUpPolicy} dropped them.
+     *
+     * @return The number of skipped checks.
+     */
+    long getSkipCount();
+
+    /**
+     * Gets the number of checks that ran past their deadline and were interrupted by the watchdog. Timed out
+     * checks are also counted as failures.
+     *
+     * @return The number of timed out checks.
+     */
+    long getTimeoutCount();
+
+    /**
+     * Gets the number of messages sent by {@link IEventAlert event alerts}.
+     *
+     * @return The number of messages.
+     */
+    long getMessageCount();
+
+    /**
+     * Gets the average time between when checks were due and when they started.
+     *
+     * @return The average schedule lag in milliseconds.
+     */
+    double getScheduleLagMeanMillis();
+
+    /**
+     * Gets the schedule lag that 99% of checks started within.
+     *
+     * @return The 99th percentile schedule lag in milliseconds.
+     */
+    double getScheduleLagP99Millis();
+
+    /**
+     * Gets the longest time between when a check was due and when it started.
+     *
+     * @return The longest schedule lag in milliseconds.
+     */
+    double getScheduleLagMaxMillis();
+
+    /**
+     * Gets the average time checks took.
+     *
+     * @return The average check duration in milliseconds.
+     */
+    double getCheckDurationMeanMillis();
+
+    /**
+     * Gets the duration that 99% of checks finished within.
+     *
+     * @return The 99th percentile check duration in milliseconds.
+     */
+    double getCheckDurationP99Millis();
+
+    /**
+     * Gets the longest time a check took.
+     *
+     * @return The longest check duration in milliseconds.
+     */
+    double getCheckDurationMaxMillis();
+}
@@ -0,0 +1,261 @@
+package org.nullinside.notification_app.alerts;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A priority queue of {@link AlertUpdateTracker} objects ordered by {@link AlertUpdateTracker#nextUpdateTime}.
+ * <p>
+ * This is a binary min-heap where every tracker remembers its own position in the heap. That lets us remove or
+ * reschedule a tracker in O(log n) without having to search for it first. Trackers due at the same time come out
+ * in the order they were added.
+ * <p>
+ * This class is not thread safe, the caller is responsible for synchronizing access to it.
+ */
+public class AlertScheduleQueue {
+    /**
+     * The initial size of the heap.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+    /**
+     * The heap of trackers. The soonest tracker is always at index 0.
+     */
+    private AlertUpdateTracker[] heap = new AlertUpdateTracker[INITIAL_CAPACITY];
+    /**
+     * The number of trackers in the {@link #heap}.
+     */
+    private int size = 0;
+    /**
+     * The sequence number to give the next tracker added to the queue.
+     */
+    private long nextSequence = 0;
+
+    /**
+     * Gets the number of trackers in the queue.
+     *
+     * @return The number of trackers.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets a flag indicating whether the queue is empty.
+     *
+     * @return True if empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return 0 == size;
+    }
+
+    /**
+     * Gets a flag indicating whether the tracker is in the queue.
+     *
+     * @param tracker The tracker.
+     * @return True if queued, false otherwise.
+     */
+    public boolean contains(AlertUpdateTracker tracker) {
+        var index = tracker.heapIndex;
+        return index >= 0 && index < size && heap[index] == tracker;
+    }
+
+    /**
+     * Adds a tracker to the queue according to its {@link AlertUpdateTracker#nextUpdateTime}.
+     *
+     * @param tracker The tracker.
+     * @return True if added, false if it was already queued.
+     */
+    public boolean add(AlertUpdateTracker tracker) {
+        if (contains(tracker)) {
+            return false;
+        }
+
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+
+        tracker.sequence = nextSequence++;
+        heap[size] = tracker;
+        tracker.heapIndex = size;
+        size++;
+        siftUp(size - 1);
+        return true;
+    }
+
+    /**
+     * Gets the tracker that should be updated soonest without removing it.
+     *
+     * @return The soonest tracker, null if the queue is empty.
+     */
+    public AlertUpdateTracker peek() {
+        return 0 == size ? null : heap[0];
+    }
+
+    /**
+     * Removes and returns the tracker that should be updated soonest.
+     *
+     * @return The soonest tracker, null if the queue is empty.
+     */
+    public AlertUpdateTracker poll() {
+        if (0 == size) {
+            return null;
+        }
+
+        var tracker = heap[0];
+        removeAt(0);
+        return tracker;
+    }
+
+    /**
+     * Removes a tracker from the queue.
+     *
+     * @param tracker The tracker.
+     * @return True if removed, false if it was not queued.
+     */
+    public boolean remove(AlertUpdateTracker tracker) {
+        if (!contains(tracker)) {
+            return false;
+        }
+
+        removeAt(tracker.heapIndex);
+        return true;
+    }
+
+    /**
+     * Moves a tracker to its correct position after its {@link AlertUpdateTracker#nextUpdateTime} was changed.
+     * If the tracker isn't queued it is added.
+     *
+     * @param tracker The tracker.
+     */
+    public void reschedule(AlertUpdateTracker tracker) {
+        if (!contains(tracker)) {
+            add(tracker);
+            return;
+        }
+
+        // The tracker is treated as if it was just added so that it goes behind anything else due at the same time.
+        tracker.sequence = nextSequence++;
+        var index = tracker.heapIndex;
+        siftUp(index);
+        if (heap[index] == tracker) {
+            siftDown(index);
+        }
+    }
+
+    /**
+     * Removes every tracker from the queue.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            heap[i].heapIndex = -1;
+            heap[i] = null;
+        }
+
+        size = 0;
+    }
+
+    /**
+     * Gets the trackers currently in the queue in no particular order.
+     *
+     * @return The trackers.
+     */
+    public List<AlertUpdateTracker> toList() {
+        return new ArrayList<>(Arrays.asList(heap).subList(0, size));
+    }
+
+    /**
+     * Removes the tracker at a position in the heap and restores the heap ordering.
+     *
+     * @param index The position in the heap.
+     */
+    private void removeAt(int index) {
+        var removed = heap[index];
+        removed.heapIndex = -1;
+
+        // Move the last tracker into the hole and let it find its place.
+        size--;
+        var last = heap[size];
+        heap[size] = null;
+        if (index == size) {
+            return;
+        }
+
+        heap[index] = last;
+        last.heapIndex = index;
+        siftUp(index);
+        if (heap[index] == last) {
+            siftDown(index);
+        }
+    }
+
+    /**
+     * Moves the tracker at a position towards the top of the heap until its parent is due before it.
+     *
+     * @param index The position in the heap.
+     */
+    private void siftUp(int index) {
+        var tracker = heap[index];
+        while (index > 0) {
+            var parentIndex = (index - 1) >>> 1;
+            var parent = heap[parentIndex];
+            if (!isBefore(tracker, parent)) {
+                break;
+            }
+
+            heap[index] = parent;
+            parent.heapIndex = index;
+            index = parentIndex;
+        }
+
+        heap[index] = tracker;
+        tracker.heapIndex = index;
+    }
+
+    /**
+     * Moves the tracker at a position towards the bottom of the heap until its children are due after it.
+     *
+     * @param index The position in the heap.
+     */
+    private void siftDown(int index) {
+        var tracker = heap[index];
+        var half = size >>> 1;
+        while (index < half) {
+            var childIndex = (index << 1) + 1;
+            var child = heap[childIndex];
+            var rightIndex = childIndex + 1;
+            if (rightIndex < size && isBefore(heap[rightIndex], child)) {
+                childIndex = rightIndex;
+                child = heap[childIndex];
+            }
+
+            if (!isBefore(child, tracker)) {
+                break;
+            }
+
+            heap[index] = child;
+            child.heapIndex = index;
+            index = childIndex;
+        }
+
+        heap[index] = tracker;
+        tracker.heapIndex = index;
+    }
+
+    /**
+     * Determines whether one tracker should be updated before another.
+     *
+     * @param first  The first tracker.
+     * @param second The second tracker.
+     * @return True if the first tracker is due before the second, false otherwise.
+     */
+    private static boolean isBefore(AlertUpdateTracker first, AlertUpdateTracker second) {
+        // Compare the difference rather than the values so that it keeps working if System.nanoTime() wraps.
+        var difference = first.nextUpdateTime - second.nextUpdateTime;
+        if (0 != difference) {
+            return difference < 0;
+        }
+
+        return first.sequence < second.sequence;
+    }
+}
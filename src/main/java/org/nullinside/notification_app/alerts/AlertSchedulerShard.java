@@ -0,0 +1,738 @@
+package org.nullinside.notification_app.alerts;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One scheduler of an {@link AlertsManager}, responsible for a share of its polled alerts.
+ * <p>
+ * Every shard has its own schedule queue, lock and thread so that shards never wait on each other. Alerts are
+ * spread over the shards by their unique identifier. Everything else, such as the index of alerts, the worker
+ * pool, the watchdog and the settings, belongs to the manager and is shared by all of its shards.
+ */
+class AlertSchedulerShard {
+    /**
+     * The shortest update interval an alert can have in nanoseconds. Stops a zero or negative update interval from
+     * spinning the {@link #alertRunnerThread}.
+     */
+    private static final long MIN_UPDATE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    /**
+     * The time to wait while there is nothing to do in nanoseconds.
+     */
+    private static final long IDLE_WAIT_NANOS = TimeUnit.SECONDS.toNanos(1);
+    /**
+     * The manager the shard belongs to.
+     */
+    private final AlertsManager manager;
+    /**
+     * The check statistics of every alert in the manager.
+     */
+    private final AlertsManagerMetrics metrics;
+    /**
+     * The name of the {@link #alertRunnerThread}.
+     */
+    private final String name;
+    /**
+     * The collection of the shard's alerts ordered by the next time they should be updated.
+     */
+    private final AlertScheduleQueue alerts = new AlertScheduleQueue();
+    /**
+     * The collection of alerts that were requested for removal outside of the {@link #alertRunnerThread}.
+     */
+    private final ArrayList<AlertUpdateTracker> alertsToRemove = new ArrayList<>();
+    /**
+     * The thread that handles updating the alerts. Replaced if a check hangs on it.
+     */
+    private volatile Thread alertRunnerThread;
+    /**
+     * The wait handle for pausing the {@link #alertRunnerThread} between alert updates.
+     */
+    private final Semaphore waitHandle = new Semaphore(0);
+    /**
+     * True if someone asked the {@link #alertRunnerThread} to look at the queue again and it hasn't started doing
+     * so yet, false otherwise. Folds a burst of requests into a single release of the {@link #waitHandle}.
+     */
+    private final AtomicBoolean wakeUpRequested = new AtomicBoolean(false);
+    /**
+     * The number of alerts in the queue as of the last scheduling pass.
+     */
+    private volatile int queueDepth = 0;
+    /**
+     * The {@link System#nanoTime()} the next alert is due as of the last scheduling pass.
+     */
+    private volatile long nextDueTime = 0;
+    /**
+     * True if there was an alert in the queue as of the last scheduling pass, false otherwise.
+     */
+    private volatile boolean hasNextDue = false;
+    /**
+     * The poison pill for killing the {@link #alertRunnerThread}.
+     */
+    private volatile boolean poisonPill;
+
+    /**
+     * Instantiates a new instance of the class. Call {@link #startAlertRunnerThread()} to start scheduling.
+     *
+     * @param manager The manager the shard belongs to.
+     * @param name    The name of the thread that schedules the alerts.
+     */
+    AlertSchedulerShard(AlertsManager manager, String name) {
+        this.manager = manager;
+        this.metrics = manager.getMetrics();
+        this.name = name;
+    }
+
+    /**
+     * Starts a new {@link #alertRunnerThread}. The previous one, if any, stops once it notices it was replaced.
+     */
+    void startAlertRunnerThread() {
+        var thread = new Thread(this::performAlertChecking);
+        thread.setName(name);
+        thread.setDaemon(true);
+        alertRunnerThread = thread;
+        thread.start();
+    }
+
+    /**
+     * Puts alerts that were just added at the head of the {@link #alerts} queue so that they get called for the
+     * first time, and puts each back at the head whenever it is enabled. The queue is locked and the
+     * {@link #alertRunnerThread} woken up once for all of them.
+     *
+     * @param trackers The alerts.
+     */
+    void addAll(List<AlertUpdateTracker> trackers) {
+        synchronized (alerts) {
+            for (var tracker : trackers) {
+                alerts.add(tracker);
+            }
+        }
+
+        for (var tracker : trackers) {
+            listenForEnable(tracker);
+        }
+
+        // Tell the alert update thread to stop waiting and poll.
+        requestWakeUp();
+    }
+
+    /**
+     * Puts an alert back at the head of the {@link #alerts} queue whenever it is enabled.
+     *
+     * @param tracker The alert.
+     */
+    private void listenForEnable(AlertUpdateTracker tracker) {
+        tracker.alert.addEnabledChangedListener((enabled, updatedAlert) -> {
+            if (!enabled) {
+                return;
+            }
+
+            synchronized (alerts) {
+                // If it's still in our collection we need to put it at the head of the queue.
+                if (!manager.isRegistered(tracker)) {
+                    return;
+                }
+
+                // Enabling the alert again is how the user tells us they fixed whatever made it fail, so give it
+                // a fresh start. Otherwise, a fixed delay alert being checked goes back in the queue on its own.
+                if (AlertHealth.QUARANTINED != tracker.health && !alerts.contains(tracker)) {
+                    return;
+                }
+
+                tracker.consecutiveFailures = 0;
+                tracker.health = AlertHealth.HEALTHY;
+                tracker.nextUpdateTime = System.nanoTime();
+                alerts.reschedule(tracker);
+            }
+
+            // Tell the alert update thread to stop waiting and poll.
+            requestWakeUp();
+        });
+    }
+
+    /**
+     * Removes alerts from the shard. They are disposed of by the {@link #alertRunnerThread}.
+     *
+     * @param trackers The alerts, already taken out of the manager's index.
+     */
+    void removeAll(List<AlertUpdateTracker> trackers) {
+        // Tell the other thread we want to remove something.
+        synchronized (alertsToRemove) {
+            alertsToRemove.addAll(trackers);
+        }
+
+        // Signal to the thread in case it's on a long wait.
+        requestWakeUp();
+    }
+
+    /**
+     * Asks the {@link #alertRunnerThread} to stop without waiting for it.
+     */
+    void stop() {
+        // Poison the thread.
+        poisonPill = true;
+        waitHandle.release();
+    }
+
+    /**
+     * Waits for the {@link #alertRunnerThread} to stop after {@link #stop()}, killing it if it doesn't.
+     *
+     * @param timeoutMillis The longest to wait in milliseconds.
+     */
+    void join(long timeoutMillis) {
+        var thread = alertRunnerThread;
+        try {
+            thread.join(Math.max(timeoutMillis, 1));
+
+            // If it doesn't exit, kill it.
+            if (thread.isAlive()) {
+                thread.interrupt();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Empties the queue once the {@link #alertRunnerThread} stopped, disposing of the alerts whose removal it
+     * didn't get around to. The alerts still in the manager's index are disposed of by the manager.
+     */
+    void clear() {
+        synchronized (alerts) {
+            synchronized (alertsToRemove) {
+                for (var alert : alertsToRemove) {
+                    alert.alert.dispose();
+                }
+
+                alertsToRemove.clear();
+            }
+
+            alerts.clear();
+        }
+    }
+
+    /**
+     * Gets the number of alerts in the queue as of the last scheduling pass.
+     *
+     * @return The queue depth.
+     */
+    int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * Gets a flag indicating whether there was an alert in the queue as of the last scheduling pass.
+     *
+     * @return True if there was an alert in the queue, false otherwise.
+     */
+    boolean hasNextDue() {
+        return hasNextDue;
+    }
+
+    /**
+     * Gets the time the next alert is due as of the last scheduling pass.
+     *
+     * @return The {@link System#nanoTime()} the next alert is due, only meaningful if {@link #hasNextDue()}.
+     */
+    long getNextDueTime() {
+        return nextDueTime;
+    }
+
+    /**
+     * Records the state of the queue at the end of a scheduling pass.
+     *
+     * @param depth       The number of alerts in the queue.
+     * @param hasNext     True if there is an alert in the queue, false otherwise.
+     * @param nextDueTime The {@link System#nanoTime()} the next alert is due.
+     */
+    private void recordQueue(int depth, boolean hasNext, long nextDueTime) {
+        this.queueDepth = depth;
+        this.nextDueTime = nextDueTime;
+        this.hasNextDue = hasNext;
+    }
+
+    /**
+     * The main loop of the {@link #alertRunnerThread} responsible for running the alerts of the shard.
+     */
+    private void performAlertChecking() {
+        // The lists are reused for every pass so a busy scheduler doesn't keep allocating. They belong to this
+        // thread, a replacement alert manager thread gets its own.
+        ArrayList<AlertUpdateTracker> alertsToUpdate = new ArrayList<>();
+        ArrayList<AlertUpdateTracker> alertsToCheck = new ArrayList<>();
+
+        // While we have not been killed or replaced, perform the checking.
+        while (!poisonPill && Thread.currentThread() == alertRunnerThread) {
+            // Anyone changing the queue from here on has to wake us up again. Anything they changed before now we
+            // are about to see, so the permits they left behind are of no use. The permits go first: clearing the
+            // flag first would let a wake up slip in between and have its permit drained with the flag still set,
+            // and every wake up after it would then be folded into one that never comes.
+            waitHandle.drainPermits();
+            wakeUpRequested.set(false);
+            metrics.recordPass();
+
+            // The queue of alerts will always be organized where the next soonest alert that needs to be updated
+            // will be at the head of the queue. As such, we simply pull alerts off of the head of the queue until
+            // the next update time is later than the current time. After that, everything else is later and we
+            // don't need to worry about it.
+            //
+            // All of the scheduling is done against System.nanoTime() so that changes to the wall clock don't make
+            // alerts jump around. We read the clock once for the whole pass so every alert sees the same "now".
+            AlertUpdateTracker nextSoonestAlert;
+            long nextSoonestUpdateTime = 0;
+            synchronized (alerts) {
+                // Get rid of any alerts the user requested we get rid of.
+                synchronized (alertsToRemove) {
+                    for (var alert : alertsToRemove) {
+                        alert.alert.dispose();
+                        alerts.remove(alert);
+                    }
+
+                    alertsToRemove.clear();
+                }
+
+                // Pull everything that needs to be updated now (alertsToUpdate) off of the queue. Alerts due within
+                // the timer slack come along too rather than costing a wake up of their own a moment later. They
+                // still come off in the order they're due. Fixed rate alerts are rescheduled from the time they
+                // were due so running them a little early doesn't make them drift.
+                var now = System.nanoTime();
+                var horizon = now + manager.getTimerSlackNanos();
+                while (!alerts.isEmpty() && alerts.peek().nextUpdateTime - horizon <= 0) {
+                    alertsToUpdate.add(alerts.poll());
+                }
+
+                // Work out when each alert should be updated next and put it back in the queue.
+                //
+                // We do this separately because technically speaking an alert could have a update interval that is
+                // so small we keep spinning on it and never to get to any of the others. Doing this separate from
+                // the loop above ensure that we visit everyone we have to.
+                for (var alert : alertsToUpdate) {
+                    if (scheduleNextUpdate(alert, now)) {
+                        alertsToCheck.add(alert);
+                    }
+                }
+
+                // The head of the queue will be the next soonest thing we need to update when we're done with
+                // this loop.
+                nextSoonestAlert = alerts.peek();
+                if (null != nextSoonestAlert) {
+                    nextSoonestUpdateTime = nextSoonestAlert.nextUpdateTime;
+                }
+
+                recordQueue(alerts.size(), null != nextSoonestAlert, nextSoonestUpdateTime);
+            }
+
+            for (var alert : alertsToCheck) {
+                // A check that hung got us replaced. The rest of the batch was already rescheduled, the new thread
+                // checks it at its next update time, except for fixed delay alerts which wait on their check to
+                // go back in the queue.
+                if (Thread.currentThread() != alertRunnerThread) {
+                    if (alert.requeueOnCompletion) {
+                        requeueAfterCheck(alert);
+                    }
+
+                    continue;
+                }
+
+                // Perform the check
+                dispatchCheck(alert);
+            }
+
+            alertsToUpdate.clear();
+            alertsToCheck.clear();
+
+            // Don't take a wake up meant for the thread that replaced us.
+            if (Thread.currentThread() != alertRunnerThread) {
+                return;
+            }
+
+            // By default, wait 1 second while we have nothing to do.
+            long wait = IDLE_WAIT_NANOS;
+            if (null != nextSoonestAlert) {
+                // Otherwise, the first thing in the queue is the next thing we need to update so determine
+                // how long it is between now and then. The checks above may have taken a while so read the
+                // clock again.
+                wait = nextSoonestUpdateTime - System.nanoTime();
+
+                // If something goes wrong, go with no wait. We might have a race condition where between
+                // the above code and here we should be checking the next alert. It would be rare but it could
+                // happen.
+                if (wait < 0) {
+                    wait = 0;
+                }
+            }
+
+            try {
+                // Use the wait handle to wait for the time to expire. If we need to check sooner or get poisoned
+                // out of this loop the outside world can use the wait handle to force a loop.
+                waitHandle.tryAcquire(wait, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Works out when an alert that is due should be updated next and puts it back in the {@link #alerts} queue.
+     * <p>
+     * {@link ScheduleMode#FIXED_RATE} alerts are scheduled from the time they were supposed to run, not the time
+     * they actually ran, so they don't drift. If they fell behind by a whole update interval or more their
+     * {@link CatchUpPolicy} decides whether the missed checks are skipped, coalesced into one or run back to back.
+     * {@link ScheduleMode#FIXED_DELAY} alerts stay out of the queue while they are checked and are put back one
+     * update interval after the check finishes.
+     * <p>
+     * Must be called while holding the {@link #alerts} lock.
+     *
+     * @param alert The alert that is due.
+     * @param now   The current time in {@link System#nanoTime()} nanoseconds.
+     * @return True if the alert should be checked now, false otherwise.
+     */
+    private boolean scheduleNextUpdate(AlertUpdateTracker alert, long now) {
+        var interval = getUpdateIntervalNanos(alert.alert);
+        var shouldCheck = alert.alert.getIsEnabled();
+        alert.dueTime = alert.nextUpdateTime;
+
+        // Fixed delay alerts are scheduled once they're done.
+        alert.requeueOnCompletion = shouldCheck && ScheduleMode.FIXED_DELAY == alert.alert.getScheduleMode();
+        if (alert.requeueOnCompletion) {
+            return true;
+        }
+
+        long next;
+        if (ScheduleMode.FIXED_DELAY == alert.alert.getScheduleMode()) {
+            // A disabled fixed delay alert just waits out its interval.
+            next = now + interval;
+        } else {
+            next = alert.nextUpdateTime + interval;
+
+            // If even the next slot is already in the past we fell behind by at least one whole interval.
+            if (next - now <= 0) {
+                switch (alert.alert.getCatchUpPolicy()) {
+                    case BURST:
+                        // Keep the slot in the past, we'll keep coming back around until we've caught up.
+                        break;
+                    case SKIP:
+                        // Don't run this late check at all and carry on with the next slot in the future.
+                        if (shouldCheck) {
+                            recordSkip(alert);
+                        }
+
+                        shouldCheck = false;
+                        next = skipMissedSlots(next, now, interval);
+                        break;
+                    case COALESCE:
+                    default:
+                        // Run this check on behalf of every missed one and then carry on with the next slot in
+                        // the future.
+                        next = skipMissedSlots(next, now, interval);
+                        break;
+                }
+            }
+        }
+
+        alert.nextUpdateTime = next;
+        alerts.add(alert);
+        return shouldCheck;
+    }
+
+    /**
+     * Advances a slot that is already in the past to the first slot in the future.
+     *
+     * @param next     The slot in {@link System#nanoTime()} nanoseconds, no later than now.
+     * @param now      The current time in {@link System#nanoTime()} nanoseconds.
+     * @param interval The update interval in nanoseconds.
+     * @return The first slot after now.
+     */
+    private static long skipMissedSlots(long next, long now, long interval) {
+        var missed = (now - next) / interval + 1;
+        return next + missed * interval;
+    }
+
+    /**
+     * Puts a {@link ScheduleMode#FIXED_DELAY} alert back in the {@link #alerts} queue one update interval after
+     * its check finished, or later if it is backing off.
+     *
+     * @param alert The alert that finished its check.
+     */
+    private void requeueAfterCheck(AlertUpdateTracker alert) {
+        alert.requeueOnCompletion = false;
+        synchronized (alerts) {
+            // If it was removed while it was being checked, the alert manager thread already tried to take it out
+            // of the queue so we must not put it back. Quarantined alerts stay out until they're enabled again.
+            if (!manager.isRegistered(alert) || AlertHealth.QUARANTINED == alert.health) {
+                return;
+            }
+
+            var delay = AlertHealth.BACKING_OFF == alert.health ? getBackoffNanos(alert) :
+                    getUpdateIntervalNanos(alert.alert);
+            alert.nextUpdateTime = System.nanoTime() + delay;
+            alerts.add(alert);
+        }
+
+        // The alert manager thread may be waiting on something later than this, make it look again. If we are the
+        // alert manager thread we'll look again anyway.
+        if (Thread.currentThread() != alertRunnerThread) {
+            requestWakeUp();
+        }
+    }
+
+    /**
+     * Asks the {@link #alertRunnerThread} to stop waiting and look at the queue again. Any number of requests
+     * made before it gets around to it cost a single wake up.
+     */
+    void requestWakeUp() {
+        if (wakeUpRequested.compareAndSet(false, true)) {
+            waitHandle.release();
+        }
+    }
+
+    /**
+     * Gets the update interval of an alert in nanoseconds.
+     *
+     * @param alert The alert.
+     * @return The update interval, never shorter than {@link #MIN_UPDATE_INTERVAL_NANOS}.
+     */
+    static long getUpdateIntervalNanos(IAlert alert) {
+        return Math.max(TimeUnit.MILLISECONDS.toNanos(alert.getUpdateInterval()), MIN_UPDATE_INTERVAL_NANOS);
+    }
+
+    /**
+     * Hands the check of an alert to the manager's worker pool or, if there isn't one, runs it on the current
+     * thread.
+     * <p>
+     * An alert never runs two checks at the same time. If the previous check of the alert is still running on a
+     * worker, this check is skipped and the alert is picked up again at its next update time.
+     *
+     * @param alert The alert to check.
+     */
+    private void dispatchCheck(AlertUpdateTracker alert) {
+        // It may have been quarantined by a check that finished since the alert manager thread picked it up.
+        if (AlertHealth.QUARANTINED == alert.health) {
+            return;
+        }
+
+        if (!alert.isChecking.compareAndSet(false, true)) {
+            recordSkip(alert);
+            if (alert.requeueOnCompletion) {
+                requeueAfterCheck(alert);
+            }
+
+            return;
+        }
+
+        // Read now, the alert is rescheduled once its check is handed off and a slow check would see the next slot.
+        var dueTime = alert.dueTime;
+        var executor = manager.getCheckExecutor();
+        if (null == executor) {
+            performCheck(alert, dueTime);
+            return;
+        }
+
+        try {
+            executor.execute(() -> performCheck(alert, dueTime));
+        } catch (RejectedExecutionException e) {
+            // The pool was swapped or shut down underneath us, let the next update time try again.
+            alert.isChecking.set(false);
+            if (alert.requeueOnCompletion) {
+                requeueAfterCheck(alert);
+            }
+        }
+    }
+
+    /**
+     * Runs the check of an alert under the watchdog and marks it as no longer checking when done.
+     * <p>
+     * Nothing a check throws escapes, a broken alert must not take the thread it runs on down with it. Instead the
+     * alert backs off and is eventually quarantined, see {@link #recordOutcome(AlertUpdateTracker, boolean)}.
+     *
+     * @param alert   The alert to check.
+     * @param dueTime The {@link System#nanoTime()} the check was due at, for measuring how late it started.
+     */
+    private void performCheck(AlertUpdateTracker alert, long dueTime) {
+        var thread = Thread.currentThread();
+        long checkNumber;
+        synchronized (alert) {
+            checkNumber = ++alert.checkNumber;
+            alert.checkThread = thread;
+            alert.timedOut = false;
+        }
+
+        var deadline = startDeadline(alert, checkNumber, thread);
+        var start = System.nanoTime();
+        Throwable error = null;
+        try {
+            alert.alert.check();
+        } catch (Throwable e) {
+            error = e;
+        }
+
+        var duration = System.nanoTime() - start;
+        if (null != deadline) {
+            deadline.cancel(false);
+        }
+
+        boolean timedOut;
+        synchronized (alert) {
+            alert.checkThread = null;
+            timedOut = alert.timedOut;
+
+            // Don't let the watchdog's interrupt leak into whatever this thread runs next.
+            if (timedOut) {
+                Thread.interrupted();
+            }
+        }
+
+        var lag = start - dueTime;
+        alert.metrics.recordCheck(lag, duration);
+        metrics.recordCheck(lag, duration);
+
+        if (null != error) {
+            error.printStackTrace();
+        }
+
+        // The watchdog already counted a check that timed out.
+        if (!timedOut) {
+            if (null != error) {
+                alert.metrics.recordFailure();
+                metrics.recordFailure();
+            }
+
+            recordOutcome(alert, null != error);
+        }
+
+        alert.isChecking.set(false);
+        if (alert.requeueOnCompletion) {
+            requeueAfterCheck(alert);
+        }
+    }
+
+    /**
+     * Asks the manager's watchdog to interrupt a check if it runs past its deadline.
+     *
+     * @param alert       The alert being checked.
+     * @param checkNumber The {@link AlertUpdateTracker#checkNumber} of the check.
+     * @param thread      The thread running the check.
+     * @return The pending deadline to cancel once the check finishes, null if the check may run forever.
+     */
+    private ScheduledFuture<?> startDeadline(AlertUpdateTracker alert, long checkNumber, Thread thread) {
+        var timeout = alert.alert.getCheckTimeout() > 0 ?
+                TimeUnit.MILLISECONDS.toNanos(alert.alert.getCheckTimeout()) : manager.getCheckTimeoutNanos();
+        if (timeout <= 0) {
+            return null;
+        }
+
+        try {
+            return manager.getWatchdog().schedule(() -> onCheckTimedOut(alert, checkNumber, thread), timeout,
+                    TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // We're shutting down, there's no one left to wait on.
+            return null;
+        }
+    }
+
+    /**
+     * Called by the manager's watchdog when a check runs past its deadline. Interrupts the check and counts it as a
+     * failure straight away so that an alert that hangs for good still ends up quarantined.
+     *
+     * @param alert       The alert being checked.
+     * @param checkNumber The {@link AlertUpdateTracker#checkNumber} of the check.
+     * @param thread      The thread running the check.
+     */
+    private void onCheckTimedOut(AlertUpdateTracker alert, long checkNumber, Thread thread) {
+        synchronized (alert) {
+            // The check finished just as the deadline went off, the thread may already be running something else.
+            if (alert.checkThread != thread || alert.checkNumber != checkNumber) {
+                return;
+            }
+
+            alert.timedOut = true;
+            thread.interrupt();
+        }
+
+        alert.metrics.recordTimeout();
+        metrics.recordTimeout();
+        alert.metrics.recordFailure();
+        metrics.recordFailure();
+        recordOutcome(alert, true);
+
+        // A check that hangs on the alert manager thread holds up every other alert in the shard. If it ignores
+        // the interrupt we can't get the thread back, so hand the scheduling to a new one. The stuck thread bows
+        // out as soon as its check returns, if it ever does, without checking anything else.
+        if (thread == alertRunnerThread && !poisonPill) {
+            startAlertRunnerThread();
+        }
+    }
+
+    /**
+     * Updates the health of an alert after a check.
+     * <p>
+     * A successful check makes the alert healthy again. A failed check makes it wait twice as long as the last
+     * time before its next check, up to {@link AlertsManager#getMaxBackoff()}. After
+     * {@link AlertsManager#getQuarantineThreshold()} failures in a row the alert is taken out of the {@link #alerts}
+     * queue until it is enabled again.
+     *
+     * @param alert  The alert that was checked.
+     * @param failed True if the check threw or timed out, false otherwise.
+     */
+    private void recordOutcome(AlertUpdateTracker alert, boolean failed) {
+        synchronized (alerts) {
+            if (!failed) {
+                alert.consecutiveFailures = 0;
+                alert.health = AlertHealth.HEALTHY;
+                return;
+            }
+
+            alert.consecutiveFailures++;
+            var threshold = manager.getQuarantineThreshold();
+            if (threshold > 0 && alert.consecutiveFailures >= threshold) {
+                alert.health = AlertHealth.QUARANTINED;
+                alerts.remove(alert);
+                return;
+            }
+
+            alert.health = AlertHealth.BACKING_OFF;
+
+            // Fixed rate alerts stay in the queue while they're checked, push the next check back. Fixed delay
+            // alerts pick up the back off when they're put back in the queue.
+            if (alerts.contains(alert)) {
+                var retryTime = System.nanoTime() + getBackoffNanos(alert);
+                if (alert.nextUpdateTime - retryTime < 0) {
+                    alert.nextUpdateTime = retryTime;
+                    alerts.reschedule(alert);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets how long a failing alert should wait before its next check. Must be called while holding the
+     * {@link #alerts} lock.
+     *
+     * @param alert The failing alert.
+     * @return The update interval doubled for every failure in a row, capped at
+     * {@link AlertsManager#getMaxBackoff()}, in nanoseconds.
+     */
+    private long getBackoffNanos(AlertUpdateTracker alert) {
+        var interval = getUpdateIntervalNanos(alert.alert);
+        var cap = Math.max(manager.getMaxBackoffNanos(), interval);
+        var doublings = Math.min(alert.consecutiveFailures, 62);
+        if (interval > (cap >> doublings)) {
+            return cap;
+        }
+
+        return interval << doublings;
+    }
+
+    /**
+     * Records a check that was due but skipped.
+     *
+     * @param alert The alert that was skipped.
+     */
+    private void recordSkip(AlertUpdateTracker alert) {
+        alert.metrics.recordSkip();
+        metrics.recordSkip();
+    }
+}
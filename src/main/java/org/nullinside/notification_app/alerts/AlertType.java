@@ -0,0 +1,29 @@
+package org.nullinside.notification_app.alerts;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Describes the type of alert an {@link IAlertFactory} creates. The {@link AlertTypeRegistry} reads it off the
+ * factory's class, so factories are only instantiated once an alert of their type is needed.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface AlertType {
+    /**
+     * The unique identifier of the type of alert. It has to be the fully qualified class name of the alerts the
+     * factory creates, that is what the configuration file saves.
+     *
+     * @return The type id.
+     */
+    String id();
+
+    /**
+     * The name of the type of alert shown to the user.
+     *
+     * @return The display name.
+     */
+    String name();
+}
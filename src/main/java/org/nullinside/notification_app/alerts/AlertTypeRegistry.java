@@ -0,0 +1,127 @@
+package org.nullinside.notification_app.alerts;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * The types of alerts that can be created, found through {@link ServiceLoader}.
+ * <p>
+ * The registry only looks at the {@link AlertType} of each provider's class when it is created. A factory is
+ * instantiated the first time an alert of its type is asked for and cached from then on, so a type of alert that
+ * isn't in the configuration costs nothing more than loading its factory's class.
+ */
+public class AlertTypeRegistry {
+    /**
+     * The singleton instance of this class.
+     */
+    private static AlertTypeRegistry instance;
+    /**
+     * The providers of the factories by type id.
+     */
+    private final HashMap<String, ServiceLoader.Provider<IAlertFactory>> providers = new HashMap<>();
+    /**
+     * The types of alerts sorted by name.
+     */
+    private final List<AlertType> types;
+    /**
+     * The factories instantiated so far by type id.
+     */
+    private final ConcurrentHashMap<String, IAlertFactory> factories = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new instance of the class.
+     *
+     * @param providers The providers of the factories, they aren't instantiated.
+     */
+    AlertTypeRegistry(Stream<ServiceLoader.Provider<IAlertFactory>> providers) {
+        var types = new ArrayList<AlertType>();
+        providers.forEach(provider -> {
+            var type = provider.type().getAnnotation(AlertType.class);
+            if (null == type) {
+                System.err.printf("Ignoring alert factory %s, it has no @AlertType%n", provider.type().getName());
+                return;
+            }
+
+            if (null != this.providers.putIfAbsent(type.id(), provider)) {
+                System.err.printf("Ignoring alert factory %s, %s is already provided%n", provider.type().getName(),
+                        type.id());
+                return;
+            }
+
+            types.add(type);
+        });
+
+        types.sort(Comparator.comparing(AlertType::name));
+        this.types = Collections.unmodifiableList(types);
+    }
+
+    /**
+     * Gets the singleton instance of the class.
+     *
+     * @return The singleton instance of the class.
+     */
+    public static synchronized AlertTypeRegistry getInstance() {
+        if (null == instance) {
+            instance = new AlertTypeRegistry(ServiceLoader.load(IAlertFactory.class).stream());
+        }
+
+        return instance;
+    }
+
+    /**
+     * Gets the types of alerts that can be created.
+     *
+     * @return The types sorted by name.
+     */
+    public List<AlertType> getTypes() {
+        return types;
+    }
+
+    /**
+     * Gets the factory of a type of alert, instantiating it the first time.
+     *
+     * @param typeId The type id.
+     * @return The factory, null if no factory provides the type or it can't be instantiated.
+     */
+    public IAlertFactory getFactory(String typeId) {
+        var factory = factories.get(typeId);
+        if (null != factory) {
+            return factory;
+        }
+
+        var provider = providers.get(typeId);
+        if (null == provider) {
+            System.err.printf("No alert factory provides %s%n", typeId);
+            return null;
+        }
+
+        try {
+            factory = provider.get();
+        } catch (ServiceConfigurationError | RuntimeException e) {
+            // The factory failed to instantiate, try again next time.
+            e.printStackTrace();
+            return null;
+        }
+
+        var existing = factories.putIfAbsent(typeId, factory);
+        return null != existing ? existing : factory;
+    }
+
+    /**
+     * Creates a new alert of a type.
+     *
+     * @param typeId The type id.
+     * @return The alert, null if it can't be created.
+     */
+    public IAlert create(String typeId) {
+        var factory = getFactory(typeId);
+        return null != factory ? factory.create() : null;
+    }
+}
@@ -0,0 +1,84 @@
+package org.nullinside.notification_app.alerts;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A helper class for storing a pair of an alert and when it should be updated next.
+ */
+public class AlertUpdateTracker {
+    /**
+     * The alert.
+     */
+    public final IAlert alert;
+    /**
+     * The next time the alert should be updated in {@link System#nanoTime()} nanoseconds.
+     */
+    public long nextUpdateTime;
+    /**
+     * The check statistics of the alert.
+     */
+    final AlertMetrics metrics = new AlertMetrics();
+    /**
+     * The time the check that is about to run was due in {@link System#nanoTime()} nanoseconds.
+     */
+    volatile long dueTime;
+    /**
+     * True while a check of the alert is running, false otherwise. Guarantees an alert never runs two checks at
+     * the same time when checks are handed to worker threads.
+     */
+    final AtomicBoolean isChecking = new AtomicBoolean(false);
+    /**
+     * True if the alert is out of the queue while it is checked and needs to be put back in once the check
+     * finishes, false otherwise. Set for {@link ScheduleMode#FIXED_DELAY} alerts.
+     */
+    volatile boolean requeueOnCompletion;
+    /**
+     * The order in which the tracker was scheduled. Used to break ties between alerts due at the same time
+     * so that they run in the order they were scheduled.
+     */
+    long sequence;
+    /**
+     * The position of the tracker in the {@link AlertScheduleQueue} heap, -1 if it is not queued.
+     */
+    int heapIndex = -1;
+    /**
+     * How well the checks of the alert have been going.
+     */
+    volatile AlertHealth health = AlertHealth.HEALTHY;
+    /**
+     * The number of checks in a row that failed or timed out. Guarded by the {@link AlertScheduleQueue} lock.
+     */
+    int consecutiveFailures;
+    /**
+     * The thread running the current check, null if the alert isn't being checked. Guarded by the tracker's lock.
+     */
+    Thread checkThread;
+    /**
+     * The number of checks started so far. Lets the watchdog tell the check it was started for apart from a later
+     * one. Guarded by the tracker's lock.
+     */
+    long checkNumber;
+    /**
+     * True if the watchdog gave up on the current check, false otherwise. Guarded by the tracker's lock.
+     */
+    boolean timedOut;
+    /**
+     * True while an {@link IEventAlert} is started, false otherwise.
+     */
+    final AtomicBoolean isStarted = new AtomicBoolean(false);
+    /**
+     * The scheduler shard the alert belongs to.
+     */
+    AlertSchedulerShard shard;
+
+    /**
+     * Instantiates a new instance of the class.
+     *
+     * @param alert          The alert.
+     * @param nextUpdateTime The next time the alert should be updated in {@link System#nanoTime()} nanoseconds.
+     */
+    public AlertUpdateTracker(IAlert alert, long nextUpdateTime) {
+        this.alert = alert;
+        this.nextUpdateTime = nextUpdateTime;
+    }
+}
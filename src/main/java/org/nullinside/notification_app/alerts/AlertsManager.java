@@ -1,57 +1,185 @@
 package org.nullinside.notification_app.alerts;
 
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.concurrent.Semaphore;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The manager responsible for containing the list of alerts and executing them.
+ * <p>
+ * Polled alerts are spread by id over one or more {@link AlertSchedulerShard} schedulers that each run on their own
+ * thread, so a process with many cores and many alerts isn't held up by a single thread and lock.
  */
 public class AlertsManager {
+    /**
+     * The JMX domain the manager and its alerts are registered under.
+     */
+    private static final String JMX_DOMAIN = "org.nullinside.notification_app";
+    /**
+     * The default longest a check may take in nanoseconds.
+     */
+    private static final long DEFAULT_CHECK_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+    /**
+     * The default number of checks in a row an alert may fail before it is quarantined.
+     */
+    private static final int DEFAULT_QUARANTINE_THRESHOLD = 5;
+    /**
+     * The default longest wait between checks of a failing alert in nanoseconds.
+     */
+    private static final long DEFAULT_MAX_BACKOFF_NANOS = TimeUnit.MINUTES.toNanos(10);
+    /**
+     * The default window in nanoseconds within which alerts that are due close together are run in one pass.
+     */
+    private static final long DEFAULT_TIMER_SLACK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    /**
+     * The longest to wait for the scheduler threads to stop when disposing in milliseconds.
+     */
+    private static final long DISPOSE_TIMEOUT_MILLIS = 30000;
     /**
      * The singleton instance of this class.
      */
     private static AlertsManager instance;
     /**
-     * The collection of all current alerts.
+     * The number of scheduler shards to give the singleton instance when it is created.
      */
-    private final LinkedList<AlertUpdateTracker> alerts = new LinkedList<>();
+    private static int instanceShardCount = 1;
     /**
-     * The collection of alerts that were requested for removal outside of the {@link #alertRunnerThread}.
+     * The schedulers that run the polled alerts. An alert always belongs to the same shard, picked by its id.
      */
-    private final ArrayList<AlertUpdateTracker> alertsToRemove = new ArrayList<>();
+    private final AlertSchedulerShard[] shards;
     /**
-     * The list of subscriptions to invoke when changes are made to the {@link #alerts} list.
+     * The index of all current alerts by their unique identifier. This is the source of truth for which alerts
+     * are registered, the shard queues only track when they run.
+     */
+    private final ConcurrentHashMap<Integer, AlertUpdateTracker> alertsById = new ConcurrentHashMap<>();
+    /**
+     * The version of the {@link #alertsById} index, incremented on every addition and removal.
+     */
+    private final AtomicLong alertsVersion = new AtomicLong(0);
+    /**
+     * The last snapshot of the {@link #alertsById} index handed out by {@link #getAlertsSnapshot()}.
+     */
+    private volatile AlertsSnapshot alertsSnapshot = AlertsSnapshot.EMPTY;
+    /**
+     * The list of subscriptions to invoke when alerts are added or removed.
      */
     private final ArrayList<AlertListUpdatedEvent> alertsListChangedSubscribers = new ArrayList<>();
     /**
-     * The thread that handles updating the alerts.
+     * The list of subscriptions to invoke when an {@link IEventAlert} sends a message. Messages can arrive far more
+     * often than subscribers change so reads don't take a lock.
+     */
+    private final CopyOnWriteArrayList<AlertMessageEvent> alertMessageSubscribers = new CopyOnWriteArrayList<>();
+    /**
+     * How early in nanoseconds an alert may be checked so it can share a pass with an alert that is due now.
+     */
+    private volatile long timerSlackNanos = DEFAULT_TIMER_SLACK_NANOS;
+    /**
+     * The pool of worker threads that run the alert checks of every shard, null if each shard runs its checks on
+     * its own thread.
+     */
+    private volatile ExecutorService checkExecutor;
+    /**
+     * The number of threads in the {@link #checkExecutor}, 0 if checks run on the shard threads.
      */
-    private final Thread alertRunnerThread;
+    private int workerCount = 0;
     /**
-     * The wait handle for pausing the {@link #alertRunnerThread} between alert updates.
+     * The last unique identifier given to an added alert.
      */
-    private final Semaphore waitHandle;
+    private final AtomicInteger nextId = new AtomicInteger(0);
     /**
-     * The next unique identifier to use for an added alert.
+     * The check statistics of every alert in the manager.
      */
-    private int nextId = 0;
+    private final AlertsManagerMetrics metrics = new AlertsManagerMetrics(this);
     /**
-     * The poison pill for killing the {@link #alertRunnerThread}.
+     * The JMX name the {@link #metrics} are registered under, null if they aren't registered.
      */
-    private boolean poisonPill;
+    private final ObjectName objectName;
+    /**
+     * The thread that interrupts checks that run past their deadline.
+     */
+    private final ScheduledThreadPoolExecutor watchdog;
+    /**
+     * The longest a check may take in nanoseconds unless the alert sets its own, 0 to let checks run forever.
+     */
+    private volatile long checkTimeoutNanos = DEFAULT_CHECK_TIMEOUT_NANOS;
+    /**
+     * The number of checks in a row an alert may fail before it is quarantined, 0 to never quarantine.
+     */
+    private volatile int quarantineThreshold = DEFAULT_QUARANTINE_THRESHOLD;
+    /**
+     * The longest wait between checks of a failing alert in nanoseconds.
+     */
+    private volatile long maxBackoffNanos = DEFAULT_MAX_BACKOFF_NANOS;
+    /**
+     * True once the manager was disposed of, false otherwise.
+     */
+    private final AtomicBoolean isDisposed = new AtomicBoolean(false);
 
     /**
-     * Instantiates a new alerts manager object. It is private to preserve the singleton without
-     * allowing outside instantiation.
+     * Instantiates a new alerts manager that isn't registered with JMX. Most of the application shares the
+     * {@link #getInstance()} singleton, separate instances are meant for tests and embedding.
+     *
+     * @param shardCount The number of scheduler threads, each with its own queue, to spread the alerts over.
      */
-    private AlertsManager() {
-        waitHandle = new Semaphore(0);
-        alertRunnerThread = new Thread(this::performAlertChecking);
-        alertRunnerThread.setName("Alert Manager Thread");
-        alertRunnerThread.setDaemon(true);
-        alertRunnerThread.start();
+    public AlertsManager(int shardCount) {
+        this(shardCount, null);
+    }
+
+    /**
+     * Instantiates a new alerts manager registered with JMX under its own name.
+     *
+     * @param name       The name to register the manager's statistics under.
+     * @param shardCount The number of scheduler threads, each with its own queue, to spread the alerts over.
+     */
+    public AlertsManager(String name, int shardCount) {
+        this(shardCount, createObjectName(String.format("%s:type=AlertsManager,name=%s", JMX_DOMAIN,
+                ObjectName.quote(name))));
+    }
+
+    /**
+     * Instantiates a new alerts manager.
+     *
+     * @param shardCount The number of scheduler threads, each with its own queue, to spread the alerts over.
+     * @param objectName The JMX name to register the manager's statistics under, null to not register them.
+     */
+    private AlertsManager(int shardCount, ObjectName objectName) {
+        this.objectName = objectName;
+        watchdog = new ScheduledThreadPoolExecutor(1, runnable -> {
+            var thread = new Thread(runnable);
+            thread.setName("Alert Check Watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Nearly every check finishes in time, don't leave their cancelled deadlines sitting in the queue.
+        watchdog.setRemoveOnCancelPolicy(true);
+        registerMBean(metrics, objectName);
+
+        shards = new AlertSchedulerShard[Math.max(shardCount, 1)];
+        for (int i = 0; i < shards.length; i++) {
+            var name = 1 == shards.length ? "Alert Manager Thread" : String.format("Alert Manager Thread %d", i + 1);
+            shards[i] = new AlertSchedulerShard(this, name);
+        }
+
+        for (var shard : shards) {
+            shard.startAlertRunnerThread();
+        }
     }
 
     /**
@@ -59,203 +187,510 @@ public class AlertsManager {
      *
      * @return The alerts manager instance.
      */
-    public static AlertsManager getInstance() {
+    public static synchronized AlertsManager getInstance() {
         if (null == instance) {
-            instance = new AlertsManager();
+            instance = new AlertsManager(instanceShardCount, getManagerObjectName());
         }
 
         return instance;
     }
 
     /**
-     * The main loop of the {@link #alertRunnerThread} responsible for running the alerts.
-     */
-    private void performAlertChecking() {
-        // While we have not been killed, perform the checking.
-        while (!poisonPill) {
-            // The list of alerts will always be organized where the next soonest alert that needs to be updated
-            // will be towards the front of the list. As such, we simply we need to, starting from the beginning,
-            // loop through the list and stop when the next update time is larger than the current time. After that,
-            // the list will always be later and we don't need to worry about it.
-            ArrayList<AlertUpdateTracker> alertsToUpdate = new ArrayList<>();
-            AlertUpdateTracker nextSoonestAlert = null;
-            synchronized (alerts) {
-                // Get rid of any alerts the user requested we get rid of.
-                synchronized (alertsToRemove) {
-                    for (var alert : alertsToRemove) {
-                        alert.alert.dispose();
-                        alerts.remove(alert);
-                    }
-                }
+     * Sets the number of scheduler shards the singleton instance is created with. Only affects an instance created
+     * after this call, so call it before the first {@link #getInstance()}.
+     *
+     * @param shardCount The number of scheduler threads, each with its own queue, to spread the alerts over.
+     */
+    public static synchronized void setInstanceShardCount(int shardCount) {
+        instanceShardCount = Math.max(shardCount, 1);
+    }
 
-                // Loop through each alert and determine:
-                // 1. What we need to update now (alertsToUpdate)
-                // 2. The first thing we'll need to update on the next loop (nextSoonestAlert) so that we know
-                //    how long to wait before looping again.
-                for (int i = 0; i < alerts.size(); i++) {
-                    // Check if the current alert should be updated.
-                    var currentAlert = alerts.getFirst();
-                    if (currentAlert.nextUpdateTime > System.currentTimeMillis()) {
-                        // If it shouldn't, we're done here.
-                        nextSoonestAlert = currentAlert;
-                        break;
-                    }
-
-                    // Add to the list we'll actually iterate though.
-                    alertsToUpdate.add(currentAlert);
-
-                    // Update the alert update time according to the update interval.
-                    currentAlert.nextUpdateTime = currentAlert.alert.getUpdateInterval() + System.currentTimeMillis();
-
-                    // Remove it from the list and re-insert it in the correct position in the list.
-                    // If this becomes too slow, refactor so that we group alerts in a list per update interval. That way
-                    // instead of O(n) search time over all alerts we'll be at O(n) search time over the same update
-                    // intervals, which practically speaking, will almost always be a smaller list.
-                    alerts.removeFirst();
-                }
+    /**
+     * Gets the number of scheduler shards the manager spreads its alerts over.
+     *
+     * @return The number of shards.
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
 
-                // We do this separately because technically speaking an alert could have a update interval that is
-                // so small we keep spinning on it and never to get to any of the others. Doing this separate from
-                // the loop above ensure that we visit everyone we have to.
-                for (var alert : alertsToUpdate) {
-                    insertAlertSequentially(alert);
-                }
+    /**
+     * Gets the scheduler shards of the manager.
+     *
+     * @return The shards. Must not be modified.
+     */
+    AlertSchedulerShard[] getShards() {
+        return shards;
+    }
 
-                // If there wasn't something we aren't processing this round, then the first thing
-                // in the list will be the next soonest thing we need to update when we're done with this loop.
-                if (null == nextSoonestAlert && alerts.size() > 0) {
-                    nextSoonestAlert = alerts.getFirst();
-                }
-            }
+    /**
+     * Gets the position in {@link #shards} of the shard an alert belongs to.
+     *
+     * @param id The unique identifier of the alert.
+     * @return The position of the shard.
+     */
+    private int getShardIndex(int id) {
+        return Math.floorMod(id, shards.length);
+    }
 
-            for (var alert : alertsToUpdate) {
-                // Perform the check
-                if (alert.alert.getIsEnabled()) {
-                    alert.alert.check();
-                }
-            }
+    /**
+     * Gets a flag indicating whether an alert is still registered with the manager.
+     *
+     * @param tracker The alert.
+     * @return True if it's in the index, false if it was removed.
+     */
+    boolean isRegistered(AlertUpdateTracker tracker) {
+        return alertsById.get(tracker.alert.getId()) == tracker;
+    }
 
-            // By default, wait 1 second while we have nothing to do.
-            long wait = 1000;
-            if (null != nextSoonestAlert) {
-                // Otherwise, the first thing in the list is the next thing we need to update so determine
-                // how many milliseconds between now and then.
-                wait = nextSoonestAlert.nextUpdateTime - System.currentTimeMillis();
-
-                // If something goes wrong, go with no wait. We might have a race condition where between
-                // the above code and here we should be checking the next alert. It would be rare but it could
-                // happen.
-                if (wait < 0) {
-                    wait = 0;
-                }
+    /**
+     * Gets the pool of worker threads that run the alert checks.
+     *
+     * @return The pool, null if each shard runs its checks on its own thread.
+     */
+    ExecutorService getCheckExecutor() {
+        return checkExecutor;
+    }
+
+    /**
+     * Gets the thread that interrupts checks that run past their deadline.
+     *
+     * @return The watchdog.
+     */
+    ScheduledThreadPoolExecutor getWatchdog() {
+        return watchdog;
+    }
+
+    /**
+     * Gets how early an alert may be checked so it can share a pass with an alert that is due now.
+     *
+     * @return The timer slack in nanoseconds.
+     */
+    long getTimerSlackNanos() {
+        return timerSlackNanos;
+    }
+
+    /**
+     * Gets the longest a check may take unless the alert sets its own.
+     *
+     * @return The check timeout in nanoseconds, 0 if checks may run forever.
+     */
+    long getCheckTimeoutNanos() {
+        return checkTimeoutNanos;
+    }
+
+    /**
+     * Gets the longest wait between checks of a failing alert.
+     *
+     * @return The longest wait in nanoseconds.
+     */
+    long getMaxBackoffNanos() {
+        return maxBackoffNanos;
+    }
+
+    /**
+     * Gets how early an alert may be checked so it can share a pass with an alert that is due now.
+     *
+     * @return The timer slack in milliseconds.
+     */
+    public long getTimerSlack() {
+        return TimeUnit.NANOSECONDS.toMillis(timerSlackNanos);
+    }
+
+    /**
+     * Sets how early an alert may be checked so it can share a pass with an alert that is due now.
+     * <p>
+     * Alerts due within the window of each other are checked in one pass instead of waking the alert manager
+     * thread for each of them, at the price of some checks starting up to the window early.
+     *
+     * @param slack The timer slack in milliseconds, 0 to check every alert exactly when it is due.
+     */
+    public void setTimerSlack(long slack) {
+        timerSlackNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(slack, 0));
+    }
+
+    /**
+     * Gets the check statistics of every alert in the manager along with the state of the schedule queue.
+     * They are also registered with the platform MBean server.
+     *
+     * @return The statistics.
+     */
+    public AlertsManagerMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Gets the check statistics of an alert. They are also available through the
+     * {@link AlertsManagerMXBean#getAlertMetrics(int)} JMX operation.
+     *
+     * @param id The unique identifier of the alert. {@link IAlert#getId()}
+     * @return The statistics, null if the alert was not found.
+     */
+    public AlertMetrics getMetrics(int id) {
+        var tracker = alertsById.get(id);
+        return null == tracker ? null : tracker.metrics;
+    }
+
+    /**
+     * Gets how well the checks of an alert have been going.
+     *
+     * @param id The unique identifier of the alert. {@link IAlert#getId()}
+     * @return The health, null if the alert was not found.
+     */
+    public AlertHealth getAlertHealth(int id) {
+        var tracker = alertsById.get(id);
+        return null == tracker ? null : tracker.health;
+    }
+
+    /**
+     * Gets the number of alerts that failed too many times in a row and are no longer checked.
+     *
+     * @return The number of quarantined alerts.
+     */
+    public int getQuarantinedCount() {
+        var count = 0;
+        for (var tracker : alertsById.values()) {
+            if (AlertHealth.QUARANTINED == tracker.health) {
+                count++;
             }
+        }
+
+        return count;
+    }
+
+    /**
+     * Gets the longest a check may take before it is interrupted, unless the alert sets its own.
+     *
+     * @return The check timeout in milliseconds, 0 if checks may run forever.
+     */
+    public long getCheckTimeout() {
+        return TimeUnit.NANOSECONDS.toMillis(checkTimeoutNanos);
+    }
 
+    /**
+     * Sets the longest a check may take before it is interrupted, unless the alert sets its own.
+     * <p>
+     * A check that runs past its deadline is interrupted and counted as a failure. If it was running on the alert
+     * manager thread and ignores the interrupt, a new alert manager thread takes over so the other alerts keep
+     * running.
+     *
+     * @param timeout The check timeout in milliseconds, 0 to let checks run forever.
+     */
+    public void setCheckTimeout(long timeout) {
+        checkTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(timeout, 0));
+    }
+
+    /**
+     * Gets the number of checks in a row an alert may fail before it is quarantined.
+     *
+     * @return The number of failures, 0 if alerts are never quarantined.
+     */
+    public int getQuarantineThreshold() {
+        return quarantineThreshold;
+    }
+
+    /**
+     * Sets the number of checks in a row an alert may fail before it is quarantined. A quarantined alert is no
+     * longer checked until it is disabled and enabled again.
+     *
+     * @param failures The number of failures, 0 to never quarantine alerts.
+     */
+    public void setQuarantineThreshold(int failures) {
+        quarantineThreshold = Math.max(failures, 0);
+    }
+
+    /**
+     * Gets the longest wait between checks of a failing alert.
+     *
+     * @return The longest wait in milliseconds.
+     */
+    public long getMaxBackoff() {
+        return TimeUnit.NANOSECONDS.toMillis(maxBackoffNanos);
+    }
+
+    /**
+     * Sets the longest wait between checks of a failing alert. An alert never waits less than its update interval.
+     *
+     * @param maxBackoff The longest wait in milliseconds.
+     */
+    public void setMaxBackoff(long maxBackoff) {
+        maxBackoffNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(maxBackoff, 0));
+    }
+
+    /**
+     * Gets the JMX name of the manager.
+     *
+     * @return The JMX name.
+     */
+    private static ObjectName getManagerObjectName() {
+        return createObjectName(String.format("%s:type=AlertsManager", JMX_DOMAIN));
+    }
+
+    /**
+     * Creates a JMX name.
+     *
+     * @param name The name.
+     * @return The JMX name, null if it was malformed.
+     */
+    private static ObjectName createObjectName(String name) {
+        try {
+            return new ObjectName(name);
+        } catch (JMException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Registers an MBean with the platform MBean server, replacing anything left behind under the same name.
+     *
+     * @param bean The MBean.
+     * @param name The JMX name.
+     */
+    private static void registerMBean(Object bean, ObjectName name) {
+        if (null == name) {
+            return;
+        }
+
+        var server = ManagementFactory.getPlatformMBeanServer();
+        try {
             try {
-                // Use the wait handle to wait for the time to expire. If we need to check sooner or get poisoned
-                // out of this loop the outside world can use the wait handle to force a loop.
-                waitHandle.tryAcquire(wait, TimeUnit.MILLISECONDS);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+                server.registerMBean(bean, name);
+            } catch (InstanceAlreadyExistsException e) {
+                server.unregisterMBean(name);
+                server.registerMBean(bean, name);
             }
+        } catch (JMException e) {
+            e.printStackTrace();
         }
+    }
 
-        // We've been disposed. Technically speaking clearing out things below is a race condition.
-        // If we were disposed in the middle of someone adding a new alert, for example, we could leave
-        // the synchronize block below and immediately end up with a new alert in the collection.
-        //
-        // Practically speaking, we only dispose of this object when the program exits. Since the window
-        // will be locked out and they won't be able to add a new alert, that shouldn't actually happen.
-        synchronized (alerts) {
-            for (var alert : alerts) {
-                alert.alert.dispose();
+    /**
+     * Unregisters an MBean from the platform MBean server if it is registered.
+     *
+     * @param name The JMX name.
+     */
+    private static void unregisterMBean(ObjectName name) {
+        if (null == name) {
+            return;
+        }
+
+        var server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
             }
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Gets the number of worker threads that run alert checks.
+     *
+     * @return The number of worker threads, 0 if checks run on the shard threads.
+     */
+    public synchronized int getWorkerCount() {
+        return workerCount;
+    }
 
-            alerts.clear();
+    /**
+     * Sets the number of worker threads that run alert checks.
+     * <p>
+     * With 0 workers every check runs one after another on the thread of the shard the alert belongs to. With more
+     * than 0 workers the shard threads only schedule the checks and hand them to a bounded pool shared by every
+     * shard, so one slow check can't delay the others. Either way, an alert never runs two checks at the same time.
+     *
+     * @param workers The number of worker threads, 0 to run checks on the shard threads.
+     */
+    public synchronized void setWorkerCount(int workers) {
+        if (workers < 0) {
+            workers = 0;
         }
 
-        synchronized (alertsToRemove) {
-            alertsToRemove.clear();
+        if (workers == workerCount) {
+            return;
         }
 
-        // Clear out the subscribers.
-        synchronized (alertsListChangedSubscribers) {
-            alertsListChangedSubscribers.clear();
+        // Swap in the new pool before shutting down the old one so the scheduler always has somewhere to go.
+        var oldExecutor = checkExecutor;
+        checkExecutor = 0 == workers ? null : createCheckExecutor(workers);
+        workerCount = workers;
+
+        if (null != oldExecutor) {
+            // Let the checks that are already running finish.
+            oldExecutor.shutdown();
+            try {
+                if (!oldExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                    oldExecutor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                oldExecutor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
         }
+    }
 
-        // Get rid of the singleton instance.
-        instance = null;
+    /**
+     * Creates the bounded pool of worker threads that run the alert checks.
+     *
+     * @param workers The number of worker threads.
+     * @return The pool.
+     */
+    private static ExecutorService createCheckExecutor(int workers) {
+        var threadNumber = new AtomicInteger(0);
+        return new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    var thread = new Thread(runnable);
+                    thread.setName(String.format("Alert Check Worker %d", threadNumber.incrementAndGet()));
+                    thread.setDaemon(true);
+                    return thread;
+                });
     }
 
     /**
      * Add an alert to the manager.
      * <p>
-     * It will automatically be checked when enabled.
+     * It will automatically be checked when enabled. An {@link IEventAlert} is started instead.
      *
      * @param alert The alert.
      */
     public void addAlert(IAlert alert) {
-        // Set and increment the id.
-        alert.setId(++nextId);
-
-        // Add the alert to the beginning of the list so that it gets called for the first time.
-        synchronized (alerts) {
-            alerts.addFirst(new AlertUpdateTracker(alert, System.currentTimeMillis()));
-            alert.addEnabledChangedListener((enabled, updatedAlert) -> {
-                if (!enabled) {
-                    return;
-                }
-
-                synchronized (alerts) {
-                    // Find the alert in our collection, we need to put it at the front of the list.
-                    var alertWrapper = alerts.stream().filter(a -> a.alert == alert)
-                            .findFirst()
-                            .orElse(null);
+        addAlerts(List.of(alert));
+    }
 
-                    if (null == alertWrapper) {
-                        return;
-                    }
+    /**
+     * Adds alerts to the manager in one go.
+     * <p>
+     * This does the same as calling {@link #addAlert(IAlert)} for each alert, but every shard locks its queue and
+     * wakes up once for the whole batch, and the listeners hear about the batch in a single
+     * {@link AlertListUpdatedEvent#onAlertListBatchUpdated(boolean, List)} call.
+     *
+     * @param alerts The alerts.
+     */
+    public void addAlerts(Collection<? extends IAlert> alerts) {
+        if (alerts.isEmpty()) {
+            return;
+        }
 
-                    // If we found it, do the update.
-                    alertWrapper.nextUpdateTime = System.currentTimeMillis();
-                    alerts.remove(alertWrapper);
-                    alerts.addFirst(alertWrapper);
-                }
+        var added = new ArrayList<IAlert>(alerts.size());
+        var eventAlerts = new ArrayList<AlertUpdateTracker>();
+        var polledAlerts = newShardBatches();
+        for (var alert : alerts) {
+            // Set and increment the id.
+            alert.setId(nextId.incrementAndGet());
+
+            var tracker = new AlertUpdateTracker(alert, System.nanoTime());
+            var shardIndex = getShardIndex(alert.getId());
+            tracker.shard = shards[shardIndex];
+            alertsById.put(alert.getId(), tracker);
+            added.add(alert);
+            if (alert instanceof IEventAlert) {
+                eventAlerts.add(tracker);
+            } else {
+                polledAlerts.get(shardIndex).add(tracker);
+            }
+        }
 
-                // Tell the alert update thread to stop waiting and poll.
-                waitHandle.release();
-            });
+        alertsVersion.incrementAndGet();
+        for (int i = 0; i < shards.length; i++) {
+            if (!polledAlerts.get(i).isEmpty()) {
+                shards[i].addAll(polledAlerts.get(i));
+            }
         }
 
-        // Tell the alert update thread to stop waiting and poll.
-        waitHandle.release();
+        for (var tracker : eventAlerts) {
+            addEventAlert(tracker);
+        }
 
         // Notify subscribers that something was added to the list.
-        ArrayList<AlertListUpdatedEvent> subs;
-        synchronized (alertsListChangedSubscribers) {
-            subs = new ArrayList<>(alertsListChangedSubscribers);
+        notifyAlertListUpdated(true, added);
+    }
+
+    /**
+     * Starts an {@link IEventAlert} that was just added and keeps it started while it is enabled. Event alerts
+     * never go in a shard's queue.
+     *
+     * @param tracker The alert.
+     */
+    private void addEventAlert(AlertUpdateTracker tracker) {
+        var alert = tracker.alert;
+        alert.addEnabledChangedListener((enabled, updatedAlert) -> {
+            if (alertsById.get(alert.getId()) != tracker) {
+                return;
+            }
+
+            if (enabled) {
+                startEventAlert(tracker);
+            } else {
+                stopEventAlert(tracker);
+            }
+        });
+
+        if (alert.getIsEnabled()) {
+            startEventAlert(tracker);
         }
+    }
 
-        for (var event : subs) {
-            event.onAlertListUpdated(true, alert);
+    /**
+     * Starts an {@link IEventAlert} unless it is already started.
+     *
+     * @param tracker The alert.
+     */
+    private void startEventAlert(AlertUpdateTracker tracker) {
+        if (!tracker.isStarted.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            ((IEventAlert) tracker.alert).start(message -> onAlertMessage(tracker, message));
+        } catch (Throwable e) {
+            // Like a failed check, a broken alert must not take the caller down with it.
+            e.printStackTrace();
+            tracker.isStarted.set(false);
+            tracker.metrics.recordFailure();
+            metrics.recordFailure();
         }
     }
 
     /**
-     * Inserts an alert sequentially in the {@link #alerts} list such that the alert before it is <= the
-     * time it should be checked and the alert after it is >= the time it should be checked.
+     * Stops an {@link IEventAlert} if it is started.
      *
-     * @param alert The alert.
+     * @param tracker The alert.
      */
-    private void insertAlertSequentially(AlertUpdateTracker alert) {
-        synchronized (alerts) {
-            for (int i = 0; i < alerts.size(); i++) {
-                if (alerts.get(i).nextUpdateTime <= alert.nextUpdateTime) {
-                    alerts.add(i, alert);
-                    return;
-                }
-            }
+    private void stopEventAlert(AlertUpdateTracker tracker) {
+        if (!tracker.isStarted.compareAndSet(true, false)) {
+            return;
+        }
 
-            alerts.addLast(alert);
+        try {
+            ((IEventAlert) tracker.alert).stop();
+        } catch (Throwable e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Hands a message sent by an {@link IEventAlert} to the subscribers.
+     *
+     * @param tracker The alert that sent the message.
+     * @param message The message.
+     */
+    private void onAlertMessage(AlertUpdateTracker tracker, AlertMessage message) {
+        // Drop anything that arrives after the alert was stopped.
+        if (!tracker.isStarted.get()) {
+            return;
+        }
+
+        tracker.metrics.recordMessage();
+        metrics.recordMessage();
+        for (var listener : alertMessageSubscribers) {
+            try {
+                listener.onAlertMessage(message);
+            } catch (Exception e) {
+                // One bad subscriber shouldn't stop the others from hearing about it.
+                e.printStackTrace();
+            }
         }
     }
 
@@ -265,12 +700,9 @@ public class AlertsManager {
      * @param alert The alert.
      */
     public void removeAlert(IAlert alert) {
-        AlertUpdateTracker foundAlert;
-        synchronized (alerts) {
-            foundAlert = alerts.stream().filter(a -> a.alert == alert).findFirst().orElse(null);
-        }
-
-        if (null == foundAlert) {
+        // Look the alert up by its id but make sure it's actually the same object before removing it.
+        var foundAlert = alertsById.get(alert.getId());
+        if (null == foundAlert || foundAlert.alert != alert) {
             return;
         }
 
@@ -283,11 +715,7 @@ public class AlertsManager {
      * @param id The unique identifier of the alert. {@link IAlert#getId()}
      */
     public void removeAlert(int id) {
-        AlertUpdateTracker foundAlert;
-        synchronized (alerts) {
-            foundAlert = alerts.stream().filter(a -> a.alert.getId() == id).findFirst().orElse(null);
-        }
-
+        var foundAlert = alertsById.get(id);
         if (null == foundAlert) {
             return;
         }
@@ -295,28 +723,109 @@ public class AlertsManager {
         removeAlert(foundAlert);
     }
 
+    /**
+     * Removes alerts from the manager in one go. They will be disposed of automatically.
+     * <p>
+     * This does the same as calling {@link #removeAlert(IAlert)} for each alert, but every shard is handed the
+     * whole batch at once, and the listeners hear about the batch in a single
+     * {@link AlertListUpdatedEvent#onAlertListBatchUpdated(boolean, List)} call. Alerts that aren't in the
+     * manager are skipped.
+     *
+     * @param alerts The alerts.
+     */
+    public void removeAlerts(Collection<? extends IAlert> alerts) {
+        var trackers = new ArrayList<AlertUpdateTracker>(alerts.size());
+        for (var alert : alerts) {
+            // Look the alert up by its id but make sure it's actually the same object before removing it.
+            var foundAlert = alertsById.get(alert.getId());
+            if (null != foundAlert && foundAlert.alert == alert) {
+                trackers.add(foundAlert);
+            }
+        }
+
+        removeAlerts(trackers);
+    }
+
     /**
      * Removes an alert from the manager. It will be disposed of automatically.
      *
      * @param alert The alert to remove.
      */
     private void removeAlert(AlertUpdateTracker alert) {
-        // Tell the other thread we want to remove something.
-        synchronized (alertsToRemove) {
-            alertsToRemove.add(alert);
+        removeAlerts(List.of(alert));
+    }
+
+    /**
+     * Removes alerts from the manager. They will be disposed of automatically.
+     *
+     * @param trackers The alerts to remove.
+     */
+    private void removeAlerts(List<AlertUpdateTracker> trackers) {
+        var removed = new ArrayList<IAlert>(trackers.size());
+        var batches = newShardBatches();
+        for (var tracker : trackers) {
+            // Only the caller that actually takes it out of the index gets to remove it.
+            if (!alertsById.remove(tracker.alert.getId(), tracker)) {
+                continue;
+            }
+
+            removed.add(tracker.alert);
+
+            // Stop event alerts straight away so their messages stop with the removal rather than with the
+            // disposal. They still go through their shard's thread to be disposed of.
+            if (tracker.alert instanceof IEventAlert) {
+                stopEventAlert(tracker);
+            }
+
+            batches.get(getShardIndex(tracker.alert.getId())).add(tracker);
+        }
+
+        if (removed.isEmpty()) {
+            return;
         }
 
-        // Signal to the thread in case it's on a long wait.
-        waitHandle.release();
+        alertsVersion.incrementAndGet();
+
+        // Tell the shards' threads we want to remove something.
+        for (int i = 0; i < shards.length; i++) {
+            if (!batches.get(i).isEmpty()) {
+                shards[i].removeAll(batches.get(i));
+            }
+        }
 
         // Tell the subscribers about the removal.
+        notifyAlertListUpdated(false, removed);
+    }
+
+    /**
+     * Creates an empty list of alerts for every shard, in the same order as {@link #shards}.
+     *
+     * @return The lists.
+     */
+    private List<List<AlertUpdateTracker>> newShardBatches() {
+        var batches = new ArrayList<List<AlertUpdateTracker>>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            batches.add(new ArrayList<>());
+        }
+
+        return batches;
+    }
+
+    /**
+     * Tells the subscribers that alerts were added or removed.
+     *
+     * @param added  True if the alerts were added, false if they were removed.
+     * @param alerts The alerts.
+     */
+    private void notifyAlertListUpdated(boolean added, List<IAlert> alerts) {
         ArrayList<AlertListUpdatedEvent> subs;
         synchronized (alertsListChangedSubscribers) {
             subs = new ArrayList<>(alertsListChangedSubscribers);
         }
 
+        var view = Collections.unmodifiableList(alerts);
         for (var event : subs) {
-            event.onAlertListUpdated(false, alert.alert);
+            event.onAlertListBatchUpdated(added, view);
         }
     }
 
@@ -326,15 +835,49 @@ public class AlertsManager {
      * @return The collection of all alerts.
      */
     public IAlert[] getAlerts() {
-        synchronized (alerts) {
-            // There may be alerts that haven't been removed yet but will be soon. We won't want to
-            // return those since they shouldn't exist.
-            synchronized (alertsToRemove) {
-                return alerts.stream().filter(alert -> !alertsToRemove.contains(alert))
-                        .map(alert -> alert.alert)
-                        .toArray(IAlert[]::new);
-            }
+        return getAlertsSnapshot().toArray();
+    }
+
+    /**
+     * Gets an immutable snapshot of all alerts.
+     * <p>
+     * This never blocks on the alert manager thread. The snapshot is only rebuilt when alerts were added or
+     * removed since the last call, otherwise the same snapshot is handed back. Compare
+     * {@link AlertsSnapshot#getVersion()} to skip work when nothing has changed.
+     *
+     * @return The snapshot of all alerts.
+     */
+    public AlertsSnapshot getAlertsSnapshot() {
+        // Read the version before reading the index. If the index changes while we're building, the snapshot may
+        // contain the newer changes under the older version, but the version will have moved on so the next
+        // caller rebuilds it. A snapshot is never newer than it claims to be.
+        var version = alertsVersion.get();
+        var snapshot = alertsSnapshot;
+        if (snapshot.getVersion() == version) {
+            return snapshot;
         }
+
+        // Alerts that were requested for removal are taken out of the index immediately so we don't need to
+        // filter out the ones the alert manager thread hasn't gotten to yet. Return them in the order they were added.
+        var alerts = alertsById.values().stream()
+                .map(alert -> alert.alert)
+                .sorted(Comparator.comparingInt(IAlert::getId))
+                .toArray(IAlert[]::new);
+
+        snapshot = new AlertsSnapshot(version, alerts);
+        alertsSnapshot = snapshot;
+        return snapshot;
+    }
+
+    /**
+     * Gets an alert by its unique identifier.
+     *
+     * @param id The unique identifier of the alert. {@link IAlert#getId()}
+     * @return The alert, null if not found.
+     */
+    public IAlert getAlert(int id) {
+        var tracker = alertsById.get(id);
+        return null == tracker ? null : tracker.alert;
     }
 
     /**
@@ -359,49 +902,85 @@ public class AlertsManager {
         }
     }
 
+    /**
+     * Adds a listener for when an {@link IEventAlert} sends a message.
+     * <p>
+     * The listener is called on whatever thread the alert sent the message from.
+     *
+     * @param listener The listener.
+     */
+    public void addAlertMessageListener(AlertMessageEvent listener) {
+        alertMessageSubscribers.add(listener);
+    }
+
+    /**
+     * Removes a listener for when an {@link IEventAlert} sends a message.
+     *
+     * @param listener The listener.
+     */
+    public void removeAlertMessageListener(AlertMessageEvent listener) {
+        alertMessageSubscribers.remove(listener);
+    }
+
     /**
      * Disposes of managed and unmanaged resources.
      */
     public void dispose() {
-        // Poison the thread.
-        poisonPill = true;
-        waitHandle.release();
+        if (!isDisposed.compareAndSet(false, true)) {
+            return;
+        }
 
-        // Wait for the thread to exit
-        try {
-            alertRunnerThread.join(30000);
+        // Poison every shard first so they wind down together, then wait for them to exit.
+        for (var shard : shards) {
+            shard.stop();
+        }
+
+        var deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DISPOSE_TIMEOUT_MILLIS);
+        for (var shard : shards) {
+            shard.join(TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+        }
 
-            // If it doesn't exit, kill it.
-            if (alertRunnerThread.isAlive()) {
-                alertRunnerThread.interrupt();
+        // Technically speaking clearing out things below is a race condition. If we were disposed in the middle
+        // of someone adding a new alert, for example, we could immediately end up with a new alert in the
+        // collection.
+        //
+        // Practically speaking, we only dispose of this object when the program exits. Since the window
+        // will be locked out and they won't be able to add a new alert, that shouldn't actually happen.
+        //
+        // Stop the workers before disposing of the alerts they might be checking.
+        setWorkerCount(0);
+        watchdog.shutdownNow();
+
+        // Fixed delay alerts are out of the queue while they're checked so go by the index to get everyone.
+        for (var alert : alertsById.values()) {
+            if (alert.alert instanceof IEventAlert) {
+                stopEventAlert(alert);
             }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+
+            alert.alert.dispose();
         }
-    }
 
-    /**
-     * A helper class for storing a pair of an alert and when it should be updated next.
-     */
-    public class AlertUpdateTracker {
-        /**
-         * The alert.
-         */
-        public IAlert alert;
-        /**
-         * The next time the alert should be updated in system milliseconds.
-         */
-        public long nextUpdateTime;
+        for (var shard : shards) {
+            shard.clear();
+        }
+
+        alertsById.clear();
+        alertsVersion.incrementAndGet();
 
-        /**
-         * Instantiates a new instance of the class.
-         *
-         * @param alert          The alert.
-         * @param nextUpdateTime The next time the alert should be updated in system milliseconds.
-         */
-        public AlertUpdateTracker(IAlert alert, long nextUpdateTime) {
-            this.alert = alert;
-            this.nextUpdateTime = nextUpdateTime;
+        // Clear out the subscribers.
+        synchronized (alertsListChangedSubscribers) {
+            alertsListChangedSubscribers.clear();
+        }
+
+        alertMessageSubscribers.clear();
+
+        unregisterMBean(objectName);
+
+        // Get rid of the singleton instance.
+        synchronized (AlertsManager.class) {
+            if (this == instance) {
+                instance = null;
+            }
         }
     }
 }
@@ -0,0 +1,82 @@
+package org.nullinside.notification_app.alerts;
+
+/**
+ * The JMX view of an {@link AlertsManager}. The check statistics cover every alert in the manager.
+ */
+public interface AlertsManagerMXBean extends AlertMetricsMXBean {
+    /**
+     * Gets the number of alerts registered with the manager.
+     *
+     * @return The number of alerts.
+     */
+    int getAlertCount();
+
+    /**
+     * Gets the number of scheduling passes, one for every time the alert manager thread woke up. Compare it with
+     * {@link #getCheckCount()} to see how well the timer slack folds checks together.
+     *
+     * @return The number of passes.
+     */
+    long getPassCount();
+
+    /**
+     * Gets the number of alerts waiting in the schedule queues of every shard.
+     *
+     * @return The queue depth.
+     */
+    int getQueueDepth();
+
+    /**
+     * Gets how long until the next alert is due.
+     *
+     * @return The time until the next alert is due in milliseconds, negative if it is overdue, -1 if the queue is
+     * empty.
+     */
+    double getNextDueInMillis();
+
+    /**
+     * Gets the number of checks that ran per second since the last time this was asked, or over the last second
+     * if it was asked more recently than that.
+     *
+     * @return The number of checks per second.
+     */
+    double getChecksPerSecond();
+
+    /**
+     * Gets the number of worker threads that run alert checks.
+     *
+     * @return The number of worker threads, 0 if checks run on the shard threads.
+     */
+    int getWorkerCount();
+
+    /**
+     * Gets the number of scheduler shards the manager spreads its alerts over.
+     *
+     * @return The number of shards.
+     */
+    int getShardCount();
+
+    /**
+     * Gets the number of alerts that failed too many times in a row and are no longer checked.
+     *
+     * @return The number of quarantined alerts.
+     */
+    int getQuarantinedCount();
+
+    /**
+     * Gets how well the checks of a single alert have been going.
+     *
+     * @param id The unique identifier of the alert. {@link IAlert#getId()}
+     * @return The health, null if the alert was not found.
+     */
+    AlertHealth getAlertHealth(int id);
+
+    /**
+     * Gets the check statistics of a single alert. Over JMX they arrive as composite data with an item for each
+     * getter.
+     *
+     * @param id The unique identifier of the alert. {@link IAlert#getId()}
+     * @return The statistics, null if the alert was not found.
+     */
+    AlertMetrics getAlertMetrics(int id);
+}
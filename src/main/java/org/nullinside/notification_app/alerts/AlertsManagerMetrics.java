@@ -0,0 +1,177 @@
+package org.nullinside.notification_app.alerts;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The check statistics of every alert in an {@link AlertsManager} along with the state of its schedule queues.
+ */
+public class AlertsManagerMetrics extends AlertMetrics implements AlertsManagerMXBean {
+    /**
+     * The manager the statistics belong to.
+     */
+    private final AlertsManager manager;
+    /**
+     * The number of scheduling passes, one for every time the alert manager thread woke up.
+     */
+    private final LongAdder passes = new LongAdder();
+    /**
+     * The {@link System#nanoTime()} of the last sample used for {@link #getChecksPerSecond()}.
+     */
+    private long lastRateSampleTime = System.nanoTime();
+    /**
+     * The number of checks at the last sample used for {@link #getChecksPerSecond()}.
+     */
+    private long lastRateSampleCount = 0;
+    /**
+     * The number of checks per second as of the last sample.
+     */
+    private double checksPerSecond = 0;
+
+    /**
+     * Instantiates a new instance of the class.
+     *
+     * @param manager The manager the statistics belong to.
+     */
+    AlertsManagerMetrics(AlertsManager manager) {
+        this.manager = manager;
+    }
+
+    /**
+     * Records the start of a scheduling pass.
+     */
+    void recordPass() {
+        passes.increment();
+    }
+
+    /**
+     * Gets the number of scheduling passes, one for every time the alert manager thread woke up.
+     *
+     * @return The number of passes.
+     */
+    @Override
+    public long getPassCount() {
+        return passes.sum();
+    }
+
+    /**
+     * Gets the number of alerts registered with the manager.
+     *
+     * @return The number of alerts.
+     */
+    @Override
+    public int getAlertCount() {
+        return manager.getAlertsSnapshot().size();
+    }
+
+    /**
+     * Gets the number of alerts waiting in the schedule queues of every shard.
+     *
+     * @return The queue depth.
+     */
+    @Override
+    public int getQueueDepth() {
+        var depth = 0;
+        for (var shard : manager.getShards()) {
+            depth += shard.getQueueDepth();
+        }
+
+        return depth;
+    }
+
+    /**
+     * Gets how long until the next alert is due.
+     *
+     * @return The time until the next alert is due in milliseconds, negative if it is overdue, -1 if the queue is
+     * empty.
+     */
+    @Override
+    public double getNextDueInMillis() {
+        var hasNextDue = false;
+        long nextDueTime = 0;
+        for (var shard : manager.getShards()) {
+            if (shard.hasNextDue() && (!hasNextDue || shard.getNextDueTime() - nextDueTime < 0)) {
+                hasNextDue = true;
+                nextDueTime = shard.getNextDueTime();
+            }
+        }
+
+        if (!hasNextDue) {
+            return -1;
+        }
+
+        return toMillis(nextDueTime - System.nanoTime());
+    }
+
+    /**
+     * Gets the number of checks that ran per second since the last time this was asked, or over the last second
+     * if it was asked more recently than that.
+     *
+     * @return The number of checks per second.
+     */
+    @Override
+    public synchronized double getChecksPerSecond() {
+        var now = System.nanoTime();
+        var elapsed = now - lastRateSampleTime;
+        if (elapsed >= TimeUnit.SECONDS.toNanos(1)) {
+            var count = getCheckCount();
+            checksPerSecond = (count - lastRateSampleCount) / (elapsed / (double) TimeUnit.SECONDS.toNanos(1));
+            lastRateSampleCount = count;
+            lastRateSampleTime = now;
+        }
+
+        return checksPerSecond;
+    }
+
+    /**
+     * Gets the number of worker threads that run alert checks.
+     *
+     * @return The number of worker threads, 0 if checks run on the alert manager thread.
+     */
+    @Override
+    public int getWorkerCount() {
+        return manager.getWorkerCount();
+    }
+
+    /**
+     * Gets the number of scheduler shards the manager spreads its alerts over.
+     *
+     * @return The number of shards.
+     */
+    @Override
+    public int getShardCount() {
+        return manager.getShardCount();
+    }
+
+    /**
+     * Gets the number of alerts that failed too many times in a row and are no longer checked.
+     *
+     * @return The number of quarantined alerts.
+     */
+    @Override
+    public int getQuarantinedCount() {
+        return manager.getQuarantinedCount();
+    }
+
+    /**
+     * Gets how well the checks of a single alert have been going.
+     *
+     * @param id The unique identifier of the alert. {@link IAlert#getId()}
+     * @return The health, null if the alert was not found.
+     */
+    @Override
+    public AlertHealth getAlertHealth(int id) {
+        return manager.getAlertHealth(id);
+    }
+
+    /**
+     * Gets the check statistics of a single alert.
+     *
+     * @param id The unique identifier of the alert. {@link IAlert#getId()}
+     * @return The statistics, null if the alert was not found.
+     */
+    @Override
+    public AlertMetrics getAlertMetrics(int id) {
+        return manager.getMetrics(id);
+    }
+}
@@ -0,0 +1,79 @@
+package org.nullinside.notification_app.alerts;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable view of the alerts registered with an {@link AlertsManager} at a point in time.
+ * <p>
+ * Every addition or removal of an alert bumps the version of the manager's alert list. Two snapshots with
+ * the same version contain the same alerts, so callers can hold on to the version and skip work when nothing
+ * has changed.
+ */
+public final class AlertsSnapshot {
+    /**
+     * The snapshot of a manager that has never had an alert.
+     */
+    static final AlertsSnapshot EMPTY = new AlertsSnapshot(0, new IAlert[0]);
+    /**
+     * The version of the alert list the snapshot was taken from.
+     */
+    private final long version;
+    /**
+     * The alerts in the order they were added.
+     */
+    private final IAlert[] alerts;
+    /**
+     * The read only view of {@link #alerts}.
+     */
+    private final List<IAlert> alertsView;
+
+    /**
+     * Instantiates a new instance of the class.
+     *
+     * @param version The version of the alert list the snapshot was taken from.
+     * @param alerts  The alerts in the order they were added. The array is owned by the snapshot afterwards.
+     */
+    AlertsSnapshot(long version, IAlert[] alerts) {
+        this.version = version;
+        this.alerts = alerts;
+        this.alertsView = Collections.unmodifiableList(Arrays.asList(alerts));
+    }
+
+    /**
+     * Gets the version of the alert list the snapshot was taken from.
+     *
+     * @return The version, it only ever increases.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the alerts in the order they were added.
+     *
+     * @return A read only list of the alerts.
+     */
+    public List<IAlert> getAlerts() {
+        return alertsView;
+    }
+
+    /**
+     * Gets the number of alerts in the snapshot.
+     *
+     * @return The number of alerts.
+     */
+    public int size() {
+        return alerts.length;
+    }
+
+    /**
+     * Copies the alerts into a new array.
+     *
+     * @return The alerts in the order they were added.
+     */
+    public IAlert[] toArray() {
+        return alerts.clone();
+    }
+}
@@ -0,0 +1,20 @@
+package org.nullinside.notification_app.alerts;
+
+/**
+ * What the {@link AlertsManager} does with a {@link ScheduleMode#FIXED_RATE} alert that fell behind by one or more
+ * update intervals, for example after a long garbage collection, a slow check or the machine being suspended.
+ */
+public enum CatchUpPolicy {
+    /**
+     * Drops the late check and every missed check, the alert is next checked at its next on-time slot.
+     */
+    SKIP,
+    /**
+     * Runs a single check for all of the missed checks and then continues with the next on-time slot.
+     */
+    COALESCE,
+    /**
+     * Runs every missed check back to back until the alert has caught up.
+     */
+    BURST
+}
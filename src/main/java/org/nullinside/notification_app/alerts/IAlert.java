@@ -56,6 +56,48 @@ public interface IAlert {
      */
     void setUpdateInterval(long updateInterval);
 
+    /**
+     * Gets how the next check is scheduled relative to the previous one.
+     *
+     * @return The schedule mode.
+     */
+    ScheduleMode getScheduleMode();
+
+    /**
+     * Sets how the next check is scheduled relative to the previous one.
+     *
+     * @param scheduleMode The schedule mode.
+     */
+    void setScheduleMode(ScheduleMode scheduleMode);
+
+    /**
+     * Gets what to do when a {@link ScheduleMode#FIXED_RATE} alert misses one or more checks.
+     *
+     * @return The catch up policy.
+     */
+    CatchUpPolicy getCatchUpPolicy();
+
+    /**
+     * Sets what to do when a {@link ScheduleMode#FIXED_RATE} alert misses one or more checks.
+     *
+     * @param catchUpPolicy The catch up policy.
+     */
+    void setCatchUpPolicy(CatchUpPolicy catchUpPolicy);
+
+    /**
+     * Gets the longest a check may take before the alert manager interrupts it.
+     *
+     * @return The check timeout in milliseconds, 0 to use the alert manager's default.
+     */
+    long getCheckTimeout();
+
+    /**
+     * Sets the longest a check may take before the alert manager interrupts it.
+     *
+     * @param checkTimeout The check timeout in milliseconds, 0 to use the alert manager's default.
+     */
+    void setCheckTimeout(long checkTimeout);
+
     /**
      * Gets the alert configuration in JSON string format.
      *
@@ -0,0 +1,24 @@
+package org.nullinside.notification_app.alerts;
+
+/**
+ * Creates alerts of one type. Factories are provided as services, in module-info.java and in
+ * META-INF/services for the class path, described with {@link AlertType} and found by the
+ * {@link AlertTypeRegistry}.
+ * <p>
+ * Factories should be cheap to create and not touch the classes of their alerts until {@link #create()} is called.
+ */
+public interface IAlertFactory {
+    /**
+     * Creates a new alert with its default configuration.
+     *
+     * @return The alert.
+     */
+    IAlert create();
+
+    /**
+     * Gets a flag indicating whether the alerts created are {@link IEventAlert}s.
+     *
+     * @return True if event alerts, false if polled.
+     */
+    boolean isEventAlert();
+}
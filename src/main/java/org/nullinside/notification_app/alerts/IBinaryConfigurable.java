@@ -0,0 +1,40 @@
+package org.nullinside.notification_app.alerts;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * An alert that can save its configuration in a binary format as well as JSON.
+ * <p>
+ * The binary configuration is only used to start the application faster. JSON stays the format the configuration
+ * is edited and kept in, so the binary format can change freely between versions as long as
+ * {@link #getBinaryConfigVersion()} changes with it.
+ */
+public interface IBinaryConfigurable {
+    /**
+     * Gets the version of the binary configuration format. A configuration saved with another version is read
+     * from JSON instead.
+     *
+     * @return The version.
+     */
+    default int getBinaryConfigVersion() {
+        return 1;
+    }
+
+    /**
+     * Writes the alert configuration in binary format.
+     *
+     * @param output The output to write to.
+     * @throws IOException Thrown if the write fails.
+     */
+    void writeBinaryConfig(DataOutput output) throws IOException;
+
+    /**
+     * Sets the alert configuration from the binary format written by {@link #writeBinaryConfig(DataOutput)}.
+     *
+     * @param input The buffer to read from, holding exactly the configuration.
+     * @return True if successful, false if the configuration couldn't be read and should be read from JSON instead.
+     */
+    boolean readBinaryConfig(ByteBuffer input);
+}
@@ -0,0 +1,25 @@
+package org.nullinside.notification_app.alerts;
+
+/**
+ * An alert that tells the {@link AlertsManager} when something happens instead of being asked every update
+ * interval.
+ * <p>
+ * The manager never calls {@link #check()} or looks at the update interval of an event alert and it doesn't take
+ * a slot in the schedule. Instead the alert is started while it is enabled and stopped when it is disabled or
+ * removed. Polling alerts and event alerts can be mixed freely in the same manager.
+ */
+public interface IEventAlert extends IAlert {
+    /**
+     * Starts listening for whatever the alert watches. Called when the alert is added enabled or is enabled.
+     * <p>
+     * This should return quickly, do any slow work such as connecting on a thread of your own.
+     *
+     * @param sink Where to send messages until {@link #stop()} is called. Safe to call from any thread.
+     */
+    void start(AlertMessageEvent sink);
+
+    /**
+     * Stops listening. Called when the alert is disabled or removed. Messages sent after this are dropped.
+     */
+    void stop();
+}
@@ -0,0 +1,375 @@
+package org.nullinside.notification_app.alerts;
+
+import javafx.scene.Parent;
+import javafx.scene.control.Label;
+import javafx.scene.layout.VBox;
+
+import java.util.ArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Stands in for a saved alert until the alert is needed, so starting the application doesn't have to create
+ * every alert up front.
+ * <p>
+ * Until then the {@link AlertsManager} schedules the alert from its {@link AlertDescriptor}. The alert itself is
+ * created the first time it is checked, its GUI is opened or anything about it changes, or ahead of time by
+ * {@link #warmUp(Executor)}. A disabled alert that is never opened is never created at all.
+ */
+public class LazyAlert implements IAlert {
+    /**
+     * The fully qualified class name of the alert.
+     */
+    private final String className;
+    /**
+     * The saved configuration of the alert in JSON format.
+     */
+    private final String config;
+    /**
+     * How to schedule the alert until it is created.
+     */
+    private final AlertDescriptor descriptor;
+    /**
+     * Creates the alert from its saved configuration, returns null if it can't be created.
+     */
+    private final Supplier<IAlert> factory;
+    /**
+     * The subscriptions to the alert's enabled state changing, handed to the alert once it is created. Guarded by
+     * the instance's lock.
+     */
+    private final ArrayList<AlertEnableUpdateEvent> alertEnabledSubscribers = new ArrayList<>();
+    /**
+     * The unique identifier of the alert per the containing alert manager.
+     */
+    private volatile int id;
+    /**
+     * The alert, null until it is created.
+     */
+    private volatile IAlert alert;
+
+    /**
+     * Instantiates a new instance of the class.
+     *
+     * @param className  The fully qualified class name of the alert.
+     * @param config     The saved configuration of the alert in JSON format.
+     * @param descriptor How to schedule the alert until it is created.
+     * @param factory    Creates the alert from its saved configuration, returns null if it can't be created.
+     */
+    public LazyAlert(String className, String config, AlertDescriptor descriptor, Supplier<IAlert> factory) {
+        this.className = className;
+        this.config = config;
+        this.descriptor = descriptor;
+        this.factory = factory;
+    }
+
+    /**
+     * Gets the alert an alert stands in for.
+     *
+     * @param alert The alert.
+     * @return The alert the {@link LazyAlert} stands in for if it was created, otherwise the alert itself.
+     */
+    public static IAlert unwrap(IAlert alert) {
+        if (alert instanceof LazyAlert) {
+            var created = ((LazyAlert) alert).alert;
+            return null != created ? created : alert;
+        }
+
+        return alert;
+    }
+
+    /**
+     * Gets the fully qualified class name of the alert.
+     *
+     * @return The class name.
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * Gets a flag indicating whether the alert was created.
+     *
+     * @return True if created, false otherwise.
+     */
+    public boolean isMaterialized() {
+        return null != alert;
+    }
+
+    /**
+     * Creates the alert on another thread unless it was already created.
+     *
+     * @param executor The thread to create it on.
+     */
+    public void warmUp(Executor executor) {
+        if (null != alert) {
+            return;
+        }
+
+        executor.execute(() -> {
+            try {
+                getAlert();
+            } catch (RuntimeException e) {
+                // It'll be tried again when it is needed.
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Gets the alert, creating it if it wasn't created yet.
+     *
+     * @return The alert.
+     * @throws IllegalStateException Thrown if the alert can't be created.
+     */
+    protected IAlert getAlert() {
+        var created = alert;
+        if (null != created) {
+            return created;
+        }
+
+        synchronized (this) {
+            if (null != alert) {
+                return alert;
+            }
+
+            created = factory.get();
+            if (null == created) {
+                throw new IllegalStateException("Failed to create alert " + className);
+            }
+
+            created.setId(id);
+            for (var sub : alertEnabledSubscribers) {
+                subscribe(created, sub);
+            }
+
+            alertEnabledSubscribers.clear();
+            alert = created;
+            return created;
+        }
+    }
+
+    /**
+     * Gets the unique identifier of the alert per the containing alert manager.
+     *
+     * @return The id.
+     */
+    @Override
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Sets the unique identifier of the alert per the containing alert manager.
+     *
+     * @param id The id.
+     */
+    @Override
+    public void setId(int id) {
+        synchronized (this) {
+            this.id = id;
+            if (null != alert) {
+                alert.setId(id);
+            }
+        }
+    }
+
+    /**
+     * Gets a flag indicating whether the alert is enabled.
+     *
+     * @return True if enabled, false otherwise.
+     */
+    @Override
+    public boolean getIsEnabled() {
+        var created = alert;
+        return null != created ? created.getIsEnabled() : descriptor.isEnabled;
+    }
+
+    /**
+     * Sets a flag indicating whether the alert is enabled.
+     *
+     * @param isEnabled True if enabled, false otherwise.
+     */
+    @Override
+    public void setIsEnabled(boolean isEnabled) {
+        getAlert().setIsEnabled(isEnabled);
+    }
+
+    /**
+     * Subscribes to the alert's enabled state changing through {@link #setIsEnabled(boolean)}.
+     *
+     * @param sub The subscription to add.
+     */
+    @Override
+    public void addEnabledChangedListener(AlertEnableUpdateEvent sub) {
+        synchronized (this) {
+            if (null == alert) {
+                alertEnabledSubscribers.add(sub);
+                return;
+            }
+        }
+
+        subscribe(alert, sub);
+    }
+
+    /**
+     * Subscribes to the enabled state of the alert changing on behalf of this instance.
+     *
+     * @param created The alert.
+     * @param sub     The subscription.
+     */
+    private void subscribe(IAlert created, AlertEnableUpdateEvent sub) {
+        // Subscribers know the alert by this instance, not the one it stands in for.
+        created.addEnabledChangedListener((enabled, updatedAlert) -> sub.onAlertEnableChanged(enabled, this));
+    }
+
+    /**
+     * Gets the interval at which the alert should check if it should alert.
+     *
+     * @return The update interval in milliseconds.
+     */
+    @Override
+    public long getUpdateInterval() {
+        var created = alert;
+        return null != created ? created.getUpdateInterval() : descriptor.updateInterval;
+    }
+
+    /**
+     * Sets the interval at which the alert should check if it should alert.
+     *
+     * @param updateInterval The update interval in milliseconds.
+     */
+    @Override
+    public void setUpdateInterval(long updateInterval) {
+        getAlert().setUpdateInterval(updateInterval);
+    }
+
+    /**
+     * Gets how the next check is scheduled relative to the previous one.
+     *
+     * @return The schedule mode.
+     */
+    @Override
+    public ScheduleMode getScheduleMode() {
+        var created = alert;
+        return null != created ? created.getScheduleMode() : descriptor.scheduleMode;
+    }
+
+    /**
+     * Sets how the next check is scheduled relative to the previous one.
+     *
+     * @param scheduleMode The schedule mode.
+     */
+    @Override
+    public void setScheduleMode(ScheduleMode scheduleMode) {
+        getAlert().setScheduleMode(scheduleMode);
+    }
+
+    /**
+     * Gets what to do when a {@link ScheduleMode#FIXED_RATE} alert misses one or more checks.
+     *
+     * @return The catch up policy.
+     */
+    @Override
+    public CatchUpPolicy getCatchUpPolicy() {
+        var created = alert;
+        return null != created ? created.getCatchUpPolicy() : descriptor.catchUpPolicy;
+    }
+
+    /**
+     * Sets what to do when a {@link ScheduleMode#FIXED_RATE} alert misses one or more checks.
+     *
+     * @param catchUpPolicy The catch up policy.
+     */
+    @Override
+    public void setCatchUpPolicy(CatchUpPolicy catchUpPolicy) {
+        getAlert().setCatchUpPolicy(catchUpPolicy);
+    }
+
+    /**
+     * Gets the longest a check may take before the alert manager interrupts it.
+     *
+     * @return The check timeout in milliseconds, 0 to use the alert manager's default.
+     */
+    @Override
+    public long getCheckTimeout() {
+        var created = alert;
+        return null != created ? created.getCheckTimeout() : descriptor.checkTimeout;
+    }
+
+    /**
+     * Sets the longest a check may take before the alert manager interrupts it.
+     *
+     * @param checkTimeout The check timeout in milliseconds, 0 to use the alert manager's default.
+     */
+    @Override
+    public void setCheckTimeout(long checkTimeout) {
+        getAlert().setCheckTimeout(checkTimeout);
+    }
+
+    /**
+     * Gets the alert configuration in JSON string format.
+     *
+     * @return The alert configuration in JSON string format.
+     */
+    @Override
+    public String getConfig() {
+        var created = alert;
+        return null != created ? created.getConfig() : config;
+    }
+
+    /**
+     * Sets the alert configuration in JSON string format.
+     *
+     * @param config The alert configuration in JSON string format.
+     */
+    @Override
+    public void setConfig(String config) {
+        getAlert().setConfig(config);
+    }
+
+    /**
+     * Gets the window GUI to display when configuring the alert.
+     *
+     * @return The window GUI to display when configuring the alert.
+     */
+    @Override
+    public Parent getGui() {
+        return getAlert().getGui();
+    }
+
+    /**
+     * Sets the preview GUI to display in the list of all alerts. Until the alert is created it only shows the
+     * kind of alert it is.
+     *
+     * @param parent The parent that houses the alert in the alert list.
+     */
+    @Override
+    public void setPreviewRow(VBox parent) {
+        var created = alert;
+        if (null != created) {
+            created.setPreviewRow(parent);
+            return;
+        }
+
+        parent.getChildren().add(new Label(className.substring(className.lastIndexOf('.') + 1)));
+    }
+
+    /**
+     * Checks the alert, creating it first if it wasn't created yet.
+     */
+    @Override
+    public void check() {
+        getAlert().check();
+    }
+
+    /**
+     * Dispose of the alert if it was created.
+     */
+    @Override
+    public void dispose() {
+        var created = alert;
+        if (null != created) {
+            created.dispose();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.nullinside.notification_app.alerts;
+
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Stands in for a saved {@link IEventAlert} until the alert is needed, the way {@link LazyAlert} does for other
+ * alerts.
+ * <p>
+ * Starting the alert creates it, which can be slow, so the alert is created and started on the given executor
+ * instead of the caller's thread.
+ */
+public class LazyEventAlert extends LazyAlert implements IEventAlert {
+    /**
+     * The thread the alert is created and started on.
+     */
+    private final Executor executor;
+    /**
+     * Guards {@link #sink} and {@link #isAlertStarted}.
+     */
+    private final Object startLock = new Object();
+    /**
+     * Where to send messages, null while the alert should be stopped.
+     */
+    private AlertMessageEvent sink;
+    /**
+     * True while the alert is started, false otherwise.
+     */
+    private boolean isAlertStarted;
+
+    /**
+     * Instantiates a new instance of the class.
+     *
+     * @param className  The fully qualified class name of the alert.
+     * @param config     The saved configuration of the alert in JSON format.
+     * @param descriptor How to schedule the alert until it is created.
+     * @param factory    Creates the alert from its saved configuration, returns null if it can't be created.
+     * @param executor   The thread to create and start the alert on.
+     */
+    public LazyEventAlert(String className, String config, AlertDescriptor descriptor, Supplier<IAlert> factory,
+                          Executor executor) {
+        super(className, config, descriptor, factory);
+        this.executor = executor;
+    }
+
+    /**
+     * Creates the alert if needed and starts it on the executor.
+     *
+     * @param sink Where to send messages until {@link #stop()} is called.
+     */
+    @Override
+    public void start(AlertMessageEvent sink) {
+        synchronized (startLock) {
+            this.sink = sink;
+        }
+
+        if (isMaterialized()) {
+            startAlert();
+        } else {
+            executor.execute(this::startAlert);
+        }
+    }
+
+    /**
+     * Starts the alert unless it was stopped again in the meantime.
+     */
+    private void startAlert() {
+        IEventAlert created;
+        try {
+            created = (IEventAlert) getAlert();
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            return;
+        }
+
+        synchronized (startLock) {
+            if (null == sink || isAlertStarted) {
+                return;
+            }
+
+            created.start(sink);
+            isAlertStarted = true;
+        }
+    }
+
+    /**
+     * Stops the alert, or keeps it from starting if it wasn't started yet.
+     */
+    @Override
+    public void stop() {
+        synchronized (startLock) {
+            sink = null;
+            if (isAlertStarted) {
+                isAlertStarted = false;
+                ((IEventAlert) getAlert()).stop();
+            }
+        }
+    }
+}
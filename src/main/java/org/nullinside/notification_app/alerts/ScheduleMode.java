@@ -0,0 +1,17 @@
+package org.nullinside.notification_app.alerts;
+
+/**
+ * How the {@link AlertsManager} decides when to check an alert again.
+ */
+public enum ScheduleMode {
+    /**
+     * The alert is checked every update interval measured from when it was supposed to be checked. The time the
+     * check takes doesn't push the next check back, so the alert stays on the same cadence forever.
+     */
+    FIXED_RATE,
+    /**
+     * The alert is checked one update interval after its previous check finished. Checks never overlap or pile up
+     * but the cadence drifts by however long each check takes.
+     */
+    FIXED_DELAY
+}
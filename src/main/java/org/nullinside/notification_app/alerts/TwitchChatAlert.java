@@ -2,6 +2,7 @@ package org.nullinside.notification_app.alerts;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import javafx.application.Platform;
 import javafx.scene.Parent;
 import javafx.scene.control.Label;
 import javafx.scene.layout.VBox;
@@ -10,14 +11,20 @@ import org.nullinside.notification_app.config.AbstractAlertConfig;
 import org.nullinside.notification_app.config.GlobalConfig;
 import org.nullinside.notification_app.config.TwitchChatAlertConfig;
 import org.nullinside.notification_app.controllers.TwitchChatAlertController;
+import org.nullinside.twitch.ChatConnectionState;
 import org.nullinside.twitch.TwitchService;
 
+import java.io.DataOutput;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * An alert that monitors twitch chat. It notifies the user when someone types in chat.
+ * <p>
+ * Chat messages arrive on the IRC bot's own thread so the alert is never polled, it stays connected for as long
+ * as the alerts manager keeps it started. The state of the chat connection is shown in the alert's preview row.
  */
-public class TwitchChatAlert extends AbstractAlert {
+public class TwitchChatAlert extends AbstractEventAlert implements IBinaryConfigurable {
     /**
      * The title to display in the preview panel of the UI.
      */
@@ -30,6 +37,14 @@ public class TwitchChatAlert extends AbstractAlert {
      * The twitch service responsible for interacting with the twitch website and it's APIs.
      */
     private TwitchService twitch;
+    /**
+     * The state of the chat connection.
+     */
+    private ChatConnectionState chatState = ChatConnectionState.CLOSED;
+    /**
+     * The label in the preview row showing the state of the chat connection, null until the row is shown.
+     */
+    private Label stateLabel;
 
     /**
      * Instantiates a new instance of the class.
@@ -45,26 +60,11 @@ public class TwitchChatAlert extends AbstractAlert {
 
         controller.addClosedListener(saved -> {
             if (saved) {
-                GlobalConfig.getInstance().updateSavedConfigurations();
+                GlobalConfig.getInstance().updateSavedConfiguration(this);
             }
         });
     }
 
-    /**
-     * Sets a flag indicating whether the alert is enabled.
-     *
-     * @param isEnabled True if enabled, false otherwise.
-     */
-    @Override
-    public void setIsEnabled(boolean isEnabled) {
-        if (!isEnabled && null != twitch) {
-            twitch.disconnectChats();
-            twitch = null;
-        }
-
-        super.setIsEnabled(isEnabled);
-    }
-
     /**
      * Gets the alert configuration.
      *
@@ -76,19 +76,52 @@ public class TwitchChatAlert extends AbstractAlert {
     }
 
     /**
-     * Executes the logic of alert. This includes identifying if an alert condition
-     * exists and providing some kind of indication to the user that it happened.
+     * Connects to the Twitch chat and sends a message for everything typed in it.
+     *
+     * @param sink Where to send messages until {@link #stop()} is called.
      */
     @Override
-    public void check() {
-        if (getIsEnabled() && null != twitch) {
+    public synchronized void start(AlertMessageEvent sink) {
+        if (null != twitch) {
             return;
         }
 
         twitch = new TwitchService(controller.config.clientId, controller.config.clientSecret,
                 controller.config.username, controller.config.oauth, controller.config.channel,
                 controller.config.alertSoundFilename);
-        twitch.connectToChat();
+        var service = twitch;
+        twitch.connectToChat((username, message) -> sink.onAlertMessage(new AlertMessage(this, username, message)),
+                state -> onChatStateChanged(service, state));
+    }
+
+    /**
+     * Disconnects from the Twitch chat.
+     */
+    @Override
+    public synchronized void stop() {
+        if (null != twitch) {
+            twitch.disconnectChats();
+            twitch = null;
+            onChatStateChanged(null, ChatConnectionState.CLOSED);
+        }
+    }
+
+    /**
+     * Shows the state of the chat connection in the preview row.
+     *
+     * @param service The service the state is for, ignored unless it is still the current one.
+     * @param state   The state of the chat connection.
+     */
+    private synchronized void onChatStateChanged(TwitchService service, ChatConnectionState state) {
+        if (service != twitch) {
+            return;
+        }
+
+        chatState = state;
+        var label = stateLabel;
+        if (null != label) {
+            Platform.runLater(() -> label.setText(state.getDisplayName()));
+        }
     }
 
     /**
@@ -120,7 +153,13 @@ public class TwitchChatAlert extends AbstractAlert {
     public void setPreviewRow(VBox parent) {
         var title = new Label(TITLE);
         var channel = new Label(controller.config.channel);
-        parent.getChildren().addAll(title, channel);
+        Label state;
+        synchronized (this) {
+            state = new Label(chatState.getDisplayName());
+            stateLabel = state;
+        }
+
+        parent.getChildren().addAll(title, channel, state);
     }
 
     /**
@@ -154,14 +193,39 @@ public class TwitchChatAlert extends AbstractAlert {
         }
     }
 
+    /**
+     * Writes the alert configuration in binary format.
+     *
+     * @param output The output to write to.
+     * @throws IOException Thrown if the write fails.
+     */
+    @Override
+    public void writeBinaryConfig(DataOutput output) throws IOException {
+        controller.config.writeBinary(output);
+    }
+
+    /**
+     * Sets the alert configuration from binary format.
+     *
+     * @param input The buffer to read from, holding exactly the configuration.
+     * @return True if successful, false otherwise.
+     */
+    @Override
+    public boolean readBinaryConfig(ByteBuffer input) {
+        try {
+            controller.config = TwitchChatAlertConfig.fromBinary(input);
+            return true;
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
     /**
      * Dispose of managed and unmanaged resources used by the alert.
      */
     @Override
     public void dispose() {
-        if (null != twitch) {
-            twitch.disconnectChats();
-            twitch = null;
-        }
+        stop();
     }
 }
@@ -0,0 +1,27 @@
+package org.nullinside.notification_app.alerts;
+
+/**
+ * Creates {@link TwitchChatAlert}s.
+ */
+@AlertType(id = "org.nullinside.notification_app.alerts.TwitchChatAlert", name = "Twitch Chat")
+public class TwitchChatAlertFactory implements IAlertFactory {
+    /**
+     * Creates a new alert with its default configuration.
+     *
+     * @return The alert.
+     */
+    @Override
+    public IAlert create() {
+        return new TwitchChatAlert();
+    }
+
+    /**
+     * Gets a flag indicating whether the alerts created are {@link IEventAlert}s.
+     *
+     * @return True, Twitch chat messages are pushed to the alert.
+     */
+    @Override
+    public boolean isEventAlert() {
+        return true;
+    }
+}
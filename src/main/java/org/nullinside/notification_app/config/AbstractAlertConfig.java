@@ -1,7 +1,13 @@
 package org.nullinside.notification_app.config;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.nullinside.notification_app.alerts.CatchUpPolicy;
+import org.nullinside.notification_app.alerts.ScheduleMode;
+import org.nullinside.utilities.BinaryUtilities;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -22,6 +28,18 @@ public abstract class AbstractAlertConfig {
      * The update interval in milliseconds.
      */
     private long updateInterval;
+    /**
+     * How the next check is scheduled relative to the previous one.
+     */
+    private ScheduleMode scheduleMode = ScheduleMode.FIXED_RATE;
+    /**
+     * What to do when a {@link ScheduleMode#FIXED_RATE} alert misses one or more checks.
+     */
+    private CatchUpPolicy catchUpPolicy = CatchUpPolicy.COALESCE;
+    /**
+     * The longest a check may take in milliseconds, 0 to use the alert manager's default.
+     */
+    private long checkTimeout;
 
     /**
      * Instantiates a new instance of the class.
@@ -39,6 +57,42 @@ public abstract class AbstractAlertConfig {
         this.enabledSubscribers = new ArrayList<>(config.enabledSubscribers);
         this.isEnabled = config.isEnabled;
         this.updateInterval = config.updateInterval;
+        this.scheduleMode = config.scheduleMode;
+        this.catchUpPolicy = config.catchUpPolicy;
+        this.checkTimeout = config.checkTimeout;
+    }
+
+    /**
+     * Writes the common configuration in binary format. Subclasses write their own configuration after it.
+     *
+     * @param output The output to write to.
+     * @throws IOException Thrown if the write fails.
+     */
+    public void writeBinary(DataOutput output) throws IOException {
+        synchronized (this) {
+            output.writeBoolean(isEnabled);
+            output.writeLong(updateInterval);
+            BinaryUtilities.writeString(output, scheduleMode.name());
+            BinaryUtilities.writeString(output, catchUpPolicy.name());
+            output.writeLong(checkTimeout);
+        }
+    }
+
+    /**
+     * Reads the common configuration written by {@link #writeBinary(DataOutput)}.
+     *
+     * @param input The buffer to read from, positioned at the start of the configuration.
+     * @throws java.nio.BufferUnderflowException Thrown if the buffer ends before the configuration does.
+     * @throws IllegalArgumentException          Thrown if the configuration is invalid.
+     */
+    protected void readBinary(ByteBuffer input) {
+        synchronized (this) {
+            isEnabled = 0 != input.get();
+            updateInterval = input.getLong();
+            scheduleMode = ScheduleMode.valueOf(BinaryUtilities.readString(input));
+            catchUpPolicy = CatchUpPolicy.valueOf(BinaryUtilities.readString(input));
+            checkTimeout = input.getLong();
+        }
     }
 
     /**
@@ -63,6 +117,72 @@ public abstract class AbstractAlertConfig {
         }
     }
 
+    /**
+     * Gets how the next check is scheduled relative to the previous one.
+     *
+     * @return The schedule mode.
+     */
+    public ScheduleMode getScheduleMode() {
+        synchronized (this) {
+            return scheduleMode;
+        }
+    }
+
+    /**
+     * Sets how the next check is scheduled relative to the previous one.
+     *
+     * @param scheduleMode The schedule mode.
+     */
+    public void setScheduleMode(ScheduleMode scheduleMode) {
+        synchronized (this) {
+            this.scheduleMode = null != scheduleMode ? scheduleMode : ScheduleMode.FIXED_RATE;
+        }
+    }
+
+    /**
+     * Gets what to do when a {@link ScheduleMode#FIXED_RATE} alert misses one or more checks.
+     *
+     * @return The catch up policy.
+     */
+    public CatchUpPolicy getCatchUpPolicy() {
+        synchronized (this) {
+            return catchUpPolicy;
+        }
+    }
+
+    /**
+     * Sets what to do when a {@link ScheduleMode#FIXED_RATE} alert misses one or more checks.
+     *
+     * @param catchUpPolicy The catch up policy.
+     */
+    public void setCatchUpPolicy(CatchUpPolicy catchUpPolicy) {
+        synchronized (this) {
+            this.catchUpPolicy = null != catchUpPolicy ? catchUpPolicy : CatchUpPolicy.COALESCE;
+        }
+    }
+
+    /**
+     * Gets the longest a check may take before the alert manager interrupts it.
+     *
+     * @return The check timeout in milliseconds, 0 to use the alert manager's default.
+     */
+    public long getCheckTimeout() {
+        synchronized (this) {
+            return checkTimeout;
+        }
+    }
+
+    /**
+     * Sets the longest a check may take before the alert manager interrupts it.
+     *
+     * @param checkTimeout The check timeout in milliseconds, 0 to use the alert manager's default.
+     */
+    public void setCheckTimeout(long checkTimeout) {
+        synchronized (this) {
+            this.checkTimeout = Math.max(checkTimeout, 0);
+        }
+    }
+
     /**
      * Gets a flag indicating whether the alert is enabled.
      *
@@ -1,19 +1,43 @@
 package org.nullinside.notification_app.config;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.nullinside.notification_app.alerts.AlertDescriptor;
 import org.nullinside.notification_app.alerts.IAlert;
+import org.nullinside.notification_app.alerts.LazyAlert;
 
 /**
  * Maps a class name to it's configuration in JSON format.
  */
 public class AlertConfiguration {
     /**
-     * The fully qualified class name.
+     * The unique identifier the alert had when the configuration was saved. Only used to match the alert up
+     * with the configuration journal, alerts get a new one every time the application starts.
+     */
+    public int id;
+    /**
+     * The fully qualified class name, which is also the type id of the alert in the
+     * {@link org.nullinside.notification_app.alerts.AlertTypeRegistry}.
      */
     public String className;
     /**
      * The configuration of the class in JSON format.
      */
     public String config;
+    /**
+     * How to schedule the alert before it is created, null if it wasn't saved.
+     */
+    public AlertDescriptor descriptor;
+    /**
+     * The configuration of the class in binary format, null if there isn't one. Only kept in the binary
+     * configuration snapshot. {@link org.nullinside.notification_app.alerts.IBinaryConfigurable}
+     */
+    @JsonIgnore
+    public byte[] binaryConfig;
+    /**
+     * The version of the binary format of {@link #binaryConfig}.
+     */
+    @JsonIgnore
+    public int binaryConfigVersion;
 
     /**
      * Instantiates a instance of the class.
@@ -33,13 +57,46 @@ public class AlertConfiguration {
         this.config = config;
     }
 
+    /**
+     * Instantiates a instance of the class.
+     *
+     * @param id        The unique identifier of the alert.
+     * @param className The fully qualified class name.
+     * @param config    The configuration of the class in JSON format.
+     */
+    public AlertConfiguration(int id, String className, String config) {
+        this.id = id;
+        this.className = className;
+        this.config = config;
+    }
+
+    /**
+     * Instantiates a copy of a configuration saved for another unique identifier.
+     *
+     * @param id     The unique identifier of the alert.
+     * @param config The configuration to copy.
+     */
+    public AlertConfiguration(int id, AlertConfiguration config) {
+        this.id = id;
+        this.className = config.className;
+        this.config = config.config;
+        this.descriptor = config.descriptor;
+        this.binaryConfig = config.binaryConfig;
+        this.binaryConfigVersion = config.binaryConfigVersion;
+    }
+
     /**
      * Instantiates a instance of the class.
      *
      * @param alert The alert.
      */
     public AlertConfiguration(IAlert alert) {
-        className = alert.getClass().getName();
-        config = alert.getConfig();
+        // An alert that was never created keeps the configuration it was loaded with.
+        var unwrapped = LazyAlert.unwrap(alert);
+        id = alert.getId();
+        className = unwrapped instanceof LazyAlert ? ((LazyAlert) unwrapped).getClassName() :
+                unwrapped.getClass().getName();
+        config = unwrapped.getConfig();
+        descriptor = new AlertDescriptor(unwrapped);
     }
 }
@@ -0,0 +1,66 @@
+package org.nullinside.notification_app.config;
+
+import org.nullinside.notification_app.alerts.AlertDescriptor;
+
+/**
+ * A change to a single alert configuration recorded in the configuration journal.
+ */
+public class AlertJournalEntry {
+    /**
+     * The generation of the configuration file the change applies on top of.
+     */
+    public long generation;
+    /**
+     * The {@link AlertConfiguration#id unique identifier} of the alert the change is for.
+     */
+    public int id;
+    /**
+     * True if the alert was removed, false if it was added or changed.
+     */
+    public boolean removed;
+    /**
+     * The fully qualified class name of the alert, null if it was removed.
+     */
+    public String className;
+    /**
+     * The configuration of the alert in JSON format, null if it was removed.
+     */
+    public String config;
+    /**
+     * How to schedule the alert before it is created, null if it was removed.
+     */
+    public AlertDescriptor descriptor;
+
+    /**
+     * Instantiates a instance of the class.
+     */
+    public AlertJournalEntry() {
+
+    }
+
+    /**
+     * Instantiates a instance of the class recording that an alert was added or changed.
+     *
+     * @param generation The generation of the configuration file the change applies on top of.
+     * @param config     The configuration of the alert.
+     */
+    public AlertJournalEntry(long generation, AlertConfiguration config) {
+        this.generation = generation;
+        this.id = config.id;
+        this.className = config.className;
+        this.config = config.config;
+        this.descriptor = config.descriptor;
+    }
+
+    /**
+     * Instantiates a instance of the class recording that an alert was removed.
+     *
+     * @param generation The generation of the configuration file the change applies on top of.
+     * @param id         The unique identifier of the alert.
+     */
+    public AlertJournalEntry(long generation, int id) {
+        this.generation = generation;
+        this.id = id;
+        this.removed = true;
+    }
+}
@@ -0,0 +1,285 @@
+package org.nullinside.notification_app.config;
+
+import org.nullinside.notification_app.alerts.AlertDescriptor;
+import org.nullinside.utilities.BinaryUtilities;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * A copy of the configuration file in a binary format that is faster to load.
+ * <p>
+ * Loading the JSON configuration parses every alert configuration twice, once as part of the configuration file
+ * and again when the alert reads it. The snapshot keeps the alert configurations already split out, along with
+ * the binary configuration of alerts that support it, so they can be read straight out of a memory mapped file.
+ * <p>
+ * The JSON configuration file stays the one that counts. The snapshot remembers the size and modified time the
+ * configuration file had when the snapshot was written and is ignored if the configuration file changed since,
+ * for example because it was edited by hand or the snapshot failed to write.
+ * <p>
+ * A memory mapping stays open until it is garbage collected, and on Windows an open mapping keeps the file from
+ * being replaced or deleted. So every snapshot is written under a new name, config.&lt;generation&gt;.bin, the
+ * newest one is the one that counts and the older ones are deleted whenever they aren't mapped anymore.
+ */
+class BinaryConfigSnapshot {
+    /**
+     * Marks the start of a snapshot file.
+     */
+    private static final int MAGIC = 0x4E434647;
+    /**
+     * The version of the snapshot file format.
+     */
+    private static final int FORMAT_VERSION = 2;
+    /**
+     * Matches the name of a snapshot file, capturing its generation. The snapshot from before there were
+     * generations counts as generation zero.
+     */
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("config(?:\\.(\\d{1,18}))?\\.bin");
+    /**
+     * The JSON configuration file.
+     */
+    private final Path configFile;
+
+    /**
+     * Instantiates a new instance of the class.
+     *
+     * @param configFile The JSON configuration file. The snapshots are kept next to it.
+     */
+    BinaryConfigSnapshot(Path configFile) {
+        this.configFile = configFile;
+    }
+
+    /**
+     * Gets the newest snapshot file.
+     *
+     * @return The snapshot file, null if there isn't one.
+     */
+    Path getSnapshotFile() {
+        var snapshots = findSnapshots();
+        return !snapshots.isEmpty() ? snapshots.get(snapshots.size() - 1) : null;
+    }
+
+    /**
+     * Writes the snapshot of the configuration file as it is on disk right now. Call it after writing the
+     * configuration file.
+     *
+     * @param settings The global settings in JSON format, without the alert configurations.
+     * @param configs  The alert configurations in order.
+     * @return True if successful, false otherwise.
+     */
+    boolean write(byte[] settings, List<AlertConfiguration> configs) {
+        var newest = getSnapshotFile();
+        var snapshotFile = configFile.resolveSibling(
+                String.format("config.%d.bin", null != newest ? getGeneration(newest) + 1 : 1));
+        var temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try {
+            var bytes = new ByteArrayOutputStream(settings.length + configs.size() * 256);
+            var output = new DataOutputStream(bytes);
+            output.writeInt(MAGIC);
+            output.writeInt(FORMAT_VERSION);
+            output.writeLong(Files.size(configFile));
+            output.writeLong(Files.getLastModifiedTime(configFile).toMillis());
+            output.writeInt(settings.length);
+            output.write(settings);
+            output.writeInt(configs.size());
+            for (var config : configs) {
+                output.writeInt(config.id);
+                BinaryUtilities.writeString(output, config.className);
+                BinaryUtilities.writeString(output, config.config);
+                output.writeBoolean(null != config.descriptor);
+                if (null != config.descriptor) {
+                    output.write(config.descriptor.toBytes());
+                }
+
+                output.writeInt(config.binaryConfigVersion);
+                output.writeInt(null != config.binaryConfig ? config.binaryConfig.length : -1);
+                if (null != config.binaryConfig) {
+                    output.write(config.binaryConfig);
+                }
+            }
+
+            output.flush();
+            try (var channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                var buffer = ByteBuffer.wrap(bytes.toByteArray());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+
+                channel.force(true);
+            }
+
+            try {
+                Files.move(temp, snapshotFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            // Not a problem, the snapshot no longer matches the configuration file so it won't be used.
+            e.printStackTrace();
+            deleteQuietly(temp);
+            return false;
+        }
+
+        deleteOlderThan(snapshotFile);
+        return true;
+    }
+
+    /**
+     * Deletes the snapshots. Any that are still mapped stay behind, they are out of date so they won't be used and
+     * are deleted by a later write.
+     */
+    void delete() {
+        for (var snapshot : findSnapshots()) {
+            deleteQuietly(snapshot);
+        }
+    }
+
+    /**
+     * Reads the snapshot if it matches the configuration file.
+     *
+     * @return The contents of the snapshot, null if there is no snapshot, it is out of date or it can't be read.
+     */
+    Contents read() {
+        var snapshotFile = getSnapshotFile();
+        if (null == snapshotFile || !Files.exists(configFile)) {
+            return null;
+        }
+
+        // Left behind by a run that had them mapped, nothing has them mapped now.
+        deleteOlderThan(snapshotFile);
+        try (var channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            // Everything is copied out of the mapping, but the mapping itself lingers until it is garbage collected.
+            var input = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (MAGIC != input.getInt() || FORMAT_VERSION != input.getInt()) {
+                System.out.println("Ignoring the binary configuration snapshot, it is in another format");
+                return null;
+            }
+
+            if (Files.size(configFile) != input.getLong() ||
+                    Files.getLastModifiedTime(configFile).toMillis() != input.getLong()) {
+                System.out.println("Ignoring the binary configuration snapshot, the configuration file changed");
+                return null;
+            }
+
+            var settings = BinaryUtilities.readBytes(input);
+            var count = input.getInt();
+            if (null == settings || count < 0) {
+                throw new IllegalArgumentException("Invalid snapshot");
+            }
+
+            var configs = new ArrayList<AlertConfiguration>(Math.min(count, input.remaining()));
+            for (int i = 0; i < count; i++) {
+                var config = new AlertConfiguration(input.getInt(), BinaryUtilities.readString(input),
+                        BinaryUtilities.readString(input));
+                config.descriptor = 0 != input.get() ? AlertDescriptor.fromBytes(input) : null;
+                config.binaryConfigVersion = input.getInt();
+                config.binaryConfig = BinaryUtilities.readBytes(input);
+                configs.add(config);
+            }
+
+            return new Contents(settings, configs);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Ignoring the binary configuration snapshot, it can't be read: " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Finds the snapshot files next to the configuration file.
+     *
+     * @return The snapshot files, oldest first.
+     */
+    private List<Path> findSnapshots() {
+        var snapshots = new ArrayList<Path>();
+        var directory = configFile.toAbsolutePath().getParent();
+        if (null == directory || !Files.isDirectory(directory)) {
+            return snapshots;
+        }
+
+        try (var files = Files.list(directory)) {
+            files.filter(file -> SNAPSHOT_NAME.matcher(file.getFileName().toString()).matches())
+                    .sorted(Comparator.comparingLong(BinaryConfigSnapshot::getGeneration))
+                    .forEach(snapshots::add);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        return snapshots;
+    }
+
+    /**
+     * Deletes the snapshots older than a snapshot.
+     *
+     * @param snapshotFile The snapshot.
+     */
+    private void deleteOlderThan(Path snapshotFile) {
+        var generation = getGeneration(snapshotFile);
+        for (var snapshot : findSnapshots()) {
+            if (getGeneration(snapshot) < generation) {
+                deleteQuietly(snapshot);
+            }
+        }
+    }
+
+    /**
+     * Gets the generation of a snapshot file.
+     *
+     * @param snapshotFile The snapshot file.
+     * @return The generation.
+     */
+    private static long getGeneration(Path snapshotFile) {
+        var matcher = SNAPSHOT_NAME.matcher(snapshotFile.getFileName().toString());
+        return matcher.matches() && null != matcher.group(1) ? Long.parseLong(matcher.group(1)) : 0;
+    }
+
+    /**
+     * Deletes a file if it can. On Windows a file that is still mapped can't be deleted, which is expected.
+     *
+     * @param file The file.
+     */
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Still mapped, it goes once it isn't.
+        }
+    }
+
+    /**
+     * The contents of a snapshot.
+     */
+    static class Contents {
+        /**
+         * The global settings in JSON format, without the alert configurations.
+         */
+        final byte[] settings;
+        /**
+         * The alert configurations in order.
+         */
+        final List<AlertConfiguration> alertConfigs;
+
+        /**
+         * Instantiates a new instance of the class.
+         *
+         * @param settings     The global settings in JSON format, without the alert configurations.
+         * @param alertConfigs The alert configurations in order.
+         */
+        Contents(byte[] settings, List<AlertConfiguration> alertConfigs) {
+            this.settings = settings;
+            this.alertConfigs = alertConfigs;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package org.nullinside.notification_app.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * The configuration file on disk along with a journal of the alert changes made since it was last written.
+ * <p>
+ * Saving a single alert change appends one line to the journal instead of rewriting the whole configuration.
+ * Every so often the journal is compacted by writing the whole configuration again, which empties the journal.
+ * Each write of the configuration starts a new generation. Journal entries carry the generation they apply on
+ * top of, so entries left over from before a compaction are ignored when the journal is replayed.
+ * <p>
+ * This class is not thread safe, the caller is responsible for synchronizing access to it.
+ */
+class ConfigJournal {
+    /**
+     * Converts the journal entries to and from JSON.
+     */
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    /**
+     * The configuration file.
+     */
+    private final Path snapshotFile;
+    /**
+     * The journal file, next to the configuration file.
+     */
+    private final Path journalFile;
+    /**
+     * The size of the journal in bytes.
+     */
+    private long journalSize;
+
+    /**
+     * Instantiates a new instance of the class.
+     *
+     * @param snapshotFile The configuration file. The journal is kept next to it.
+     */
+    ConfigJournal(Path snapshotFile) {
+        this.snapshotFile = snapshotFile;
+        this.journalFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".journal");
+
+        try {
+            journalSize = Files.exists(journalFile) ? Files.size(journalFile) : 0;
+        } catch (IOException e) {
+            e.printStackTrace();
+            journalSize = 0;
+        }
+    }
+
+    /**
+     * Gets the journal file.
+     *
+     * @return The journal file.
+     */
+    Path getJournalFile() {
+        return journalFile;
+    }
+
+    /**
+     * Gets the size of the journal.
+     *
+     * @return The size in bytes.
+     */
+    long getJournalSize() {
+        return journalSize;
+    }
+
+    /**
+     * Replaces the configuration file and empties the journal, since everything in it is now in the
+     * configuration file.
+     * <p>
+     * The contents go to a temporary file next to the configuration file first, which is then renamed over it, so
+     * a crash mid-write never leaves a half written configuration behind. If we crash before the journal is
+     * emptied, its entries belong to the previous generation and are ignored.
+     *
+     * @param contents The contents of the configuration file.
+     * @return True if successful, false otherwise.
+     */
+    boolean writeSnapshot(byte[] contents) {
+        var temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(snapshotFile.getParent());
+
+            // Make sure the contents are actually on disk before they replace the old file.
+            try (var channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                write(channel, contents);
+                channel.force(true);
+            }
+
+            try {
+                Files.move(temp, snapshotFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+
+        try {
+            Files.deleteIfExists(journalFile);
+            journalSize = 0;
+        } catch (IOException e) {
+            // Not a problem, the entries are from the previous generation. We'll get it next time.
+            e.printStackTrace();
+        }
+
+        return true;
+    }
+
+    /**
+     * Appends entries to the journal, one JSON object per line.
+     *
+     * @param entries The entries.
+     * @return True if successful, false otherwise. A failed append may leave a partial line behind, so the next
+     * save should write the whole configuration.
+     */
+    boolean append(List<AlertJournalEntry> entries) {
+        if (entries.isEmpty()) {
+            return true;
+        }
+
+        var contents = new ByteArrayOutputStream();
+        try {
+            for (var entry : entries) {
+                contents.write(OBJECT_MAPPER.writeValueAsBytes(entry));
+                contents.write('\n');
+            }
+
+            Files.createDirectories(journalFile.getParent());
+            try (var channel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND)) {
+                write(channel, contents.toByteArray());
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+
+        journalSize += contents.size();
+        return true;
+    }
+
+    /**
+     * Reads the journal entries that apply on top of a generation of the configuration file.
+     * <p>
+     * Reading stops at the first line that can't be read, which is what a crash in the middle of an append leaves
+     * behind.
+     *
+     * @param generation The generation of the configuration file.
+     * @return The entries in the order they were appended.
+     */
+    List<AlertJournalEntry> read(long generation) {
+        var entries = new ArrayList<AlertJournalEntry>();
+        if (!Files.exists(journalFile)) {
+            return entries;
+        }
+
+        try (var reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8)) {
+            String line;
+            while (null != (line = reader.readLine())) {
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                AlertJournalEntry entry;
+                try {
+                    entry = OBJECT_MAPPER.readValue(line, AlertJournalEntry.class);
+                } catch (IOException e) {
+                    System.out.println("Ignoring the end of the configuration journal, it was cut short");
+                    break;
+                }
+
+                if (generation == entry.generation) {
+                    entries.add(entry);
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        return entries;
+    }
+
+    /**
+     * Applies journal entries to the alert configurations of the configuration file.
+     *
+     * @param configs The alert configurations of the configuration file in order.
+     * @param entries The journal entries in the order they were appended.
+     * @return The alert configurations with the entries applied. Changed alerts keep their place, added alerts go
+     * at the end.
+     */
+    static List<AlertConfiguration> replay(List<AlertConfiguration> configs, List<AlertJournalEntry> entries) {
+        if (entries.isEmpty()) {
+            return configs;
+        }
+
+        var byId = new LinkedHashMap<Integer, AlertConfiguration>();
+        for (var config : configs) {
+            byId.put(config.id, config);
+        }
+
+        for (var entry : entries) {
+            if (entry.removed) {
+                byId.remove(entry.id);
+            } else {
+                var config = new AlertConfiguration(entry.id, entry.className, entry.config);
+                config.descriptor = entry.descriptor;
+                byId.put(entry.id, config);
+            }
+        }
+
+        return new ArrayList<>(byId.values());
+    }
+
+    /**
+     * Writes all of the contents to a channel.
+     *
+     * @param channel  The channel.
+     * @param contents The contents.
+     * @throws IOException Thrown if the write fails.
+     */
+    private static void write(FileChannel channel, byte[] contents) throws IOException {
+        var buffer = ByteBuffer.wrap(contents);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
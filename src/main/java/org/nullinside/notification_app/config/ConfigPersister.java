@@ -0,0 +1,162 @@
+package org.nullinside.notification_app.config;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Saves in the background, folding every save requested within a short window into a single save.
+ * <p>
+ * Asking for a save is cheap enough to do on every change. The save itself runs on the persister's own thread
+ * once the window passes, and works out what changed at that point.
+ */
+class ConfigPersister {
+    /**
+     * The longest to wait for a save in progress when closing in milliseconds.
+     */
+    private static final long CLOSE_TIMEOUT_MILLIS = 10000;
+    /**
+     * Performs the save, returns true if successful and false otherwise.
+     */
+    private final BooleanSupplier save;
+    /**
+     * How long to wait after the first requested save before saving in milliseconds.
+     */
+    private final LongSupplier delayMillis;
+    /**
+     * The thread that performs the delayed saves.
+     */
+    private final ScheduledThreadPoolExecutor executor;
+    /**
+     * Held while saving so that only one save happens at a time.
+     */
+    private final Object saveLock = new Object();
+    /**
+     * True if a save was requested and hasn't happened yet, false otherwise.
+     */
+    private final AtomicBoolean isPending = new AtomicBoolean(false);
+    /**
+     * True once the persister was closed, false otherwise.
+     */
+    private volatile boolean isClosed = false;
+    /**
+     * The number of saves performed.
+     */
+    private final AtomicLong saveCount = new AtomicLong(0);
+
+    /**
+     * Instantiates a new instance of the class.
+     *
+     * @param save        Performs the save, returns true if successful and false otherwise. Called on whichever
+     *                    thread performs the save, never on two threads at once.
+     * @param delayMillis How long to wait after the first requested save before saving in milliseconds.
+     */
+    ConfigPersister(BooleanSupplier save, LongSupplier delayMillis) {
+        this.save = save;
+        this.delayMillis = delayMillis;
+
+        // The thread is only created once the first save is requested.
+        executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            var thread = new Thread(runnable);
+            thread.setName("Config Persister");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Asks for a save. Returns straight away, the save happens on the persister's thread once the delay passes.
+     * Saves requested before then are folded into this one.
+     */
+    void requestSave() {
+        if (isClosed || !isPending.compareAndSet(false, true)) {
+            return;
+        }
+
+        schedule();
+    }
+
+    /**
+     * Saves now on the calling thread if a save is pending. A failed save stays pending and is tried again after
+     * the delay, or by {@link #close()}.
+     *
+     * @return True if nothing was pending or it was saved successfully, false otherwise.
+     */
+    boolean flush() {
+        synchronized (saveLock) {
+            // Clear the flag before saving. A save requested while we save may or may not make it into this one,
+            // so it has to schedule another one.
+            if (!isPending.getAndSet(false)) {
+                return true;
+            }
+
+            saveCount.incrementAndGet();
+            if (save.getAsBoolean()) {
+                return true;
+            }
+
+            // Unless a save requested while we saved already scheduled one, try again later.
+            if (!isPending.getAndSet(true) && !isClosed) {
+                schedule();
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * Schedules the pending save on the persister's thread once the delay passes.
+     */
+    private void schedule() {
+        try {
+            executor.schedule(this::flush, Math.max(delayMillis.getAsLong(), 0), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Closed while we were asking, close() saves whatever is pending.
+        }
+    }
+
+    /**
+     * Saves now on the calling thread whether or not a save is pending. A pending save is folded into this one.
+     *
+     * @return True if successful, false otherwise.
+     */
+    boolean saveNow() {
+        synchronized (saveLock) {
+            isPending.set(true);
+            return flush();
+        }
+    }
+
+    /**
+     * Gets the number of saves performed.
+     *
+     * @return The number of saves.
+     */
+    long getSaveCount() {
+        return saveCount.get();
+    }
+
+    /**
+     * Stops the persister, saving anything still pending first. Saves requested afterwards are ignored.
+     *
+     * @return True if nothing was pending or it was saved successfully, false otherwise.
+     */
+    boolean close() {
+        // Drops the delayed save but lets one that already started finish, interrupting it would lose it.
+        isClosed = true;
+        executor.shutdown();
+        var result = flush();
+        try {
+            executor.awaitTermination(CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        return result;
+    }
+}
@@ -2,13 +2,38 @@ package org.nullinside.notification_app.config;
 
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.nullinside.notification_app.alerts.AlertListUpdatedEvent;
+import org.nullinside.notification_app.alerts.AlertTypeRegistry;
 import org.nullinside.notification_app.alerts.AlertsManager;
 import org.nullinside.notification_app.alerts.IAlert;
-import org.nullinside.utilities.ReflectionUtilities;
+import org.nullinside.notification_app.alerts.IBinaryConfigurable;
+import org.nullinside.notification_app.alerts.IEventAlert;
+import org.nullinside.notification_app.alerts.LazyAlert;
+import org.nullinside.notification_app.alerts.LazyEventAlert;
+import org.nullinside.sound.SoundEngine;
+import org.nullinside.tts.TextToSpeech;
+import org.nullinside.tts.TtsClipCache;
+import org.nullinside.tts.TtsEngineType;
+import org.nullinside.tts.TtsOverflowPolicy;
+import org.nullinside.tts.TtsQueue;
+import org.nullinside.twitch.TwitchChatPool;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * The global configuration of the application.
@@ -18,6 +43,14 @@ public class GlobalConfig {
      * The path to the FXML file of the main GUI.
      */
     public final static String MAIN_GUI = "controllers/app";
+    /**
+     * The smallest the configuration journal grows to before it is compacted in bytes.
+     */
+    private static final long MIN_COMPACTION_SIZE = 64 * 1024;
+    /**
+     * Converts the configuration to and from JSON.
+     */
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
     /**
      * The singleton instance of this class.
      */
@@ -31,6 +64,198 @@ public class GlobalConfig {
      * settings used for each new {@link org.nullinside.notification_app.alerts.TwitchChatAlert} alert.
      */
     public TwitchChatAlertConfig twitchChatAlertGlobalConfig;
+    /**
+     * The number of worker threads that run alert checks, 0 to run them on the alert manager thread.
+     */
+    public int alertWorkerThreads = 0;
+    /**
+     * The longest an alert check may take in milliseconds before it is interrupted, unless the alert sets its own.
+     * 0 to let checks run forever.
+     */
+    public long alertCheckTimeout = 30000;
+    /**
+     * The number of checks in a row an alert may fail before it is quarantined, 0 to never quarantine.
+     */
+    public int alertQuarantineFailures = 5;
+    /**
+     * The longest to wait between checks of a failing alert in milliseconds.
+     */
+    public long alertMaxBackoff = 600000;
+    /**
+     * How early in milliseconds an alert may be checked so it can share a wake up of the alert manager with
+     * another alert, 0 to check every alert exactly when it is due.
+     */
+    public long alertTimerSlack = 5;
+    /**
+     * The number of scheduler threads, each with its own queue, to spread the polled alerts over. Takes effect
+     * the next time the application starts.
+     */
+    public int alertSchedulerShards = 1;
+    /**
+     * True to create the saved alerts only once they are needed instead of all of them at startup, false
+     * otherwise. Until an alert is created the list of alerts only shows what kind of alert it is.
+     */
+    public boolean lazyAlertStartup = false;
+    /**
+     * The number of threads that create the enabled alerts in the background at startup when
+     * {@link #lazyAlertStartup} is on, 0 to create each alert on whichever thread needs it first.
+     */
+    public int alertWarmUpThreads = 2;
+    /**
+     * How long to wait after a change before saving the configuration in milliseconds. Every change made in that
+     * time is saved in the same write.
+     */
+    public long configSaveDelay = 500;
+    /**
+     * The generation of the configuration file, incremented every time the whole configuration is written. The
+     * entries in the configuration journal apply on top of a generation.
+     */
+    public long configGeneration = 0;
+    /**
+     * True to also keep a binary snapshot of the configuration next to the configuration file, which makes
+     * starting the application faster, false otherwise.
+     */
+    public boolean configBinarySnapshot = true;
+    /**
+     * The number of Twitch channels joined over one shared chat connection.
+     */
+    public int twitchChannelsPerConnection = 50;
+    /**
+     * The number of Twitch channels an account may join every 10 seconds. Twitch allows 20 unless the account is a
+     * verified bot.
+     */
+    public int twitchJoinsPer10Seconds = 20;
+    /**
+     * The time between PINGs on each Twitch chat connection in milliseconds, 0 to not PING. A connection that
+     * doesn't answer within {@link #twitchPingTimeout} is replaced.
+     */
+    public long twitchPingInterval = 60000;
+    /**
+     * The time Twitch has to answer a PING in milliseconds.
+     */
+    public long twitchPingTimeout = 10000;
+    /**
+     * The longest to wait before reconnecting a lost Twitch chat connection in milliseconds.
+     */
+    public long twitchMaxReconnectBackoff = 120000;
+    /**
+     * The number of notification sounds that may play at the same time. Sounds over that are dropped.
+     */
+    public int soundMaxVoices = 4;
+    /**
+     * The least time between the start of two notification sounds in milliseconds. Sounds closer together than
+     * that are dropped.
+     */
+    public long soundMinGap = 50;
+    /**
+     * The number of chat messages each text to speech queue holds per lane before {@link #ttsOverflowPolicy}
+     * kicks in.
+     */
+    public int ttsQueueCapacity = 20;
+    /**
+     * What to do with a chat message when its text to speech queue is full.
+     */
+    public TtsOverflowPolicy ttsOverflowPolicy = TtsOverflowPolicy.DROP_OLDEST;
+    /**
+     * The keywords that put a chat message in the priority lane of the text to speech queue, case insensitive.
+     */
+    public List<String> ttsPriorityKeywords = new ArrayList<>();
+    /**
+     * True to cut off the message being spoken when a priority message arrives, false to only speak it next.
+     */
+    public boolean ttsPreemptOnPriority = false;
+    /**
+     * The engine speaking chat messages. The persistent PowerShell keeps the voice loaded between messages instead
+     * of starting PowerShell for every one of them.
+     */
+    public TtsEngineType ttsEngine = TtsEngineType.POWERSHELL_PERSISTENT;
+    /**
+     * True to render the next chat message while the current one is playing, false to speak them live one after
+     * the other.
+     */
+    public boolean ttsRenderAhead = true;
+    /**
+     * The most bytes of rendered chat messages kept in memory.
+     */
+    public long ttsCacheMemoryLimit = 16 * 1024 * 1024;
+    /**
+     * The most bytes of rendered chat messages kept on disk.
+     */
+    public long ttsCacheDiskLimit = 256 * 1024 * 1024;
+    /**
+     * Saves the configuration whenever the list of alerts updates. Kept in a field so the same listener can be
+     * removed again.
+     */
+    private final AlertListUpdatedEvent alertListUpdatedListener = new AlertListUpdatedEvent() {
+        @Override
+        public void onAlertListUpdated(boolean added, IAlert alert) {
+            onAlertListBatchUpdated(added, List.of(alert));
+        }
+
+        @Override
+        public void onAlertListBatchUpdated(boolean added, List<IAlert> alerts) {
+            for (var alert : alerts) {
+                if (added) {
+                    changedAlerts.put(alert.getId(), alert);
+                } else {
+                    removedAlerts.add(alert.getId());
+                }
+            }
+
+            // Save once for the whole batch rather than once per alert.
+            persister.requestSave();
+        }
+    };
+    /**
+     * The configuration file and its journal.
+     */
+    private final ConfigJournal journal = new ConfigJournal(Path.of(getConfigurationFilename()));
+    /**
+     * The binary snapshot of the configuration file.
+     */
+    private final BinaryConfigSnapshot binarySnapshot = new BinaryConfigSnapshot(Path.of(getConfigurationFilename()));
+    /**
+     * Writes the configuration to disk in the background.
+     */
+    private final ConfigPersister persister = new ConfigPersister(this::save, () -> configSaveDelay);
+    /**
+     * The alerts added or changed since the last save by their unique identifier.
+     */
+    private final ConcurrentHashMap<Integer, IAlert> changedAlerts = new ConcurrentHashMap<>();
+    /**
+     * The unique identifiers of the alerts removed since the last save.
+     */
+    private final Set<Integer> removedAlerts = ConcurrentHashMap.newKeySet();
+    /**
+     * True if every alert should be asked for its configuration again on the next save, false otherwise.
+     */
+    private final AtomicBoolean isRefreshRequested = new AtomicBoolean(false);
+    /**
+     * True if the next save should write the whole configuration, false otherwise.
+     */
+    private final AtomicBoolean isSnapshotRequested = new AtomicBoolean(false);
+    /**
+     * The last saved configuration of each alert by its unique identifier, so saving doesn't have to ask an alert
+     * that hasn't changed for its configuration.
+     */
+    private final ConcurrentHashMap<Integer, AlertConfiguration> savedAlertConfigs = new ConcurrentHashMap<>();
+    /**
+     * True once the whole configuration was written with the unique identifiers the alerts have in this run,
+     * false otherwise. Journal entries refer to alerts by those identifiers.
+     */
+    private boolean isSnapshotCurrent = false;
+    /**
+     * The size of the configuration file when it was last written in bytes.
+     */
+    private long lastSnapshotSize = 0;
+    /**
+     * True once the alerts in the configuration were added to the {@link AlertsManager}, false otherwise.
+     */
+    private volatile boolean isInitialized = false;
+    /**
+     * Creates the enabled alerts in the background when {@link #lazyAlertStartup} is on, null otherwise.
+     */
+    private ThreadPoolExecutor warmUpPool;
 
     /**
      * Instantiates a new instance of the class.
@@ -71,26 +296,25 @@ public class GlobalConfig {
         // Create a file object based on where the config file should be saved.
         String filename = GlobalConfig.getConfigurationFilename();
 
-        var objectMapper = new ObjectMapper();
         var file = new File(filename);
 
-        // If the file exists, read it as JSON and return it.
-        if (file.exists()) {
-            try {
-                return objectMapper.readValue(file, GlobalConfig.class);
-            } catch (JsonMappingException e) {
-                System.out.println("Failed to read the configuration file due to a mismatch " +
-                        "between source code and file");
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
+        // If the file exists, read it from the binary snapshot or as JSON, bring it up to date with the journal,
+        // and return it.
+        var configuration = readBinarySnapshot(file.toPath());
+        if (null == configuration) {
+            configuration = readConfiguration(file.toPath());
+        }
+
+        if (null != configuration) {
+            configuration.replayJournal();
+            return configuration;
         }
 
         // If the file doesn't exist, create a brand new object and write it to disk.
-        var configuration = new GlobalConfig();
+        configuration = new GlobalConfig();
         if (file.getParentFile().exists() || file.getParentFile().mkdirs()) {
             try {
-                objectMapper.writeValue(file, configuration);
+                OBJECT_MAPPER.writeValue(file, configuration);
             } catch (IOException e) {
                 e.printStackTrace();
             }
@@ -100,13 +324,100 @@ public class GlobalConfig {
     }
 
     /**
-     * Handles updating the saved configurations whenever the list of alerts updates.
+     * Reads the configuration file as JSON.
      *
-     * @param added True if the alert was added, false if it was removed.
-     * @param alert The alert.
+     * @param file The configuration file.
+     * @return The configuration, null if there is no configuration file or it can't be read.
      */
-    private void onAlertListUpdated(boolean added, IAlert alert) {
-        updateSavedConfigurations();
+    static GlobalConfig readConfiguration(Path file) {
+        if (!file.toFile().exists()) {
+            return null;
+        }
+
+        try {
+            return OBJECT_MAPPER.readValue(file.toFile(), GlobalConfig.class);
+        } catch (JsonMappingException e) {
+            System.out.println("Failed to read the configuration file due to a mismatch " +
+                    "between source code and file");
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        return null;
+    }
+
+    /**
+     * Reads the binary snapshot of the configuration file.
+     *
+     * @param file The configuration file. The snapshot is next to it.
+     * @return The configuration, null if there is no snapshot or it is out of date or can't be read.
+     */
+    static GlobalConfig readBinarySnapshot(Path file) {
+        var contents = new BinaryConfigSnapshot(file).read();
+        if (null == contents) {
+            return null;
+        }
+
+        try {
+            var configuration = OBJECT_MAPPER.readValue(contents.settings, GlobalConfig.class);
+            configuration.alertConfigs.clear();
+            configuration.alertConfigs.addAll(contents.alertConfigs);
+            return configuration;
+        } catch (IOException e) {
+            System.out.println("Ignoring the binary configuration snapshot, the settings can't be read");
+            return null;
+        }
+    }
+
+    /**
+     * Creates an alert from its saved configuration through the factory of its type. The binary configuration is
+     * used if there is one, it is faster to read than JSON.
+     *
+     * @param alertConfig The saved configuration, its class name is the type id of the alert.
+     * @return The alert, null if it can't be created.
+     */
+    static IAlert createAlert(AlertConfiguration alertConfig) {
+        var alert = AlertTypeRegistry.getInstance().create(alertConfig.className);
+        if (null == alert) {
+            return null;
+        }
+
+        if (null == alertConfig.binaryConfig || !(alert instanceof IBinaryConfigurable) ||
+                ((IBinaryConfigurable) alert).getBinaryConfigVersion() != alertConfig.binaryConfigVersion ||
+                !((IBinaryConfigurable) alert).readBinaryConfig(ByteBuffer.wrap(alertConfig.binaryConfig))) {
+            alert.setConfig(alertConfig.config);
+        }
+
+        return alert;
+    }
+
+    /**
+     * Creates a {@link LazyAlert stand in} for an alert from its saved configuration, the alert itself is created
+     * once it is needed.
+     *
+     * @param alertConfig The saved configuration.
+     * @param executor    The thread to create event alerts on when they are started.
+     * @return The stand in, the alert itself if the configuration was saved without a descriptor, or null if the
+     * alert can't be created.
+     */
+    static IAlert createLazyAlert(AlertConfiguration alertConfig, Executor executor) {
+        if (null == alertConfig.descriptor) {
+            return createAlert(alertConfig);
+        }
+
+        // The factory is cheap, it is the alert's constructor and configuration we want to put off.
+        var factory = AlertTypeRegistry.getInstance().getFactory(alertConfig.className);
+        if (null == factory) {
+            return null;
+        }
+
+        if (factory.isEventAlert()) {
+            return new LazyEventAlert(alertConfig.className, alertConfig.config, alertConfig.descriptor,
+                    () -> createAlert(alertConfig), executor);
+        }
+
+        return new LazyAlert(alertConfig.className, alertConfig.config, alertConfig.descriptor,
+                () -> createAlert(alertConfig));
     }
 
     /**
@@ -115,65 +426,359 @@ public class GlobalConfig {
     public void initialize() {
         // First we need to get the alert manager and unsubscribe from it. If we don't do this,
         // we'll get updates for every single alert we add to it.
+        AlertsManager.setInstanceShardCount(alertSchedulerShards);
         var manager = AlertsManager.getInstance();
-        manager.removeAlertsUpdatedListener(this::onAlertListUpdated);
+        manager.removeAlertsUpdatedListener(alertListUpdatedListener);
+        manager.setWorkerCount(alertWorkerThreads);
+        manager.setCheckTimeout(alertCheckTimeout);
+        manager.setQuarantineThreshold(alertQuarantineFailures);
+        manager.setMaxBackoff(alertMaxBackoff);
+        manager.setTimerSlack(alertTimerSlack);
+        var twitchChat = TwitchChatPool.getInstance();
+        twitchChat.setChannelsPerConnection(twitchChannelsPerConnection);
+        twitchChat.setJoinRateLimit(twitchJoinsPer10Seconds, 10000);
+        twitchChat.setPingInterval(twitchPingInterval, twitchPingTimeout);
+        twitchChat.setReconnectBackoff(1000, twitchMaxReconnectBackoff);
+        var sound = SoundEngine.getInstance();
+        sound.setMaxVoices(soundMaxVoices);
+        sound.setMinGap(soundMinGap);
+        TtsQueue.setDefaults(ttsQueueCapacity, ttsOverflowPolicy, ttsPriorityKeywords, ttsPreemptOnPriority);
+        TextToSpeech.setDefaults(ttsEngine, ttsRenderAhead);
+        var ttsCache = TtsClipCache.getInstance();
+        ttsCache.setLimits(ttsCacheMemoryLimit, ttsCacheDiskLimit);
+        try {
+            ttsCache.setDirectory(Path.of(getConfigurationFilename()).resolveSibling("tts-cache"));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        // Threads that only stick around while there are alerts to create.
+        Executor executor = Runnable::run;
+        if (lazyAlertStartup && alertWarmUpThreads > 0) {
+            warmUpPool = new ThreadPoolExecutor(alertWarmUpThreads, alertWarmUpThreads, 10, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                var thread = new Thread(runnable);
+                thread.setName("Alert Warm Up");
+                thread.setDaemon(true);
+                return thread;
+            });
+            warmUpPool.allowCoreThreadTimeOut(true);
+            executor = warmUpPool;
+        }
 
-        // Add all of the alerts from the configuration file.
+        // Add all of the alerts from the configuration file in one batch.
+        var alerts = new ArrayList<IAlert>(alertConfigs.size());
+        var configs = new ArrayList<AlertConfiguration>(alertConfigs.size());
         for (var alertConfig : alertConfigs) {
-            IAlert alert = (IAlert) ReflectionUtilities.createInstance(alertConfig.className, null, null);
+            var alert = lazyAlertStartup ? createLazyAlert(alertConfig, executor) : createAlert(alertConfig);
             if (null == alert) {
                 continue;
             }
 
-            alert.setConfig(alertConfig.config);
-            manager.addAlert(alert);
+            alerts.add(alert);
+            configs.add(alertConfig);
+        }
+
+        manager.addAlerts(alerts);
+
+        // Event alerts are created when they are started, create the enabled polled alerts ahead of their first
+        // check. Disabled alerts are left alone until someone opens them.
+        if (null != warmUpPool) {
+            for (var alert : alerts) {
+                if (alert instanceof LazyAlert && !(alert instanceof IEventAlert) && alert.getIsEnabled()) {
+                    ((LazyAlert) alert).warmUp(warmUpPool);
+                }
+            }
+        }
+
+        // The alerts were just loaded from these configurations, remember them under their new unique identifiers
+        // so the next save doesn't have to ask for them again.
+        for (int i = 0; i < alerts.size(); i++) {
+            var id = alerts.get(i).getId();
+            savedAlertConfigs.put(id, new AlertConfiguration(id, configs.get(i)));
         }
 
+        isInitialized = true;
+
         // Re-subscribe to the alerts manager.
-        manager.addAlertsUpdatedListener(this::onAlertListUpdated);
+        manager.addAlertsUpdatedListener(alertListUpdatedListener);
     }
 
     /**
-     * Refreshes the list of configurations of the alerts from the {@link AlertsManager}.
+     * Saves the configuration of an alert that was changed.
+     * <p>
+     * This returns straight away. The change is appended to the configuration journal on a background thread
+     * once {@link #configSaveDelay} passes, along with every other change made until then.
+     *
+     * @param alert The alert.
+     */
+    public void updateSavedConfiguration(IAlert alert) {
+        changedAlerts.put(alert.getId(), alert);
+        persister.requestSave();
+    }
+
+    /**
+     * Asks every alert in the {@link AlertsManager} for its configuration again and writes the whole configuration
+     * to disk.
+     * <p>
+     * This returns straight away. The work happens on a background thread once {@link #configSaveDelay} passes.
+     * Prefer {@link #updateSavedConfiguration(IAlert)} when only one alert changed.
      */
     public void updateSavedConfigurations() {
-        var manager = AlertsManager.getInstance();
+        isRefreshRequested.set(true);
+        persister.requestSave();
+    }
 
-        // Clear what we have, it isn't accurate.
+    /**
+     * Writes the whole configuration to disk after the global settings changed. The alert configurations that
+     * haven't changed are reused rather than asked for again.
+     * <p>
+     * This returns straight away. The work happens on a background thread once {@link #configSaveDelay} passes.
+     */
+    public void updateSavedSettings() {
+        isSnapshotRequested.set(true);
+        persister.requestSave();
+    }
+
+    /**
+     * Writes the whole configuration to disk now, on the calling thread, along with any pending changes.
+     *
+     * @return True if successful, false otherwise.
+     */
+    public boolean writeConfiguration() {
+        isSnapshotRequested.set(true);
+        return persister.saveNow();
+    }
+
+    /**
+     * Writes the pending changes now, on the calling thread.
+     *
+     * @return True if nothing was pending or it was written successfully, false otherwise.
+     */
+    public boolean flush() {
+        return persister.flush();
+    }
+
+    /**
+     * Writes the pending changes now and stops saving in the background. Call it before disposing of the
+     * {@link AlertsManager}, the alerts are read from it.
+     *
+     * @return True if successful, false otherwise.
+     */
+    public boolean shutdown() {
+        if (null != warmUpPool) {
+            warmUpPool.shutdown();
+        }
+
+        return persister.close();
+    }
+
+    /**
+     * Applies the configuration journal left behind by the last run on top of the alert configurations read from
+     * the configuration file.
+     */
+    private void replayJournal() {
+        var entries = journal.read(configGeneration);
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        var configs = ConfigJournal.replay(alertConfigs, entries);
         alertConfigs.clear();
+        alertConfigs.addAll(configs);
+    }
+
+    /**
+     * Saves everything that changed since the last save. Only ever called by the {@link #persister}, one save at a
+     * time.
+     * <p>
+     * Changed and removed alerts are appended to the journal, so the cost depends on how much changed rather than
+     * on how many alerts there are. The whole configuration is written instead when asked to, when the journal
+     * has grown larger than the configuration file, and the first time we save after starting up since the
+     * journal refers to alerts by the unique identifiers they have in this run.
+     *
+     * @return True if successful, false otherwise.
+     */
+    private boolean save() {
+        // Until the alerts are loaded into the manager it doesn't know about them, write them out as they were read.
+        if (!isInitialized) {
+            isSnapshotRequested.set(false);
+            return writeSnapshot(null);
+        }
+
+        var manager = AlertsManager.getInstance();
+        var isSnapshotNeeded = isSnapshotRequested.getAndSet(false);
+        if (isRefreshRequested.getAndSet(false)) {
+            // Anything could have changed, forget everything we remembered. Changes marked from here on are either
+            // picked up by the snapshot or saved next time.
+            savedAlertConfigs.clear();
+            changedAlerts.clear();
+            removedAlerts.clear();
+            isSnapshotNeeded = true;
+        }
+
+        // Take each mark before asking for the configuration, so a change made in between is saved next time
+        // rather than lost.
+        var changed = new ArrayList<AlertConfiguration>();
+        for (var id : changedAlerts.keySet()) {
+            var alert = changedAlerts.remove(id);
+            // An alert created by a LazyAlert saves itself, the manager knows it by the LazyAlert.
+            if (null == alert || LazyAlert.unwrap(manager.getAlert(id)) != LazyAlert.unwrap(alert)) {
+                continue;
+            }
+
+            var config = new AlertConfiguration(alert);
+            savedAlertConfigs.put(id, config);
+            changed.add(config);
+        }
+
+        var removed = new ArrayList<Integer>();
+        for (var id : removedAlerts) {
+            if (removedAlerts.remove(id) && null != savedAlertConfigs.remove(id)) {
+                removed.add(id);
+            }
+        }
+
+        isSnapshotNeeded |= !isSnapshotCurrent ||
+                journal.getJournalSize() > Math.max(MIN_COMPACTION_SIZE, lastSnapshotSize);
+        if (!isSnapshotNeeded) {
+            var entries = new ArrayList<AlertJournalEntry>(removed.size() + changed.size());
+            for (var id : removed) {
+                entries.add(new AlertJournalEntry(configGeneration, id));
+            }
+
+            for (var config : changed) {
+                entries.add(new AlertJournalEntry(configGeneration, config));
+            }
+
+            if (journal.append(entries)) {
+                return true;
+            }
 
-        // Re-create the list from the alert manager.
-        for (var alert : manager.getAlerts()) {
-            alertConfigs.add(new AlertConfiguration(alert));
+            // A failed append may have left part of a line behind, which would hide anything appended after it.
         }
 
-        // Write the configuration to disk.
-        writeConfiguration();
+        return writeSnapshot(manager);
     }
 
     /**
-     * Writes the configuration to disk.
+     * Writes the whole configuration to disk as a new generation, which empties the journal. The binary snapshot
+     * is written after it.
      *
+     * @param manager The manager to take the alerts from, null to write {@link #alertConfigs} as they are.
      * @return True if successful, false otherwise.
      */
-    public boolean writeConfiguration() {
-        // Create a file object based on where the config file should be saved.
-        String filename = GlobalConfig.getConfigurationFilename();
+    private boolean writeSnapshot(AlertsManager manager) {
+        ArrayList<AlertConfiguration> configs = null;
+        if (null != manager) {
+            // Only alerts that were never saved are asked for their configuration, the rest are remembered.
+            var alerts = manager.getAlertsSnapshot().getAlerts();
+            configs = new ArrayList<>(alerts.size());
+            for (var alert : alerts) {
+                var config = savedAlertConfigs.get(alert.getId());
+                if (null == config) {
+                    config = new AlertConfiguration(alert);
+                    savedAlertConfigs.put(alert.getId(), config);
+                }
 
-        var objectMapper = new ObjectMapper();
-        var file = new File(filename);
+                var unwrapped = LazyAlert.unwrap(alert);
+                if (configBinarySnapshot && null == config.binaryConfig &&
+                        unwrapped instanceof IBinaryConfigurable) {
+                    setBinaryConfig(config, (IBinaryConfigurable) unwrapped);
+                }
 
-        // If the parent directory doesn't exist create it.
-        if (file.getParentFile().exists() || file.getParentFile().mkdirs()) {
-            try {
-                // Write the file to disk.
-                objectMapper.writeValue(file, this);
-            } catch (IOException e) {
-                e.printStackTrace();
-                return false;
+                configs.add(config);
             }
         }
 
+        ObjectNode tree;
+        synchronized (this) {
+            if (null != configs) {
+                alertConfigs.clear();
+                alertConfigs.addAll(configs);
+            } else {
+                configs = new ArrayList<>(alertConfigs);
+            }
+
+            configGeneration++;
+            tree = toTree();
+        }
+
+        var contents = null != tree ? toBytes(tree) : null;
+        if (null == contents || !journal.writeSnapshot(contents)) {
+            // The file on disk is still the previous generation, and the journal has to keep matching it.
+            synchronized (this) {
+                configGeneration--;
+            }
+
+            isSnapshotCurrent = false;
+            return false;
+        }
+
+        isSnapshotCurrent = null != manager;
+        lastSnapshotSize = contents.length;
+
+        // The binary snapshot is only a faster way to load the file we just wrote, failing to write it isn't a
+        // failure to save.
+        if (configBinarySnapshot) {
+            tree.remove("alertConfigs");
+            var settings = toBytes(tree);
+            if (null == settings || !binarySnapshot.write(settings, configs)) {
+                binarySnapshot.delete();
+            }
+        } else {
+            binarySnapshot.delete();
+        }
+
         return true;
     }
+
+    /**
+     * Saves the configuration of an alert in binary format alongside its JSON configuration.
+     *
+     * @param config The saved configuration.
+     * @param alert  The alert.
+     */
+    private static void setBinaryConfig(AlertConfiguration config, IBinaryConfigurable alert) {
+        var bytes = new ByteArrayOutputStream(256);
+        try (var output = new DataOutputStream(bytes)) {
+            alert.writeBinaryConfig(output);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+
+        config.binaryConfigVersion = alert.getBinaryConfigVersion();
+        config.binaryConfig = bytes.toByteArray();
+    }
+
+    /**
+     * Converts the configuration to a JSON tree.
+     *
+     * @return The configuration as a JSON tree, null if it couldn't be converted.
+     */
+    private synchronized ObjectNode toTree() {
+        // Holding the lock keeps the list of alerts from changing underneath us.
+        try {
+            return OBJECT_MAPPER.valueToTree(this);
+        } catch (IllegalArgumentException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Serializes a JSON tree.
+     *
+     * @param tree The JSON tree.
+     * @return The tree in JSON format, null if it couldn't be serialized.
+     */
+    private static byte[] toBytes(ObjectNode tree) {
+        try {
+            return OBJECT_MAPPER.writeValueAsBytes(tree);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
 }
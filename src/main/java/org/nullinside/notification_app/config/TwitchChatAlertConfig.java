@@ -1,5 +1,11 @@
 package org.nullinside.notification_app.config;
 
+import org.nullinside.utilities.BinaryUtilities;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
 /**
  * The configuration for a Twitch Chat alert.
  */
@@ -67,6 +73,47 @@ public class TwitchChatAlertConfig extends AbstractAlertConfig {
         this.alertSoundFilename = alertSoundFilename;
     }
 
+    /**
+     * Reads a configuration written by {@link #writeBinary(DataOutput)}.
+     *
+     * @param input The buffer to read from, positioned at the start of the configuration.
+     * @return The configuration.
+     * @throws java.nio.BufferUnderflowException Thrown if the buffer ends before the configuration does.
+     * @throws IllegalArgumentException          Thrown if the configuration is invalid.
+     */
+    public static TwitchChatAlertConfig fromBinary(ByteBuffer input) {
+        // The common configuration comes first but our fields are final, so read it into a placeholder first.
+        var common = new TwitchChatAlertConfig();
+        common.readBinary(input);
+
+        var config = new TwitchChatAlertConfig(BinaryUtilities.readString(input), BinaryUtilities.readString(input),
+                BinaryUtilities.readString(input), BinaryUtilities.readString(input), BinaryUtilities.readString(input),
+                BinaryUtilities.readString(input));
+        config.setIsEnabled(common.getIsEnabled());
+        config.setUpdateInterval(common.getUpdateInterval());
+        config.setScheduleMode(common.getScheduleMode());
+        config.setCatchUpPolicy(common.getCatchUpPolicy());
+        config.setCheckTimeout(common.getCheckTimeout());
+        return config;
+    }
+
+    /**
+     * Writes the configuration in binary format.
+     *
+     * @param output The output to write to.
+     * @throws IOException Thrown if the write fails.
+     */
+    @Override
+    public void writeBinary(DataOutput output) throws IOException {
+        super.writeBinary(output);
+        BinaryUtilities.writeString(output, clientId);
+        BinaryUtilities.writeString(output, clientSecret);
+        BinaryUtilities.writeString(output, username);
+        BinaryUtilities.writeString(output, oauth);
+        BinaryUtilities.writeString(output, channel);
+        BinaryUtilities.writeString(output, alertSoundFilename);
+    }
+
     /**
      * Creates a clone of the configuration.
      *
@@ -2,12 +2,14 @@ package org.nullinside.notification_app.controllers;
 
 import javafx.fxml.FXML;
 import javafx.scene.Parent;
+import javafx.scene.control.MenuButton;
+import javafx.scene.control.MenuItem;
 import javafx.scene.layout.VBox;
 import javafx.util.Pair;
 import org.nullinside.notification_app.App;
+import org.nullinside.notification_app.alerts.AlertTypeRegistry;
 import org.nullinside.notification_app.alerts.AlertsManager;
 import org.nullinside.notification_app.alerts.IAlert;
-import org.nullinside.notification_app.alerts.TwitchChatAlert;
 import org.nullinside.notification_app.controls.AlertRowController;
 
 import java.io.IOException;
@@ -25,14 +27,25 @@ public class AppController extends AbstractBaseController {
      * The GUI component containing the list of created alarms.
      */
     public VBox alarmList;
+    /**
+     * The menu of the types of alerts that can be added.
+     */
+    public MenuButton addAlertMenu;
 
     /**
      * Initializes the JavaFX GUI.
      */
     @FXML
     public void initialize() {
+        // Only the descriptions of the types are needed here, their factories are created when one is picked.
+        for (var type : AlertTypeRegistry.getInstance().getTypes()) {
+            var item = new MenuItem(type.name());
+            item.setOnAction(event -> addNewAlert(type.id()));
+            addAlertMenu.getItems().add(item);
+        }
+
         var manager = AlertsManager.getInstance();
-        for (var alert : manager.getAlerts()) {
+        for (var alert : manager.getAlertsSnapshot().getAlerts()) {
             addAlert(alert);
         }
     }
@@ -46,11 +59,17 @@ public class AppController extends AbstractBaseController {
     }
 
     /**
-     * Adds a {@link TwitchChatAlert}.
+     * Adds a new alert of a type.
+     *
+     * @param typeId The type id of the alert in the {@link AlertTypeRegistry}.
      */
-    public void addTwitchChat() {
+    public void addNewAlert(String typeId) {
+        var alert = AlertTypeRegistry.getInstance().create(typeId);
+        if (null == alert) {
+            return;
+        }
+
         var manager = AlertsManager.getInstance();
-        var alert = new TwitchChatAlert();
         manager.addAlert(alert);
         addAlert(alert);
     }
@@ -3,52 +3,58 @@ package org.nullinside.notification_app.controllers;
 import javafx.fxml.FXML;
 import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
-import javafx.scene.control.TextInputControl;
-import javafx.util.Pair;
 import org.nullinside.notification_app.App;
 import org.nullinside.notification_app.config.GlobalConfig;
-
-import java.util.ArrayList;
-import java.util.List;
+import org.nullinside.notification_app.config.TwitchChatAlertConfig;
+import org.nullinside.utilities.BindConfig;
+import org.nullinside.utilities.BindProperty;
+import org.nullinside.utilities.ConfigBinder;
 
 /**
  * The global settings controller.
  */
+@BindConfig("config.twitchChatAlertGlobalConfig")
 public class GlobalConfigController extends AbstractBaseController {
     /**
      * The global configuration.
      */
-    private final GlobalConfig config;
+    final GlobalConfig config;
     /**
      * The client secret from the Twitch API.
      */
     @FXML
-    private PasswordField twitchClientSecret;
+    @BindProperty("clientSecret")
+    PasswordField twitchClientSecret;
     /**
      * The username of user we'll log in as.
      */
     @FXML
-    private TextField twitchUsername;
+    @BindProperty("username")
+    TextField twitchUsername;
     /**
      * The OAuth token of the user we'll log in as.
      */
     @FXML
-    private PasswordField twitchUserOAuth;
+    @BindProperty("oauth")
+    PasswordField twitchUserOAuth;
     /**
      * The channel to monitor.
      */
     @FXML
-    private TextField twitchChannel;
+    @BindProperty("channel")
+    TextField twitchChannel;
     /**
      * The path to the alert sound to play when someone types in chat.
      */
     @FXML
-    private TextField twitchMessageNotificationSound;
+    @BindProperty("alertSoundFilename")
+    TextField twitchMessageNotificationSound;
     /**
      * The client id from the Twitch API.
      */
     @FXML
-    private PasswordField twitchClientId;
+    @BindProperty("clientId")
+    PasswordField twitchClientId;
 
     /**
      * Instantiates a new instance of the class.
@@ -58,22 +64,13 @@ public class GlobalConfigController extends AbstractBaseController {
     }
 
     /**
-     * Maps controls to the fields they update.
+     * Gets the binder between the controls and the global Twitch configuration.
      *
-     * @return A collection of mappings of control to their property names in the class.
+     * @return The binder.
      */
     @Override
-    protected List<Pair<TextInputControl, String>> getFieldToPropertyMapping() {
-        return new ArrayList<>() {
-            {
-                add(new Pair<>(twitchClientId, "config.twitchChatAlertGlobalConfig.clientId"));
-                add(new Pair<>(twitchClientSecret, "config.twitchChatAlertGlobalConfig.clientSecret"));
-                add(new Pair<>(twitchUsername, "config.twitchChatAlertGlobalConfig.username"));
-                add(new Pair<>(twitchUserOAuth, "config.twitchChatAlertGlobalConfig.oauth"));
-                add(new Pair<>(twitchChannel, "config.twitchChatAlertGlobalConfig.channel"));
-                add(new Pair<>(twitchMessageNotificationSound, "config.twitchChatAlertGlobalConfig.alertSoundFilename"));
-            }
-        };
+    protected ConfigBinder<GlobalConfigController, TwitchChatAlertConfig> getBinder() {
+        return GlobalConfigControllerBinder.INSTANCE;
     }
 
     /**
@@ -90,7 +87,7 @@ public class GlobalConfigController extends AbstractBaseController {
     @FXML
     private void saveConfiguration() {
         updatePropertiesWithControls();
-        config.writeConfiguration();
+        config.updateSavedSettings();
         App.setRoot(GlobalConfig.MAIN_GUI);
     }
 
@@ -3,41 +3,46 @@ package org.nullinside.notification_app.controllers;
 import javafx.fxml.FXML;
 import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
-import javafx.scene.control.TextInputControl;
-import javafx.util.Pair;
 import org.nullinside.notification_app.config.TwitchChatAlertConfig;
-
-import java.util.ArrayList;
-import java.util.List;
+import org.nullinside.utilities.BindConfig;
+import org.nullinside.utilities.BindProperty;
+import org.nullinside.utilities.ConfigBinder;
 
 /**
  * The controller mapping the {@link org.nullinside.notification_app.alerts.TwitchChatAlert} configuration
  * settings to it's GUI.
  */
+@BindConfig("config")
 public class TwitchChatAlertController extends AbstractBaseController {
     /**
      * The client id from the Twitch API.
      */
+    @BindProperty("clientId")
     public PasswordField cClientId;
     /**
      * The client secret from the Twitch API.
      */
+    @BindProperty("clientSecret")
     public PasswordField cClientSecret;
     /**
      * The username of user we'll log in as.
      */
+    @BindProperty("username")
     public TextField cUsername;
     /**
      * The OAuth token of the user we'll log in as.
      */
+    @BindProperty("oauth")
     public PasswordField cOauth;
     /**
      * The channel to monitor.
      */
+    @BindProperty("channel")
     public TextField cChannel;
     /**
      * The path to the alert sound to play when someone types in chat.
      */
+    @BindProperty("alertSoundFilename")
     public TextField cAlertSoundFilename;
     /**
      * The configuration object.
@@ -61,22 +66,13 @@ public class TwitchChatAlertController extends AbstractBaseController {
     }
 
     /**
-     * Maps controls to the fields they update.
+     * Gets the binder between the controls and the configuration.
      *
-     * @return A collection of mappings of control to their property names in the class.
+     * @return The binder.
      */
     @Override
-    protected List<Pair<TextInputControl, String>> getFieldToPropertyMapping() {
-        return new ArrayList<>() {
-            {
-                add(new Pair<>(cClientId, "config.clientId"));
-                add(new Pair<>(cClientSecret, "config.clientSecret"));
-                add(new Pair<>(cUsername, "config.username"));
-                add(new Pair<>(cOauth, "config.oauth"));
-                add(new Pair<>(cChannel, "config.channel"));
-                add(new Pair<>(cAlertSoundFilename, "config.alertSoundFilename"));
-            }
-        };
+    protected ConfigBinder<TwitchChatAlertController, TwitchChatAlertConfig> getBinder() {
+        return TwitchChatAlertControllerBinder.INSTANCE;
     }
 
     /**
@@ -0,0 +1,107 @@
+package org.nullinside.sound;
+
+import javafx.scene.media.Media;
+import javafx.scene.media.MediaPlayer;
+
+import java.io.File;
+
+/**
+ * Plays sounds through JavaFX media players. The media is parsed once per file and every voice is a media player
+ * that is rewound and played again rather than created for every play.
+ */
+class JavaFxSoundBackend implements SoundBackend {
+    /**
+     * Parses a sound file.
+     *
+     * @param file The sound file.
+     * @return The sound.
+     */
+    @Override
+    public Clip decode(File file) {
+        return new MediaClip(new Media(file.toURI().toString()));
+    }
+
+    /**
+     * A parsed sound file.
+     */
+    private static class MediaClip implements Clip {
+        /**
+         * The media.
+         */
+        private final Media media;
+
+        /**
+         * Instantiates a new instance of the class.
+         *
+         * @param media The media.
+         */
+        MediaClip(Media media) {
+            this.media = media;
+        }
+
+        /**
+         * Creates a media player for the sound.
+         *
+         * @param listener Notified when the voice starts and finishes playing.
+         * @return The voice.
+         */
+        @Override
+        public Voice createVoice(Listener listener) {
+            return new MediaVoice(media, listener);
+        }
+
+        /**
+         * Does nothing, the media players hold the native resources and they were already disposed of.
+         */
+        @Override
+        public void dispose() {
+        }
+    }
+
+    /**
+     * A media player playing a sound.
+     */
+    private static class MediaVoice implements Voice {
+        /**
+         * The media player.
+         */
+        private final MediaPlayer player;
+
+        /**
+         * Instantiates a new instance of the class.
+         *
+         * @param media    The media to play.
+         * @param listener Notified when the voice starts and finishes playing.
+         */
+        MediaVoice(Media media, Listener listener) {
+            player = new MediaPlayer(media);
+            player.setOnPlaying(() -> listener.onStarted(this));
+            player.setOnEndOfMedia(() -> {
+                // Stopping rewinds it for the next play.
+                player.stop();
+                listener.onFinished(this);
+            });
+            // A media player that hit an error is halted for good, playing it again does nothing.
+            player.setOnError(() -> {
+                player.getError().printStackTrace();
+                listener.onFailed(this);
+            });
+        }
+
+        /**
+         * Plays the sound from the start.
+         */
+        @Override
+        public void play() {
+            player.play();
+        }
+
+        /**
+         * Disposes of the media player.
+         */
+        @Override
+        public void dispose() {
+            player.dispose();
+        }
+    }
+}
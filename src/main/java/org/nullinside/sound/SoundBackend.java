@@ -0,0 +1,76 @@
+package org.nullinside.sound;
+
+import java.io.File;
+
+/**
+ * Decodes and plays sounds for the {@link SoundEngine}.
+ */
+interface SoundBackend {
+    /**
+     * Decodes a sound file.
+     *
+     * @param file The sound file.
+     * @return The decoded sound.
+     * @throws RuntimeException Thrown if the file can't be read or decoded.
+     */
+    Clip decode(File file);
+
+    /**
+     * A decoded sound that voices are created from.
+     */
+    interface Clip {
+        /**
+         * Creates a voice that plays the sound, ready to play.
+         *
+         * @param listener Notified when the voice starts and finishes playing.
+         * @return The voice.
+         */
+        Voice createVoice(Listener listener);
+
+        /**
+         * Releases the sound. Only called once every voice created from it was disposed of.
+         */
+        void dispose();
+    }
+
+    /**
+     * Plays a sound, one play at a time.
+     */
+    interface Voice {
+        /**
+         * Plays the sound from the start. Only called once the previous play finished.
+         */
+        void play();
+
+        /**
+         * Releases the voice.
+         */
+        void dispose();
+    }
+
+    /**
+     * Notified of what a voice is doing. Called on whichever thread the backend likes.
+     */
+    interface Listener {
+        /**
+         * Invoked when the sound starts coming out of the speakers.
+         *
+         * @param voice The voice.
+         */
+        void onStarted(Voice voice);
+
+        /**
+         * Invoked when the sound finished playing.
+         *
+         * @param voice The voice.
+         */
+        void onFinished(Voice voice);
+
+        /**
+         * Invoked when the sound failed to play. The voice is broken and won't be played again.
+         *
+         * @param voice The voice.
+         */
+        void onFailed(Voice voice);
+    }
+}
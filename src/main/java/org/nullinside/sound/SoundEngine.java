@@ -0,0 +1,523 @@
+package org.nullinside.sound;
+
+import org.nullinside.utilities.JmxUtilities;
+import org.nullinside.utilities.LatencyHistogram;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Plays notification sounds.
+ * <p>
+ * Each sound file is decoded once when it is first loaded and kept until the last one to load it closes it. Sounds
+ * play through a small pool of voices that are reused from one play to the next, and at most
+ * {@link #setMaxVoices(int)} play at the same time, each starting at least {@link #setMinGap(long)} after the one
+ * before. Anything over that is dropped rather than queued, so a burst of messages can't build up a backlog of
+ * sounds that play long after the messages arrived.
+ */
+public class SoundEngine implements SoundEngineMXBean {
+    /**
+     * The number of sounds that may play at the same time unless configured otherwise.
+     */
+    private static final int DEFAULT_MAX_VOICES = 4;
+    /**
+     * The least time between the start of two sounds unless configured otherwise.
+     */
+    private static final long DEFAULT_MIN_GAP_MILLIS = 50;
+    /**
+     * The JMX name the {@link #getInstance()} singleton is registered under.
+     */
+    private static final String JMX_NAME = "org.nullinside.notification_app:type=SoundEngine";
+    /**
+     * The singleton instance of this class.
+     */
+    private static SoundEngine instance;
+    /**
+     * Decodes and plays the sounds.
+     */
+    private final SoundBackend backend;
+    /**
+     * Gets the current time in nanoseconds.
+     */
+    private final LongSupplier clock;
+    /**
+     * The decoded sounds by absolute path.
+     */
+    private final HashMap<String, CachedSound> sounds = new HashMap<>();
+    /**
+     * The time between asking for a sound and it starting to play.
+     */
+    private final LatencyHistogram latency = new LatencyHistogram();
+    /**
+     * The number of sounds played.
+     */
+    private final LongAdder plays = new LongAdder();
+    /**
+     * The number of sounds dropped.
+     */
+    private final LongAdder drops = new LongAdder();
+    /**
+     * The number of sounds that may play at the same time.
+     */
+    private int maxVoices = DEFAULT_MAX_VOICES;
+    /**
+     * The least time between the start of two sounds in nanoseconds.
+     */
+    private long minGapNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_MIN_GAP_MILLIS);
+    /**
+     * The number of sounds playing.
+     */
+    private int playingCount = 0;
+    /**
+     * The time the last sound was asked to play at, only meaningful once {@link #hasPlayed} is true.
+     */
+    private long lastPlayTime;
+    /**
+     * True once a sound was played, false otherwise.
+     */
+    private boolean hasPlayed = false;
+
+    /**
+     * Instantiates a new instance of the class.
+     *
+     * @param backend Decodes and plays the sounds.
+     * @param clock   Gets the current time in nanoseconds.
+     */
+    SoundEngine(SoundBackend backend, LongSupplier clock) {
+        this.backend = backend;
+        this.clock = clock;
+    }
+
+    /**
+     * Gets the singleton instance of the class.
+     *
+     * @return The singleton instance of the class.
+     */
+    public static synchronized SoundEngine getInstance() {
+        if (null == instance) {
+            instance = new SoundEngine(new JavaFxSoundBackend(), System::nanoTime);
+            JmxUtilities.registerMBean(instance, JMX_NAME);
+        }
+
+        return instance;
+    }
+
+    /**
+     * Sets the number of sounds that may play at the same time.
+     *
+     * @param maxVoices The number of sounds.
+     */
+    public synchronized void setMaxVoices(int maxVoices) {
+        this.maxVoices = Math.max(1, maxVoices);
+    }
+
+    /**
+     * Sets the least time between the start of two sounds.
+     *
+     * @param minGap The time in milliseconds, 0 to start sounds as close together as they come.
+     */
+    public synchronized void setMinGap(long minGap) {
+        minGapNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, minGap));
+    }
+
+    /**
+     * Loads a sound file, decoding it unless it is already loaded.
+     *
+     * @param filename The path to the sound file.
+     * @return The sound, close it once it isn't needed anymore. Null if there is no file or it can't be decoded.
+     */
+    public synchronized Sound load(String filename) {
+        if (null == filename || filename.isEmpty()) {
+            return null;
+        }
+
+        var file = new File(filename).getAbsoluteFile();
+        var key = file.getPath();
+        var sound = sounds.get(key);
+        if (null == sound) {
+            try {
+                sound = new CachedSound(key, backend.decode(file));
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                return null;
+            }
+
+            sounds.put(key, sound);
+        }
+
+        sound.references++;
+        return new Sound(sound);
+    }
+
+    /**
+     * Plays a sound unless every voice is busy or the last sound started too recently.
+     *
+     * @param sound The sound.
+     * @return True if it is playing, false if it was dropped.
+     */
+    private synchronized boolean play(CachedSound sound) {
+        var now = clock.getAsLong();
+        if (sound.isReleased || playingCount >= maxVoices || (hasPlayed && now - lastPlayTime < minGapNanos)) {
+            drops.increment();
+            return false;
+        }
+
+        var voice = sound.idleVoices.poll();
+        // A voice that broke while it sat in the pool would never finish playing, and hold on to a slot for good.
+        while (null != voice && voice.isFailed) {
+            voice.voice.dispose();
+            voice = sound.idleVoices.poll();
+        }
+
+        if (null == voice) {
+            voice = new PooledVoice(sound);
+            try {
+                voice.voice = sound.clip.createVoice(voice);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                drops.increment();
+                return false;
+            }
+        }
+
+        voice.isPlaying = true;
+        voice.hasStarted = false;
+        voice.requestTime = now;
+        sound.playingCount++;
+        playingCount++;
+        lastPlayTime = now;
+        hasPlayed = true;
+        plays.increment();
+        try {
+            voice.voice.play();
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            onFailed(voice);
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Records how long a sound took to start playing.
+     *
+     * @param voice The voice playing it.
+     */
+    private synchronized void onStarted(PooledVoice voice) {
+        // Only the first start of a play counts, a backend may report it again after a stall.
+        if (voice.isPlaying && !voice.hasStarted) {
+            latency.record(clock.getAsLong() - voice.requestTime);
+            voice.hasStarted = true;
+        }
+    }
+
+    /**
+     * Frees the voice that finished playing a sound for the next play, or disposes of it if it failed or the sound
+     * was closed.
+     *
+     * @param voice The voice.
+     */
+    private synchronized void onFinished(PooledVoice voice) {
+        if (!voice.isPlaying) {
+            return;
+        }
+
+        var sound = voice.sound;
+        voice.isPlaying = false;
+        sound.playingCount--;
+        playingCount--;
+        if (!sound.isReleased && !voice.isFailed) {
+            sound.idleVoices.push(voice);
+            return;
+        }
+
+        voice.voice.dispose();
+        if (sound.isReleased && 0 == sound.playingCount) {
+            sound.clip.dispose();
+        }
+    }
+
+    /**
+     * Marks a voice that can't be played again. A playing voice is disposed of right away, an idle one once it is
+     * taken out of the pool.
+     *
+     * @param voice The voice.
+     */
+    private synchronized void onFailed(PooledVoice voice) {
+        voice.isFailed = true;
+        onFinished(voice);
+    }
+
+    /**
+     * Releases one reference to a sound, disposing of it along with its voices once no one needs it anymore.
+     * Voices still playing are disposed of once they finish.
+     *
+     * @param sound The sound.
+     */
+    private synchronized void release(CachedSound sound) {
+        if (--sound.references > 0) {
+            return;
+        }
+
+        sound.isReleased = true;
+        sounds.remove(sound.key);
+        for (var voice : sound.idleVoices) {
+            voice.voice.dispose();
+        }
+
+        sound.idleVoices.clear();
+        if (0 == sound.playingCount) {
+            sound.clip.dispose();
+        }
+    }
+
+    /**
+     * Gets the histogram of the time between asking for a sound and it starting to play.
+     *
+     * @return The latency histogram.
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * Gets the number of sounds played.
+     *
+     * @return The number of plays.
+     */
+    @Override
+    public long getPlayCount() {
+        return plays.sum();
+    }
+
+    /**
+     * Gets the number of sounds dropped.
+     *
+     * @return The number of dropped plays.
+     */
+    @Override
+    public long getDropCount() {
+        return drops.sum();
+    }
+
+    /**
+     * Gets the number of sounds playing right now.
+     *
+     * @return The number of playing voices.
+     */
+    @Override
+    public synchronized int getPlayingCount() {
+        return playingCount;
+    }
+
+    /**
+     * Gets the number of decoded sounds held in the cache.
+     *
+     * @return The number of sounds.
+     */
+    @Override
+    public synchronized int getSoundCount() {
+        return sounds.size();
+    }
+
+    /**
+     * Gets the average time between asking for a sound and it starting to play.
+     *
+     * @return The average latency in milliseconds.
+     */
+    @Override
+    public double getLatencyMeanMillis() {
+        return toMillis(latency.getMean());
+    }
+
+    /**
+     * Gets the time that 99% of sounds started playing within.
+     *
+     * @return The 99th percentile latency in milliseconds.
+     */
+    @Override
+    public double getLatencyP99Millis() {
+        return toMillis(latency.getPercentile(99));
+    }
+
+    /**
+     * Gets the longest time between asking for a sound and it starting to play.
+     *
+     * @return The longest latency in milliseconds.
+     */
+    @Override
+    public double getLatencyMaxMillis() {
+        return toMillis(latency.getMax());
+    }
+
+    /**
+     * Converts nanoseconds to fractional milliseconds.
+     *
+     * @param nanos The time in nanoseconds.
+     * @return The time in milliseconds.
+     */
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * A loaded sound. Every call to {@link #load(String)} gets its own, closing it releases that load.
+     */
+    public class Sound {
+        /**
+         * The sound in the cache.
+         */
+        private final CachedSound sound;
+        /**
+         * True once closed, false otherwise.
+         */
+        private boolean isClosed = false;
+
+        /**
+         * Instantiates a new instance of the class.
+         *
+         * @param sound The sound in the cache.
+         */
+        private Sound(CachedSound sound) {
+            this.sound = sound;
+        }
+
+        /**
+         * Plays the sound unless every voice is busy, the last sound started too recently or it was closed.
+         *
+         * @return True if it is playing, false if it was dropped.
+         */
+        public boolean play() {
+            return SoundEngine.this.play(sound);
+        }
+
+        /**
+         * Releases the sound. Does nothing if it was already closed.
+         */
+        public void close() {
+            synchronized (SoundEngine.this) {
+                if (isClosed) {
+                    return;
+                }
+
+                isClosed = true;
+                release(sound);
+            }
+        }
+    }
+
+    /**
+     * A decoded sound and the voices playing it.
+     */
+    private static class CachedSound {
+        /**
+         * The key of the sound in {@link #sounds}.
+         */
+        final String key;
+        /**
+         * The decoded sound.
+         */
+        final SoundBackend.Clip clip;
+        /**
+         * The voices that finished playing, most recently used first.
+         */
+        final ArrayDeque<PooledVoice> idleVoices = new ArrayDeque<>();
+        /**
+         * The number of loads that weren't closed yet.
+         */
+        int references;
+        /**
+         * The number of voices playing the sound.
+         */
+        int playingCount;
+        /**
+         * True once every load was closed, false otherwise.
+         */
+        boolean isReleased;
+
+        /**
+         * Instantiates a new instance of the class.
+         *
+         * @param key  The key of the sound in {@link #sounds}.
+         * @param clip The decoded sound.
+         */
+        CachedSound(String key, SoundBackend.Clip clip) {
+            this.key = key;
+            this.clip = clip;
+        }
+    }
+
+    /**
+     * A voice of the backend and what it is playing.
+     */
+    private class PooledVoice implements SoundBackend.Listener {
+        /**
+         * The sound the voice plays.
+         */
+        final CachedSound sound;
+        /**
+         * The voice of the backend.
+         */
+        SoundBackend.Voice voice;
+        /**
+         * The time the current play was asked for.
+         */
+        long requestTime;
+        /**
+         * True while playing, false otherwise.
+         */
+        boolean isPlaying;
+        /**
+         * True once the current play started coming out of the speakers, false otherwise.
+         */
+        boolean hasStarted;
+        /**
+         * True once the voice failed and can't be played again, false otherwise.
+         */
+        boolean isFailed;
+
+        /**
+         * Instantiates a new instance of the class.
+         *
+         * @param sound The sound the voice plays.
+         */
+        PooledVoice(CachedSound sound) {
+            this.sound = sound;
+        }
+
+        /**
+         * Records how long the sound took to start playing.
+         *
+         * @param voice The voice.
+         */
+        @Override
+        public void onStarted(SoundBackend.Voice voice) {
+            SoundEngine.this.onStarted(this);
+        }
+
+        /**
+         * Frees the voice for the next play.
+         *
+         * @param voice The voice.
+         */
+        @Override
+        public void onFinished(SoundBackend.Voice voice) {
+            SoundEngine.this.onFinished(this);
+        }
+
+        /**
+         * Disposes of the broken voice so it doesn't hold on to a slot.
+         *
+         * @param voice The voice.
+         */
+        @Override
+        public void onFailed(SoundBackend.Voice voice) {
+            SoundEngine.this.onFailed(this);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.nullinside.sound;
+
+/**
+ * The JMX view of the {@link SoundEngine}.
+ */
+public interface SoundEngineMXBean {
+    /**
+     * Gets the number of sounds played.
+     *
+     * @return The number of plays.
+     */
+    long getPlayCount();
+
+    /**
+     * Gets the number of sounds dropped because every voice was busy or the last sound started too recently.
+     *
+     * @return The number of dropped plays.
+     */
+    long getDropCount();
+
+    /**
+     * Gets the number of sounds playing right now.
+     *
+     * @return The number of playing voices.
+     */
+    int getPlayingCount();
+
+    /**
+     * Gets the number of decoded sounds held in the cache.
+     *
+     * @return The number of sounds.
+     */
+    int getSoundCount();
+
+    /**
+     * Gets the average time between asking for a sound and it starting to play.
+     *
+     * @return The average latency in milliseconds.
+     */
+    double getLatencyMeanMillis();
+
+    /**
+     * Gets the time that 99% of sounds started playing within.
+     *
+     * @return The 99th percentile latency in milliseconds.
+     */
+    double getLatencyP99Millis();
+
+    /**
+     * Gets the longest time between asking for a sound and it starting to play.
+     *
+     * @return The longest latency in milliseconds.
+     */
+    double getLatencyMaxMillis();
+}
@@ -0,0 +1,30 @@
+package org.nullinside.tts;
+
+import java.io.IOException;
+
+/**
+ * Turns text into speech.
+ * <p>
+ * An engine speaks one utterance at a time, on the thread calling {@link #speak(String)}. It may be stopped or
+ * disposed of from any other thread while it is speaking.
+ */
+public interface ITtsEngine {
+    /**
+     * Speaks text, returning once it has been spoken or cut off by {@link #stop()}.
+     *
+     * @param text The text to speak.
+     * @throws IOException          Thrown if the engine failed to speak the text.
+     * @throws InterruptedException Thrown if the thread was interrupted while waiting for the speech to finish.
+     */
+    void speak(String text) throws IOException, InterruptedException;
+
+    /**
+     * Cuts off the utterance being spoken, if there is one.
+     */
+    void stop();
+
+    /**
+     * Stops speaking and releases the engine. Anything spoken afterwards is ignored.
+     */
+    void dispose();
+}
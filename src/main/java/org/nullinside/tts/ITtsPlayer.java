@@ -0,0 +1,28 @@
+package org.nullinside.tts;
+
+import java.io.IOException;
+
+/**
+ * Plays rendered clips, one at a time, on the thread calling {@link #play(byte[])}. It may be stopped or disposed of
+ * from any other thread while it is playing.
+ */
+public interface ITtsPlayer {
+    /**
+     * Plays a clip, returning once it has finished or was cut off by {@link #stop()}.
+     *
+     * @param clip The clip, a WAV file.
+     * @throws IOException          Thrown if the clip can't be played.
+     * @throws InterruptedException Thrown if the thread was interrupted while waiting for the clip to finish.
+     */
+    void play(byte[] clip) throws IOException, InterruptedException;
+
+    /**
+     * Cuts off the clip being played, if there is one.
+     */
+    void stop();
+
+    /**
+     * Stops playing and releases the player. Anything played afterwards is ignored.
+     */
+    void dispose();
+}
@@ -0,0 +1,20 @@
+package org.nullinside.tts;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * A text to speech engine that can also render speech to a WAV file instead of speaking it, so it can be played
+ * later and played again.
+ */
+public interface ITtsRenderer extends ITtsEngine {
+    /**
+     * Renders text to a WAV file, returning once the file is complete.
+     *
+     * @param text The text to render.
+     * @param file The file to write, overwritten if it exists.
+     * @throws IOException          Thrown if the engine failed or was stopped before it finished the file.
+     * @throws InterruptedException Thrown if the thread was interrupted while waiting for the engine.
+     */
+    void render(String text, Path file) throws IOException, InterruptedException;
+}
@@ -0,0 +1,152 @@
+package org.nullinside.tts;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Speaks every utterance by starting a process of its own, writing the text to its standard input and waiting for it
+ * to exit. When rendering, the file to write is passed to the process in the {@value #OUTPUT_VARIABLE} environment
+ * variable.
+ * <p>
+ * Simple and stateless, but every utterance pays for starting the process and loading its voice, which for
+ * PowerShell is most of the time it takes to speak a short chat message. See {@link PersistentProcessEngine}.
+ */
+public class OneShotProcessEngine implements ITtsRenderer {
+    /**
+     * The environment variable holding the file to render to, missing when speaking.
+     */
+    public static final String OUTPUT_VARIABLE = "TTS_OUTPUT";
+    /**
+     * The command starting the process.
+     */
+    private final List<String> command;
+    /**
+     * The process speaking the current utterance, null if there isn't one.
+     */
+    private Process process = null;
+    /**
+     * True if the engine was disposed of.
+     */
+    private boolean isDisposed = false;
+
+    /**
+     * Instantiates a new instance of the class.
+     *
+     * @param command The command starting the process, which reads the text from its standard input.
+     */
+    public OneShotProcessEngine(List<String> command) {
+        this.command = List.copyOf(command);
+    }
+
+    /**
+     * Starts a process, hands it the text and waits for it to exit.
+     *
+     * @param text The text to speak.
+     * @throws IOException          Thrown if the process couldn't be started or failed.
+     * @throws InterruptedException Thrown if the thread was interrupted while waiting for the process.
+     */
+    @Override
+    public void speak(String text) throws IOException, InterruptedException {
+        run(text, null);
+    }
+
+    /**
+     * Starts a process, hands it the text and the file and waits for it to exit.
+     *
+     * @param text The text to render.
+     * @param file The file to write.
+     * @throws IOException          Thrown if the process couldn't be started, failed or was stopped.
+     * @throws InterruptedException Thrown if the thread was interrupted while waiting for the process.
+     */
+    @Override
+    public void render(String text, Path file) throws IOException, InterruptedException {
+        if (!run(text, file)) {
+            throw new InterruptedIOException("Stopped before " + file + " was rendered");
+        }
+    }
+
+    /**
+     * Kills the process speaking the current utterance.
+     */
+    @Override
+    public synchronized void stop() {
+        if (null == process) {
+            return;
+        }
+
+        process.destroyForcibly();
+        process = null;
+    }
+
+    /**
+     * Kills the process speaking the current utterance and stops starting new ones.
+     */
+    @Override
+    public synchronized void dispose() {
+        isDisposed = true;
+        stop();
+    }
+
+    /**
+     * Starts a process, hands it the text and waits for it to exit.
+     *
+     * @param text The text.
+     * @param file The file to render to, null to speak.
+     * @return True if the process finished, false if it was stopped or the engine was disposed of.
+     * @throws IOException          Thrown if the process couldn't be started or failed.
+     * @throws InterruptedException Thrown if the thread was interrupted while waiting for the process.
+     */
+    private boolean run(String text, Path file) throws IOException, InterruptedException {
+        Process process;
+        synchronized (this) {
+            if (isDisposed) {
+                return false;
+            }
+
+            var builder = new ProcessBuilder(command)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT);
+            if (null != file) {
+                builder.environment().put(OUTPUT_VARIABLE, file.toAbsolutePath().toString());
+            }
+
+            process = builder.start();
+            this.process = process;
+        }
+
+        try {
+            // The text goes through standard input rather than the command line, so nothing in a chat message can
+            // be taken for part of the command.
+            try (var input = process.getOutputStream()) {
+                input.write(text.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                // Stopped before it read the text, or it failed and the exit code says so.
+            }
+
+            var exitCode = process.waitFor();
+            synchronized (this) {
+                if (this.process != process) {
+                    return false;
+                }
+            }
+
+            if (0 != exitCode) {
+                throw new IOException(String.format("%s exited with %d", command.get(0), exitCode));
+            }
+
+            return true;
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            throw e;
+        } finally {
+            synchronized (this) {
+                if (this.process == process) {
+                    this.process = null;
+                }
+            }
+        }
+    }
+}
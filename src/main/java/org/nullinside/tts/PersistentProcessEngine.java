@@ -0,0 +1,236 @@
+package org.nullinside.tts;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Speaks through one long lived process, so it is started and loads its voice once rather than for every utterance.
+ * <p>
+ * The process talks a line protocol over its standard streams. Once it is ready to speak it writes {@value #READY}
+ * on a line of its own. Every utterance is written to it on one line as an id, a tab, the file to render it to, a tab
+ * and the text. The file is empty when the utterance is to be spoken instead. Once it has been spoken or rendered
+ * the process answers with {@value #DONE}, a tab and the id. Anything else the process writes is ignored.
+ * <p>
+ * Stopping an utterance kills the process, the next utterance starts a new one. The same goes for a process that
+ * exits on its own.
+ */
+public class PersistentProcessEngine implements ITtsRenderer {
+    /**
+     * Written by the process once it is ready to speak.
+     */
+    public static final String READY = "READY";
+    /**
+     * Written by the process, followed by a tab and the id, once it has spoken an utterance.
+     */
+    public static final String DONE = "DONE";
+    /**
+     * Matches the line breaks in the text, which would end the line of the utterance early.
+     */
+    private static final Pattern LINE_BREAKS = Pattern.compile("[\\r\\n]+");
+    /**
+     * The command starting the process.
+     */
+    private final List<String> command;
+    /**
+     * The running process, null if it hasn't been started yet.
+     */
+    private Session session = null;
+    /**
+     * True if the engine was disposed of.
+     */
+    private boolean isDisposed = false;
+    /**
+     * The id of the last utterance, only used by the thread speaking.
+     */
+    private long lastId = 0;
+
+    /**
+     * Instantiates a new instance of the class. The process isn't started until there is something to speak.
+     *
+     * @param command The command starting the process.
+     */
+    public PersistentProcessEngine(List<String> command) {
+        this.command = List.copyOf(command);
+    }
+
+    /**
+     * Writes the text to the process, starting it if needed, and waits for it to be spoken.
+     *
+     * @param text The text to speak.
+     * @throws IOException Thrown if the process couldn't be started or exited without speaking the text.
+     */
+    @Override
+    public void speak(String text) throws IOException {
+        request("", text);
+    }
+
+    /**
+     * Writes the text and the file to the process, starting it if needed, and waits for it to be rendered.
+     *
+     * @param text The text to render.
+     * @param file The file to write.
+     * @throws IOException Thrown if the process couldn't be started, exited or was stopped before it finished.
+     */
+    @Override
+    public void render(String text, Path file) throws IOException {
+        if (!request(file.toAbsolutePath().toString(), text)) {
+            throw new InterruptedIOException("Stopped before " + file + " was rendered");
+        }
+    }
+
+    /**
+     * Kills the process, cutting off the current utterance. The next utterance starts a new one.
+     */
+    @Override
+    public synchronized void stop() {
+        if (null == session) {
+            return;
+        }
+
+        session.isStopped = true;
+        close(session);
+    }
+
+    /**
+     * Kills the process and stops starting new ones.
+     */
+    @Override
+    public synchronized void dispose() {
+        isDisposed = true;
+        stop();
+    }
+
+    /**
+     * Writes an utterance to the process, starting it if needed, and waits for it to be done.
+     *
+     * @param file The file to render to, empty to speak.
+     * @param text The text.
+     * @return True if it was done, false if the process was stopped or the engine was disposed of.
+     * @throws IOException Thrown if the process couldn't be started or exited on its own.
+     */
+    private boolean request(String file, String text) throws IOException {
+        var session = getSession();
+        if (null == session) {
+            return false;
+        }
+
+        try {
+            if (!session.isReady) {
+                awaitLine(session, READY);
+                session.isReady = true;
+            }
+
+            var id = Long.toString(++lastId);
+            session.input.write(id + '\t' + file + '\t' + LINE_BREAKS.matcher(text).replaceAll(" ") + '\n');
+            session.input.flush();
+            awaitLine(session, DONE + '\t' + id);
+            return true;
+        } catch (IOException e) {
+            close(session);
+            // Killed on purpose, that's not a failure.
+            if (!session.isStopped) {
+                throw e;
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * Gets the running process, starting it if there isn't one.
+     *
+     * @return The process, null if the engine was disposed of.
+     * @throws IOException Thrown if the process couldn't be started.
+     */
+    private synchronized Session getSession() throws IOException {
+        if (isDisposed) {
+            return null;
+        }
+
+        if (null == session) {
+            var process = new ProcessBuilder(command)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+            session = new Session(process);
+        }
+
+        return session;
+    }
+
+    /**
+     * Kills a process and forgets about it, if it is still the running one.
+     *
+     * @param session The process.
+     */
+    private synchronized void close(Session session) {
+        if (this.session == session) {
+            this.session = null;
+        }
+
+        session.process.destroyForcibly();
+    }
+
+    /**
+     * Reads the output of the process until it writes a line.
+     *
+     * @param session  The process.
+     * @param expected The line.
+     * @throws IOException Thrown if the process exited first.
+     */
+    private static void awaitLine(Session session, String expected) throws IOException {
+        String line;
+        while (null != (line = session.output.readLine())) {
+            if (expected.equals(line)) {
+                return;
+            }
+        }
+
+        throw new EOFException(String.format("The speech engine exited while waiting for \"%s\"", expected));
+    }
+
+    /**
+     * A running process.
+     */
+    private static class Session {
+        /**
+         * The process.
+         */
+        private final Process process;
+        /**
+         * The standard input of the process.
+         */
+        private final BufferedWriter input;
+        /**
+         * The standard output of the process.
+         */
+        private final BufferedReader output;
+        /**
+         * True once the process wrote {@link #READY}, only used by the thread speaking.
+         */
+        private boolean isReady = false;
+        /**
+         * True if the process was killed by {@link #stop()}.
+         */
+        private volatile boolean isStopped = false;
+
+        /**
+         * Instantiates a new instance of the class.
+         *
+         * @param process The process.
+         */
+        Session(Process process) {
+            this.process = process;
+            input = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+            output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
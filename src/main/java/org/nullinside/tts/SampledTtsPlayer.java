@@ -0,0 +1,94 @@
+package org.nullinside.tts;
+
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Clip;
+import javax.sound.sampled.LineEvent;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays rendered clips straight from memory through Java Sound.
+ */
+public class SampledTtsPlayer implements ITtsPlayer {
+    /**
+     * How long past the end of a clip to wait for it to report that it stopped before giving up on it.
+     */
+    private static final long STOP_GRACE_MILLIS = 2000;
+    /**
+     * The clip being played, null if there isn't one.
+     */
+    private Clip clip = null;
+    /**
+     * True if the player was disposed of.
+     */
+    private boolean isDisposed = false;
+
+    /**
+     * Opens the clip on the default audio device and waits for it to finish.
+     *
+     * @param audio The clip, a WAV file.
+     * @throws IOException          Thrown if the clip can't be decoded or there is no audio device.
+     * @throws InterruptedException Thrown if the thread was interrupted while waiting for the clip to finish.
+     */
+    @Override
+    public void play(byte[] audio) throws IOException, InterruptedException {
+        var stopped = new CountDownLatch(1);
+        Clip clip;
+        synchronized (this) {
+            if (isDisposed) {
+                return;
+            }
+
+            try (var stream = AudioSystem.getAudioInputStream(new ByteArrayInputStream(audio))) {
+                clip = AudioSystem.getClip();
+                clip.addLineListener(event -> {
+                    if (LineEvent.Type.STOP == event.getType()) {
+                        stopped.countDown();
+                    }
+                });
+                clip.open(stream);
+            } catch (UnsupportedAudioFileException | LineUnavailableException | IllegalArgumentException e) {
+                throw new IOException("Failed to play the clip", e);
+            }
+
+            this.clip = clip;
+            clip.start();
+        }
+
+        try {
+            stopped.await(TimeUnit.MICROSECONDS.toMillis(clip.getMicrosecondLength()) + STOP_GRACE_MILLIS,
+                    TimeUnit.MILLISECONDS);
+        } finally {
+            synchronized (this) {
+                if (this.clip == clip) {
+                    this.clip = null;
+                }
+            }
+
+            clip.close();
+        }
+    }
+
+    /**
+     * Stops the clip being played.
+     */
+    @Override
+    public synchronized void stop() {
+        if (null != clip) {
+            clip.stop();
+        }
+    }
+
+    /**
+     * Stops the clip being played and stops playing new ones.
+     */
+    @Override
+    public synchronized void dispose() {
+        isDisposed = true;
+        stop();
+    }
+}
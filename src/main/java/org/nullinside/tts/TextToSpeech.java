@@ -0,0 +1,378 @@
+package org.nullinside.tts;
+
+import java.io.IOException;
+import java.util.concurrent.SynchronousQueue;
+
+/**
+ * Speaks chat messages one at a time through an {@link ITtsEngine}.
+ * <p>
+ * Messages wait in a bounded {@link TtsQueue}, so in a busy chat speech is kept close to what is being said instead
+ * of falling further and further behind.
+ * <p>
+ * Given an {@link ITtsRenderer}, speaking is split in two. One thread renders each message to a clip, through a
+ * {@link TtsClipCache}, and another plays the clips. The next message is rendered while the current one plays, so
+ * back to back messages follow each other without waiting on the engine. Only one message is rendered ahead, so a
+ * priority message waits behind at most one normal message that was already rendered.
+ */
+public class TextToSpeech {
+    /**
+     * Handed to the playing thread once the rendering thread is done.
+     */
+    private static final RenderedUtterance END = new RenderedUtterance(null, null, 0);
+    /**
+     * The engine created by {@link #TextToSpeech()}.
+     */
+    private static TtsEngineType defaultEngine = TtsEngineType.POWERSHELL_PERSISTENT;
+    /**
+     * True if {@link #TextToSpeech()} renders messages ahead, false if it speaks them live.
+     */
+    private static boolean defaultRenderAhead = true;
+    /**
+     * The queue of text to convert to speech.
+     */
+    private final TtsQueue voiceQueue;
+    /**
+     * The engine speaking the text.
+     */
+    private final ITtsEngine engine;
+    /**
+     * Identifies the voice of the engine in {@link #cache}, null when speaking live.
+     */
+    private final String voice;
+    /**
+     * The cache of rendered clips, null when speaking live.
+     */
+    private final TtsClipCache cache;
+    /**
+     * Plays the rendered clips, null when speaking live.
+     */
+    private final ITtsPlayer player;
+    /**
+     * Hands the rendered clips to the playing thread, null when speaking live.
+     */
+    private final SynchronousQueue<RenderedUtterance> rendered;
+    /**
+     * The thread that feeds the queue to the engine, or renders it when rendering ahead.
+     */
+    private final Thread voiceRunningThread;
+    /**
+     * The thread that plays the rendered clips, null when speaking live.
+     */
+    private final Thread playingThread;
+    /**
+     * The utterance being spoken, null if there isn't one.
+     */
+    private TtsQueue.Utterance currentUtterance = null;
+
+    /**
+     * Instantiates a new instance of the class with a queue configured by
+     * {@link TtsQueue#setDefaults(int, TtsOverflowPolicy, java.util.Collection, boolean)} and the engine set by
+     * {@link #setDefaults(TtsEngineType, boolean)}.
+     */
+    public TextToSpeech() {
+        this(TtsQueue.createDefault(), getDefaultEngine(), isDefaultRenderAhead());
+    }
+
+    /**
+     * Instantiates a new instance of the class that speaks messages live.
+     *
+     * @param voiceQueue The queue of text to convert to speech.
+     * @param engine     The engine speaking the text, disposed of along with this.
+     */
+    public TextToSpeech(TtsQueue voiceQueue, ITtsEngine engine) {
+        this(voiceQueue, engine, null, null, null);
+    }
+
+    /**
+     * Instantiates a new instance of the class that renders messages ahead.
+     *
+     * @param voiceQueue The queue of text to convert to speech.
+     * @param renderer   The engine rendering the text, disposed of along with this.
+     * @param voice      Identifies the voice of the engine and its settings in the cache.
+     * @param cache      The cache of rendered clips.
+     * @param player     Plays the rendered clips, disposed of along with this.
+     */
+    public TextToSpeech(TtsQueue voiceQueue, ITtsRenderer renderer, String voice, TtsClipCache cache,
+                        ITtsPlayer player) {
+        this(voiceQueue, (ITtsEngine) renderer, voice, cache, player);
+    }
+
+    /**
+     * Instantiates a new instance of the class with one of the engines that come with the application.
+     *
+     * @param voiceQueue  The queue of text to convert to speech.
+     * @param engine      The engine.
+     * @param renderAhead True to render messages ahead, false to speak them live.
+     */
+    private TextToSpeech(TtsQueue voiceQueue, TtsEngineType engine, boolean renderAhead) {
+        this(voiceQueue, engine.create(), renderAhead ? engine.name() : null,
+                renderAhead ? TtsClipCache.getInstance() : null, renderAhead ? new SampledTtsPlayer() : null);
+    }
+
+    /**
+     * Instantiates a new instance of the class.
+     *
+     * @param voiceQueue The queue of text to convert to speech.
+     * @param engine     The engine, disposed of along with this.
+     * @param voice      Identifies the voice of the engine in the cache, null to speak live.
+     * @param cache      The cache of rendered clips, null to speak live.
+     * @param player     Plays the rendered clips, null to speak live.
+     */
+    private TextToSpeech(TtsQueue voiceQueue, ITtsEngine engine, String voice, TtsClipCache cache,
+                         ITtsPlayer player) {
+        this.voiceQueue = voiceQueue;
+        this.engine = engine;
+        this.voice = voice;
+        this.cache = cache;
+        this.player = player;
+        voiceQueue.setPreemptListener(this::preempt);
+        if (null == player) {
+            rendered = null;
+            playingThread = null;
+            voiceRunningThread = new Thread(this::voiceQueueingThread, "Text To Speech Thread");
+        } else {
+            rendered = new SynchronousQueue<>();
+            playingThread = new Thread(this::playingThread, "Text To Speech Playing Thread");
+            playingThread.setDaemon(true);
+            playingThread.start();
+            voiceRunningThread = new Thread(this::renderingThread, "Text To Speech Rendering Thread");
+        }
+
+        voiceRunningThread.setDaemon(true);
+        voiceRunningThread.start();
+    }
+
+    /**
+     * Sets how {@link #TextToSpeech()} speaks. Only affects instances created after this call.
+     *
+     * @param engine      The engine.
+     * @param renderAhead True to render messages ahead, false to speak them live.
+     */
+    public static synchronized void setDefaults(TtsEngineType engine, boolean renderAhead) {
+        defaultEngine = null != engine ? engine : TtsEngineType.POWERSHELL_PERSISTENT;
+        defaultRenderAhead = renderAhead;
+    }
+
+    /**
+     * Gets the engine created by {@link #TextToSpeech()}.
+     *
+     * @return The engine.
+     */
+    private static synchronized TtsEngineType getDefaultEngine() {
+        return defaultEngine;
+    }
+
+    /**
+     * Checks if {@link #TextToSpeech()} renders messages ahead.
+     *
+     * @return True if it renders messages ahead, false if it speaks them live.
+     */
+    private static synchronized boolean isDefaultRenderAhead() {
+        return defaultRenderAhead;
+    }
+
+    /**
+     * Disposes of managed and unmanaged resources.
+     */
+    public void dispose() {
+        // First tell the other threads to exit, closing the queue unblocks them.
+        voiceQueue.close();
+
+        // Then, kill the currently running message
+        engine.dispose();
+        if (null != player) {
+            player.dispose();
+        }
+
+        // Let the threads exit gracefully.
+        try {
+            voiceRunningThread.join(10000);
+            if (null != playingThread) {
+                playingThread.join(10000);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Add a message to the queue for text to speech to be spoken.
+     *
+     * @param message The message to speak.
+     */
+    public void addMessage(String message) {
+        voiceQueue.offer(message);
+    }
+
+    /**
+     * The main thread of {@link #voiceRunningThread} when speaking live. It just loops through the queue
+     * and speaks whenever something comes through.
+     */
+    private void voiceQueueingThread() {
+        while (true) {
+            try {
+                var utterance = voiceQueue.take();
+                if (null == utterance) {
+                    return;
+                }
+
+                System.out.printf("Got: %s\n", utterance.getText());
+                speak(utterance);
+                voiceQueue.done(utterance);
+            } catch (InterruptedException e) {
+                engine.stop();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Speaks an utterance through the engine.
+     *
+     * @param utterance The utterance to speak.
+     * @throws InterruptedException Thrown if the thread was interrupted while it was being spoken.
+     */
+    private void speak(TtsQueue.Utterance utterance) throws InterruptedException {
+        synchronized (this) {
+            currentUtterance = utterance;
+        }
+
+        try {
+            engine.speak(utterance.getText());
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            synchronized (this) {
+                currentUtterance = null;
+            }
+        }
+    }
+
+    /**
+     * The main thread of {@link #voiceRunningThread} when rendering ahead. It renders whatever comes through the
+     * queue and waits for the playing thread to take it before taking the next.
+     */
+    private void renderingThread() {
+        try {
+            while (true) {
+                var utterance = voiceQueue.take();
+                if (null == utterance) {
+                    break;
+                }
+
+                var taken = System.nanoTime();
+                try {
+                    var clip = cache.get(voice, utterance.getText(), (ITtsRenderer) engine);
+                    rendered.put(new RenderedUtterance(utterance, clip, taken));
+                } catch (IOException e) {
+                    if (!voiceQueue.isClosed()) {
+                        e.printStackTrace();
+                    }
+
+                    voiceQueue.done(utterance);
+                }
+            }
+
+            rendered.put(END);
+        } catch (InterruptedException e) {
+            playingThread.interrupt();
+        }
+    }
+
+    /**
+     * The main thread of {@link #playingThread}. It plays the clips as they are rendered.
+     */
+    private void playingThread() {
+        long finished = 0;
+        try {
+            while (true) {
+                var next = rendered.take();
+                if (END == next) {
+                    return;
+                }
+
+                // Only a message that was already waiting counts, otherwise the silence is just a quiet chat.
+                if (0 != finished && next.taken - finished <= 0) {
+                    voiceQueue.getMetrics().recordGap(System.nanoTime() - finished);
+                }
+
+                play(next);
+                finished = System.nanoTime();
+                voiceQueue.done(next.utterance);
+            }
+        } catch (InterruptedException e) {
+            player.stop();
+        }
+    }
+
+    /**
+     * Plays a rendered utterance.
+     *
+     * @param rendered The rendered utterance.
+     * @throws InterruptedException Thrown if the thread was interrupted while it was being played.
+     */
+    private void play(RenderedUtterance rendered) throws InterruptedException {
+        synchronized (this) {
+            currentUtterance = rendered.utterance;
+        }
+
+        try {
+            player.play(rendered.clip);
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            synchronized (this) {
+                currentUtterance = null;
+            }
+        }
+    }
+
+    /**
+     * Cuts off an utterance to speak a priority message, if it is still being spoken.
+     * <p>
+     * When rendering ahead the queue only knows about the utterance taken last, which may be the one being rendered
+     * rather than the one being played. Whatever normal utterance is being played is cut off instead.
+     *
+     * @param utterance The utterance.
+     */
+    private synchronized void preempt(TtsQueue.Utterance utterance) {
+        if (null == player) {
+            if (utterance == currentUtterance) {
+                engine.stop();
+            }
+        } else if (null != currentUtterance && !currentUtterance.isPriority()) {
+            player.stop();
+        }
+    }
+
+    /**
+     * An utterance rendered to a clip, waiting to be played.
+     */
+    private static class RenderedUtterance {
+        /**
+         * The utterance.
+         */
+        private final TtsQueue.Utterance utterance;
+        /**
+         * The clip, a WAV file.
+         */
+        private final byte[] clip;
+        /**
+         * When the utterance was taken off the queue, from {@link System#nanoTime()}.
+         */
+        private final long taken;
+
+        /**
+         * Instantiates a new instance of the class.
+         *
+         * @param utterance The utterance.
+         * @param clip      The clip, a WAV file.
+         * @param taken     When the utterance was taken off the queue, from {@link System#nanoTime()}.
+         */
+        RenderedUtterance(TtsQueue.Utterance utterance, byte[] clip, long taken) {
+            this.utterance = utterance;
+            this.clip = clip;
+            this.taken = taken;
+        }
+    }
+}
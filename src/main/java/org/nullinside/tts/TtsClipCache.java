@@ -0,0 +1,340 @@
+package org.nullinside.tts;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+
+/**
+ * Keeps rendered clips around so that recurring phrases, like canned alert text, are only rendered once.
+ * <p>
+ * Clips are keyed by their text and the voice that rendered them. The most recently used ones are kept in memory and
+ * the clips pushed out of memory stay on disk, each up to a limit in bytes. The disk cache survives restarts: it is
+ * reloaded from its directory, oldest first, when the directory is set.
+ */
+public class TtsClipCache {
+    /**
+     * The extension of the clips on disk.
+     */
+    private static final String CLIP_EXTENSION = ".wav";
+    /**
+     * The extension of the clips being rendered, which are left behind if the application dies while rendering.
+     */
+    private static final String RENDERING_EXTENSION = ".tmp";
+    /**
+     * The singleton instance of this class.
+     */
+    private static TtsClipCache instance;
+    /**
+     * The statistics of the cache.
+     */
+    private final TtsMetrics metrics;
+    /**
+     * The clips in memory by key, least recently used first.
+     */
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * The size of the clips on disk by key, least recently used first.
+     */
+    private final LinkedHashMap<String, Long> disk = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * The directory of the clips on disk, null to keep them in memory only.
+     */
+    private Path directory = null;
+    /**
+     * The most bytes of clips kept in memory.
+     */
+    private long memoryLimit;
+    /**
+     * The most bytes of clips kept on disk.
+     */
+    private long diskLimit;
+    /**
+     * The bytes of clips in memory.
+     */
+    private long memoryBytes = 0;
+    /**
+     * The bytes of clips on disk.
+     */
+    private long diskBytes = 0;
+
+    /**
+     * Instantiates a new instance of the class. Most of the application shares the {@link #getInstance()}
+     * singleton, separate instances are meant for tests.
+     *
+     * @param memoryLimit The most bytes of clips kept in memory.
+     * @param diskLimit   The most bytes of clips kept on disk.
+     * @param metrics     The statistics the cache records to.
+     */
+    TtsClipCache(long memoryLimit, long diskLimit, TtsMetrics metrics) {
+        this.memoryLimit = memoryLimit;
+        this.diskLimit = diskLimit;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Gets the cache shared by the application. It keeps clips in memory only until a directory is set.
+     *
+     * @return The singleton instance of the class.
+     */
+    public static synchronized TtsClipCache getInstance() {
+        if (null == instance) {
+            instance = new TtsClipCache(16 * 1024 * 1024, 256 * 1024 * 1024, TtsMetrics.getInstance());
+        }
+
+        return instance;
+    }
+
+    /**
+     * Sets the directory to keep clips in on disk, loading the clips already in it.
+     *
+     * @param directory The directory, null to keep clips in memory only.
+     * @throws IOException Thrown if the directory can't be created or read.
+     */
+    public synchronized void setDirectory(Path directory) throws IOException {
+        disk.clear();
+        diskBytes = 0;
+        this.directory = directory;
+        if (null == directory) {
+            return;
+        }
+
+        Files.createDirectories(directory);
+        var clips = new ArrayList<Path>();
+        try (var files = Files.list(directory)) {
+            for (var file : (Iterable<Path>) files::iterator) {
+                var name = file.getFileName().toString();
+                if (name.endsWith(CLIP_EXTENSION)) {
+                    clips.add(file);
+                } else if (name.endsWith(RENDERING_EXTENSION)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+
+        clips.sort(Comparator.comparing(TtsClipCache::getLastModified));
+        for (var clip : clips) {
+            var name = clip.getFileName().toString();
+            var size = Files.size(clip);
+            disk.put(name.substring(0, name.length() - CLIP_EXTENSION.length()), size);
+            diskBytes += size;
+        }
+
+        trimDisk();
+    }
+
+    /**
+     * Sets how much the cache holds. Anything over the new limits is thrown out right away.
+     *
+     * @param memoryLimit The most bytes of clips kept in memory.
+     * @param diskLimit   The most bytes of clips kept on disk.
+     */
+    public synchronized void setLimits(long memoryLimit, long diskLimit) {
+        this.memoryLimit = memoryLimit;
+        this.diskLimit = diskLimit;
+        trimMemory();
+        trimDisk();
+    }
+
+    /**
+     * Gets the clip of some text, rendering it if it isn't cached. Two threads asking for the same clip that isn't
+     * cached may both render it.
+     *
+     * @param voice    Identifies the voice and its settings, clips rendered by another voice aren't used.
+     * @param text     The text.
+     * @param renderer Renders the clip if it isn't cached.
+     * @return The clip, a WAV file.
+     * @throws IOException          Thrown if the clip couldn't be rendered.
+     * @throws InterruptedException Thrown if interrupted while rendering.
+     */
+    public byte[] get(String voice, String text, ITtsRenderer renderer) throws IOException, InterruptedException {
+        var key = getKey(voice, text);
+        Path directory;
+        Path file = null;
+        synchronized (this) {
+            var clip = memory.get(key);
+            if (null != clip) {
+                metrics.recordClipHit(true);
+                return clip;
+            }
+
+            directory = this.directory;
+            if (null != directory && null != disk.get(key)) {
+                file = directory.resolve(key + CLIP_EXTENSION);
+            }
+        }
+
+        if (null != file) {
+            try {
+                var clip = Files.readAllBytes(file);
+                // So the order survives a restart.
+                Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+                metrics.recordClipHit(false);
+                putMemory(key, clip);
+                return clip;
+            } catch (IOException e) {
+                // Deleted behind our back, render it again.
+                synchronized (this) {
+                    removeDisk(key);
+                }
+            }
+        }
+
+        var start = System.nanoTime();
+        var rendering = null != directory ? Files.createTempFile(directory, key, RENDERING_EXTENSION) :
+                Files.createTempFile("tts-", CLIP_EXTENSION);
+        try {
+            renderer.render(text, rendering);
+            var clip = Files.readAllBytes(rendering);
+            if (0 == clip.length) {
+                throw new IOException("Nothing was rendered for: " + text);
+            }
+
+            metrics.recordRender(System.nanoTime() - start);
+            if (null != directory && putDisk(directory, key, clip.length)) {
+                Files.move(rendering, directory.resolve(key + CLIP_EXTENSION), StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            putMemory(key, clip);
+            return clip;
+        } finally {
+            Files.deleteIfExists(rendering);
+        }
+    }
+
+    /**
+     * Gets the number of bytes of clips in memory.
+     *
+     * @return The number of bytes.
+     */
+    public synchronized long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    /**
+     * Gets the number of bytes of clips on disk.
+     *
+     * @return The number of bytes.
+     */
+    public synchronized long getDiskBytes() {
+        return diskBytes;
+    }
+
+    /**
+     * Keeps a clip in memory, if it fits.
+     *
+     * @param key  The key of the clip.
+     * @param clip The clip.
+     */
+    private synchronized void putMemory(String key, byte[] clip) {
+        if (clip.length > memoryLimit) {
+            return;
+        }
+
+        var previous = memory.put(key, clip);
+        memoryBytes += clip.length - (null != previous ? previous.length : 0);
+        trimMemory();
+    }
+
+    /**
+     * Makes room for a clip on disk, if it fits.
+     *
+     * @param directory The directory the clip is going in, in case it changed since rendering started.
+     * @param key       The key of the clip.
+     * @param size      The size of the clip in bytes.
+     * @return True if the clip should be written to disk, false otherwise.
+     */
+    private synchronized boolean putDisk(Path directory, String key, long size) {
+        if (!directory.equals(this.directory) || size > diskLimit) {
+            return false;
+        }
+
+        var previous = disk.put(key, size);
+        diskBytes += size - (null != previous ? previous : 0);
+        trimDisk();
+        return true;
+    }
+
+    /**
+     * Throws out the least recently used clips in memory until they are under the limit.
+     */
+    private void trimMemory() {
+        var iterator = memory.values().iterator();
+        while (memoryBytes > memoryLimit && iterator.hasNext()) {
+            memoryBytes -= iterator.next().length;
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Deletes the least recently used clips on disk until they are under the limit.
+     */
+    private void trimDisk() {
+        while (diskBytes > diskLimit && !disk.isEmpty()) {
+            removeDisk(disk.keySet().iterator().next());
+        }
+    }
+
+    /**
+     * Deletes a clip on disk.
+     *
+     * @param key The key of the clip.
+     */
+    private void removeDisk(String key) {
+        var size = disk.remove(key);
+        if (null == size) {
+            return;
+        }
+
+        diskBytes -= size;
+        try {
+            Files.deleteIfExists(directory.resolve(key + CLIP_EXTENSION));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Gets the key of a clip, a hash of the voice and the text that is safe to use as a file name.
+     *
+     * @param voice The voice.
+     * @param text  The text.
+     * @return The key.
+     */
+    private static String getKey(String voice, String text) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256")
+                    .digest((voice + '\n' + text).getBytes(StandardCharsets.UTF_8));
+            var key = new StringBuilder(digest.length * 2);
+            for (var b : digest) {
+                key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java implementation has to support SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Gets when a file was last modified, for ordering the clips on disk.
+     *
+     * @param file The file.
+     * @return The time, the beginning of time if it can't be read.
+     */
+    private static FileTime getLastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
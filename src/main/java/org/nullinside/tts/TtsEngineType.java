@@ -0,0 +1,87 @@
+package org.nullinside.tts;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * The text to speech engines that come with the application. Every one of them can render to a file as well.
+ */
+public enum TtsEngineType {
+    /**
+     * Starts PowerShell and loads the Microsoft voice for every utterance.
+     */
+    POWERSHELL {
+        @Override
+        public ITtsRenderer create() {
+            return new OneShotProcessEngine(powerShell("[Console]::InputEncoding = [Text.Encoding]::UTF8\n" +
+                    SYNTHESIZER +
+                    "if ($env:" + OneShotProcessEngine.OUTPUT_VARIABLE + ") {\n" +
+                    "    $synth.SetOutputToWaveFile($env:" + OneShotProcessEngine.OUTPUT_VARIABLE + ")\n" +
+                    "}\n" +
+                    "$synth.Speak([Console]::In.ReadToEnd() + '?')\n" +
+                    "$synth.Dispose()\n"));
+        }
+    },
+    /**
+     * Keeps one PowerShell running with the Microsoft voice loaded and feeds it the utterances.
+     */
+    POWERSHELL_PERSISTENT {
+        @Override
+        public ITtsRenderer create() {
+            return new PersistentProcessEngine(powerShell("[Console]::InputEncoding = [Text.Encoding]::UTF8\n" +
+                    SYNTHESIZER +
+                    "[Console]::Out.WriteLine('" + PersistentProcessEngine.READY + "')\n" +
+                    "while ($null -ne ($line = [Console]::In.ReadLine())) {\n" +
+                    "    $id, $file, $text = $line.Split([char]9, 3)\n" +
+                    "    if ($file) {\n" +
+                    "        $synth.SetOutputToWaveFile($file)\n" +
+                    "    } else {\n" +
+                    "        $synth.SetOutputToDefaultAudioDevice()\n" +
+                    "    }\n" +
+                    "    $synth.Speak($text + '?')\n" +
+                    "    # Finishes the file, if there is one.\n" +
+                    "    $synth.SetOutputToNull()\n" +
+                    "    [Console]::Out.WriteLine('" + PersistentProcessEngine.DONE + "' + [char]9 + $id)\n" +
+                    "}\n"));
+        }
+    },
+    /**
+     * Starts eSpeak NG for every utterance, for Linux. It starts quickly and has no way to tell when it has finished
+     * speaking a line, so it isn't kept running.
+     */
+    ESPEAK_NG {
+        @Override
+        public ITtsRenderer create() {
+            var output = OneShotProcessEngine.OUTPUT_VARIABLE;
+            return new OneShotProcessEngine(List.of("sh", "-c", "if [ -n \"$" + output + "\" ]; " +
+                    "then exec espeak-ng -w \"$" + output + "\" --stdin; else exec espeak-ng --stdin; fi"));
+        }
+    };
+
+    /**
+     * The PowerShell loading the Microsoft voice into $synth.
+     */
+    private static final String SYNTHESIZER = "Add-Type -AssemblyName System.Speech\n" +
+            "$synth = New-Object System.Speech.Synthesis.SpeechSynthesizer\n" +
+            "$synth.Volume = 100\n";
+
+    /**
+     * Creates an engine.
+     *
+     * @return The engine.
+     */
+    public abstract ITtsRenderer create();
+
+    /**
+     * Creates the command running a PowerShell script. The script is encoded so that Windows doesn't mangle the
+     * quotes in it while passing it along.
+     *
+     * @param script The script.
+     * @return The command.
+     */
+    private static List<String> powerShell(String script) {
+        var encoded = Base64.getEncoder().encodeToString(script.getBytes(StandardCharsets.UTF_16LE));
+        return List.of("PowerShell", "-NoProfile", "-NonInteractive", "-EncodedCommand", encoded);
+    }
+}
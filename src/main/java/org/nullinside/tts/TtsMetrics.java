@@ -0,0 +1,283 @@
+package org.nullinside.tts;
+
+import org.nullinside.utilities.JmxUtilities;
+import org.nullinside.utilities.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The statistics of every {@link TtsQueue}, {@link TtsClipCache} and {@link TextToSpeech} sharing it.
+ */
+public class TtsMetrics implements TtsMetricsMXBean {
+    /**
+     * The JMX name the {@link #getInstance()} singleton is registered under.
+     */
+    private static final String JMX_NAME = "org.nullinside.notification_app:type=TextToSpeech";
+    /**
+     * The singleton instance of this class.
+     */
+    private static TtsMetrics instance;
+    /**
+     * The number of utterances waiting.
+     */
+    private final AtomicInteger depth = new AtomicInteger(0);
+    /**
+     * The number of messages added.
+     */
+    private final LongAdder offered = new LongAdder();
+    /**
+     * The number of messages dropped.
+     */
+    private final LongAdder dropped = new LongAdder();
+    /**
+     * The number of utterances taken to be spoken.
+     */
+    private final LongAdder spoken = new LongAdder();
+    /**
+     * The number of utterances cut off.
+     */
+    private final LongAdder preempted = new LongAdder();
+    /**
+     * The number of clips found in memory.
+     */
+    private final LongAdder memoryHits = new LongAdder();
+    /**
+     * The number of clips found on disk.
+     */
+    private final LongAdder diskHits = new LongAdder();
+    /**
+     * The time taken to render each clip that wasn't cached.
+     */
+    private final LatencyHistogram renderTime = new LatencyHistogram();
+    /**
+     * The silence between utterances spoken back to back.
+     */
+    private final LatencyHistogram gap = new LatencyHistogram();
+
+    /**
+     * Instantiates a new instance of the class. Most of the application shares the {@link #getInstance()}
+     * singleton, separate instances are meant for tests.
+     */
+    TtsMetrics() {
+    }
+
+    /**
+     * Gets the statistics shared by the queues of the application.
+     *
+     * @return The singleton instance of the class.
+     */
+    public static synchronized TtsMetrics getInstance() {
+        if (null == instance) {
+            instance = new TtsMetrics();
+            JmxUtilities.registerMBean(instance, JMX_NAME);
+        }
+
+        return instance;
+    }
+
+    /**
+     * Records the queue depth changing.
+     *
+     * @param delta The number of utterances added, negative if removed.
+     */
+    void recordDepthChange(int delta) {
+        depth.addAndGet(delta);
+    }
+
+    /**
+     * Records a message being added.
+     */
+    void recordOffer() {
+        offered.increment();
+    }
+
+    /**
+     * Records a message being dropped.
+     */
+    void recordDrop() {
+        dropped.increment();
+    }
+
+    /**
+     * Records an utterance being taken to be spoken.
+     */
+    void recordSpoken() {
+        spoken.increment();
+    }
+
+    /**
+     * Records an utterance being cut off.
+     */
+    void recordPreempted() {
+        preempted.increment();
+    }
+
+    /**
+     * Records a clip being found in the cache.
+     *
+     * @param isInMemory True if it was found in memory, false if on disk.
+     */
+    void recordClipHit(boolean isInMemory) {
+        (isInMemory ? memoryHits : diskHits).increment();
+    }
+
+    /**
+     * Records a clip being rendered because it wasn't cached.
+     *
+     * @param nanos The time it took to render in nanoseconds.
+     */
+    void recordRender(long nanos) {
+        renderTime.record(nanos);
+    }
+
+    /**
+     * Records the silence between an utterance finishing and the one waiting behind it starting.
+     *
+     * @param nanos The silence in nanoseconds.
+     */
+    void recordGap(long nanos) {
+        gap.record(nanos);
+    }
+
+    /**
+     * Gets the number of utterances waiting in every queue.
+     *
+     * @return The queue depth.
+     */
+    @Override
+    public int getQueueDepth() {
+        return depth.get();
+    }
+
+    /**
+     * Gets the number of messages added to the queues.
+     *
+     * @return The number of messages.
+     */
+    @Override
+    public long getOfferedCount() {
+        return offered.sum();
+    }
+
+    /**
+     * Gets the number of messages dropped because their queue was full.
+     *
+     * @return The number of dropped messages.
+     */
+    @Override
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Gets the number of utterances taken off the queues to be spoken.
+     *
+     * @return The number of utterances.
+     */
+    @Override
+    public long getSpokenCount() {
+        return spoken.sum();
+    }
+
+    /**
+     * Gets the number of utterances cut off to speak a priority message.
+     *
+     * @return The number of preempted utterances.
+     */
+    @Override
+    public long getPreemptedCount() {
+        return preempted.sum();
+    }
+
+    /**
+     * Gets the number of clips played from the cache in memory.
+     *
+     * @return The number of clips.
+     */
+    @Override
+    public long getClipMemoryHitCount() {
+        return memoryHits.sum();
+    }
+
+    /**
+     * Gets the number of clips played from the cache on disk.
+     *
+     * @return The number of clips.
+     */
+    @Override
+    public long getClipDiskHitCount() {
+        return diskHits.sum();
+    }
+
+    /**
+     * Gets the number of clips rendered because they weren't cached.
+     *
+     * @return The number of clips.
+     */
+    @Override
+    public long getClipRenderCount() {
+        return renderTime.getCount();
+    }
+
+    /**
+     * Gets the average time taken to render a clip.
+     *
+     * @return The average time in milliseconds.
+     */
+    @Override
+    public double getRenderMeanMillis() {
+        return toMillis(renderTime.getMean());
+    }
+
+    /**
+     * Gets the time that 99% of clips were rendered within.
+     *
+     * @return The 99th percentile time in milliseconds.
+     */
+    @Override
+    public double getRenderP99Millis() {
+        return toMillis(renderTime.getPercentile(99));
+    }
+
+    /**
+     * Gets the average silence between utterances spoken back to back.
+     *
+     * @return The average silence in milliseconds.
+     */
+    @Override
+    public double getGapMeanMillis() {
+        return toMillis(gap.getMean());
+    }
+
+    /**
+     * Gets the silence that 99% of utterances spoken back to back were within.
+     *
+     * @return The 99th percentile silence in milliseconds.
+     */
+    @Override
+    public double getGapP99Millis() {
+        return toMillis(gap.getPercentile(99));
+    }
+
+    /**
+     * Gets the longest silence between utterances spoken back to back.
+     *
+     * @return The longest silence in milliseconds.
+     */
+    @Override
+    public double getGapMaxMillis() {
+        return toMillis(gap.getMax());
+    }
+
+    /**
+     * Converts nanoseconds to fractional milliseconds.
+     *
+     * @param nanos The time in nanoseconds.
+     * @return The time in milliseconds.
+     */
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,97 @@
+package org.nullinside.tts;
+
+/**
+ * The JMX view of the text to speech queues and the cache of rendered clips.
+ */
+public interface TtsMetricsMXBean {
+    /**
+     * Gets the number of utterances waiting in every queue.
+     *
+     * @return The queue depth.
+     */
+    int getQueueDepth();
+
+    /**
+     * Gets the number of messages added to the queues.
+     *
+     * @return The number of messages.
+     */
+    long getOfferedCount();
+
+    /**
+     * Gets the number of messages dropped because their queue was full, whether they were new or already queued.
+     *
+     * @return The number of dropped messages.
+     */
+    long getDroppedCount();
+
+    /**
+     * Gets the number of utterances taken off the queues to be spoken.
+     *
+     * @return The number of utterances.
+     */
+    long getSpokenCount();
+
+    /**
+     * Gets the number of utterances cut off to speak a priority message.
+     *
+     * @return The number of preempted utterances.
+     */
+    long getPreemptedCount();
+
+    /**
+     * Gets the number of clips played from the cache in memory.
+     *
+     * @return The number of clips.
+     */
+    long getClipMemoryHitCount();
+
+    /**
+     * Gets the number of clips played from the cache on disk, having been pushed out of memory.
+     *
+     * @return The number of clips.
+     */
+    long getClipDiskHitCount();
+
+    /**
+     * Gets the number of clips rendered because they weren't cached.
+     *
+     * @return The number of clips.
+     */
+    long getClipRenderCount();
+
+    /**
+     * Gets the average time taken to render a clip.
+     *
+     * @return The average time in milliseconds.
+     */
+    double getRenderMeanMillis();
+
+    /**
+     * Gets the time that 99% of clips were rendered within.
+     *
+     * @return The 99th percentile time in milliseconds.
+     */
+    double getRenderP99Millis();
+
+    /**
+     * Gets the average silence between an utterance finishing and the one already waiting behind it starting.
+     *
+     * @return The average silence in milliseconds.
+     */
+    double getGapMeanMillis();
+
+    /**
+     * Gets the silence that 99% of utterances spoken back to back were within.
+     *
+     * @return The 99th percentile silence in milliseconds.
+     */
+    double getGapP99Millis();
+
+    /**
+     * Gets the longest silence between utterances spoken back to back.
+     *
+     * @return The longest silence in milliseconds.
+     */
+    double getGapMaxMillis();
+}
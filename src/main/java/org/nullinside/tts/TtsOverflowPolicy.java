@@ -0,0 +1,24 @@
+package org.nullinside.tts;
+
+/**
+ * What a {@link TtsQueue} does with a message when it is already full.
+ */
+public enum TtsOverflowPolicy {
+    /**
+     * Drops the oldest queued message to make room, so what is spoken stays close to what is in chat.
+     */
+    DROP_OLDEST,
+    /**
+     * Drops the new message, so everything already queued is spoken.
+     */
+    DROP_NEWEST,
+    /**
+     * Keeps a uniform random sample of every message that arrived since the queue was last empty, in the order
+     * they arrived.
+     */
+    RESERVOIR,
+    /**
+     * Drops the new message and speaks "N more messages" in its place, once for every run of dropped messages.
+     */
+    SUMMARIZE
+}
@@ -0,0 +1,470 @@
+package org.nullinside.tts;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * A bounded queue of messages waiting to be spoken.
+ * <p>
+ * Messages are kept in two lanes of up to {@link #capacity} messages each. Messages containing one of the priority
+ * keywords go in the priority lane, which is always spoken first and can cut off a normal message while it is being
+ * spoken. What happens to a message that arrives when its lane is full is up to the {@link TtsOverflowPolicy}.
+ */
+public class TtsQueue {
+    /**
+     * The capacity of the queues created by {@link #createDefault()}.
+     */
+    private static int defaultCapacity = 20;
+    /**
+     * The overflow policy of the queues created by {@link #createDefault()}.
+     */
+    private static TtsOverflowPolicy defaultPolicy = TtsOverflowPolicy.DROP_OLDEST;
+    /**
+     * The priority keywords of the queues created by {@link #createDefault()}.
+     */
+    private static List<String> defaultPriorityKeywords = List.of();
+    /**
+     * True if the queues created by {@link #createDefault()} cut off normal messages for priority ones, false
+     * otherwise.
+     */
+    private static boolean defaultPreemptOnPriority = false;
+    /**
+     * The number of messages each lane holds.
+     */
+    private final int capacity;
+    /**
+     * What to do with a message when its lane is full.
+     */
+    private final TtsOverflowPolicy policy;
+    /**
+     * The priority keywords in lower case.
+     */
+    private final List<String> priorityKeywords;
+    /**
+     * True to cut off a normal message being spoken when a priority one arrives, false otherwise.
+     */
+    private final boolean preemptOnPriority;
+    /**
+     * The statistics the queue records to.
+     */
+    private final TtsMetrics metrics;
+    /**
+     * Picks which messages to keep for {@link TtsOverflowPolicy#RESERVOIR}.
+     */
+    private final Random random;
+    /**
+     * The messages containing a priority keyword.
+     */
+    private final Lane priorityLane = new Lane();
+    /**
+     * Every other message.
+     */
+    private final Lane normalLane = new Lane();
+    /**
+     * Invoked with the utterance being spoken when a priority message cuts it off, null if no one is listening.
+     */
+    private Consumer<Utterance> preemptListener;
+    /**
+     * The utterance being spoken, null if there isn't one.
+     */
+    private Utterance current;
+    /**
+     * True once closed, false otherwise.
+     */
+    private boolean isClosed = false;
+
+    /**
+     * Instantiates a new instance of the class that records to the application's statistics.
+     *
+     * @param capacity          The number of messages each lane holds.
+     * @param policy            What to do with a message when its lane is full.
+     * @param priorityKeywords  The keywords that make a message a priority, case insensitive.
+     * @param preemptOnPriority True to cut off a normal message being spoken when a priority one arrives, false
+     *                          otherwise.
+     */
+    public TtsQueue(int capacity, TtsOverflowPolicy policy, Collection<String> priorityKeywords,
+                    boolean preemptOnPriority) {
+        this(capacity, policy, priorityKeywords, preemptOnPriority, TtsMetrics.getInstance(), new Random());
+    }
+
+    /**
+     * Instantiates a new instance of the class.
+     *
+     * @param capacity          The number of messages each lane holds.
+     * @param policy            What to do with a message when its lane is full.
+     * @param priorityKeywords  The keywords that make a message a priority, case insensitive.
+     * @param preemptOnPriority True to cut off a normal message being spoken when a priority one arrives, false
+     *                          otherwise.
+     * @param metrics           The statistics the queue records to.
+     * @param random            Picks which messages to keep for {@link TtsOverflowPolicy#RESERVOIR}.
+     */
+    TtsQueue(int capacity, TtsOverflowPolicy policy, Collection<String> priorityKeywords, boolean preemptOnPriority,
+             TtsMetrics metrics, Random random) {
+        this.capacity = Math.max(1, capacity);
+        this.policy = null != policy ? policy : TtsOverflowPolicy.DROP_OLDEST;
+        this.priorityKeywords = new ArrayList<>();
+        if (null != priorityKeywords) {
+            for (var keyword : priorityKeywords) {
+                if (null != keyword && !keyword.isBlank()) {
+                    this.priorityKeywords.add(keyword.trim().toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+
+        this.preemptOnPriority = preemptOnPriority;
+        this.metrics = metrics;
+        this.random = random;
+    }
+
+    /**
+     * Sets what the queues created by {@link #createDefault()} look like. Only affects queues created after this
+     * call.
+     *
+     * @param capacity          The number of messages each lane holds.
+     * @param policy            What to do with a message when its lane is full.
+     * @param priorityKeywords  The keywords that make a message a priority, case insensitive.
+     * @param preemptOnPriority True to cut off a normal message being spoken when a priority one arrives, false
+     *                          otherwise.
+     */
+    public static synchronized void setDefaults(int capacity, TtsOverflowPolicy policy,
+                                                Collection<String> priorityKeywords, boolean preemptOnPriority) {
+        defaultCapacity = capacity;
+        defaultPolicy = policy;
+        defaultPriorityKeywords = null != priorityKeywords ? List.copyOf(priorityKeywords) : List.of();
+        defaultPreemptOnPriority = preemptOnPriority;
+    }
+
+    /**
+     * Creates a queue configured by {@link #setDefaults(int, TtsOverflowPolicy, Collection, boolean)}.
+     *
+     * @return The queue.
+     */
+    public static synchronized TtsQueue createDefault() {
+        return new TtsQueue(defaultCapacity, defaultPolicy, defaultPriorityKeywords, defaultPreemptOnPriority);
+    }
+
+    /**
+     * Sets the listener invoked with the utterance being spoken when a priority message cuts it off. It is invoked
+     * on the thread adding the priority message.
+     *
+     * @param preemptListener The listener, null if no one is listening.
+     */
+    public synchronized void setPreemptListener(Consumer<Utterance> preemptListener) {
+        this.preemptListener = preemptListener;
+    }
+
+    /**
+     * Adds a message to be spoken.
+     *
+     * @param message The message.
+     * @return True if it was queued, false if it was dropped.
+     */
+    public boolean offer(String message) {
+        if (null == message) {
+            return false;
+        }
+
+        Utterance preempted = null;
+        Consumer<Utterance> listener;
+        boolean isQueued;
+        synchronized (this) {
+            if (isClosed) {
+                return false;
+            }
+
+            var isPriority = isPriority(message);
+            metrics.recordOffer();
+            isQueued = (isPriority ? priorityLane : normalLane).add(new Utterance(message, isPriority, 0));
+            if (isPriority && preemptOnPriority && null != current && !current.isPriority) {
+                preempted = current;
+                current = null;
+                metrics.recordPreempted();
+            }
+
+            listener = preemptListener;
+            notifyAll();
+        }
+
+        // Outside the lock, cutting off the utterance may mean waiting on a process.
+        if (null != preempted && null != listener) {
+            listener.accept(preempted);
+        }
+
+        return isQueued;
+    }
+
+    /**
+     * Takes the next utterance to speak, waiting for one if the queue is empty. Priority messages come first.
+     *
+     * @return The utterance, null once the queue is closed.
+     * @throws InterruptedException Thrown if interrupted while waiting.
+     */
+    public synchronized Utterance take() throws InterruptedException {
+        while (!isClosed && priorityLane.items.isEmpty() && normalLane.items.isEmpty()) {
+            wait();
+        }
+
+        if (isClosed) {
+            return null;
+        }
+
+        current = !priorityLane.items.isEmpty() ? priorityLane.poll() : normalLane.poll();
+        metrics.recordSpoken();
+        return current;
+    }
+
+    /**
+     * Marks an utterance as done being spoken, so a priority message doesn't try to cut it off.
+     *
+     * @param utterance The utterance.
+     */
+    public synchronized void done(Utterance utterance) {
+        if (utterance == current) {
+            current = null;
+        }
+    }
+
+    /**
+     * Closes the queue, dropping everything in it and waking up whoever is waiting in {@link #take()}.
+     */
+    public synchronized void close() {
+        if (isClosed) {
+            return;
+        }
+
+        isClosed = true;
+        current = null;
+        priorityLane.clear();
+        normalLane.clear();
+        notifyAll();
+    }
+
+    /**
+     * Checks if the queue was closed.
+     *
+     * @return True if closed, false otherwise.
+     */
+    public synchronized boolean isClosed() {
+        return isClosed;
+    }
+
+    /**
+     * Gets the statistics the queue records to.
+     *
+     * @return The statistics.
+     */
+    TtsMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Gets the number of utterances waiting, including "N more messages" summaries.
+     *
+     * @return The queue depth.
+     */
+    public synchronized int getDepth() {
+        return priorityLane.items.size() + normalLane.items.size();
+    }
+
+    /**
+     * Checks if a message contains one of the priority keywords.
+     *
+     * @param message The message.
+     * @return True if it's a priority, false otherwise.
+     */
+    private boolean isPriority(String message) {
+        if (priorityKeywords.isEmpty()) {
+            return false;
+        }
+
+        var lower = message.toLowerCase(Locale.ROOT);
+        for (var keyword : priorityKeywords) {
+            if (lower.contains(keyword)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Something to speak, a message or a summary of the messages dropped in its place.
+     */
+    public static class Utterance {
+        /**
+         * The message, null for a summary.
+         */
+        private final String message;
+        /**
+         * True if it came from the priority lane, false otherwise.
+         */
+        private final boolean isPriority;
+        /**
+         * The number of messages dropped in its place for a summary, 0 for a message.
+         */
+        private int skipped;
+
+        /**
+         * Instantiates a new instance of the class.
+         *
+         * @param message    The message, null for a summary.
+         * @param isPriority True if it came from the priority lane, false otherwise.
+         * @param skipped    The number of messages dropped in its place for a summary, 0 for a message.
+         */
+        private Utterance(String message, boolean isPriority, int skipped) {
+            this.message = message;
+            this.isPriority = isPriority;
+            this.skipped = skipped;
+        }
+
+        /**
+         * Gets the text to speak.
+         *
+         * @return The text.
+         */
+        public String getText() {
+            if (null != message) {
+                return message;
+            }
+
+            return 1 == skipped ? "1 more message" : String.format("%d more messages", skipped);
+        }
+
+        /**
+         * Checks if it came from the priority lane.
+         *
+         * @return True if it's a priority, false otherwise.
+         */
+        public boolean isPriority() {
+            return isPriority;
+        }
+
+        /**
+         * Checks if it's a summary of dropped messages.
+         *
+         * @return True if it's a summary, false if it's a message.
+         */
+        public boolean isSummary() {
+            return null == message;
+        }
+    }
+
+    /**
+     * The utterances of one priority, in the order they are spoken.
+     */
+    private class Lane {
+        /**
+         * The utterances. Small enough that removing from the front is cheaper than keeping a fancier structure.
+         */
+        final ArrayList<Utterance> items = new ArrayList<>();
+        /**
+         * The number of messages in {@link #items}, summaries don't count against the capacity.
+         */
+        int messageCount;
+        /**
+         * The number of messages that arrived since the lane was last empty, for
+         * {@link TtsOverflowPolicy#RESERVOIR}.
+         */
+        long seen;
+
+        /**
+         * Adds a message, applying the overflow policy if the lane is full.
+         *
+         * @param utterance The message.
+         * @return True if it was queued, false if it was dropped.
+         */
+        boolean add(Utterance utterance) {
+            seen++;
+            if (messageCount < capacity) {
+                append(utterance);
+                return true;
+            }
+
+            metrics.recordDrop();
+            switch (policy) {
+                case DROP_OLDEST:
+                    remove(0);
+                    append(utterance);
+                    return true;
+                case RESERVOIR:
+                    // Algorithm R: the nth message replaces a random one with a probability of capacity / n.
+                    var index = (long) (random.nextDouble() * seen);
+                    if (index >= capacity) {
+                        return false;
+                    }
+
+                    // Replaced by appending rather than in place so the lane stays in the order messages arrived.
+                    remove((int) index);
+                    append(utterance);
+                    return true;
+                case SUMMARIZE:
+                    var last = items.get(items.size() - 1);
+                    if (last.isSummary()) {
+                        last.skipped++;
+                    } else {
+                        items.add(new Utterance(null, utterance.isPriority, 1));
+                        metrics.recordDepthChange(1);
+                    }
+
+                    return false;
+                case DROP_NEWEST:
+                default:
+                    return false;
+            }
+        }
+
+        /**
+         * Appends a message.
+         *
+         * @param utterance The message.
+         */
+        private void append(Utterance utterance) {
+            items.add(utterance);
+            messageCount++;
+            metrics.recordDepthChange(1);
+        }
+
+        /**
+         * Removes an utterance.
+         *
+         * @param index The index of the utterance.
+         */
+        private void remove(int index) {
+            var removed = items.remove(index);
+            if (!removed.isSummary()) {
+                messageCount--;
+            }
+
+            metrics.recordDepthChange(-1);
+        }
+
+        /**
+         * Takes the first utterance.
+         *
+         * @return The utterance.
+         */
+        Utterance poll() {
+            var utterance = items.get(0);
+            remove(0);
+            if (items.isEmpty()) {
+                seen = 0;
+            }
+
+            return utterance;
+        }
+
+        /**
+         * Drops every utterance.
+         */
+        void clear() {
+            metrics.recordDepthChange(-items.size());
+            items.clear();
+            messageCount = 0;
+            seen = 0;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.nullinside.twitch;
+
+/**
+ * The state of a connection to Twitch chat shared through the {@link TwitchChatPool}.
+ */
+public enum ChatConnectionState {
+    /**
+     * Connecting, or connected but not logged in yet.
+     */
+    CONNECTING("Connecting"),
+    /**
+     * Connected and logged in, the channels are joined as fast as the JOIN rate limit allows.
+     */
+    CONNECTED("Connected"),
+    /**
+     * The connection was lost, failed or stopped answering PINGs and is waiting out its backoff before trying
+     * again.
+     */
+    RECONNECTING("Reconnecting"),
+    /**
+     * Closed for good because no one is watching its channels anymore.
+     */
+    CLOSED("Disconnected");
+
+    /**
+     * The name of the state to display to the user.
+     */
+    private final String displayName;
+
+    /**
+     * Instantiates a new instance of the enum.
+     *
+     * @param displayName The name of the state to display to the user.
+     */
+    ChatConnectionState(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Gets the name of the state to display to the user.
+     *
+     * @return The display name.
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+}
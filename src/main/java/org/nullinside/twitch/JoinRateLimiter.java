@@ -0,0 +1,59 @@
+package org.nullinside.twitch;
+
+import java.util.ArrayDeque;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits how many channels are joined in a sliding window of time. Twitch drops the connection of an account that
+ * sends more JOINs than it allows. Not thread safe, the {@link TwitchChatPool} guards it.
+ */
+class JoinRateLimiter {
+    /**
+     * The number of JOINs allowed in the window.
+     */
+    private final int permits;
+    /**
+     * The length of the window in nanoseconds.
+     */
+    private final long windowNanos;
+    /**
+     * Tells the time in nanoseconds.
+     */
+    private final LongSupplier clock;
+    /**
+     * The times of the JOINs still in the window, oldest first.
+     */
+    private final ArrayDeque<Long> grants = new ArrayDeque<>();
+
+    /**
+     * Instantiates a new instance of the class.
+     *
+     * @param permits     The number of JOINs allowed in the window.
+     * @param windowNanos The length of the window in nanoseconds.
+     * @param clock       Tells the time in nanoseconds.
+     */
+    JoinRateLimiter(int permits, long windowNanos, LongSupplier clock) {
+        this.permits = Math.max(1, permits);
+        this.windowNanos = windowNanos;
+        this.clock = clock;
+    }
+
+    /**
+     * Takes a JOIN if one is allowed right now.
+     *
+     * @return 0 if the JOIN was taken, otherwise how long until the next one is allowed in nanoseconds.
+     */
+    long tryAcquire() {
+        var now = clock.getAsLong();
+        while (!grants.isEmpty() && now - grants.peekFirst() >= windowNanos) {
+            grants.pollFirst();
+        }
+
+        if (grants.size() < permits) {
+            grants.addLast(now);
+            return 0;
+        }
+
+        return grants.peekFirst() + windowNanos - now;
+    }
+}
@@ -0,0 +1,190 @@
+package org.nullinside.twitch;
+
+import org.pircbotx.Configuration;
+import org.pircbotx.PircBotX;
+import org.pircbotx.delay.StaticDelay;
+import org.pircbotx.exception.IrcException;
+import org.pircbotx.hooks.ListenerAdapter;
+import org.pircbotx.hooks.events.ActionEvent;
+import org.pircbotx.hooks.events.ConnectEvent;
+import org.pircbotx.hooks.events.DisconnectEvent;
+import org.pircbotx.hooks.events.MessageEvent;
+import org.pircbotx.hooks.events.UnknownEvent;
+
+import javax.net.ssl.SSLSocketFactory;
+import java.io.IOException;
+
+/**
+ * A connection to Twitch chat through a PircBotX IRC bot running on its own thread.
+ */
+class PircBotChatConnection extends ListenerAdapter implements TwitchChatConnection {
+    /**
+     * The IRC url for Twitch.
+     */
+    private static final String TWITCH_IRC_URL = "irc.chat.twitch.tv";
+    /**
+     * The IRC port for Twitch over TLS.
+     */
+    private static final int TWITCH_IRC_PORT = 6697;
+    /**
+     * Notified of what happens on the connection.
+     */
+    private final Listener listener;
+    /**
+     * The IRC bot instance.
+     */
+    private final PircBotX chatBot;
+    /**
+     * The thread dedicated to hosting the IRC bot thread.
+     */
+    private Thread chatThread;
+
+    /**
+     * Instantiates a new instance of the class.
+     *
+     * @param username The Twitch username.
+     * @param oauth    The OAuth token for authenticating as the Twitch user.
+     * @param listener Notified of what happens on the connection.
+     */
+    PircBotChatConnection(String username, String oauth, Listener listener) {
+        this.listener = listener;
+
+        //Configure what we want our bot to do
+        var configuration = new Configuration.Builder()
+                .setLogin(username)
+                .setServerPassword(String.format("oauth:%s", oauth))
+                .setName(username)
+                .addServer(TWITCH_IRC_URL, TWITCH_IRC_PORT)
+                .setSocketFactory(SSLSocketFactory.getDefault())
+                // The pool paces the JOINs itself, don't hold every line back by a second on top of it.
+                .setMessageDelay(new StaticDelay(0))
+                // Twitch doesn't answer WHO, don't send one for every channel joined.
+                .setOnJoinWhoEnabled(false)
+                .addListener(this)
+                .buildConfiguration();
+
+        //Create our bot with the configuration
+        chatBot = new PircBotX(configuration);
+    }
+
+    /**
+     * Starts connecting on the bot's own thread.
+     */
+    @Override
+    public synchronized void start() {
+        if (null != chatThread) {
+            return;
+        }
+
+        chatThread = new Thread(() -> {
+            //Connect to the server
+            try {
+                chatBot.startBot();
+            } catch (IOException | IrcException | RuntimeException e) {
+                e.printStackTrace();
+            }
+
+            // The bot doesn't reconnect on its own and doesn't report failing to connect at all, report it here so
+            // the pool can reconnect.
+            listener.onDisconnected(this);
+        }, "Twitch Chat");
+        chatThread.setDaemon(true);
+        chatThread.start();
+    }
+
+    /**
+     * Sends a PING, Twitch answers with a PONG.
+     */
+    @Override
+    public void ping() {
+        chatBot.sendRaw().rawLineNow("PING :tmi.twitch.tv");
+    }
+
+    /**
+     * Joins a channel.
+     *
+     * @param channel The channel, without the leading '#'.
+     */
+    @Override
+    public void join(String channel) {
+        chatBot.sendIRC().joinChannel("#" + channel);
+    }
+
+    /**
+     * Leaves a channel.
+     *
+     * @param channel The channel, without the leading '#'.
+     */
+    @Override
+    public void part(String channel) {
+        chatBot.sendRaw().rawLine("PART #" + channel);
+    }
+
+    /**
+     * Disconnects for good. The bot's thread exits on its own.
+     */
+    @Override
+    public void close() {
+        chatBot.stopBotReconnect();
+        try {
+            chatBot.close();
+        } catch (RuntimeException e) {
+            // Not connected yet, stopping the reconnect is enough.
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Called when the bot connects.
+     *
+     * @param event The event.
+     */
+    @Override
+    public void onConnect(ConnectEvent event) {
+        listener.onConnected(this);
+    }
+
+    /**
+     * Called when the bot disconnects.
+     *
+     * @param event The event.
+     */
+    @Override
+    public void onDisconnect(DisconnectEvent event) {
+        listener.onDisconnected(this);
+    }
+
+    /**
+     * Called for every command the bot doesn't know about, which includes the PONGs to our PINGs.
+     *
+     * @param event The event.
+     */
+    @Override
+    public void onUnknown(UnknownEvent event) {
+        if ("PONG".equalsIgnoreCase(event.getCommand())) {
+            listener.onPong(this);
+        }
+    }
+
+    /**
+     * Called whenever a message is sent in a joined channel.
+     *
+     * @param event The event wrapping the Twitch chat message.
+     */
+    @Override
+    public void onMessage(MessageEvent event) {
+        listener.onMessage(this, event.getChannel().getName(), event.getUser().getNick(), event.getMessage());
+    }
+
+    /**
+     * Called whenever someone uses /me in a joined channel.
+     *
+     * @param event The event wrapping the Twitch chat message.
+     */
+    @Override
+    public void onAction(ActionEvent event) {
+        if (null != event.getChannel()) {
+            listener.onMessage(this, event.getChannel().getName(), event.getUser().getNick(), event.getMessage());
+        }
+    }
+}
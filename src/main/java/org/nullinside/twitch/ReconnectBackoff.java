@@ -0,0 +1,76 @@
+package org.nullinside.twitch;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Exponential backoff with jitter between attempts to reconnect.
+ * <p>
+ * The ceiling doubles with every failed attempt up to a maximum and each delay is picked at random between half
+ * the ceiling and the ceiling, so connections that dropped together don't all come back at the same instant.
+ * Not thread safe.
+ */
+class ReconnectBackoff {
+    /**
+     * The ceiling of the first delay in nanoseconds.
+     */
+    private final long minNanos;
+    /**
+     * The highest the ceiling goes in nanoseconds.
+     */
+    private final long maxNanos;
+    /**
+     * Supplies random numbers in [0, 1).
+     */
+    private final DoubleSupplier random;
+    /**
+     * The number of attempts since the last {@link #reset()}.
+     */
+    private int attempts;
+
+    /**
+     * Instantiates a new instance of the class.
+     *
+     * @param minNanos The ceiling of the first delay in nanoseconds.
+     * @param maxNanos The highest the ceiling goes in nanoseconds.
+     * @param random   Supplies random numbers in [0, 1).
+     */
+    ReconnectBackoff(long minNanos, long maxNanos, DoubleSupplier random) {
+        this.minNanos = Math.max(1, minNanos);
+        this.maxNanos = Math.max(this.minNanos, maxNanos);
+        this.random = random;
+    }
+
+    /**
+     * Gets the delay before the next attempt and counts the attempt.
+     *
+     * @return The delay in nanoseconds.
+     */
+    long nextDelay() {
+        // Stop shifting once the ceiling is reached so it can't overflow.
+        var ceiling = minNanos;
+        for (int i = 0; i < attempts && ceiling < maxNanos; i++) {
+            ceiling <<= 1;
+        }
+
+        ceiling = Math.min(ceiling, maxNanos);
+        attempts++;
+        var half = ceiling / 2;
+        return half + (long) (random.getAsDouble() * (ceiling - half));
+    }
+
+    /**
+     * Starts over from the shortest delay, called once a connection succeeds.
+     */
+    void reset() {
+        attempts = 0;
+    }
+
+    /**
+     * Gets the number of attempts since the connection last succeeded.
+     *
+     * @return The number of attempts.
+     */
+    int getAttempts() {
+        return attempts;
+    }
+}
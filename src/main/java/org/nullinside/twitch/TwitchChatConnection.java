@@ -0,0 +1,90 @@
+package org.nullinside.twitch;
+
+/**
+ * A connection to Twitch chat that the {@link TwitchChatPool} joins and leaves channels over.
+ * <p>
+ * A connection is only ever started once. Once it is lost or fails to connect it reports
+ * {@link Listener#onDisconnected(TwitchChatConnection)} and the pool reconnects with a new one.
+ */
+interface TwitchChatConnection {
+    /**
+     * Starts connecting. The listener is called from now on.
+     */
+    void start();
+
+    /**
+     * Sends a PING, answered by {@link Listener#onPong(TwitchChatConnection)}. Only call it while connected.
+     */
+    void ping();
+
+    /**
+     * Joins a channel. Only call it while connected.
+     *
+     * @param channel The channel, without the leading '#'.
+     */
+    void join(String channel);
+
+    /**
+     * Leaves a channel.
+     *
+     * @param channel The channel, without the leading '#'.
+     */
+    void part(String channel);
+
+    /**
+     * Disconnects for good.
+     */
+    void close();
+
+    /**
+     * Creates the connections of a {@link TwitchChatPool}.
+     */
+    interface Factory {
+        /**
+         * Creates a connection without starting it.
+         *
+         * @param username The Twitch username.
+         * @param oauth    The OAuth token for authenticating as the Twitch user.
+         * @param listener Notified of what happens on the connection.
+         * @return The connection.
+         */
+        TwitchChatConnection create(String username, String oauth, Listener listener);
+    }
+
+    /**
+     * Notified of what happens on a connection. Called on the connection's thread.
+     */
+    interface Listener {
+        /**
+         * Invoked when the connection is established, every time it is.
+         *
+         * @param connection The connection.
+         */
+        void onConnected(TwitchChatConnection connection);
+
+        /**
+         * Invoked when the connection is lost, fails to connect or is closed. Every channel is left along with it.
+         * May be invoked more than once.
+         *
+         * @param connection The connection.
+         */
+        void onDisconnected(TwitchChatConnection connection);
+
+        /**
+         * Invoked when Twitch answers a {@link #ping()}.
+         *
+         * @param connection The connection.
+         */
+        void onPong(TwitchChatConnection connection);
+
+        /**
+         * Invoked when someone types in a joined channel.
+         *
+         * @param connection The connection.
+         * @param channel    The channel, with or without the leading '#'.
+         * @param username   The user that sent the message.
+         * @param message    The message.
+         */
+        void onMessage(TwitchChatConnection connection, String channel, String username, String message);
+    }
+}
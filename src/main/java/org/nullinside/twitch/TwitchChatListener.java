@@ -1,26 +1,13 @@
 package org.nullinside.twitch;
 
-import javafx.scene.media.Media;
-import javafx.scene.media.MediaPlayer;
-import org.nullinside.tts.MicrosoftTTS;
-import org.pircbotx.Configuration;
-import org.pircbotx.PircBotX;
-import org.pircbotx.exception.IrcException;
-import org.pircbotx.hooks.ListenerAdapter;
-import org.pircbotx.hooks.types.GenericMessageEvent;
-
-import javax.net.ssl.SSLSocketFactory;
-import java.io.File;
-import java.io.IOException;
+import org.nullinside.sound.SoundEngine;
+import org.nullinside.tts.TextToSpeech;
 
 /**
- * Listens to the messages that come through a Twitch chat.
+ * Listens to the messages that come through a Twitch chat. The chat is watched through the {@link TwitchChatPool},
+ * which shares the connection with everyone else watching it.
  */
-public class TwitchChatListener extends ListenerAdapter {
-    /**
-     * The IRC url for Twitch.
-     */
-    private final String TWITCH_IRC_URL = "irc.chat.twitch.tv";
+public class TwitchChatListener implements TwitchChatMessageEvent {
     /**
      * The Twitch username.
      */
@@ -42,17 +29,25 @@ public class TwitchChatListener extends ListenerAdapter {
      */
     private final boolean useTTS;
     /**
-     * The thread dedicated to hosting the IRC bot thread.
+     * The subscription to invoke for every chat message, null if no one is listening.
+     */
+    private final TwitchChatMessageEvent messageListener;
+    /**
+     * The subscription to invoke when the chat connection changes state, null if no one is listening.
+     */
+    private final TwitchChatStateEvent stateListener;
+    /**
+     * The subscription to the channel, null while disconnected.
      */
-    private Thread chatThread;
+    private TwitchChatPool.Subscription subscription;
     /**
-     * The IRC bot instance.
+     * The notification sound, null while disconnected or if there isn't one.
      */
-    private PircBotX chatBot;
+    private volatile SoundEngine.Sound notification;
     /**
      * The Microsoft TTS API object.
      */
-    private MicrosoftTTS tts;
+    private volatile TextToSpeech tts;
 
     /**
      * Instantiates a new instance of the class.
@@ -64,39 +59,68 @@ public class TwitchChatListener extends ListenerAdapter {
      * @param useTTS            True if all messages are going through TTS, false otherwise.
      */
     public TwitchChatListener(String username, String oauth, String channel, String notificationSound, boolean useTTS) {
+        this(username, oauth, channel, notificationSound, useTTS, null);
+    }
+
+    /**
+     * Instantiates a new instance of the class.
+     *
+     * @param username          The Twitch username.
+     * @param oauth             The OAuth token for authenticating as the Twitch user.
+     * @param channel           The Twitch channel to monitor.
+     * @param notificationSound The file path to the notification sound to play.
+     * @param useTTS            True if all messages are going through TTS, false otherwise.
+     * @param messageListener   The subscription to invoke for every chat message, null if no one is listening.
+     */
+    public TwitchChatListener(String username, String oauth, String channel, String notificationSound, boolean useTTS,
+                              TwitchChatMessageEvent messageListener) {
+        this(username, oauth, channel, notificationSound, useTTS, messageListener, null);
+    }
+
+    /**
+     * Instantiates a new instance of the class.
+     *
+     * @param username          The Twitch username.
+     * @param oauth             The OAuth token for authenticating as the Twitch user.
+     * @param channel           The Twitch channel to monitor.
+     * @param notificationSound The file path to the notification sound to play.
+     * @param useTTS            True if all messages are going through TTS, false otherwise.
+     * @param messageListener   The subscription to invoke for every chat message, null if no one is listening.
+     * @param stateListener     The subscription to invoke when the chat connection changes state, null if no one
+     *                          is listening.
+     */
+    public TwitchChatListener(String username, String oauth, String channel, String notificationSound, boolean useTTS,
+                              TwitchChatMessageEvent messageListener, TwitchChatStateEvent stateListener) {
         this.username = username;
         this.oauth = oauth;
         this.channel = channel;
         this.notificationSound = notificationSound;
         this.useTTS = useTTS;
+        this.messageListener = messageListener;
+        this.stateListener = stateListener;
     }
 
     /**
      * Called whenever a message is sent in Twitch chat.
      *
-     * @param event The event wrapping the Twitch chat message.
+     * @param sender  The user that sent the message.
+     * @param message The message.
      */
     @Override
-    public void onGenericMessage(GenericMessageEvent event) {
-        if (null != notificationSound && !notificationSound.isEmpty()) {
-            var sound = new Media(new File(notificationSound).toURI().toString());
-            var mediaPlayer = new MediaPlayer(sound);
-            System.out.println("Playing notification sound");
-            mediaPlayer.play();
-            //            mediaPlayer.setOnEndOfMedia(() -> {
-            //                System.out.println("Playing notification sound (done)");
-            //                if (null != tts) {
-            //                    System.out.printf("Adding: %s says %s\n", event.getUser().getNick(), event.getMessage());
-            //                    tts.addMessage(String.format("%s says %s", event.getUser().getNick(), event.getMessage()));
-            //                }
-            //
-            //                mediaPlayer.dispose();
-            //            });
+    public void onChatMessage(String sender, String message) {
+        var sound = notification;
+        if (null != sound) {
+            sound.play();
         }
 
-        if (null != tts) {
-            System.out.printf("Adding: %s says %s\n", event.getUser().getNick(), event.getMessage());
-            tts.addMessage(String.format("%s says %s", event.getUser().getNick(), event.getMessage()));
+        var speech = tts;
+        if (null != speech) {
+            System.out.printf("Adding: %s says %s\n", sender, message);
+            speech.addMessage(String.format("%s says %s", sender, message));
+        }
+
+        if (null != messageListener) {
+            messageListener.onChatMessage(sender, message);
         }
     }
 
@@ -105,38 +129,25 @@ public class TwitchChatListener extends ListenerAdapter {
      *
      * @return True if successful, false otherwise.
      */
-    public boolean connect() {
-        if (null != chatBot) {
+    public synchronized boolean connect() {
+        if (null != subscription) {
             return false;
         }
 
         if (useTTS) {
-            tts = new MicrosoftTTS();
+            tts = new TextToSpeech();
+        }
+
+        notification = SoundEngine.getInstance().load(notificationSound);
+
+        try {
+            subscription = TwitchChatPool.getInstance().subscribe(username, oauth, channel, this, stateListener);
+        } catch (IllegalArgumentException e) {
+            e.printStackTrace();
+            disconnect();
+            return false;
         }
 
-        //Configure what we want our bot to do
-        var configuration = new Configuration.Builder()
-                .setLogin(username)
-                .setServerPassword(String.format("oauth:%s", oauth))
-                .setName(username)
-                .addServer(TWITCH_IRC_URL, 6697)
-                .setSocketFactory(SSLSocketFactory.getDefault())
-                .addAutoJoinChannel(String.format("#%s", channel))
-                .addListener(this)
-                .buildConfiguration();
-
-        //Create our bot with the configuration
-        chatBot = new PircBotX(configuration);
-        chatThread = new Thread(() -> {
-            //Connect to the server
-            try {
-                chatBot.startBot();
-            } catch (IOException | IrcException e) {
-                e.printStackTrace();
-            }
-        });
-        chatThread.setDaemon(true);
-        chatThread.start();
         return true;
     }
 
@@ -145,20 +156,10 @@ public class TwitchChatListener extends ListenerAdapter {
      *
      * @return True if successful, false otherwise.
      */
-    public boolean disconnect() {
-        if (null != chatThread) {
-            chatBot.stopBotReconnect();
-            chatBot.close();
-
-            try {
-                chatThread.join(30000);
-            } catch (InterruptedException e) {
-                chatThread.interrupt();
-                e.printStackTrace();
-            }
-
-            chatBot = null;
-            chatThread = null;
+    public synchronized boolean disconnect() {
+        if (null != subscription) {
+            subscription.close();
+            subscription = null;
         }
 
         if (null != tts) {
@@ -166,6 +167,11 @@ public class TwitchChatListener extends ListenerAdapter {
             tts = null;
         }
 
+        if (null != notification) {
+            notification.close();
+            notification = null;
+        }
+
         return true;
     }
 }
@@ -0,0 +1,14 @@
+package org.nullinside.twitch;
+
+/**
+ * An event for subscribing to the messages sent in a Twitch chat.
+ */
+public interface TwitchChatMessageEvent {
+    /**
+     * Invoked when someone types in chat.
+     *
+     * @param username The user that sent the message.
+     * @param message  The message.
+     */
+    void onChatMessage(String username, String message);
+}
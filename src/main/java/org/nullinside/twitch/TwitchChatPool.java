@@ -0,0 +1,960 @@
+package org.nullinside.twitch;
+
+import org.nullinside.utilities.JmxUtilities;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shares connections to Twitch chat between everyone watching a channel.
+ * <p>
+ * Connections are kept per account, each one joined to up to {@link #setChannelsPerConnection(int)} channels. A
+ * channel is joined when the first subscription to it is made and left when the last one is closed, and its
+ * messages are handed to every subscription. JOINs are paced per account to stay under Twitch's rate limit, the
+ * ones over the limit wait on the pool's thread.
+ * <p>
+ * A write to a stalled connection can block for a long time. So nothing is written to a connection while holding
+ * the pool's lock or on the pool's thread: each connection sends its JOINs, PARTs and PINGs on a thread of its own,
+ * and a stalled connection only holds up itself until it is found out and closed.
+ * <p>
+ * The pool also supervises its connections. Each one is PINGed every {@link #setPingInterval(long, long)} and a
+ * connection that is lost, fails to connect or doesn't answer in time is replaced by a new one after an
+ * exponential backoff with jitter. Reconnects are spaced out across the whole pool so a network blip doesn't make
+ * every connection come back at the same instant.
+ */
+public class TwitchChatPool {
+    /**
+     * The number of channels joined over one connection unless configured otherwise.
+     */
+    private static final int DEFAULT_CHANNELS_PER_CONNECTION = 50;
+    /**
+     * The number of JOINs Twitch allows an account in {@link #DEFAULT_JOIN_WINDOW_MILLIS}.
+     */
+    private static final int DEFAULT_JOINS_PER_WINDOW = 20;
+    /**
+     * The window Twitch counts JOINs in.
+     */
+    private static final long DEFAULT_JOIN_WINDOW_MILLIS = 10000;
+    /**
+     * The ceiling of the first delay before reconnecting unless configured otherwise.
+     */
+    private static final long DEFAULT_MIN_RECONNECT_BACKOFF_MILLIS = 1000;
+    /**
+     * The highest the delay before reconnecting goes unless configured otherwise.
+     */
+    private static final long DEFAULT_MAX_RECONNECT_BACKOFF_MILLIS = 120000;
+    /**
+     * The least time between any two reconnects of the pool unless configured otherwise.
+     */
+    private static final long DEFAULT_RECONNECT_SPACING_MILLIS = 1000;
+    /**
+     * The time between PINGs unless configured otherwise.
+     */
+    private static final long DEFAULT_PING_INTERVAL_MILLIS = 60000;
+    /**
+     * The time Twitch has to answer a PING unless configured otherwise.
+     */
+    private static final long DEFAULT_PING_TIMEOUT_MILLIS = 10000;
+    /**
+     * The time a connection's writing thread is kept around with nothing to write.
+     */
+    private static final long WRITER_KEEP_ALIVE_MILLIS = 30000;
+    /**
+     * The JMX name the {@link #getInstance()} singleton's metrics are registered under.
+     */
+    private static final String JMX_NAME = "org.nullinside.notification_app:type=TwitchChatPool";
+    /**
+     * The singleton instance of this class.
+     */
+    private static TwitchChatPool instance;
+    /**
+     * Creates the connections.
+     */
+    private final TwitchChatConnection.Factory factory;
+    /**
+     * The accounts with open connections by {@link #getAccountKey(String, String)}.
+     */
+    private final HashMap<String, Account> accounts = new HashMap<>();
+    /**
+     * The connection health statistics of the pool.
+     */
+    private final TwitchChatPoolMetrics metrics = new TwitchChatPoolMetrics(this);
+    /**
+     * Sends the JOINs that had to wait for the rate limit, PINGs the connections, reconnects them and notifies
+     * the subscriptions of their state. Created the first time it's needed.
+     */
+    private ScheduledExecutorService scheduler;
+    /**
+     * PINGs every connection, null until the first connection is opened or while PINGs are off.
+     */
+    private ScheduledFuture<?> pingTask;
+    /**
+     * The number of channels joined over one connection.
+     */
+    private int channelsPerConnection = DEFAULT_CHANNELS_PER_CONNECTION;
+    /**
+     * The number of JOINs allowed per account in {@link #joinWindowMillis}.
+     */
+    private int joinsPerWindow = DEFAULT_JOINS_PER_WINDOW;
+    /**
+     * The window JOINs are counted in in milliseconds.
+     */
+    private long joinWindowMillis = DEFAULT_JOIN_WINDOW_MILLIS;
+    /**
+     * The ceiling of the first delay before reconnecting in milliseconds.
+     */
+    private long minReconnectBackoffMillis = DEFAULT_MIN_RECONNECT_BACKOFF_MILLIS;
+    /**
+     * The highest the delay before reconnecting goes in milliseconds.
+     */
+    private long maxReconnectBackoffMillis = DEFAULT_MAX_RECONNECT_BACKOFF_MILLIS;
+    /**
+     * The least time between any two reconnects of the pool in milliseconds.
+     */
+    private long reconnectSpacingMillis = DEFAULT_RECONNECT_SPACING_MILLIS;
+    /**
+     * The {@link System#nanoTime()} before which no other reconnect may be scheduled.
+     */
+    private long nextReconnectTime = System.nanoTime();
+    /**
+     * The time between PINGs in milliseconds, 0 to not PING.
+     */
+    private long pingIntervalMillis = DEFAULT_PING_INTERVAL_MILLIS;
+    /**
+     * The time Twitch has to answer a PING in milliseconds.
+     */
+    private long pingTimeoutMillis = DEFAULT_PING_TIMEOUT_MILLIS;
+
+    /**
+     * Instantiates a new instance of the class.
+     *
+     * @param factory Creates the connections.
+     */
+    TwitchChatPool(TwitchChatConnection.Factory factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Gets the singleton instance of the class.
+     *
+     * @return The singleton instance of the class.
+     */
+    public static synchronized TwitchChatPool getInstance() {
+        if (null == instance) {
+            instance = new TwitchChatPool(PircBotChatConnection::new);
+            JmxUtilities.registerMBean(instance.metrics, JMX_NAME);
+        }
+
+        return instance;
+    }
+
+    /**
+     * Gets the key of an account.
+     *
+     * @param username The Twitch username.
+     * @param oauth    The OAuth token for authenticating as the Twitch user.
+     * @return The key.
+     */
+    private static String getAccountKey(String username, String oauth) {
+        // Usernames can't contain a colon, so the key can't be ambiguous.
+        return String.valueOf(username).toLowerCase(Locale.ROOT) + ":" + oauth;
+    }
+
+    /**
+     * Gets a channel name the way it is kept in the pool.
+     *
+     * @param channel The channel, with or without the leading '#'.
+     * @return The channel in lower case without the leading '#'.
+     */
+    private static String normalizeChannel(String channel) {
+        var name = channel.startsWith("#") ? channel.substring(1) : channel;
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Sets the number of channels joined over one connection. Only affects channels joined after this call.
+     *
+     * @param channelsPerConnection The number of channels.
+     */
+    public synchronized void setChannelsPerConnection(int channelsPerConnection) {
+        this.channelsPerConnection = Math.max(1, channelsPerConnection);
+    }
+
+    /**
+     * Sets the number of JOINs allowed per account in a window of time. Only affects accounts that connect after
+     * this call.
+     *
+     * @param joins        The number of JOINs.
+     * @param windowMillis The window in milliseconds.
+     */
+    public synchronized void setJoinRateLimit(int joins, long windowMillis) {
+        joinsPerWindow = Math.max(1, joins);
+        joinWindowMillis = Math.max(0, windowMillis);
+    }
+
+    /**
+     * Sets the backoff between attempts to reconnect. The delay starts at up to the minimum and doubles with
+     * every failed attempt up to the maximum. Only affects connections opened after this call.
+     *
+     * @param minMillis The ceiling of the first delay in milliseconds.
+     * @param maxMillis The highest the delay goes in milliseconds.
+     */
+    public synchronized void setReconnectBackoff(long minMillis, long maxMillis) {
+        minReconnectBackoffMillis = Math.max(1, minMillis);
+        maxReconnectBackoffMillis = Math.max(minReconnectBackoffMillis, maxMillis);
+    }
+
+    /**
+     * Sets the least time between any two reconnects of the pool, so connections that dropped together come back
+     * one at a time.
+     *
+     * @param spacingMillis The time in milliseconds, 0 to not space them out.
+     */
+    public synchronized void setReconnectSpacing(long spacingMillis) {
+        reconnectSpacingMillis = Math.max(0, spacingMillis);
+    }
+
+    /**
+     * Sets how often the connections are PINGed and how long Twitch has to answer before the connection is
+     * considered dead and replaced.
+     *
+     * @param intervalMillis The time between PINGs in milliseconds, 0 to not PING.
+     * @param timeoutMillis  The time Twitch has to answer in milliseconds.
+     */
+    public synchronized void setPingInterval(long intervalMillis, long timeoutMillis) {
+        pingIntervalMillis = Math.max(0, intervalMillis);
+        pingTimeoutMillis = Math.max(1, timeoutMillis);
+        if (null != pingTask) {
+            pingTask.cancel(false);
+            pingTask = null;
+            startPinging();
+        }
+    }
+
+    /**
+     * Gets the connection health statistics of the pool.
+     *
+     * @return The metrics.
+     */
+    public TwitchChatPoolMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Subscribes to the messages of a channel, joining it if no one else is watching it with the same account.
+     *
+     * @param username The Twitch username.
+     * @param oauth    The OAuth token for authenticating as the Twitch user.
+     * @param channel  The channel to watch, with or without the leading '#'.
+     * @param listener The subscription to invoke for every chat message, on the connection's thread.
+     * @return The subscription, close it to stop watching.
+     * @throws IllegalArgumentException Thrown if the channel is empty.
+     */
+    public Subscription subscribe(String username, String oauth, String channel, TwitchChatMessageEvent listener) {
+        return subscribe(username, oauth, channel, listener, null);
+    }
+
+    /**
+     * Subscribes to the messages of a channel and the state of the connection it is watched over, joining it if no
+     * one else is watching it with the same account.
+     *
+     * @param username      The Twitch username.
+     * @param oauth         The OAuth token for authenticating as the Twitch user.
+     * @param channel       The channel to watch, with or without the leading '#'.
+     * @param listener      The subscription to invoke for every chat message, on the connection's thread.
+     * @param stateListener The subscription to invoke when the connection changes state, on the pool's thread.
+     *                      Null if no one is listening.
+     * @return The subscription, close it to stop watching.
+     * @throws IllegalArgumentException Thrown if the channel is empty.
+     */
+    public synchronized Subscription subscribe(String username, String oauth, String channel,
+                                               TwitchChatMessageEvent listener, TwitchChatStateEvent stateListener) {
+        if (null == channel || normalizeChannel(channel).isEmpty()) {
+            throw new IllegalArgumentException("No channel to join");
+        }
+
+        var key = getAccountKey(username, oauth);
+        var account = accounts.get(key);
+        if (null == account) {
+            account = new Account(key, username, oauth);
+            accounts.put(key, account);
+        }
+
+        var name = normalizeChannel(channel);
+        var joined = account.channels.get(name);
+        if (null == joined) {
+            joined = new Channel(name, account.getConnection());
+            account.channels.put(name, joined);
+            joined.connection.channels.put(name, joined);
+            if (ChatConnectionState.CONNECTED == joined.connection.state) {
+                queueJoin(account, joined);
+            }
+        }
+
+        var subscription = new Subscription(account, joined, listener, stateListener);
+        joined.subscriptions.add(subscription);
+        if (null != stateListener) {
+            var state = joined.connection.state;
+            getScheduler().execute(() -> subscription.notifyState(state));
+        }
+
+        return subscription;
+    }
+
+    /**
+     * Closes a subscription, leaving its channel if no one else is watching it and closing the connection if it
+     * isn't needed anymore.
+     *
+     * @param subscription The subscription.
+     */
+    private synchronized void unsubscribe(Subscription subscription) {
+        var channel = subscription.channel;
+        if (!channel.subscriptions.remove(subscription) || !channel.subscriptions.isEmpty()) {
+            return;
+        }
+
+        var account = subscription.account;
+        var connection = channel.connection;
+        account.channels.remove(channel.name);
+        account.pendingJoins.remove(channel);
+        connection.channels.remove(channel.name);
+        if (connection.channels.isEmpty()) {
+            account.connections.remove(connection);
+            connection.close();
+        } else if (channel.isJoined) {
+            var parting = connection.connection;
+            connection.send(() -> parting.part(channel.name));
+        }
+
+        if (account.connections.isEmpty()) {
+            accounts.remove(account.key);
+        }
+    }
+
+    /**
+     * Gets the number of connections open.
+     *
+     * @return The number of connections.
+     */
+    public synchronized int getConnectionCount() {
+        return accounts.values().stream().mapToInt(account -> account.connections.size()).sum();
+    }
+
+    /**
+     * Gets the number of channels joined or waiting to be joined.
+     *
+     * @return The number of channels.
+     */
+    public synchronized int getChannelCount() {
+        return accounts.values().stream().mapToInt(account -> account.channels.size()).sum();
+    }
+
+    /**
+     * Gets the number of connections in a state.
+     *
+     * @param state The state.
+     * @return The number of connections.
+     */
+    synchronized int getConnectionCount(ChatConnectionState state) {
+        return accounts.values().stream().mapToInt(account ->
+                (int) account.connections.stream().filter(connection -> state == connection.state).count()).sum();
+    }
+
+    /**
+     * Gets the state of every connection.
+     *
+     * @return One "username: STATE (n channels)" entry per connection.
+     */
+    synchronized String[] getConnectionStates() {
+        var states = new ArrayList<String>();
+        for (var account : accounts.values()) {
+            for (var connection : account.connections) {
+                states.add(String.format("%s: %s (%d channels)", account.username, connection.state,
+                        connection.channels.size()));
+            }
+        }
+
+        return states.toArray(new String[0]);
+    }
+
+    /**
+     * Starts PINGing the connections if it isn't already.
+     */
+    private void startPinging() {
+        if (null == pingTask && pingIntervalMillis > 0) {
+            pingTask = getScheduler().scheduleWithFixedDelay(this::pingConnections, pingIntervalMillis,
+                    pingIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * PINGs every connected connection that isn't already waiting for an answer.
+     */
+    private synchronized void pingConnections() {
+        for (var account : accounts.values()) {
+            for (var connection : account.connections) {
+                if (ChatConnectionState.CONNECTED == connection.state && 0 == connection.pingSentTime) {
+                    connection.ping();
+                }
+            }
+        }
+    }
+
+    /**
+     * Queues a channel to be joined as soon as the rate limit allows.
+     *
+     * @param account The account.
+     * @param channel The channel.
+     */
+    private void queueJoin(Account account, Channel channel) {
+        if (!account.pendingJoins.contains(channel)) {
+            account.pendingJoins.add(channel);
+        }
+
+        if (!account.isDrainScheduled) {
+            account.isDrainScheduled = true;
+            getScheduler().execute(() -> drainJoins(account));
+        }
+    }
+
+    /**
+     * Joins the queued channels of an account until the rate limit is reached, then schedules itself for when the
+     * next JOIN is allowed. Runs on the pool's thread, the JOINs are sent on the connections' own threads.
+     *
+     * @param account The account.
+     */
+    private synchronized void drainJoins(Account account) {
+        account.isDrainScheduled = false;
+        while (!account.pendingJoins.isEmpty()) {
+            var wait = account.limiter.tryAcquire();
+            if (wait > 0) {
+                account.isDrainScheduled = true;
+                getScheduler().schedule(() -> drainJoins(account), wait, TimeUnit.NANOSECONDS);
+                return;
+            }
+
+            var channel = account.pendingJoins.poll();
+            var joining = channel.connection.connection;
+            channel.connection.send(() -> joining.join(channel.name));
+            channel.isJoined = true;
+        }
+    }
+
+    /**
+     * Writes to a connection. Must not be called while holding the pool's lock.
+     *
+     * @param write The write.
+     */
+    private static void write(Runnable write) {
+        try {
+            write.run();
+        } catch (RuntimeException e) {
+            // The connection was lost in the meantime, it reports that on its own.
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Gets the pool's thread, which paces the JOINs, PINGs the connections, reconnects and closes them. Closing is
+     * the only thing it does to a connection itself, everything else is written on the connection's own thread.
+     *
+     * @return The scheduler.
+     */
+    private ScheduledExecutorService getScheduler() {
+        if (null == scheduler) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                var thread = new Thread(runnable);
+                thread.setName("Twitch Chat Pool");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        return scheduler;
+    }
+
+    /**
+     * A subscription to the messages of a channel.
+     */
+    public class Subscription {
+        /**
+         * The account the channel is watched with.
+         */
+        private final Account account;
+        /**
+         * The channel.
+         */
+        private final Channel channel;
+        /**
+         * The subscription to invoke for every chat message.
+         */
+        private final TwitchChatMessageEvent listener;
+        /**
+         * The subscription to invoke when the connection changes state, null if no one is listening.
+         */
+        private final TwitchChatStateEvent stateListener;
+
+        /**
+         * Instantiates a new instance of the class.
+         *
+         * @param account       The account the channel is watched with.
+         * @param channel       The channel.
+         * @param listener      The subscription to invoke for every chat message.
+         * @param stateListener The subscription to invoke when the connection changes state, null if no one is
+         *                      listening.
+         */
+        private Subscription(Account account, Channel channel, TwitchChatMessageEvent listener,
+                             TwitchChatStateEvent stateListener) {
+            this.account = account;
+            this.channel = channel;
+            this.listener = listener;
+            this.stateListener = stateListener;
+        }
+
+        /**
+         * Hands a state to the state listener, if there is one.
+         *
+         * @param state The state of the connection.
+         */
+        private void notifyState(ChatConnectionState state) {
+            if (null == stateListener) {
+                return;
+            }
+
+            try {
+                stateListener.onStateChanged(state);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+
+        /**
+         * Gets the channel.
+         *
+         * @return The channel in lower case without the leading '#'.
+         */
+        public String getChannel() {
+            return channel.name;
+        }
+
+        /**
+         * Gets the state of the connection the channel is watched over.
+         *
+         * @return The state.
+         */
+        public ChatConnectionState getState() {
+            return channel.connection.state;
+        }
+
+        /**
+         * Stops watching the channel. Does nothing if it was already closed.
+         */
+        public void close() {
+            unsubscribe(this);
+        }
+    }
+
+    /**
+     * The connections and channels of one account.
+     */
+    private class Account {
+        /**
+         * The key of the account in {@link #accounts}.
+         */
+        final String key;
+        /**
+         * The Twitch username.
+         */
+        final String username;
+        /**
+         * The OAuth token for authenticating as the Twitch user.
+         */
+        final String oauth;
+        /**
+         * The open connections.
+         */
+        final ArrayList<PooledConnection> connections = new ArrayList<>();
+        /**
+         * The channels watched by name.
+         */
+        final HashMap<String, Channel> channels = new HashMap<>();
+        /**
+         * The channels waiting for the rate limit to be joined, in order.
+         */
+        final ArrayDeque<Channel> pendingJoins = new ArrayDeque<>();
+        /**
+         * Paces the JOINs of the account.
+         */
+        final JoinRateLimiter limiter;
+        /**
+         * True while {@link #drainJoins(Account)} is scheduled to run, false otherwise.
+         */
+        boolean isDrainScheduled;
+
+        /**
+         * Instantiates a new instance of the class.
+         *
+         * @param key      The key of the account in {@link #accounts}.
+         * @param username The Twitch username.
+         * @param oauth    The OAuth token for authenticating as the Twitch user.
+         */
+        Account(String key, String username, String oauth) {
+            this.key = key;
+            this.username = username;
+            this.oauth = oauth;
+            this.limiter = new JoinRateLimiter(joinsPerWindow, TimeUnit.MILLISECONDS.toNanos(joinWindowMillis),
+                    System::nanoTime);
+        }
+
+        /**
+         * Gets the connection to join another channel over, opening one if they are all full.
+         *
+         * @return The connection.
+         */
+        PooledConnection getConnection() {
+            PooledConnection emptiest = null;
+            for (var connection : connections) {
+                if (null == emptiest || connection.channels.size() < emptiest.channels.size()) {
+                    emptiest = connection;
+                }
+            }
+
+            if (null != emptiest && emptiest.channels.size() < channelsPerConnection) {
+                return emptiest;
+            }
+
+            var connection = new PooledConnection(this);
+            connections.add(connection);
+            connection.connect();
+            startPinging();
+            return connection;
+        }
+    }
+
+    /**
+     * A connection and the channels joined over it. The connection itself is replaced every time it reconnects.
+     */
+    private class PooledConnection implements TwitchChatConnection.Listener {
+        /**
+         * The account the connection belongs to.
+         */
+        final Account account;
+        /**
+         * The channels joined over the connection by name. Read on the connection's thread without the pool's lock.
+         */
+        final ConcurrentHashMap<String, Channel> channels = new ConcurrentHashMap<>();
+        /**
+         * The delay before each attempt to reconnect.
+         */
+        final ReconnectBackoff backoff;
+        /**
+         * The current connection. Callbacks from the connections it replaced are ignored.
+         */
+        volatile TwitchChatConnection connection;
+        /**
+         * Writes to the current {@link #connection} one at a time. Replaced along with the connection, so a write
+         * stuck on the connection it replaced doesn't hold up the new one.
+         */
+        ExecutorService writer;
+        /**
+         * The state of the connection.
+         */
+        volatile ChatConnectionState state = ChatConnectionState.CONNECTING;
+        /**
+         * The {@link System#nanoTime()} the unanswered PING was sent at, 0 if there isn't one.
+         */
+        long pingSentTime;
+        /**
+         * The pending attempt to reconnect, null if there isn't one.
+         */
+        ScheduledFuture<?> reconnectTask;
+
+        /**
+         * Instantiates a new instance of the class.
+         *
+         * @param account The account the connection belongs to.
+         */
+        PooledConnection(Account account) {
+            this.account = account;
+            this.backoff = new ReconnectBackoff(TimeUnit.MILLISECONDS.toNanos(minReconnectBackoffMillis),
+                    TimeUnit.MILLISECONDS.toNanos(maxReconnectBackoffMillis),
+                    () -> ThreadLocalRandom.current().nextDouble());
+        }
+
+        /**
+         * Opens a new connection and starts connecting.
+         */
+        void connect() {
+            reconnectTask = null;
+            pingSentTime = 0;
+            connection = factory.create(account.username, account.oauth, this);
+            writer = createWriter();
+            setState(ChatConnectionState.CONNECTING);
+            connection.start();
+        }
+
+        /**
+         * Gives up on a connection and schedules a new one once the backoff, and every reconnect scheduled before
+         * it, allows.
+         *
+         * @param failed The connection that was lost, failed to connect or stopped answering.
+         */
+        void reconnect(TwitchChatConnection failed) {
+            if (failed != connection || ChatConnectionState.RECONNECTING == state ||
+                    ChatConnectionState.CLOSED == state) {
+                return;
+            }
+
+            for (var channel : channels.values()) {
+                channel.isJoined = false;
+                account.pendingJoins.remove(channel);
+            }
+
+            pingSentTime = 0;
+            closeConnection();
+            metrics.recordReconnect();
+            setState(ChatConnectionState.RECONNECTING);
+
+            var now = System.nanoTime();
+            var time = now + backoff.nextDelay();
+            if (nextReconnectTime - time > 0) {
+                time = nextReconnectTime;
+            }
+
+            nextReconnectTime = time + TimeUnit.MILLISECONDS.toNanos(reconnectSpacingMillis);
+            reconnectTask = getScheduler().schedule(() -> {
+                synchronized (TwitchChatPool.this) {
+                    if (ChatConnectionState.RECONNECTING == state) {
+                        connect();
+                    }
+                }
+            }, time - now, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Sends a PING and checks that it was answered once the timeout is up.
+         */
+        void ping() {
+            var pinged = connection;
+            var sent = System.nanoTime();
+            pingSentTime = 0 != sent ? sent : 1;
+            send(() -> {
+                try {
+                    pinged.ping();
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                    synchronized (TwitchChatPool.this) {
+                        reconnect(pinged);
+                    }
+                }
+            });
+
+            // A PING stuck on a stalled connection is never answered either, so this finds those out as well.
+            var expected = pingSentTime;
+            getScheduler().schedule(() -> {
+                synchronized (TwitchChatPool.this) {
+                    if (pinged == connection && expected == pingSentTime &&
+                            ChatConnectionState.CONNECTED == state) {
+                        metrics.recordPingTimeout();
+                        reconnect(pinged);
+                    }
+                }
+            }, pingTimeoutMillis, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Closes the connection for good.
+         */
+        void close() {
+            if (null != reconnectTask) {
+                reconnectTask.cancel(false);
+                reconnectTask = null;
+            }
+
+            setState(ChatConnectionState.CLOSED);
+            closeConnection();
+        }
+
+        /**
+         * Hands a write to the current connection's writing thread.
+         *
+         * @param write The write.
+         */
+        void send(Runnable write) {
+            try {
+                writer.execute(() -> write(write));
+            } catch (RejectedExecutionException e) {
+                // The connection was closed, so is everything written to it.
+            }
+        }
+
+        /**
+         * Drops the writes still waiting for the current connection and closes it on the pool's thread. Closing
+         * the connection also fails a write that is stuck on it.
+         */
+        void closeConnection() {
+            var closing = connection;
+            writer.shutdownNow();
+            getScheduler().execute(() -> write(closing::close));
+        }
+
+        /**
+         * Creates the thread the writes to a connection are sent on. It goes away when there is nothing to write.
+         *
+         * @return The writing thread.
+         */
+        ExecutorService createWriter() {
+            var executor = new ThreadPoolExecutor(1, 1, WRITER_KEEP_ALIVE_MILLIS, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                var thread = new Thread(runnable);
+                thread.setName("Twitch Chat Writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+
+        /**
+         * Changes the state and tells everyone watching a channel over the connection, on the pool's thread.
+         *
+         * @param state The state.
+         */
+        void setState(ChatConnectionState state) {
+            if (state == this.state) {
+                return;
+            }
+
+            this.state = state;
+            getScheduler().execute(() -> {
+                for (var channel : channels.values()) {
+                    for (var subscription : channel.subscriptions) {
+                        subscription.notifyState(state);
+                    }
+                }
+            });
+        }
+
+        /**
+         * Joins every channel assigned to the connection, again if it reconnected.
+         *
+         * @param connection The connection.
+         */
+        @Override
+        public void onConnected(TwitchChatConnection connection) {
+            synchronized (TwitchChatPool.this) {
+                if (connection != this.connection || ChatConnectionState.CONNECTING != state) {
+                    return;
+                }
+
+                backoff.reset();
+                setState(ChatConnectionState.CONNECTED);
+                for (var channel : channels.values()) {
+                    channel.isJoined = false;
+                    queueJoin(account, channel);
+                }
+            }
+        }
+
+        /**
+         * Forgets the channels were joined and reconnects, they are joined again when the connection comes back.
+         *
+         * @param connection The connection.
+         */
+        @Override
+        public void onDisconnected(TwitchChatConnection connection) {
+            synchronized (TwitchChatPool.this) {
+                reconnect(connection);
+            }
+        }
+
+        /**
+         * Records how long Twitch took to answer the PING.
+         *
+         * @param connection The connection.
+         */
+        @Override
+        public void onPong(TwitchChatConnection connection) {
+            synchronized (TwitchChatPool.this) {
+                if (connection != this.connection || 0 == pingSentTime) {
+                    return;
+                }
+
+                metrics.recordPong(System.nanoTime() - pingSentTime);
+                pingSentTime = 0;
+            }
+        }
+
+        /**
+         * Hands a message to everyone watching its channel.
+         *
+         * @param connection The connection.
+         * @param channel    The channel, with or without the leading '#'.
+         * @param username   The user that sent the message.
+         * @param message    The message.
+         */
+        @Override
+        public void onMessage(TwitchChatConnection connection, String channel, String username, String message) {
+            var joined = channels.get(normalizeChannel(channel));
+            if (null == joined || connection != this.connection) {
+                return;
+            }
+
+            metrics.recordMessage(System.nanoTime());
+            for (var subscription : joined.subscriptions) {
+                try {
+                    subscription.listener.onChatMessage(username, message);
+                } catch (RuntimeException e) {
+                    // One bad subscriber shouldn't keep the message from the rest.
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * A channel watched by one or more subscriptions.
+     */
+    private static class Channel {
+        /**
+         * The channel in lower case without the leading '#'.
+         */
+        final String name;
+        /**
+         * The connection the channel is joined over.
+         */
+        final PooledConnection connection;
+        /**
+         * The subscriptions to the channel. Read on the connection's thread without the pool's lock.
+         */
+        final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+        /**
+         * True once the JOIN was sent, false otherwise.
+         */
+        boolean isJoined;
+
+        /**
+         * Instantiates a new instance of the class.
+         *
+         * @param name       The channel in lower case without the leading '#'.
+         * @param connection The connection the channel is joined over.
+         */
+        Channel(String name, PooledConnection connection) {
+            this.name = name;
+            this.connection = connection;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.nullinside.twitch;
+
+/**
+ * The JMX view of the {@link TwitchChatPool}.
+ */
+public interface TwitchChatPoolMXBean {
+    /**
+     * Gets the number of connections open, whatever their state.
+     *
+     * @return The number of connections.
+     */
+    int getConnectionCount();
+
+    /**
+     * Gets the number of connections connected and logged in.
+     *
+     * @return The number of connected connections.
+     */
+    int getConnectedCount();
+
+    /**
+     * Gets the number of channels joined or waiting to be joined.
+     *
+     * @return The number of channels.
+     */
+    int getChannelCount();
+
+    /**
+     * Gets the state of every connection, one "username: STATE" entry per connection.
+     *
+     * @return The states.
+     */
+    String[] getConnectionStates();
+
+    /**
+     * Gets the number of times a connection was lost, failed or stopped answering PINGs and had to reconnect.
+     *
+     * @return The number of reconnects.
+     */
+    long getReconnectCount();
+
+    /**
+     * Gets the number of PINGs that weren't answered in time. Each one also counts as a reconnect.
+     *
+     * @return The number of timed out PINGs.
+     */
+    long getPingTimeoutCount();
+
+    /**
+     * Gets the number of PINGs answered.
+     *
+     * @return The number of PONGs.
+     */
+    long getPongCount();
+
+    /**
+     * Gets the average time Twitch took to answer a PING.
+     *
+     * @return The average PING latency in milliseconds.
+     */
+    double getPingLatencyMeanMillis();
+
+    /**
+     * Gets the time that 99% of PINGs were answered within.
+     *
+     * @return The 99th percentile PING latency in milliseconds.
+     */
+    double getPingLatencyP99Millis();
+
+    /**
+     * Gets the longest time Twitch took to answer a PING.
+     *
+     * @return The longest PING latency in milliseconds.
+     */
+    double getPingLatencyMaxMillis();
+
+    /**
+     * Gets how long ago the last chat message arrived on any connection.
+     *
+     * @return The time since the last message in milliseconds, -1 if none arrived yet.
+     */
+    long getMillisSinceLastMessage();
+}
@@ -0,0 +1,204 @@
+package org.nullinside.twitch;
+
+import org.nullinside.utilities.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The connection health statistics of a {@link TwitchChatPool}.
+ */
+public class TwitchChatPoolMetrics implements TwitchChatPoolMXBean {
+    /**
+     * The pool the statistics belong to.
+     */
+    private final TwitchChatPool pool;
+    /**
+     * The time Twitch took to answer PINGs.
+     */
+    private final LatencyHistogram pingLatency = new LatencyHistogram();
+    /**
+     * The number of reconnects.
+     */
+    private final LongAdder reconnects = new LongAdder();
+    /**
+     * The number of PINGs that weren't answered in time.
+     */
+    private final LongAdder pingTimeouts = new LongAdder();
+    /**
+     * The {@link System#nanoTime()} the last chat message arrived at, 0 if none arrived yet.
+     */
+    private volatile long lastMessageTime = 0;
+
+    /**
+     * Instantiates a new instance of the class.
+     *
+     * @param pool The pool the statistics belong to.
+     */
+    TwitchChatPoolMetrics(TwitchChatPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Records a PING that was answered.
+     *
+     * @param latencyNanos The time Twitch took to answer in nanoseconds.
+     */
+    void recordPong(long latencyNanos) {
+        pingLatency.record(latencyNanos);
+    }
+
+    /**
+     * Records a PING that wasn't answered in time.
+     */
+    void recordPingTimeout() {
+        pingTimeouts.increment();
+    }
+
+    /**
+     * Records a connection that has to reconnect.
+     */
+    void recordReconnect() {
+        reconnects.increment();
+    }
+
+    /**
+     * Records a chat message arriving.
+     *
+     * @param time The {@link System#nanoTime()} it arrived at.
+     */
+    void recordMessage(long time) {
+        // Good enough to be racy, the newest of two messages arriving together wins nearly every time.
+        lastMessageTime = 0 != time ? time : 1;
+    }
+
+    /**
+     * Gets the histogram of the time Twitch took to answer PINGs.
+     *
+     * @return The PING latency histogram.
+     */
+    public LatencyHistogram getPingLatency() {
+        return pingLatency;
+    }
+
+    /**
+     * Gets the number of connections open, whatever their state.
+     *
+     * @return The number of connections.
+     */
+    @Override
+    public int getConnectionCount() {
+        return pool.getConnectionCount();
+    }
+
+    /**
+     * Gets the number of connections connected and logged in.
+     *
+     * @return The number of connected connections.
+     */
+    @Override
+    public int getConnectedCount() {
+        return pool.getConnectionCount(ChatConnectionState.CONNECTED);
+    }
+
+    /**
+     * Gets the number of channels joined or waiting to be joined.
+     *
+     * @return The number of channels.
+     */
+    @Override
+    public int getChannelCount() {
+        return pool.getChannelCount();
+    }
+
+    /**
+     * Gets the state of every connection, one "username: STATE" entry per connection.
+     *
+     * @return The states.
+     */
+    @Override
+    public String[] getConnectionStates() {
+        return pool.getConnectionStates();
+    }
+
+    /**
+     * Gets the number of times a connection had to reconnect.
+     *
+     * @return The number of reconnects.
+     */
+    @Override
+    public long getReconnectCount() {
+        return reconnects.sum();
+    }
+
+    /**
+     * Gets the number of PINGs that weren't answered in time.
+     *
+     * @return The number of timed out PINGs.
+     */
+    @Override
+    public long getPingTimeoutCount() {
+        return pingTimeouts.sum();
+    }
+
+    /**
+     * Gets the number of PINGs answered.
+     *
+     * @return The number of PONGs.
+     */
+    @Override
+    public long getPongCount() {
+        return pingLatency.getCount();
+    }
+
+    /**
+     * Gets the average time Twitch took to answer a PING.
+     *
+     * @return The average PING latency in milliseconds.
+     */
+    @Override
+    public double getPingLatencyMeanMillis() {
+        return toMillis(pingLatency.getMean());
+    }
+
+    /**
+     * Gets the time that 99% of PINGs were answered within.
+     *
+     * @return The 99th percentile PING latency in milliseconds.
+     */
+    @Override
+    public double getPingLatencyP99Millis() {
+        return toMillis(pingLatency.getPercentile(99));
+    }
+
+    /**
+     * Gets the longest time Twitch took to answer a PING.
+     *
+     * @return The longest PING latency in milliseconds.
+     */
+    @Override
+    public double getPingLatencyMaxMillis() {
+        return toMillis(pingLatency.getMax());
+    }
+
+    /**
+     * Gets how long ago the last chat message arrived on any connection.
+     *
+     * @return The time since the last message in milliseconds, -1 if none arrived yet.
+     */
+    @Override
+    public long getMillisSinceLastMessage() {
+        var time = lastMessageTime;
+        return 0 != time ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - time) : -1;
+    }
+
+    /**
+     * Converts nanoseconds to fractional milliseconds.
+     *
+     * @param nanos The time in nanoseconds.
+     * @return The time in milliseconds.
+     */
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
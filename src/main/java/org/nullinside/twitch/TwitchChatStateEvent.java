@@ -0,0 +1,13 @@
+package org.nullinside.twitch;
+
+/**
+ * An event for subscribing to the state of the connection a Twitch chat is watched over.
+ */
+public interface TwitchChatStateEvent {
+    /**
+     * Invoked when the connection changes state, and once with the current state when subscribing.
+     *
+     * @param state The state of the connection.
+     */
+    void onStateChanged(ChatConnectionState state);
+}
@@ -94,7 +94,29 @@ public class TwitchService {
      * @return True if successful, false otherwise.
      */
     public boolean connectToChat() {
-        var chat = new TwitchChatListener(TWITCH_USERNAME, TWITCH_USER_OAUTH_TOKEN, TWITCH_CHANNEL, TWITCH_NOTIFICATION_SOUND, true);
+        return connectToChat(null);
+    }
+
+    /**
+     * Connects to Twitch chat.
+     *
+     * @param messageListener The subscription to invoke for every chat message, null if no one is listening.
+     * @return True if successful, false otherwise.
+     */
+    public boolean connectToChat(TwitchChatMessageEvent messageListener) {
+        return connectToChat(messageListener, null);
+    }
+
+    /**
+     * Connects to Twitch chat.
+     *
+     * @param messageListener The subscription to invoke for every chat message, null if no one is listening.
+     * @param stateListener   The subscription to invoke when the chat connection changes state, null if no one is
+     *                        listening.
+     * @return True if successful, false otherwise.
+     */
+    public boolean connectToChat(TwitchChatMessageEvent messageListener, TwitchChatStateEvent stateListener) {
+        var chat = new TwitchChatListener(TWITCH_USERNAME, TWITCH_USER_OAUTH_TOKEN, TWITCH_CHANNEL, TWITCH_NOTIFICATION_SOUND, true, messageListener, stateListener);
         chatListener.add(chat);
         return chat.connect();
     }
@@ -0,0 +1,76 @@
+package org.nullinside.utilities;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Utilities for reading and writing values in binary formats.
+ */
+public final class BinaryUtilities {
+    /**
+     * Writes a string as its length in bytes followed by its UTF-8 bytes. A null string is written as a length
+     * of -1.
+     *
+     * @param output The output to write to.
+     * @param value  The string, may be null.
+     * @throws IOException Thrown if the write fails.
+     */
+    public static void writeString(DataOutput output, String value) throws IOException {
+        if (null == value) {
+            output.writeInt(-1);
+            return;
+        }
+
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutput, String)}.
+     *
+     * @param input The buffer to read from, positioned at the start of the string.
+     * @return The string, may be null.
+     * @throws java.nio.BufferUnderflowException Thrown if the buffer ends before the string does.
+     * @throws IllegalArgumentException          Thrown if the length is invalid.
+     */
+    public static String readString(ByteBuffer input) {
+        var length = input.getInt();
+        if (-1 == length) {
+            return null;
+        }
+
+        if (length < 0 || length > input.remaining()) {
+            throw new IllegalArgumentException("Invalid string length " + length);
+        }
+
+        var bytes = new byte[length];
+        input.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a block of bytes written as its length followed by the bytes.
+     *
+     * @param input The buffer to read from, positioned at the start of the block.
+     * @return The bytes, null if the length is -1.
+     * @throws java.nio.BufferUnderflowException Thrown if the buffer ends before the block does.
+     * @throws IllegalArgumentException          Thrown if the length is invalid.
+     */
+    public static byte[] readBytes(ByteBuffer input) {
+        var length = input.getInt();
+        if (-1 == length) {
+            return null;
+        }
+
+        if (length < 0 || length > input.remaining()) {
+            throw new IllegalArgumentException("Invalid block length " + length);
+        }
+
+        var bytes = new byte[length];
+        input.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,26 @@
+package org.nullinside.utilities;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a controller whose controls are bound to the fields of a configuration object. The controls are marked
+ * with {@link BindProperty}.
+ * <p>
+ * The binder processor generates a {@link ConfigBinder} named after the controller with "Binder" on the end, in the
+ * same package. The new configuration is created through the constructor whose parameters are named after the
+ * bound properties, so the order of the arguments is checked when compiling rather than when saving.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface BindConfig {
+    /**
+     * The field holding the configuration in "parent.child.field" syntax, starting at the controller. Every field
+     * along the way has to be visible to the controller's package and the last one can't be final.
+     *
+     * @return The path of the configuration.
+     */
+    String value();
+}
@@ -0,0 +1,22 @@
+package org.nullinside.utilities;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a text control of a {@link BindConfig} controller to a String field of its configuration. The control
+ * can't be private.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface BindProperty {
+    /**
+     * The name of the field in the configuration, which is also the name of the constructor parameter it is
+     * passed in as.
+     *
+     * @return The name of the field.
+     */
+    String value();
+}
@@ -0,0 +1,41 @@
+package org.nullinside.utilities;
+
+/**
+ * Copies values between the controls of a controller and its configuration. Implementations are generated from
+ * {@link BindConfig} and {@link BindProperty}.
+ *
+ * @param <T> The type of the controller.
+ * @param <C> The type of the configuration.
+ */
+public interface ConfigBinder<T, C> {
+    /**
+     * Sets the text of the controls from the configuration.
+     *
+     * @param controller The controller.
+     */
+    void updateControls(T controller);
+
+    /**
+     * Gets the configuration.
+     *
+     * @param controller The controller.
+     * @return The configuration, null if it or something holding it is null.
+     */
+    C getConfig(T controller);
+
+    /**
+     * Creates a new configuration from the text of the controls. The configuration of the controller is left alone.
+     *
+     * @param controller The controller.
+     * @return The new configuration.
+     */
+    C createConfig(T controller);
+
+    /**
+     * Replaces the configuration.
+     *
+     * @param controller The controller.
+     * @param config     The new configuration.
+     */
+    void setConfig(T controller, C config);
+}
@@ -0,0 +1,36 @@
+package org.nullinside.utilities;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Utilities for publishing statistics over JMX.
+ */
+public final class JmxUtilities {
+    /**
+     * Registers an MBean with the platform MBean server, replacing anything left behind under the same name.
+     *
+     * @param bean The MBean.
+     * @param name The JMX name.
+     * @return True if successful, false otherwise.
+     */
+    public static boolean registerMBean(Object bean, String name) {
+        var server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            var objectName = new ObjectName(name);
+            try {
+                server.registerMBean(bean, objectName);
+            } catch (InstanceAlreadyExistsException e) {
+                server.unregisterMBean(objectName);
+                server.registerMBean(bean, objectName);
+            }
+
+            return true;
+        } catch (JMException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+}
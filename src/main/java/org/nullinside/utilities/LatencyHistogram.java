@@ -0,0 +1,135 @@
+package org.nullinside.utilities;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread safe histogram of durations in nanoseconds.
+ * <p>
+ * Durations are counted in power of two buckets, so recording is a handful of atomic increments and never
+ * allocates. The price is precision: percentiles are reported as the upper bound of the bucket they fall in,
+ * which is at most twice the real value.
+ */
+public final class LatencyHistogram {
+    /**
+     * The number of buckets, one per bit of a long.
+     */
+    private static final int BUCKET_COUNT = 64;
+    /**
+     * The number of durations in each bucket. Bucket n holds durations in [2^n, 2^(n+1)) nanoseconds.
+     */
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    /**
+     * The number of recorded durations.
+     */
+    private final AtomicLong count = new AtomicLong(0);
+    /**
+     * The sum of the recorded durations in nanoseconds.
+     */
+    private final AtomicLong sum = new AtomicLong(0);
+    /**
+     * The longest recorded duration in nanoseconds.
+     */
+    private final AtomicLong max = new AtomicLong(0);
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos The duration in nanoseconds. Negative durations are recorded as 0.
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+
+        buckets.incrementAndGet(getBucket(nanos));
+        count.incrementAndGet();
+        sum.addAndGet(nanos);
+
+        // Only bother with the compare and swap loop when it's actually a new maximum.
+        var currentMax = max.get();
+        while (nanos > currentMax && !max.compareAndSet(currentMax, nanos)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Gets the number of recorded durations.
+     *
+     * @return The number of recorded durations.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Gets the average recorded duration.
+     *
+     * @return The average duration in nanoseconds, 0 if nothing was recorded.
+     */
+    public long getMean() {
+        var currentCount = count.get();
+        return 0 == currentCount ? 0 : sum.get() / currentCount;
+    }
+
+    /**
+     * Gets the longest recorded duration.
+     *
+     * @return The longest duration in nanoseconds, 0 if nothing was recorded.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets the duration that a percentage of the recorded durations are shorter than.
+     *
+     * @param percentile The percentile between 0 and 100.
+     * @return The upper bound of the bucket the percentile falls in, in nanoseconds, 0 if nothing was recorded.
+     */
+    public long getPercentile(double percentile) {
+        // Take a copy so that the total and the buckets agree with each other.
+        var snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+
+        if (0 == total) {
+            return 0;
+        }
+
+        var target = (long) Math.ceil(total * Math.min(Math.max(percentile, 0), 100) / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= target && snapshot[i] > 0) {
+                // Never report more than we've actually seen.
+                return Math.min(getBucketUpperBound(i), getMax());
+            }
+        }
+
+        return getMax();
+    }
+
+    /**
+     * Gets the bucket a duration belongs in.
+     *
+     * @param nanos The duration in nanoseconds.
+     * @return The index of the bucket.
+     */
+    private static int getBucket(long nanos) {
+        return 0 == nanos ? 0 : 63 - Long.numberOfLeadingZeros(nanos);
+    }
+
+    /**
+     * Gets the largest duration a bucket can hold.
+     *
+     * @param bucket The index of the bucket.
+     * @return The largest duration in nanoseconds.
+     */
+    private static long getBucketUpperBound(int bucket) {
+        return bucket >= 62 ? Long.MAX_VALUE : (1L << (bucket + 1)) - 1;
+    }
+}
@@ -0,0 +1,174 @@
+package org.nullinside.notification_app.alerts;
+
+import org.junit.jupiter.api.Test;
+import org.nullinside.notification_app.alerts.common.NoopAlert;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link AlertScheduleQueue}.
+ */
+class AlertScheduleQueueTest {
+    /**
+     * The number of random operation sequences to run in the property tests.
+     */
+    private static final int TRIALS = 200;
+    /**
+     * The number of operations per random sequence.
+     */
+    private static final int OPERATIONS = 500;
+
+    /**
+     * Tests that trackers come out of the queue in due order with ties broken by insertion order.
+     */
+    @Test
+    void pollReturnsDueOrder() {
+        var queue = new AlertScheduleQueue();
+        var late = new AlertUpdateTracker(new NoopAlert(), 300);
+        var early = new AlertUpdateTracker(new NoopAlert(), 100);
+        var tieFirst = new AlertUpdateTracker(new NoopAlert(), 200);
+        var tieSecond = new AlertUpdateTracker(new NoopAlert(), 200);
+        queue.add(late);
+        queue.add(tieFirst);
+        queue.add(early);
+        queue.add(tieSecond);
+
+        assertSame(early, queue.poll());
+        assertSame(tieFirst, queue.poll());
+        assertSame(tieSecond, queue.poll());
+        assertSame(late, queue.poll());
+        assertNull(queue.poll());
+    }
+
+    /**
+     * Tests that removing and rescheduling trackers keeps the queue consistent.
+     */
+    @Test
+    void removeAndReschedule() {
+        var queue = new AlertScheduleQueue();
+        var first = new AlertUpdateTracker(new NoopAlert(), 100);
+        var second = new AlertUpdateTracker(new NoopAlert(), 200);
+        var third = new AlertUpdateTracker(new NoopAlert(), 300);
+        queue.add(first);
+        queue.add(second);
+        queue.add(third);
+
+        assertFalse(queue.add(second), "Tracker was queued twice");
+        assertTrue(queue.remove(second));
+        assertFalse(queue.remove(second), "Tracker was removed twice");
+        assertFalse(queue.contains(second));
+
+        third.nextUpdateTime = 0;
+        queue.reschedule(third);
+        assertSame(third, queue.peek());
+        assertEquals(2, queue.size());
+
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        assertFalse(queue.contains(first));
+    }
+
+    /**
+     * Applies random sequences of add, poll, remove and reschedule operations to the queue and a naive sorted
+     * model and asserts that they always agree on which tracker is due next.
+     */
+    @Test
+    void randomOperationsMatchSortedModel() {
+        for (int trial = 0; trial < TRIALS; trial++) {
+            var random = new Random(trial);
+            var queue = new AlertScheduleQueue();
+            var model = new ArrayList<ModelEntry>();
+            long order = 0;
+
+            for (int op = 0; op < OPERATIONS; op++) {
+                var choice = random.nextInt(10);
+                if (choice < 4 || model.isEmpty()) {
+                    // Add a new tracker. A small time range makes ties common.
+                    var tracker = new AlertUpdateTracker(new NoopAlert(), random.nextInt(50));
+                    queue.add(tracker);
+                    model.add(new ModelEntry(tracker, order++));
+                } else if (choice < 6) {
+                    // Poll the soonest tracker.
+                    var expected = soonest(model);
+                    model.remove(expected);
+                    assertSame(expected.tracker, queue.poll(), "Poll returned out of order, seed " + trial);
+                } else if (choice < 8) {
+                    // Remove a random tracker.
+                    var entry = model.remove(random.nextInt(model.size()));
+                    assertTrue(queue.remove(entry.tracker), "Failed to remove tracker, seed " + trial);
+                } else {
+                    // Reschedule a random tracker, it goes behind everything else due at the same time.
+                    var entry = model.get(random.nextInt(model.size()));
+                    entry.tracker.nextUpdateTime = random.nextInt(50);
+                    entry.order = order++;
+                    queue.reschedule(entry.tracker);
+                }
+
+                assertEquals(model.size(), queue.size(), "Size mismatch, seed " + trial);
+                var expected = model.isEmpty() ? null : soonest(model).tracker;
+                assertSame(expected, queue.peek(), "Peek returned out of order, seed " + trial);
+            }
+
+            // Draining the queue must produce the model's full order.
+            var expectedOrder = sorted(model);
+            for (var entry : expectedOrder) {
+                assertSame(entry.tracker, queue.poll(), "Drain returned out of order, seed " + trial);
+            }
+
+            assertTrue(queue.isEmpty());
+        }
+    }
+
+    /**
+     * Finds the entry in the model that should be updated soonest.
+     *
+     * @param model The model.
+     * @return The soonest entry.
+     */
+    private static ModelEntry soonest(List<ModelEntry> model) {
+        return sorted(model).get(0);
+    }
+
+    /**
+     * Sorts the model by due time and then insertion order.
+     *
+     * @param model The model.
+     * @return The sorted model.
+     */
+    private static List<ModelEntry> sorted(List<ModelEntry> model) {
+        var copy = new ArrayList<>(model);
+        copy.sort(Comparator.<ModelEntry>comparingLong(entry -> entry.tracker.nextUpdateTime)
+                .thenComparingLong(entry -> entry.order));
+        return copy;
+    }
+
+    /**
+     * An entry of the naive model the queue is compared against.
+     */
+    private static class ModelEntry {
+        /**
+         * The tracker.
+         */
+        final AlertUpdateTracker tracker;
+        /**
+         * The order in which the tracker was last scheduled.
+         */
+        long order;
+
+        /**
+         * Instantiates a new instance of the class.
+         *
+         * @param tracker The tracker.
+         * @param order   The order in which the tracker was last scheduled.
+         */
+        ModelEntry(AlertUpdateTracker tracker, long order) {
+            this.tracker = tracker;
+            this.order = order;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package org.nullinside.notification_app.alerts;
+
+import org.junit.jupiter.api.Test;
+import org.nullinside.notification_app.alerts.common.NoopAlert;
+import org.nullinside.notification_app.alerts.common.TestEventAlert;
+
+import java.util.ServiceLoader;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link AlertTypeRegistry}.
+ */
+class AlertTypeRegistryTest {
+    /**
+     * Tests that factories are only instantiated once an alert of their type is asked for, and only once.
+     */
+    @Test
+    void instantiatesFactoriesLazily() {
+        var polled = new CountingProvider(PolledFactory.class, PolledFactory::new);
+        var event = new CountingProvider(EventFactory.class, EventFactory::new);
+        var registry = new AlertTypeRegistry(Stream.of(polled, event));
+
+        assertEquals("Event, Polled", registry.getTypes().stream().map(AlertType::name)
+                .collect(Collectors.joining(", ")), "Wrong types");
+        assertEquals(0, polled.instances.get() + event.instances.get(), "Factory instantiated up front");
+
+        assertTrue(registry.create("test.polled") instanceof NoopAlert, "Wrong alert created");
+        assertTrue(registry.create("test.polled") instanceof NoopAlert, "Wrong alert created");
+        assertEquals(1, polled.instances.get(), "Factory not cached");
+        assertEquals(0, event.instances.get(), "Unused factory instantiated");
+        assertTrue(registry.getFactory("test.event").isEventAlert(), "Wrong factory");
+    }
+
+    /**
+     * Tests that the application's own factories are provided.
+     */
+    @Test
+    void findsProvidedFactories() {
+        var registry = AlertTypeRegistry.getInstance();
+        assertTrue(registry.getTypes().stream().anyMatch(type -> type.name().equals("Twitch Chat")),
+                "Twitch chat alerts not provided");
+        var factory = registry.getFactory(TwitchChatAlert.class.getName());
+        assertTrue(factory instanceof TwitchChatAlertFactory, "Wrong factory for Twitch chat alerts");
+        assertTrue(factory.isEventAlert(), "Twitch chat alerts are event alerts");
+    }
+
+    /**
+     * Tests that unknown types, factories without an {@link AlertType} and duplicate types are ignored.
+     */
+    @Test
+    void ignoresInvalidFactories() {
+        var unannotated = new CountingProvider(UnannotatedFactory.class, UnannotatedFactory::new);
+        var duplicate = new CountingProvider(DuplicateFactory.class, DuplicateFactory::new);
+        var registry = new AlertTypeRegistry(Stream.of(
+                new CountingProvider(PolledFactory.class, PolledFactory::new), unannotated, duplicate));
+
+        assertEquals(1, registry.getTypes().size(), "Invalid factories registered");
+        assertNull(registry.create("test.missing"), "Alert of an unknown type created");
+        assertTrue(registry.create("test.polled") instanceof NoopAlert, "Duplicate replaced the first factory");
+        assertEquals(0, unannotated.instances.get() + duplicate.instances.get(), "Ignored factory instantiated");
+    }
+
+    /**
+     * Provides a factory and counts how many times it was instantiated.
+     */
+    private static class CountingProvider implements ServiceLoader.Provider<IAlertFactory> {
+        /**
+         * The number of times the factory was instantiated.
+         */
+        final AtomicInteger instances = new AtomicInteger();
+        /**
+         * The class of the factory.
+         */
+        private final Class<? extends IAlertFactory> type;
+        /**
+         * Instantiates the factory.
+         */
+        private final Supplier<IAlertFactory> constructor;
+
+        /**
+         * Instantiates a new instance of the class.
+         *
+         * @param type        The class of the factory.
+         * @param constructor Instantiates the factory.
+         */
+        CountingProvider(Class<? extends IAlertFactory> type, Supplier<IAlertFactory> constructor) {
+            this.type = type;
+            this.constructor = constructor;
+        }
+
+        @Override
+        public Class<? extends IAlertFactory> type() {
+            return type;
+        }
+
+        @Override
+        public IAlertFactory get() {
+            instances.incrementAndGet();
+            return constructor.get();
+        }
+    }
+
+    /**
+     * Creates polled alerts.
+     */
+    @AlertType(id = "test.polled", name = "Polled")
+    private static class PolledFactory implements IAlertFactory {
+        @Override
+        public IAlert create() {
+            return new NoopAlert();
+        }
+
+        @Override
+        public boolean isEventAlert() {
+            return false;
+        }
+    }
+
+    /**
+     * Creates event alerts.
+     */
+    @AlertType(id = "test.event", name = "Event")
+    private static class EventFactory implements IAlertFactory {
+        @Override
+        public IAlert create() {
+            return new TestEventAlert();
+        }
+
+        @Override
+        public boolean isEventAlert() {
+            return true;
+        }
+    }
+
+    /**
+     * Provides the same type as {@link PolledFactory}.
+     */
+    @AlertType(id = "test.polled", name = "Duplicate")
+    private static class DuplicateFactory extends PolledFactory {
+    }
+
+    /**
+     * Has no {@link AlertType}.
+     */
+    private static class UnannotatedFactory extends PolledFactory {
+    }
+}
@@ -3,8 +3,20 @@ package org.nullinside.notification_app.alerts;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.nullinside.notification_app.alerts.common.NoopAlert;
+import org.nullinside.notification_app.alerts.common.TestAlert;
+import org.nullinside.notification_app.alerts.common.TestEventAlert;
 import org.nullinside.notification_app.alerts.common.TestUtilities;
 
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -99,4 +111,617 @@ class AlertsManagerTest {
         assertFalse(noopVarRemoved[1], "Alert received removed callback while still in alert manager");
         assertTrue(noopVarRemoved[2], "Alert did not receive callback when removed from alert manager");
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that snapshots are reused until alerts are added or removed and aren't affected by later changes.
+     */
+    @Test
+    void getAlertsSnapshot() {
+        var manager = AlertsManager.getInstance();
+        var noop = new NoopAlert();
+        manager.addAlert(noop);
+
+        var first = manager.getAlertsSnapshot();
+        assertSame(first, manager.getAlertsSnapshot(), "Snapshot rebuilt without changes");
+        TestUtilities.assertCollectionEqualUnordered(new Object[]{noop}, first.toArray(), "Snapshot missing alert");
+
+        var noop2 = new NoopAlert();
+        manager.addAlert(noop2);
+        var second = manager.getAlertsSnapshot();
+        assertTrue(second.getVersion() > first.getVersion(), "Version did not change on add");
+        assertEquals(1, first.size(), "Old snapshot changed after add");
+        assertEquals(noop2, second.getAlerts().get(1), "Snapshot not in the order alerts were added");
+
+        manager.removeAlert(noop);
+        var third = manager.getAlertsSnapshot();
+        assertTrue(third.getVersion() > second.getVersion(), "Version did not change on remove");
+        TestUtilities.assertCollectionEqualUnordered(new Object[]{noop2}, third.toArray(), "Alert not removed");
+        assertThrows(UnsupportedOperationException.class, () -> third.getAlerts().clear());
+    }
+
+    /**
+     * Tests looking alerts up by id and that ids stay unique when alerts are added from several threads.
+     */
+    @Test
+    void getAlertById() throws InterruptedException {
+        var manager = AlertsManager.getInstance();
+        var threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 250; j++) {
+                    manager.addAlert(new NoopAlert());
+                }
+            });
+            threads[i].start();
+        }
+
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        var alerts = manager.getAlerts();
+        assertEquals(1000, alerts.length, "Alerts were lost while adding concurrently");
+        for (var alert : alerts) {
+            assertSame(alert, manager.getAlert(alert.getId()), "Alert id was not unique");
+        }
+
+        // Removing a different object that happens to share the id must not remove the registered alert.
+        var impostor = new NoopAlert();
+        impostor.setId(alerts[0].getId());
+        manager.removeAlert(impostor);
+        assertSame(alerts[0], manager.getAlert(alerts[0].getId()), "Removed alert by id of another object");
+
+        manager.removeAlert(alerts[0].getId());
+        assertNull(manager.getAlert(alerts[0].getId()), "Alert was not removed");
+    }
+
+    /**
+     * Tests that adding and removing alerts in a batch registers all of them and tells the listeners once.
+     */
+    @Test
+    void addAndRemoveAlertsInBatch() throws InterruptedException {
+        var manager = new AlertsManager(2);
+        try {
+            var batches = new ArrayList<List<IAlert>>();
+            var removed = new ArrayList<Boolean>();
+            manager.addAlertsUpdatedListener(new AlertListUpdatedEvent() {
+                @Override
+                public void onAlertListUpdated(boolean added, IAlert alert) {
+                    fail("Listener was called once per alert instead of once per batch");
+                }
+
+                @Override
+                public void onAlertListBatchUpdated(boolean added, List<IAlert> alerts) {
+                    removed.add(!added);
+                    batches.add(new ArrayList<>(alerts));
+                }
+            });
+
+            // Enabled polled alerts make sure every shard gets its share of the batch and checks it.
+            var checked = new CountDownLatch(100);
+            var alerts = new ArrayList<IAlert>();
+            for (int i = 0; i < 100; i++) {
+                alerts.add(new TestAlert(60000, checked::countDown));
+            }
+
+            var eventAlert = new TestEventAlert();
+            alerts.add(eventAlert);
+
+            var version = manager.getAlertsSnapshot().getVersion();
+            manager.addAlerts(alerts);
+            assertEquals(version + 1, manager.getAlertsSnapshot().getVersion(),
+                    "Batch changed the version more than once");
+            TestUtilities.assertCollectionEqualUnordered(alerts.toArray(), manager.getAlerts(), "Batch not added");
+            assertEquals(List.of(false), removed, "Listeners not told about the batch once");
+            assertEquals(alerts, batches.get(0), "Listeners not told about the alerts in the batch");
+            assertTrue(checked.await(5, TimeUnit.SECONDS), "Alerts added in a batch were not checked");
+            assertTrue(eventAlert.isStarted(), "Event alert added in a batch was not started");
+
+            // Alerts that aren't in the manager are skipped.
+            var toRemove = new ArrayList<>(alerts.subList(50, alerts.size()));
+            toRemove.add(new NoopAlert());
+            manager.removeAlerts(toRemove);
+            TestUtilities.assertCollectionEqualUnordered(alerts.subList(0, 50).toArray(), manager.getAlerts(),
+                    "Batch not removed");
+            assertEquals(List.of(false, true), removed, "Listeners not told about the removal once");
+            assertEquals(alerts.subList(50, alerts.size()), batches.get(1), "Listeners told about the wrong alerts");
+            assertFalse(eventAlert.isStarted(), "Event alert removed in a batch was not stopped");
+
+            // Nothing to remove means nothing to tell anyone.
+            manager.removeAlerts(toRemove);
+            manager.addAlerts(List.of());
+            assertEquals(2, batches.size(), "Listeners told about an empty batch");
+        } finally {
+            manager.dispose();
+        }
+    }
+
+    /**
+     * Tests that a slow check running on a worker doesn't delay the checks of other alerts.
+     */
+    @Test
+    void slowCheckDoesNotBlockOthers() throws InterruptedException {
+        var manager = AlertsManager.getInstance();
+        manager.setWorkerCount(2);
+
+        var release = new CountDownLatch(1);
+        var fastChecks = new CountDownLatch(3);
+        manager.addAlert(new TestAlert(60000, () -> awaitQuietly(release)));
+        manager.addAlert(new TestAlert(10, fastChecks::countDown));
+
+        try {
+            assertTrue(fastChecks.await(5, TimeUnit.SECONDS), "Slow check blocked the other alerts");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    /**
+     * Tests that an alert never runs two checks at the same time, even with plenty of workers.
+     */
+    @Test
+    void alertNeverChecksConcurrently() throws InterruptedException {
+        var manager = AlertsManager.getInstance();
+        manager.setWorkerCount(4);
+
+        var running = new AtomicInteger(0);
+        var maxRunning = new AtomicInteger(0);
+        var checks = new CountDownLatch(5);
+        manager.addAlert(new TestAlert(1, () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleepQuietly(20);
+            running.decrementAndGet();
+            checks.countDown();
+        }));
+
+        assertTrue(checks.await(5, TimeUnit.SECONDS), "Alert was not checked");
+        assertEquals(1, maxRunning.get(), "Alert ran checks concurrently");
+    }
+
+    /**
+     * Tests that fixed rate alerts keep their cadence regardless of how long the check takes while fixed delay
+     * alerts wait a whole interval after each check.
+     */
+    @Test
+    void fixedRateAndFixedDelay() throws InterruptedException {
+        var manager = AlertsManager.getInstance();
+        manager.setWorkerCount(2);
+
+        var fixedRate = recordCheckTimes(manager, ScheduleMode.FIXED_RATE, CatchUpPolicy.COALESCE, 10);
+        var fixedDelay = recordCheckTimes(manager, ScheduleMode.FIXED_DELAY, CatchUpPolicy.COALESCE, 10);
+
+        // Nine intervals of 50ms, the fixed delay alert also waits out nine 25ms checks.
+        var fixedRateElapsed = TimeUnit.NANOSECONDS.toMillis(fixedRate.get(9) - fixedRate.get(0));
+        var fixedDelayElapsed = TimeUnit.NANOSECONDS.toMillis(fixedDelay.get(9) - fixedDelay.get(0));
+        assertTrue(fixedRateElapsed < 560, "Fixed rate alert drifted: " + fixedRateElapsed + "ms");
+        assertTrue(fixedDelayElapsed >= 675, "Fixed delay alert didn't wait after checks: " + fixedDelayElapsed + "ms");
+    }
+
+    /**
+     * Tests that checks, failures and skips are counted and published through JMX.
+     */
+    @Test
+    void metrics() throws Exception {
+        var manager = AlertsManager.getInstance();
+        manager.setWorkerCount(1);
+
+        // The fourth check only starts once the third was recorded since the single worker runs them in turn.
+        var checks = new CountDownLatch(4);
+        var alert = new TestAlert(10, () -> {
+            checks.countDown();
+            throw new IllegalStateException("Expected failure");
+        });
+        manager.addAlert(alert);
+        assertTrue(checks.await(5, TimeUnit.SECONDS), "Alert was not checked");
+
+        var alertMetrics = manager.getMetrics(alert.getId());
+        assertTrue(alertMetrics.getCheckCount() >= 3, "Checks were not counted");
+        assertTrue(alertMetrics.getFailureCount() >= 3, "Failures were not counted");
+        assertTrue(manager.getMetrics().getCheckCount() >= alertMetrics.getCheckCount(),
+                "Manager did not count the alert's checks");
+        assertTrue(alertMetrics.getCheckDuration().getCount() > 0, "Check duration was not recorded");
+
+        var server = ManagementFactory.getPlatformMBeanServer();
+        var managerName = new ObjectName("org.nullinside.notification_app:type=AlertsManager");
+        assertEquals(1, server.getAttribute(managerName, "AlertCount"));
+        var alertData = (CompositeData) server.invoke(managerName, "getAlertMetrics",
+                new Object[]{alert.getId()}, new String[]{int.class.getName()});
+        assertTrue((Long) alertData.get("checkCount") >= 3, "Alert metrics not published");
+
+        manager.removeAlert(alert);
+        assertNull(manager.getMetrics(alert.getId()), "Alert metrics still available after removal");
+    }
+
+    /**
+     * Tests what each catch up policy does after a check holds up the alert for several intervals.
+     */
+    @Test
+    void catchUpPolicies() throws InterruptedException {
+        assertTrue(countCatchUpChecks(CatchUpPolicy.BURST) >= 3, "Burst did not run the missed checks");
+        assertEquals(1, countCatchUpChecks(CatchUpPolicy.COALESCE), "Coalesce did not run exactly one check");
+        assertEquals(0, countCatchUpChecks(CatchUpPolicy.SKIP), "Skip ran a missed check");
+    }
+
+    /**
+     * Tests that an alert that keeps failing waits longer between checks, is quarantined and comes back when it
+     * is enabled again.
+     */
+    @Test
+    void failingAlertBacksOffAndIsQuarantined() throws InterruptedException {
+        var manager = AlertsManager.getInstance();
+        manager.setQuarantineThreshold(4);
+        manager.setMaxBackoff(10000);
+
+        var checkTimes = new ArrayList<Long>();
+        var isBroken = new AtomicBoolean(true);
+        var alert = new TestAlert(20, () -> {
+            synchronized (checkTimes) {
+                checkTimes.add(System.nanoTime());
+            }
+
+            if (isBroken.get()) {
+                throw new IllegalStateException("Expected failure");
+            }
+        });
+        manager.addAlert(alert);
+
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (AlertHealth.QUARANTINED != manager.getAlertHealth(alert.getId()) && System.nanoTime() < deadline) {
+            sleepQuietly(10);
+        }
+
+        assertEquals(AlertHealth.QUARANTINED, manager.getAlertHealth(alert.getId()), "Alert was not quarantined");
+        assertEquals(1, manager.getMetrics().getQuarantinedCount());
+        sleepQuietly(200);
+        synchronized (checkTimes) {
+            assertEquals(4, checkTimes.size(), "Quarantined alert was checked");
+
+            // Waits of 40ms then 80ms then 160ms.
+            var firstWait = TimeUnit.NANOSECONDS.toMillis(checkTimes.get(2) - checkTimes.get(1));
+            var secondWait = TimeUnit.NANOSECONDS.toMillis(checkTimes.get(3) - checkTimes.get(2));
+            assertTrue(firstWait >= 75, "Alert did not back off: " + firstWait + "ms");
+            assertTrue(secondWait >= 155, "Alert did not keep backing off: " + secondWait + "ms");
+        }
+
+        isBroken.set(false);
+        alert.getConfigObject().setIsEnabled(false);
+        alert.getConfigObject().setIsEnabled(true);
+        sleepQuietly(100);
+        assertEquals(AlertHealth.HEALTHY, manager.getAlertHealth(alert.getId()), "Enabling did not reset health");
+        synchronized (checkTimes) {
+            assertTrue(checkTimes.size() > 4, "Alert was not checked after being enabled");
+        }
+    }
+
+    /**
+     * Tests that a separate manager spreads its alerts over its shards, checks all of them and keeps them apart
+     * from the singleton.
+     */
+    @Test
+    void shardedManager() throws InterruptedException {
+        var manager = new AlertsManager(4);
+        try {
+            assertEquals(4, manager.getShardCount());
+
+            var checks = new CountDownLatch(100);
+            var alerts = new ArrayList<TestAlert>();
+            for (int i = 0; i < 100; i++) {
+                var checked = new AtomicBoolean(false);
+                var alert = new TestAlert(60000, () -> {
+                    if (checked.compareAndSet(false, true)) {
+                        checks.countDown();
+                    }
+                });
+                alerts.add(alert);
+                manager.addAlert(alert);
+            }
+
+            assertTrue(checks.await(5, TimeUnit.SECONDS), "Not every alert was checked");
+            assertEquals(100, manager.getAlerts().length);
+            assertEquals(0, AlertsManager.getInstance().getAlerts().length, "Alerts leaked into the singleton");
+
+            for (var alert : alerts) {
+                manager.removeAlert(alert);
+            }
+
+            assertEquals(0, manager.getAlerts().length, "Alerts were not removed");
+        } finally {
+            manager.dispose();
+        }
+    }
+
+    /**
+     * Tests that event alerts are started while enabled, never take a slot in the schedule and have their
+     * messages handed to the subscribers.
+     */
+    @Test
+    void eventAlert() {
+        var manager = AlertsManager.getInstance();
+        var received = new ArrayList<String>();
+        manager.addAlertMessageListener(message -> received.add(message.text));
+
+        var alert = new TestEventAlert();
+        manager.addAlert(alert);
+        assertTrue(alert.isStarted(), "Enabled event alert was not started");
+        assertSame(alert, manager.getAlert(alert.getId()));
+
+        alert.send("first");
+        alert.send("second");
+        assertEquals(List.of("first", "second"), received, "Messages were not handed to the subscribers");
+        assertEquals(2, manager.getMetrics(alert.getId()).getMessageCount());
+        assertEquals(0, manager.getMetrics(alert.getId()).getCheckCount(), "Event alert was checked");
+
+        alert.getConfigObject().setIsEnabled(false);
+        assertFalse(alert.isStarted(), "Disabled event alert was not stopped");
+        alert.send("late");
+        assertEquals(2, received.size(), "Message sent after stopping was not dropped");
+
+        alert.getConfigObject().setIsEnabled(true);
+        assertEquals(2, alert.startCount, "Enabled event alert was not started again");
+
+        manager.removeAlert(alert);
+        assertFalse(alert.isStarted(), "Removed event alert was not stopped");
+        assertEquals(2, alert.stopCount);
+    }
+
+    /**
+     * Tests that a lazy alert is scheduled from its descriptor, created on its first check, and never created at
+     * all while disabled.
+     */
+    @Test
+    void lazyAlert() throws InterruptedException {
+        var manager = AlertsManager.getInstance();
+        var checked = new CountDownLatch(1);
+        var created = new AtomicInteger(0);
+        var descriptor = new AlertDescriptor();
+        descriptor.isEnabled = true;
+        descriptor.updateInterval = 10;
+        var enabled = new LazyAlert(TestAlert.class.getName(), "{}", descriptor, () -> {
+            created.incrementAndGet();
+            return new TestAlert(10, checked::countDown);
+        });
+
+        var disabledCreated = new AtomicBoolean(false);
+        var disabled = new LazyAlert(TestAlert.class.getName(), "{}", new AlertDescriptor(), () -> {
+            disabledCreated.set(true);
+            return new TestAlert(10, () -> {
+            });
+        });
+
+        manager.addAlerts(List.of(enabled, disabled));
+        assertTrue(checked.await(5, TimeUnit.SECONDS), "Lazy alert was not checked");
+        assertEquals(1, created.get(), "Lazy alert was not created exactly once");
+        assertEquals(enabled.getId(), LazyAlert.unwrap(enabled).getId(), "Created alert has another id");
+        assertSame(enabled, manager.getAlert(enabled.getId()), "Manager doesn't know the alert by its stand in");
+
+        sleepQuietly(100);
+        assertFalse(disabledCreated.get(), "Disabled lazy alert was created");
+        assertFalse(disabled.isMaterialized(), "Disabled lazy alert was created");
+        assertEquals("{}", disabled.getConfig(), "Saved configuration not kept");
+    }
+
+    /**
+     * Tests that a lazy event alert is created and started on the executor, and not started if it was stopped
+     * before the executor got to it.
+     */
+    @Test
+    void lazyEventAlert() {
+        var manager = AlertsManager.getInstance();
+        var pending = new ArrayList<Runnable>();
+        var descriptor = new AlertDescriptor();
+        descriptor.isEnabled = true;
+        var eventAlert = new TestEventAlert();
+        var alert = new LazyEventAlert(TestEventAlert.class.getName(), "{}", descriptor, () -> eventAlert,
+                pending::add);
+
+        manager.addAlert(alert);
+        assertFalse(alert.isMaterialized(), "Created on the caller's thread");
+        assertEquals(1, pending.size(), "Start not handed to the executor");
+        pending.remove(0).run();
+        assertTrue(eventAlert.isStarted(), "Lazy event alert was not started");
+
+        // Enabling goes through the created alert and reaches the manager's listener on the stand in.
+        eventAlert.getConfigObject().setIsEnabled(false);
+        assertFalse(eventAlert.isStarted(), "Disabled lazy event alert was not stopped");
+
+        var stoppedEarly = new TestEventAlert();
+        var other = new LazyEventAlert(TestEventAlert.class.getName(), "{}", descriptor, () -> stoppedEarly,
+                pending::add);
+        manager.addAlert(other);
+        manager.removeAlert(other);
+        pending.remove(0).run();
+        assertFalse(stoppedEarly.isStarted(), "Started after it was stopped");
+        assertEquals(0, stoppedEarly.startCount, "Started after it was stopped");
+    }
+
+    /**
+     * Tests that a check that hangs on the alert manager thread is interrupted and doesn't hold up other alerts,
+     * even when it ignores the interrupt.
+     */
+    @Test
+    void hungCheckTimesOut() throws InterruptedException {
+        var manager = AlertsManager.getInstance();
+        manager.setCheckTimeout(100);
+
+        var release = new CountDownLatch(1);
+        var wasInterrupted = new AtomicInteger(0);
+        var hungAlert = new TestAlert(60000, () -> {
+            while (release.getCount() > 0) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    wasInterrupted.incrementAndGet();
+                }
+            }
+        });
+        var otherChecks = new CountDownLatch(5);
+        manager.addAlert(hungAlert);
+        manager.addAlert(new TestAlert(10, otherChecks::countDown));
+
+        try {
+            assertTrue(otherChecks.await(5, TimeUnit.SECONDS), "Hung check blocked the other alerts");
+            assertEquals(1, wasInterrupted.get(), "Hung check was not interrupted");
+            assertEquals(1, manager.getMetrics(hungAlert.getId()).getTimeoutCount(), "Timeout was not counted");
+            assertEquals(AlertHealth.BACKING_OFF, manager.getAlertHealth(hungAlert.getId()));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    /**
+     * Tests that once a check that hung on the alert manager thread and ignored the interrupt returns, its thread
+     * doesn't go on to check the rest of its batch alongside the thread that replaced it.
+     */
+    @Test
+    void replacedThreadStopsAfterHungCheck() throws InterruptedException {
+        var manager = AlertsManager.getInstance();
+        manager.setCheckTimeout(100);
+
+        var hungThread = new Thread[1];
+        var release = new CountDownLatch(1);
+        var hungAlert = new TestAlert(60000, () -> {
+            synchronized (hungThread) {
+                hungThread[0] = Thread.currentThread();
+            }
+
+            while (release.getCount() > 0) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    // Hang on regardless.
+                }
+            }
+        });
+
+        var staleChecks = new AtomicInteger(0);
+        var alerts = new ArrayList<IAlert>();
+        alerts.add(hungAlert);
+        for (int i = 0; i < 5; i++) {
+            alerts.add(new TestAlert(60000, () -> {
+                synchronized (hungThread) {
+                    if (Thread.currentThread() == hungThread[0]) {
+                        staleChecks.incrementAndGet();
+                    }
+                }
+            }));
+        }
+
+        manager.addAlerts(alerts);
+        sleepQuietly(300);
+        release.countDown();
+        sleepQuietly(200);
+        assertEquals(0, staleChecks.get(), "Replaced thread kept checking its batch");
+    }
+
+    /**
+     * Tests that alerts added while the scheduler is parked waiting on an alert far in the future are checked right
+     * away, every time, rather than when the wait runs out.
+     */
+    @Test
+    void addedAlertWakesParkedScheduler() throws InterruptedException {
+        var manager = AlertsManager.getInstance();
+        var parked = new CountDownLatch(1);
+        manager.addAlert(new TestAlert(60000, parked::countDown));
+        assertTrue(parked.await(5, TimeUnit.SECONDS), "Alert was not checked");
+
+        for (int i = 0; i < 20; i++) {
+            var checked = new CountDownLatch(1);
+            manager.addAlert(new TestAlert(60000, checked::countDown));
+            assertTrue(checked.await(500, TimeUnit.MILLISECONDS), "Wake up lost on alert " + i);
+        }
+    }
+
+    /**
+     * Adds an alert with a 50ms interval whose checks take 25ms and records when its checks start.
+     *
+     * @param manager The alerts manager.
+     * @param mode    The schedule mode of the alert.
+     * @param policy  The catch up policy of the alert.
+     * @param count   The number of checks to record.
+     * @return The {@link System#nanoTime()} each check started at.
+     * @throws InterruptedException Interrupted while waiting on the checks.
+     */
+    private static List<Long> recordCheckTimes(AlertsManager manager, ScheduleMode mode, CatchUpPolicy policy,
+                                               int count) throws InterruptedException {
+        var times = new ArrayList<Long>();
+        var done = new CountDownLatch(count);
+        var alert = new TestAlert(50, () -> {
+            synchronized (times) {
+                times.add(System.nanoTime());
+            }
+
+            done.countDown();
+            sleepQuietly(25);
+        });
+        alert.getConfigObject().setScheduleMode(mode);
+        alert.getConfigObject().setCatchUpPolicy(policy);
+
+        manager.addAlert(alert);
+        assertTrue(done.await(5, TimeUnit.SECONDS), "Alert was not checked");
+        manager.removeAlert(alert);
+
+        synchronized (times) {
+            return new ArrayList<>(times);
+        }
+    }
+
+    /**
+     * Adds a fixed rate alert with a 40ms interval whose first check takes 200ms, missing several slots, and
+     * counts how many checks start within 25ms of that first check finishing.
+     *
+     * @param policy The catch up policy of the alert.
+     * @return The number of checks run right after the first check.
+     * @throws InterruptedException Interrupted while waiting on the checks.
+     */
+    private static int countCatchUpChecks(CatchUpPolicy policy) throws InterruptedException {
+        var manager = AlertsManager.getInstance();
+        var firstCheckEnd = new long[]{0};
+        var catchUpChecks = new AtomicInteger(0);
+        var firstCheckDone = new CountDownLatch(1);
+        var alert = new TestAlert(40, () -> {
+            if (0 == firstCheckEnd[0]) {
+                sleepQuietly(200);
+                firstCheckEnd[0] = System.nanoTime();
+                firstCheckDone.countDown();
+                return;
+            }
+
+            if (System.nanoTime() - firstCheckEnd[0] < TimeUnit.MILLISECONDS.toNanos(25)) {
+                catchUpChecks.incrementAndGet();
+            }
+        });
+        alert.getConfigObject().setCatchUpPolicy(policy);
+
+        manager.addAlert(alert);
+        assertTrue(firstCheckDone.await(5, TimeUnit.SECONDS), "Alert was not checked");
+        sleepQuietly(100);
+        manager.removeAlert(alert);
+        return catchUpChecks.get();
+    }
+
+    /**
+     * Waits on a latch, ignoring interruptions.
+     *
+     * @param latch The latch.
+     */
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Sleeps the current thread, ignoring interruptions.
+     *
+     * @param millis The time to sleep in milliseconds.
+     */
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.nullinside.notification_app.alerts.common;
+
+import org.nullinside.notification_app.config.AbstractAlertConfig;
+
+/**
+ * An enabled alert with a real configuration whose check runs a supplied action.
+ */
+public class TestAlert extends NoopAlert {
+    /**
+     * The alert configuration.
+     */
+    private final AbstractAlertConfig config = new AbstractAlertConfig() {
+    };
+    /**
+     * The action to run on every check.
+     */
+    private final Runnable onCheck;
+
+    /**
+     * Instantiates a new instance of the class.
+     *
+     * @param updateInterval The update interval in milliseconds.
+     * @param onCheck        The action to run on every check.
+     */
+    public TestAlert(long updateInterval, Runnable onCheck) {
+        this.onCheck = onCheck;
+        config.setUpdateInterval(updateInterval);
+
+        // Enable through the config directly, going through the alert would write the global config to disk.
+        config.setIsEnabled(true);
+    }
+
+    /**
+     * Gets the alert configuration. Tests change it directly since going through the alert would write the
+     * global config to disk.
+     *
+     * @return The alert configuration object.
+     */
+    @Override
+    public AbstractAlertConfig getConfigObject() {
+        return config;
+    }
+
+    /**
+     * Executes the logic of alert. This includes identifying if an alert condition
+     * exists and providing some kind of indication to the user that it happened.
+     */
+    @Override
+    public void check() {
+        onCheck.run();
+    }
+}
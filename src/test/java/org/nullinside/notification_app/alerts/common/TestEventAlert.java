@@ -0,0 +1,139 @@
+package org.nullinside.notification_app.alerts.common;
+
+import javafx.scene.Parent;
+import javafx.scene.layout.VBox;
+import org.nullinside.notification_app.alerts.AbstractEventAlert;
+import org.nullinside.notification_app.alerts.AlertMessage;
+import org.nullinside.notification_app.alerts.AlertMessageEvent;
+import org.nullinside.notification_app.config.AbstractAlertConfig;
+
+/**
+ * An enabled event alert with a real configuration that sends messages when told to.
+ */
+public class TestEventAlert extends AbstractEventAlert {
+    /**
+     * The alert configuration.
+     */
+    private final AbstractAlertConfig config = new AbstractAlertConfig() {
+    };
+    /**
+     * The number of times the alert was started.
+     */
+    public int startCount = 0;
+    /**
+     * The number of times the alert was stopped.
+     */
+    public int stopCount = 0;
+    /**
+     * Where to send messages, null while stopped.
+     */
+    private AlertMessageEvent sink;
+    /**
+     * The last sink the alert was started with.
+     */
+    private AlertMessageEvent lastSink;
+
+    /**
+     * Instantiates a new instance of the class.
+     */
+    public TestEventAlert() {
+        // Enable through the config directly, going through the alert would write the global config to disk.
+        config.setIsEnabled(true);
+    }
+
+    /**
+     * Sends a message as if something happened. Keeps sending to the last sink after the alert was stopped, like
+     * a message that was already on its way.
+     *
+     * @param text The message.
+     */
+    public void send(String text) {
+        lastSink.onAlertMessage(new AlertMessage(this, "test", text));
+    }
+
+    /**
+     * Gets the alert configuration. Tests change it directly since going through the alert would write the
+     * global config to disk.
+     *
+     * @return The alert configuration object.
+     */
+    @Override
+    public AbstractAlertConfig getConfigObject() {
+        return config;
+    }
+
+    /**
+     * Starts sending messages.
+     *
+     * @param sink Where to send messages.
+     */
+    @Override
+    public void start(AlertMessageEvent sink) {
+        startCount++;
+        this.sink = sink;
+        this.lastSink = sink;
+    }
+
+    /**
+     * Stops sending messages.
+     */
+    @Override
+    public void stop() {
+        stopCount++;
+        sink = null;
+    }
+
+    /**
+     * Gets a flag indicating whether the alert is started.
+     *
+     * @return True if started, false otherwise.
+     */
+    public boolean isStarted() {
+        return null != sink;
+    }
+
+    /**
+     * Gets the alert configuration in JSON string format.
+     *
+     * @return The alert configuration in JSON string format.
+     */
+    @Override
+    public String getConfig() {
+        return null;
+    }
+
+    /**
+     * Sets the alert configuration in JSON string format.
+     *
+     * @param config The alert configuration in JSON string format.
+     */
+    @Override
+    public void setConfig(String config) {
+    }
+
+    /**
+     * Gets the window GUI to display when configuring the alert.
+     *
+     * @return The window GUI to display when configuring the alert.
+     */
+    @Override
+    public Parent getGui() {
+        return null;
+    }
+
+    /**
+     * Sets the preview GUI to display in the list of all alerts.
+     *
+     * @param parent The parent that houses the alert in the alert list.
+     */
+    @Override
+    public void setPreviewRow(VBox parent) {
+    }
+
+    /**
+     * Dispose of managed and unmanaged resources used by the alert.
+     */
+    @Override
+    public void dispose() {
+    }
+}
@@ -0,0 +1,100 @@
+package org.nullinside.notification_app.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link BinaryConfigSnapshot}.
+ */
+class BinaryConfigSnapshotTest {
+    /**
+     * The directory to write the files in, deleted after every test.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Tests that the snapshot reads back what was written.
+     */
+    @Test
+    void readsWhatWasWritten() throws IOException {
+        var file = directory.resolve("config.json");
+        Files.writeString(file, "{}");
+
+        var binary = new AlertConfiguration(1, "Binary", "{\"a\":1}");
+        binary.binaryConfig = new byte[]{1, 2, 3};
+        binary.binaryConfigVersion = 7;
+        var snapshot = new BinaryConfigSnapshot(file);
+        assertTrue(snapshot.write("{\"settings\":1}".getBytes(StandardCharsets.UTF_8),
+                List.of(binary, new AlertConfiguration(2, "Json", null))), "Write failed");
+        assertFalse(Files.exists(directory.resolve("config.1.bin.tmp")), "Temporary file left behind");
+
+        var contents = snapshot.read();
+        assertNotNull(contents, "Snapshot not read");
+        assertEquals("{\"settings\":1}", new String(contents.settings, StandardCharsets.UTF_8), "Wrong settings");
+        assertEquals(2, contents.alertConfigs.size(), "Wrong number of alerts");
+
+        var first = contents.alertConfigs.get(0);
+        assertEquals(1, first.id, "Wrong id");
+        assertEquals("Binary", first.className, "Wrong class name");
+        assertEquals("{\"a\":1}", first.config, "Wrong configuration");
+        assertArrayEquals(new byte[]{1, 2, 3}, first.binaryConfig, "Wrong binary configuration");
+        assertEquals(7, first.binaryConfigVersion, "Wrong binary configuration version");
+
+        var second = contents.alertConfigs.get(1);
+        assertNull(second.config, "Null configuration not kept");
+        assertNull(second.binaryConfig, "Missing binary configuration not kept");
+    }
+
+    /**
+     * Tests that every snapshot is written under a new name, so a snapshot that is still mapped is never replaced,
+     * and that the older snapshots are cleaned up.
+     */
+    @Test
+    void writesNewGenerations() throws IOException {
+        var file = directory.resolve("config.json");
+        Files.writeString(file, "{}");
+        Files.writeString(directory.resolve("config.bin"), "from before there were generations");
+        var snapshot = new BinaryConfigSnapshot(file);
+        assertTrue(snapshot.write(new byte[0], List.of()), "Write failed");
+        assertEquals(directory.resolve("config.1.bin"), snapshot.getSnapshotFile(), "Wrong snapshot file");
+        assertFalse(Files.exists(directory.resolve("config.bin")), "Old snapshot not deleted");
+        assertNotNull(snapshot.read(), "Snapshot not read");
+
+        assertTrue(snapshot.write("{\"a\":1}".getBytes(StandardCharsets.UTF_8), List.of()), "Write failed");
+        assertEquals(directory.resolve("config.2.bin"), snapshot.getSnapshotFile(), "Snapshot replaced in place");
+        assertFalse(Files.exists(directory.resolve("config.1.bin")), "Old snapshot not deleted");
+        assertEquals("{\"a\":1}", new String(snapshot.read().settings, StandardCharsets.UTF_8),
+                "Newest snapshot not read");
+    }
+
+    /**
+     * Tests that the snapshot is ignored once the configuration file changes, and when it is damaged.
+     */
+    @Test
+    void ignoresStaleSnapshot() throws IOException {
+        var file = directory.resolve("config.json");
+        Files.writeString(file, "{}");
+        var snapshot = new BinaryConfigSnapshot(file);
+        assertTrue(snapshot.write(new byte[0], List.of()), "Write failed");
+        assertNotNull(snapshot.read(), "Snapshot not read");
+
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 5000));
+        assertNull(snapshot.read(), "Snapshot of an edited file read");
+
+        assertTrue(snapshot.write(new byte[0], List.of()), "Write failed");
+        var bytes = Files.readAllBytes(snapshot.getSnapshotFile());
+        Files.write(snapshot.getSnapshotFile(), Arrays.copyOf(bytes, bytes.length - 2));
+        assertNull(snapshot.read(), "Damaged snapshot read");
+    }
+}
@@ -0,0 +1,90 @@
+package org.nullinside.notification_app.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link ConfigJournal}.
+ */
+class ConfigJournalTest {
+    /**
+     * The directory to write the files in, deleted after every test.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Tests that the appended changes replay on top of the configuration file.
+     */
+    @Test
+    void replaysAppendedChanges() throws IOException {
+        var file = directory.resolve("nested").resolve("config.json");
+        var journal = new ConfigJournal(file);
+        assertTrue(journal.writeSnapshot("snapshot".getBytes(StandardCharsets.UTF_8)), "Snapshot failed");
+        assertEquals("snapshot", Files.readString(file), "Wrong snapshot written");
+        assertFalse(Files.exists(file.resolveSibling("config.json.tmp")), "Temporary file left behind");
+
+        assertTrue(journal.append(List.of(
+                new AlertJournalEntry(1, new AlertConfiguration(2, "Changed", "two changed")),
+                new AlertJournalEntry(1, 1),
+                new AlertJournalEntry(1, new AlertConfiguration(4, "Added", "four")))), "Append failed");
+        assertEquals(Files.size(journal.getJournalFile()), journal.getJournalSize(), "Wrong journal size");
+
+        var configs = List.of(
+                new AlertConfiguration(1, "Removed", "one"),
+                new AlertConfiguration(2, "Changed", "two"),
+                new AlertConfiguration(3, "Unchanged", "three"));
+        var replayed = ConfigJournal.replay(configs, new ConfigJournal(file).read(1));
+
+        assertEquals(3, replayed.size(), "Wrong number of alerts after replay");
+        assertEquals(2, replayed.get(0).id, "Changed alert moved");
+        assertEquals("two changed", replayed.get(0).config, "Change not replayed");
+        assertEquals(3, replayed.get(1).id, "Unchanged alert moved");
+        assertEquals(4, replayed.get(2).id, "Added alert not at the end");
+        assertEquals("Added", replayed.get(2).className, "Wrong class name replayed");
+    }
+
+    /**
+     * Tests that entries from another generation are ignored and that writing the configuration empties the
+     * journal.
+     */
+    @Test
+    void ignoresOtherGenerations() {
+        var journal = new ConfigJournal(directory.resolve("config.json"));
+        assertTrue(journal.append(List.of(
+                new AlertJournalEntry(1, new AlertConfiguration(1, "Old", "old")),
+                new AlertJournalEntry(2, new AlertConfiguration(1, "New", "new")))), "Append failed");
+
+        var entries = journal.read(2);
+        assertEquals(1, entries.size(), "Entries from another generation read");
+        assertEquals("New", entries.get(0).className, "Wrong entry read");
+
+        assertTrue(journal.writeSnapshot(new byte[0]), "Snapshot failed");
+        assertEquals(0, journal.getJournalSize(), "Journal not emptied");
+        assertTrue(journal.read(2).isEmpty(), "Journal not emptied");
+    }
+
+    /**
+     * Tests that reading stops at a line cut short by a crash.
+     */
+    @Test
+    void stopsAtTornLine() throws IOException {
+        var journal = new ConfigJournal(directory.resolve("config.json"));
+        assertTrue(journal.append(List.of(new AlertJournalEntry(1, new AlertConfiguration(1, "Kept", "kept")))),
+                "Append failed");
+        Files.writeString(journal.getJournalFile(), "{\"generation\":1,\"id\":2,\"remo", StandardOpenOption.APPEND);
+
+        var entries = journal.read(1);
+        assertEquals(1, entries.size(), "Torn line not ignored");
+        assertEquals("Kept", entries.get(0).className, "Wrong entry read");
+    }
+}
@@ -0,0 +1,136 @@
+package org.nullinside.notification_app.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link ConfigPersister}.
+ */
+class ConfigPersisterTest {
+    /**
+     * Tests that a burst of requested saves is saved once.
+     */
+    @Test
+    void coalescesSaves() throws InterruptedException {
+        var saved = new AtomicInteger(0);
+        var persister = new ConfigPersister(() -> {
+            saved.incrementAndGet();
+            return true;
+        }, () -> 200);
+        try {
+            for (int i = 0; i < 200; i++) {
+                persister.requestSave();
+            }
+
+            assertEquals(0, saved.get(), "Saved before the delay passed");
+            waitForSaves(persister, 1);
+            Thread.sleep(300);
+
+            assertEquals(1, persister.getSaveCount(), "A burst of saves was not saved once");
+            assertEquals(1, saved.get(), "Saved more than once for a single save");
+
+            // A save requested after the save is a new save.
+            persister.requestSave();
+            waitForSaves(persister, 2);
+            assertEquals(2, saved.get(), "Second save not performed");
+        } finally {
+            persister.close();
+        }
+    }
+
+    /**
+     * Tests that closing saves the pending save straight away and ignores saves after it.
+     */
+    @Test
+    void closeFlushesPendingSave() {
+        var saved = new AtomicInteger(0);
+        var persister = new ConfigPersister(() -> {
+            saved.incrementAndGet();
+            return true;
+        }, () -> TimeUnit.HOURS.toMillis(1));
+
+        persister.requestSave();
+        assertTrue(persister.close(), "Close failed to save");
+        assertEquals(1, saved.get(), "Pending save not performed on close");
+
+        persister.requestSave();
+        assertTrue(persister.flush(), "Flush with nothing pending failed");
+        assertEquals(1, persister.getSaveCount(), "Saved after close");
+    }
+
+    /**
+     * Tests that a failed save is tried again in the background and by closing.
+     */
+    @Test
+    void retriesFailedSaves() throws InterruptedException {
+        var failures = new AtomicInteger(2);
+        var persister = new ConfigPersister(() -> failures.getAndDecrement() <= 0, () -> 50);
+        try {
+            persister.requestSave();
+            waitForSaves(persister, 3);
+            Thread.sleep(200);
+            assertEquals(3, persister.getSaveCount(), "Failed saves not retried until successful");
+        } finally {
+            persister.close();
+        }
+
+        var isLocked = new AtomicInteger(1);
+        persister = new ConfigPersister(() -> isLocked.getAndDecrement() <= 0, () -> TimeUnit.HOURS.toMillis(1));
+        persister.requestSave();
+        assertFalse(persister.flush(), "Failed save reported as successful");
+        assertTrue(persister.close(), "Close didn't retry the failed save");
+        assertEquals(2, persister.getSaveCount(), "Wrong number of saves");
+    }
+
+    /**
+     * Tests that saving now saves even when nothing is pending, and folds in a pending save.
+     */
+    @Test
+    void saveNowFoldsInPendingSave() {
+        var saved = new AtomicInteger(0);
+        var persister = new ConfigPersister(() -> {
+            saved.incrementAndGet();
+            return true;
+        }, () -> TimeUnit.HOURS.toMillis(1));
+        try {
+            assertTrue(persister.saveNow(), "Save now failed");
+            persister.requestSave();
+            assertTrue(persister.saveNow(), "Save now failed");
+            assertTrue(persister.flush(), "Flush failed");
+            assertEquals(2, saved.get(), "Pending save not folded into the save");
+        } finally {
+            persister.close();
+        }
+    }
+
+    /**
+     * Tests that a failed save is reported.
+     */
+    @Test
+    void failedSaveIsReported() {
+        var persister = new ConfigPersister(() -> false, () -> TimeUnit.HOURS.toMillis(1));
+
+        persister.requestSave();
+        assertFalse(persister.close(), "Reported success for a failed save");
+        assertEquals(1, persister.getSaveCount(), "Failed save not counted");
+    }
+
+    /**
+     * Waits for the persister to save a number of times.
+     *
+     * @param persister The persister.
+     * @param count     The number of saves to wait for.
+     */
+    private static void waitForSaves(ConfigPersister persister, long count) throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (persister.getSaveCount() < count && System.nanoTime() - deadline < 0) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(count, persister.getSaveCount(), "Save was not performed in time");
+    }
+}
@@ -0,0 +1,255 @@
+package org.nullinside.sound;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link SoundEngine}.
+ */
+class SoundEngineTest {
+    /**
+     * The sounds decoded by the engine under test, in order.
+     */
+    private final List<FakeClip> clips = new ArrayList<>();
+    /**
+     * The current time of the engine under test in nanoseconds.
+     */
+    private final AtomicLong now = new AtomicLong(0);
+    /**
+     * The engine under test.
+     */
+    private final SoundEngine engine = new SoundEngine(file -> {
+        var clip = new FakeClip(file);
+        clips.add(clip);
+        return clip;
+    }, now::get);
+
+    /**
+     * Tests that a sound is decoded once no matter how many times it is loaded and released along with its voices
+     * once the last load is closed.
+     */
+    @Test
+    void cachesDecodedSounds() {
+        engine.setMinGap(0);
+        var first = engine.load("ping.mp3");
+        var second = engine.load(new File("ping.mp3").getAbsolutePath());
+        var other = engine.load("other.mp3");
+        assertNull(engine.load(""), "Loaded a sound without a file");
+        assertEquals(2, clips.size(), "Sound decoded more than once");
+        assertEquals(2, engine.getSoundCount(), "Wrong number of cached sounds");
+
+        assertTrue(first.play(), "Sound not played");
+        var clip = clips.get(0);
+        clip.voices.get(0).finish();
+        assertTrue(second.play(), "Sound not played");
+        assertEquals(1, clip.voices.size(), "Voice not reused");
+
+        first.close();
+        first.close();
+        assertFalse(clip.isDisposed, "Sound released while still loaded");
+        assertTrue(second.play(), "Sound not played");
+        assertEquals(2, clip.voices.size(), "Busy voice reused");
+        clip.voices.get(1).finish();
+
+        // The first voice is still playing, it goes along with the sound once it finishes.
+        second.close();
+        assertFalse(second.play(), "Closed sound played");
+        assertTrue(clip.voices.get(1).isDisposed, "Idle voice not disposed of");
+        assertFalse(clip.isDisposed, "Sound released while playing");
+        clip.voices.get(0).finish();
+        assertTrue(clip.voices.get(0).isDisposed, "Voice not disposed of once finished");
+        assertTrue(clip.isDisposed, "Sound not released");
+        assertEquals(1, engine.getSoundCount(), "Released sound still cached");
+        other.close();
+        assertEquals(0, engine.getSoundCount(), "Released sound still cached");
+    }
+
+    /**
+     * Tests that sounds over the voice limit or too close together are dropped.
+     */
+    @Test
+    void dropsSoundsOverTheLimits() {
+        engine.setMaxVoices(2);
+        engine.setMinGap(10);
+        var sound = engine.load("ping.mp3");
+        assertTrue(sound.play(), "First sound dropped");
+        assertFalse(sound.play(), "Sound played too soon");
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(10));
+        assertTrue(sound.play(), "Second sound dropped");
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(10));
+        assertFalse(sound.play(), "Played more sounds than there are voices");
+        assertEquals(2, engine.getPlayingCount(), "Wrong number of sounds playing");
+
+        clips.get(0).voices.get(0).finish();
+        assertTrue(sound.play(), "Sound dropped with a free voice");
+        assertEquals(2, clips.get(0).voices.size(), "Voice not reused");
+        assertEquals(3, engine.getPlayCount(), "Wrong number of plays");
+        assertEquals(2, engine.getDropCount(), "Wrong number of drops");
+    }
+
+    /**
+     * Tests that a voice that fails gives up its slot and is replaced rather than played again.
+     */
+    @Test
+    void replacesFailedVoices() {
+        engine.setMaxVoices(1);
+        engine.setMinGap(0);
+        var sound = engine.load("ping.mp3");
+        for (int i = 0; i < 3; i++) {
+            assertTrue(sound.play(), "Sound dropped after " + i + " failures");
+            clips.get(0).voices.get(i).fail();
+            assertTrue(clips.get(0).voices.get(i).isDisposed, "Failed voice not disposed of");
+        }
+
+        assertEquals(0, engine.getPlayingCount(), "Failed voices still playing");
+        assertEquals(3, clips.get(0).voices.size(), "Failed voice reused");
+        sound.close();
+        assertTrue(clips.get(0).isDisposed, "Sound not released");
+    }
+
+    /**
+     * Tests that a voice that fails while it waits in the pool isn't played again and doesn't hold on to a slot.
+     */
+    @Test
+    void replacesVoicesThatFailWhileIdle() {
+        engine.setMaxVoices(1);
+        engine.setMinGap(0);
+        var sound = engine.load("ping.mp3");
+        assertTrue(sound.play(), "Sound dropped");
+        var voice = clips.get(0).voices.get(0);
+        voice.finish();
+        voice.fail();
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(sound.play(), "Sound dropped after " + i + " plays");
+            assertEquals(1, voice.plays, "Failed voice played again");
+            assertEquals(2, clips.get(0).voices.size(), "Wrong number of voices");
+            clips.get(0).voices.get(1).finish();
+        }
+
+        assertTrue(voice.isDisposed, "Failed voice not disposed of");
+        assertEquals(0, engine.getPlayingCount(), "Voices still playing");
+    }
+
+    /**
+     * Tests that the time from asking for a sound to it starting is recorded once per play.
+     */
+    @Test
+    void recordsLatency() {
+        var sound = engine.load("ping.mp3");
+        sound.play();
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(5));
+        var voice = clips.get(0).voices.get(0);
+        voice.start();
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(5));
+        voice.start();
+        assertEquals(1, engine.getLatency().getCount(), "Wrong number of latencies");
+        assertEquals(5, engine.getLatencyMaxMillis(), 0.001, "Wrong latency");
+    }
+
+    /**
+     * A decoded sound that records what the engine asks of it.
+     */
+    private static class FakeClip implements SoundBackend.Clip {
+        /**
+         * The sound file.
+         */
+        final File file;
+        /**
+         * The voices created, in order.
+         */
+        final List<FakeVoice> voices = new ArrayList<>();
+        /**
+         * True once disposed of, false otherwise.
+         */
+        boolean isDisposed;
+
+        /**
+         * Instantiates a new instance of the class.
+         *
+         * @param file The sound file.
+         */
+        FakeClip(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public SoundBackend.Voice createVoice(SoundBackend.Listener listener) {
+            var voice = new FakeVoice(listener);
+            voices.add(voice);
+            return voice;
+        }
+
+        @Override
+        public void dispose() {
+            assertTrue(voices.stream().allMatch(voice -> voice.isDisposed), "Sound released before its voices");
+            isDisposed = true;
+        }
+    }
+
+    /**
+     * A voice that plays for as long as the test says.
+     */
+    private static class FakeVoice implements SoundBackend.Voice {
+        /**
+         * Notified when the voice starts and finishes playing.
+         */
+        final SoundBackend.Listener listener;
+        /**
+         * True once disposed of, false otherwise.
+         */
+        boolean isDisposed;
+        /**
+         * The number of times the voice was played.
+         */
+        int plays;
+
+        /**
+         * Instantiates a new instance of the class.
+         *
+         * @param listener Notified when the voice starts and finishes playing.
+         */
+        FakeVoice(SoundBackend.Listener listener) {
+            this.listener = listener;
+        }
+
+        /**
+         * Pretends the sound started coming out of the speakers.
+         */
+        void start() {
+            listener.onStarted(this);
+        }
+
+        /**
+         * Pretends the sound finished playing.
+         */
+        void finish() {
+            listener.onFinished(this);
+        }
+
+        /**
+         * Pretends the sound failed to play.
+         */
+        void fail() {
+            listener.onFailed(this);
+        }
+
+        @Override
+        public void play() {
+            assertFalse(isDisposed, "Disposed voice played");
+            plays++;
+        }
+
+        @Override
+        public void dispose() {
+            isDisposed = true;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package org.nullinside.tts;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link PersistentProcessEngine} and {@link OneShotProcessEngine} against {@link StubSpeechEngine}.
+ */
+class PersistentProcessEngineTest {
+    /**
+     * The directory of the log file, deleted after every test.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Tests that every utterance is spoken by the same process, on one line.
+     */
+    @Test
+    void reusesProcess() throws Exception {
+        var log = directory.resolve("log.txt");
+        var engine = new PersistentProcessEngine(StubSpeechEngine.command("persistent", log));
+        try {
+            engine.speak("one");
+            engine.speak("two\r\nlines");
+            engine.speak("tab\tbed");
+
+            var spoken = StubSpeechEngine.read(log);
+            assertEquals(List.of("one", "two lines", "tab\tbed"), texts(spoken), "Wrong utterances");
+            assertEquals(1, spoken.stream().map(PersistentProcessEngineTest::pid).distinct().count(),
+                    "Process not reused");
+        } finally {
+            engine.dispose();
+        }
+    }
+
+    /**
+     * Tests that both engines render to the file they are given and that the persistent one can go back to
+     * speaking afterwards.
+     */
+    @Test
+    void rendersToFile() throws Exception {
+        var log = directory.resolve("log.txt");
+        var file = directory.resolve("clip.wav");
+        var engine = new PersistentProcessEngine(StubSpeechEngine.command("persistent", log));
+        try {
+            engine.render("rendered", file);
+            assertEquals("rendered", Files.readString(file), "Wrong clip");
+            engine.speak("spoken");
+            assertEquals(List.of("rendered", "spoken"), texts(StubSpeechEngine.read(log)), "Wrong utterances");
+        } finally {
+            engine.dispose();
+        }
+
+        assertThrows(IOException.class, () -> engine.render("disposed", file), "Rendered after disposed");
+
+        var oneShot = new OneShotProcessEngine(StubSpeechEngine.command("once", log));
+        oneShot.render("once", file);
+        assertEquals("once", Files.readString(file), "Wrong clip");
+    }
+
+    /**
+     * Tests that stopping cuts off the utterance without failing it, and that the next utterance starts a new
+     * process.
+     */
+    @Test
+    void stopRestartsProcess() throws Exception {
+        var log = directory.resolve("log.txt");
+        var engine = new PersistentProcessEngine(StubSpeechEngine.command("persistent", log));
+        try {
+            var error = new AtomicReference<Exception>();
+            var thread = new Thread(() -> {
+                try {
+                    engine.speak("hang");
+                } catch (Exception e) {
+                    error.set(e);
+                }
+            });
+            thread.start();
+            awaitUtterances(log, 1);
+            engine.stop();
+            thread.join(10000);
+            assertFalse(thread.isAlive(), "Utterance not cut off");
+            assertNull(error.get(), "Stopping failed the utterance");
+
+            engine.speak("after");
+            var spoken = StubSpeechEngine.read(log);
+            assertEquals(List.of("hang", "after"), texts(spoken), "Wrong utterances");
+            assertNotEquals(pid(spoken.get(0)), pid(spoken.get(1)), "Process not restarted");
+        } finally {
+            engine.dispose();
+        }
+    }
+
+    /**
+     * Tests that a process exiting on its own fails the utterance, and that the next utterance starts a new process.
+     */
+    @Test
+    void reportsCrash() throws Exception {
+        var log = directory.resolve("log.txt");
+        var engine = new PersistentProcessEngine(StubSpeechEngine.command("persistent", log));
+        try {
+            assertThrows(IOException.class, () -> engine.speak("crash"), "Crash not reported");
+            engine.speak("after");
+            assertEquals(List.of("crash", "after"), texts(StubSpeechEngine.read(log)), "Wrong utterances");
+        } finally {
+            engine.dispose();
+        }
+    }
+
+    /**
+     * Tests that the one shot engine starts a process for every utterance and that nothing is spoken once the
+     * engine is disposed of.
+     */
+    @Test
+    void oneShotStartsProcessPerUtterance() throws Exception {
+        var log = directory.resolve("log.txt");
+        var engine = new OneShotProcessEngine(StubSpeechEngine.command("once", log));
+        engine.speak("one");
+        engine.speak("it's \"quoted\"");
+        assertThrows(IOException.class, () -> engine.speak("crash"), "Crash not reported");
+        engine.dispose();
+        engine.speak("disposed");
+
+        var spoken = StubSpeechEngine.read(log);
+        assertEquals(List.of("one", "it's \"quoted\"", "crash"), texts(spoken), "Wrong utterances");
+        assertEquals(3, spoken.stream().map(PersistentProcessEngineTest::pid).distinct().count(),
+                "Process reused");
+    }
+
+    /**
+     * Waits for the stub to log utterances.
+     *
+     * @param log   The log file.
+     * @param count The number of utterances.
+     * @throws Exception Thrown if they don't show up in time.
+     */
+    private static void awaitUtterances(Path log, int count) throws Exception {
+        var deadline = System.nanoTime() + 10_000_000_000L;
+        while (StubSpeechEngine.read(log).size() < count) {
+            assertTrue(System.nanoTime() < deadline, "Utterances never spoken");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Gets the text of the logged utterances.
+     *
+     * @param spoken The logged utterances.
+     * @return The text of each.
+     */
+    private static List<String> texts(List<String> spoken) {
+        var texts = new ArrayList<String>();
+        for (var line : spoken) {
+            texts.add(line.substring(line.indexOf('\t') + 1));
+        }
+
+        return texts;
+    }
+
+    /**
+     * Gets the process id of a logged utterance.
+     *
+     * @param line The logged utterance.
+     * @return The process id.
+     */
+    private static String pid(String line) {
+        return line.substring(0, line.indexOf('\t'));
+    }
+}
@@ -0,0 +1,102 @@
+package org.nullinside.tts;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Stands in for a speech engine process in the tests. Instead of speaking it writes its process id, a tab and the
+ * text to a log file. Instead of rendering it logs the text the same way and writes it to the file as well.
+ * <p>
+ * Run with "once" it reads one utterance from its standard input and exits, like {@link OneShotProcessEngine}
+ * expects. Run with "persistent" it talks the protocol of {@link PersistentProcessEngine}. The text "hang" never
+ * finishes being spoken and the text "crash" makes it exit with an error.
+ */
+public class StubSpeechEngine {
+    /**
+     * Runs the stub.
+     *
+     * @param args The mode, "once" or "persistent", and the log file.
+     * @throws Exception Thrown if the log file can't be written.
+     */
+    public static void main(String[] args) throws Exception {
+        var log = Path.of(args[1]);
+        var input = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        if ("once".equals(args[0])) {
+            var text = new StringBuilder();
+            for (int c = input.read(); -1 != c; c = input.read()) {
+                text.append((char) c);
+            }
+
+            speak(log, text.toString(), System.getenv(OneShotProcessEngine.OUTPUT_VARIABLE));
+            return;
+        }
+
+        System.out.println(PersistentProcessEngine.READY);
+        System.out.flush();
+        String line;
+        while (null != (line = input.readLine())) {
+            var fields = line.split("\t", 3);
+            speak(log, fields[2], fields[1]);
+            System.out.println(PersistentProcessEngine.DONE + '\t' + fields[0]);
+            System.out.flush();
+        }
+    }
+
+    /**
+     * Pretends to speak or render text.
+     *
+     * @param log  The log file.
+     * @param text The text.
+     * @param file The file to render to, null or empty to speak.
+     * @throws Exception Thrown if the log file can't be written.
+     */
+    private static void speak(Path log, String text, String file) throws Exception {
+        Files.writeString(log, ProcessHandle.current().pid() + "\t" + text + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if (null != file && !file.isEmpty()) {
+            Files.writeString(Path.of(file), text, StandardCharsets.UTF_8);
+        }
+
+        if ("hang".equals(text)) {
+            Thread.sleep(Long.MAX_VALUE);
+        } else if ("crash".equals(text)) {
+            System.exit(3);
+        }
+    }
+
+    /**
+     * Creates the command running the stub in a new Java virtual machine.
+     *
+     * @param mode The mode, "once" or "persistent".
+     * @param log  The log file.
+     * @return The command.
+     */
+    static List<String> command(String mode, Path log) {
+        try {
+            var java = ProcessHandle.current().info().command().orElse("java");
+            var classes = Path.of(StubSpeechEngine.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            return List.of(java, "-Xshare:auto", "-XX:TieredStopAtLevel=1", "-cp", classes.toString(),
+                    StubSpeechEngine.class.getName(), mode, log.toString());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reads the log file.
+     *
+     * @param log The log file.
+     * @return Every utterance spoken as the process id, a tab and the text, in order.
+     * @throws IOException Thrown if the log file can't be read.
+     */
+    static List<String> read(Path log) throws IOException {
+        return Files.exists(log) ? Files.readAllLines(log, StandardCharsets.UTF_8) : List.of();
+    }
+}
@@ -0,0 +1,188 @@
+package org.nullinside.tts;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link TextToSpeech} rendering ahead.
+ */
+class TextToSpeechTest {
+    /**
+     * The statistics of the queue and cache under test.
+     */
+    private final TtsMetrics metrics = new TtsMetrics();
+    /**
+     * What the renderer and the player did, in order.
+     */
+    private final List<String> events = new ArrayList<>();
+    /**
+     * Renders and plays the clips, recording what it does to {@link #events}.
+     */
+    private final FakeEngine engine = new FakeEngine();
+
+    /**
+     * Tests that the next message is rendered while the current one plays and that a recurring message isn't
+     * rendered again.
+     */
+    @Test
+    void rendersNextWhilePlaying() throws Exception {
+        var queue = new TtsQueue(10, TtsOverflowPolicy.DROP_OLDEST, List.of(), false, metrics, new Random(1));
+        var tts = new TextToSpeech(queue, engine, "voice", new TtsClipCache(1000, 0, metrics), engine);
+        try {
+            tts.addMessage("one");
+            tts.addMessage("two");
+            // The first message is still playing, it isn't finished until told to.
+            awaitEvents(3);
+            var events = getEvents();
+            assertEquals("render one", events.get(0), "Wrong events");
+            assertTrue(events.containsAll(List.of("play one", "render two")), "Next message not rendered");
+
+            engine.finish.release();
+            awaitEvents(4);
+            engine.finish.release();
+            tts.addMessage("one");
+            awaitEvents(5);
+            engine.finish.release();
+            assertEquals(List.of("play two", "play one"), getEvents().subList(3, 5), "Wrong events");
+            assertEquals(1, metrics.getClipMemoryHitCount(), "Recurring message not cached");
+        } finally {
+            tts.dispose();
+        }
+    }
+
+    /**
+     * Tests that a priority message cuts off the normal message being played.
+     */
+    @Test
+    void preemptsPlayingClip() throws Exception {
+        var queue = new TtsQueue(10, TtsOverflowPolicy.DROP_OLDEST, List.of("!"), true, metrics, new Random(1));
+        var tts = new TextToSpeech(queue, engine, "voice", new TtsClipCache(1000, 0, metrics), engine);
+        try {
+            tts.addMessage("normal");
+            awaitEvents(2);
+            tts.addMessage("urgent!");
+            awaitEvents(5);
+            engine.finish.release();
+
+            // Rendering the priority message and cutting off the normal one happen at the same time.
+            var events = getEvents();
+            assertEquals(List.of("render normal", "play normal"), events.subList(0, 2), "Wrong events");
+            assertTrue(events.subList(2, 4).containsAll(List.of("render urgent!", "stop")), "Not cut off");
+            assertEquals("play urgent!", events.get(4), "Priority message not played");
+        } finally {
+            tts.dispose();
+        }
+    }
+
+    /**
+     * Waits for the renderer and player to do something.
+     *
+     * @param count The number of events to wait for.
+     * @throws InterruptedException Thrown if interrupted while waiting.
+     */
+    private void awaitEvents(int count) throws InterruptedException {
+        var deadline = System.nanoTime() + 10_000_000_000L;
+        synchronized (events) {
+            while (events.size() < count) {
+                var remaining = (deadline - System.nanoTime()) / 1_000_000;
+                assertTrue(remaining > 0, "Only got " + events);
+                events.wait(remaining);
+            }
+        }
+    }
+
+    /**
+     * Gets what the renderer and the player did.
+     *
+     * @return The events, in order.
+     */
+    private List<String> getEvents() {
+        synchronized (events) {
+            return new ArrayList<>(events);
+        }
+    }
+
+    /**
+     * Records an event.
+     *
+     * @param event The event.
+     */
+    private void addEvent(String event) {
+        synchronized (events) {
+            events.add(event);
+            events.notifyAll();
+        }
+    }
+
+    /**
+     * Renders the text itself as the clip and plays clips until told to finish.
+     */
+    private class FakeEngine implements ITtsRenderer, ITtsPlayer {
+        /**
+         * Released to finish playing a clip.
+         */
+        private final Semaphore finish = new Semaphore(0);
+
+        /**
+         * Writes the text to the file.
+         *
+         * @param text The text to render.
+         * @param file The file to write.
+         * @throws IOException Thrown if the file can't be written.
+         */
+        @Override
+        public void render(String text, Path file) throws IOException {
+            addEvent("render " + text);
+            Files.writeString(file, text, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Waits to be told to finish.
+         *
+         * @param clip The clip.
+         * @throws InterruptedException Thrown if interrupted while waiting.
+         */
+        @Override
+        public void play(byte[] clip) throws InterruptedException {
+            addEvent("play " + new String(clip, StandardCharsets.UTF_8));
+            finish.acquire();
+        }
+
+        /**
+         * Not used, everything is rendered.
+         *
+         * @param text The text to speak.
+         */
+        @Override
+        public void speak(String text) {
+            fail("Spoken live");
+        }
+
+        /**
+         * Finishes playing the clip.
+         */
+        @Override
+        public void stop() {
+            addEvent("stop");
+            finish.release();
+        }
+
+        /**
+         * Lets anything still playing finish.
+         */
+        @Override
+        public void dispose() {
+            finish.release(100);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.nullinside.tts;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link TtsClipCache}.
+ */
+class TtsClipCacheTest {
+    /**
+     * The directory of the clips on disk, deleted after every test.
+     */
+    @TempDir
+    Path directory;
+    /**
+     * The statistics of the cache under test.
+     */
+    private final TtsMetrics metrics = new TtsMetrics();
+    /**
+     * Renders the clips.
+     */
+    private final FakeRenderer renderer = new FakeRenderer();
+
+    /**
+     * Tests that a clip is rendered once per voice and then comes from memory.
+     */
+    @Test
+    void cachesByVoiceAndText() throws Exception {
+        var cache = new TtsClipCache(1000, 1000, metrics);
+        var clip = cache.get("voice", "hello", renderer);
+        assertArrayEquals("hello".getBytes(StandardCharsets.UTF_8), clip, "Wrong clip");
+        assertSame(clip, cache.get("voice", "hello", renderer), "Not cached");
+        cache.get("other voice", "hello", renderer);
+
+        assertEquals(List.of("hello", "hello"), renderer.rendered, "Wrong renders");
+        assertEquals(1, metrics.getClipMemoryHitCount(), "Wrong memory hits");
+        assertEquals(2, metrics.getClipRenderCount(), "Wrong render count");
+    }
+
+    /**
+     * Tests that clips pushed out of memory are read back from disk, and that the least recently used clips are
+     * deleted from disk.
+     */
+    @Test
+    void evictsLeastRecentlyUsed() throws Exception {
+        var cache = new TtsClipCache(10, 20, metrics);
+        cache.setDirectory(directory);
+        cache.get("voice", "aaaaaaaa", renderer);
+        cache.get("voice", "bbbbbbbb", renderer);
+        assertEquals(8, cache.getMemoryBytes(), "Memory limit ignored");
+
+        // Pushed out of memory by the second clip, but still on disk.
+        assertArrayEquals("aaaaaaaa".getBytes(StandardCharsets.UTF_8), cache.get("voice", "aaaaaaaa", renderer),
+                "Wrong clip from disk");
+        assertEquals(1, metrics.getClipDiskHitCount(), "Not read from disk");
+
+        // The second clip was used least recently, so it makes room for the third.
+        cache.get("voice", "cccccccc", renderer);
+        assertEquals(16, cache.getDiskBytes(), "Disk limit ignored");
+        assertEquals(2, countClips(), "Evicted clip not deleted");
+        cache.get("voice", "bbbbbbbb", renderer);
+        assertEquals(List.of("aaaaaaaa", "bbbbbbbb", "cccccccc", "bbbbbbbb"), renderer.rendered, "Wrong renders");
+    }
+
+    /**
+     * Tests that the clips on disk are picked up by a new cache and that clips left behind while rendering are
+     * deleted.
+     */
+    @Test
+    void reloadsDirectory() throws Exception {
+        var cache = new TtsClipCache(1000, 1000, metrics);
+        cache.setDirectory(directory);
+        cache.get("voice", "hello", renderer);
+        var abandoned = Files.writeString(directory.resolve("abandoned.tmp"), "partial");
+
+        var reloaded = new TtsClipCache(1000, 1000, metrics);
+        reloaded.setDirectory(directory);
+        assertEquals(5, reloaded.getDiskBytes(), "Clips not reloaded");
+        assertFalse(Files.exists(abandoned), "Abandoned clip not deleted");
+        reloaded.get("voice", "hello", renderer);
+        assertEquals(List.of("hello"), renderer.rendered, "Rendered again");
+        assertThrows(IOException.class, () -> reloaded.get("voice", "", renderer), "Empty clip cached");
+    }
+
+    /**
+     * Counts the clips on disk.
+     *
+     * @return The number of clips.
+     * @throws IOException Thrown if the directory can't be read.
+     */
+    private long countClips() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".wav")).count();
+        }
+    }
+
+    /**
+     * Renders the text itself as the clip.
+     */
+    private static class FakeRenderer implements ITtsRenderer {
+        /**
+         * The text rendered, in order.
+         */
+        private final List<String> rendered = new ArrayList<>();
+
+        /**
+         * Writes the text to the file.
+         *
+         * @param text The text to render.
+         * @param file The file to write.
+         * @throws IOException Thrown if the file can't be written.
+         */
+        @Override
+        public void render(String text, Path file) throws IOException {
+            rendered.add(text);
+            Files.writeString(file, text, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Does nothing, the tests don't speak.
+         *
+         * @param text The text to speak.
+         */
+        @Override
+        public void speak(String text) {
+        }
+
+        /**
+         * Does nothing, rendering is instant.
+         */
+        @Override
+        public void stop() {
+        }
+
+        /**
+         * Does nothing, there is nothing to release.
+         */
+        @Override
+        public void dispose() {
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package org.nullinside.tts;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link TtsQueue}.
+ */
+class TtsQueueTest {
+    /**
+     * The statistics of the queues under test.
+     */
+    private final TtsMetrics metrics = new TtsMetrics();
+
+    /**
+     * Creates a queue without priority keywords.
+     *
+     * @param capacity The number of messages each lane holds.
+     * @param policy   What to do with a message when its lane is full.
+     * @return The queue.
+     */
+    private TtsQueue createQueue(int capacity, TtsOverflowPolicy policy) {
+        return new TtsQueue(capacity, policy, List.of(), false, metrics, new Random(1));
+    }
+
+    /**
+     * Takes everything in a queue.
+     *
+     * @param queue The queue.
+     * @return The text of every utterance, in order.
+     * @throws InterruptedException Thrown if interrupted, which it won't be.
+     */
+    private static List<String> drain(TtsQueue queue) throws InterruptedException {
+        var texts = new ArrayList<String>();
+        while (queue.getDepth() > 0) {
+            var utterance = queue.take();
+            texts.add(utterance.getText());
+            queue.done(utterance);
+        }
+
+        return texts;
+    }
+
+    /**
+     * Tests that a full queue drops either the oldest or the newest message.
+     */
+    @Test
+    void dropsOldestOrNewest() throws InterruptedException {
+        var queue = createQueue(2, TtsOverflowPolicy.DROP_OLDEST);
+        assertTrue(queue.offer("a"), "Message dropped");
+        assertTrue(queue.offer("b"), "Message dropped");
+        assertTrue(queue.offer("c"), "Newest message dropped");
+        assertEquals(List.of("b", "c"), drain(queue), "Oldest message not dropped");
+
+        queue = createQueue(2, TtsOverflowPolicy.DROP_NEWEST);
+        queue.offer("a");
+        queue.offer("b");
+        assertFalse(queue.offer("c"), "Newest message queued");
+        assertEquals(List.of("a", "b"), drain(queue), "Newest message not dropped");
+
+        assertEquals(6, metrics.getOfferedCount(), "Wrong number of messages offered");
+        assertEquals(2, metrics.getDroppedCount(), "Wrong number of messages dropped");
+        assertEquals(4, metrics.getSpokenCount(), "Wrong number of utterances spoken");
+        assertEquals(0, metrics.getQueueDepth(), "Wrong queue depth");
+    }
+
+    /**
+     * Tests that reservoir sampling keeps the messages in order and gives early and late messages the same chance.
+     */
+    @Test
+    void samplesUniformly() throws InterruptedException {
+        var queue = createQueue(10, TtsOverflowPolicy.RESERVOIR);
+        int early = 0;
+        int late = 0;
+        for (int trial = 0; trial < 200; trial++) {
+            for (int i = 0; i < 100; i++) {
+                queue.offer(String.valueOf(i));
+            }
+
+            assertEquals(10, queue.getDepth(), "Wrong queue depth");
+            var previous = -1;
+            for (var text : drain(queue)) {
+                var index = Integer.parseInt(text);
+                assertTrue(index > previous, "Messages out of order");
+                previous = index;
+                if (index < 50) {
+                    early++;
+                } else {
+                    late++;
+                }
+            }
+        }
+
+        assertEquals(2000, early + late, "Wrong number of messages kept");
+        assertTrue(early > 800 && late > 800, String.format("Sample isn't uniform: %d early, %d late", early, late));
+    }
+
+    /**
+     * Tests that dropped messages are replaced by a summary where they would have been spoken.
+     */
+    @Test
+    void summarizesDroppedMessages() throws InterruptedException {
+        var queue = createQueue(2, TtsOverflowPolicy.SUMMARIZE);
+        queue.offer("a");
+        queue.offer("b");
+        assertFalse(queue.offer("c"), "Message over the capacity queued");
+        queue.offer("d");
+        assertEquals(3, queue.getDepth(), "Wrong queue depth");
+
+        var first = queue.take();
+        assertEquals("a", first.getText(), "Wrong first message");
+        queue.done(first);
+        queue.offer("e");
+        queue.offer("f");
+        assertEquals(List.of("b", "2 more messages", "e", "1 more message"), drain(queue), "Wrong utterances");
+        assertEquals(3, metrics.getDroppedCount(), "Wrong number of messages dropped");
+    }
+
+    /**
+     * Tests that priority messages jump the queue and cut off normal messages being spoken, but not other priority
+     * messages or messages that are done.
+     */
+    @Test
+    void prioritizesKeywords() throws InterruptedException {
+        var queue = new TtsQueue(5, TtsOverflowPolicy.DROP_OLDEST, List.of(" Urgent "), true, metrics,
+                new Random(1));
+        var preempted = new AtomicReference<TtsQueue.Utterance>();
+        queue.setPreemptListener(preempted::set);
+        queue.offer("hello");
+        queue.offer("world");
+        var speaking = queue.take();
+        assertFalse(speaking.isPriority(), "Normal message in the priority lane");
+
+        queue.offer("this is URGENT");
+        assertSame(speaking, preempted.get(), "Normal message not cut off");
+        var priority = queue.take();
+        assertEquals("this is URGENT", priority.getText(), "Priority message didn't jump the queue");
+        assertTrue(priority.isPriority(), "Priority message in the normal lane");
+
+        preempted.set(null);
+        queue.offer("urgent again");
+        assertNull(preempted.get(), "Priority message cut off");
+        queue.done(priority);
+        assertEquals("urgent again", queue.take().getText(), "Priority message didn't jump the queue");
+
+        var normal = queue.take();
+        assertEquals("world", normal.getText(), "Wrong normal message");
+        queue.done(normal);
+        queue.offer("urgent once more");
+        assertNull(preempted.get(), "Finished message cut off");
+        assertEquals(1, metrics.getPreemptedCount(), "Wrong number of preempted utterances");
+    }
+
+    /**
+     * Tests that closing the queue wakes up whoever is waiting for a message.
+     */
+    @Test
+    void closeWakesTake() throws InterruptedException {
+        var queue = createQueue(2, TtsOverflowPolicy.DROP_OLDEST);
+        var taken = new AtomicReference<Object>("not taken");
+        var thread = new Thread(() -> {
+            try {
+                taken.set(queue.take());
+            } catch (InterruptedException e) {
+                taken.set(e);
+            }
+        });
+        thread.start();
+        queue.offer("a");
+        thread.join(10000);
+        assertEquals("a", ((TtsQueue.Utterance) taken.get()).getText(), "Message not taken");
+
+        thread = new Thread(() -> {
+            try {
+                taken.set(queue.take());
+            } catch (InterruptedException e) {
+                taken.set(e);
+            }
+        });
+        thread.start();
+        queue.close();
+        thread.join(10000);
+        assertFalse(thread.isAlive(), "Take not woken up");
+        assertNull(taken.get(), "Something taken from a closed queue");
+        assertFalse(queue.offer("b"), "Message queued after closing");
+    }
+}
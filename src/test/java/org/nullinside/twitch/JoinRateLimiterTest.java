@@ -0,0 +1,30 @@
+package org.nullinside.twitch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link JoinRateLimiter}.
+ */
+class JoinRateLimiterTest {
+    /**
+     * Tests that JOINs over the limit wait until the oldest one leaves the window.
+     */
+    @Test
+    void limitsJoinsInSlidingWindow() {
+        var now = new AtomicLong(1000);
+        var limiter = new JoinRateLimiter(3, 100, now::get);
+        assertEquals(0, limiter.tryAcquire(), "First JOIN limited");
+        now.addAndGet(10);
+        assertEquals(0, limiter.tryAcquire(), "Second JOIN limited");
+        assertEquals(0, limiter.tryAcquire(), "Third JOIN limited");
+        assertEquals(90, limiter.tryAcquire(), "Fourth JOIN not limited until the first leaves the window");
+
+        now.addAndGet(90);
+        assertEquals(0, limiter.tryAcquire(), "JOIN limited after the first left the window");
+        assertEquals(10, limiter.tryAcquire(), "Wrong wait for the next JOIN");
+    }
+}
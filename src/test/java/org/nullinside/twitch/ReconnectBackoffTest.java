@@ -0,0 +1,35 @@
+package org.nullinside.twitch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link ReconnectBackoff}.
+ */
+class ReconnectBackoffTest {
+    /**
+     * Tests that the delay doubles up to the maximum, stays between half the ceiling and the ceiling and starts
+     * over once reset.
+     */
+    @Test
+    void doublesWithJitter() {
+        var random = new double[]{0};
+        var backoff = new ReconnectBackoff(100, 1000, () -> random[0]);
+        assertEquals(50, backoff.nextDelay(), "Wrong first delay");
+        assertEquals(100, backoff.nextDelay(), "Wrong second delay");
+        assertEquals(200, backoff.nextDelay(), "Wrong third delay");
+        assertEquals(400, backoff.nextDelay(), "Wrong fourth delay");
+        assertEquals(500, backoff.nextDelay(), "Delay not capped");
+        assertEquals(5, backoff.getAttempts(), "Wrong number of attempts");
+
+        random[0] = 0.5;
+        for (int i = 0; i < 100; i++) {
+            assertEquals(750, backoff.nextDelay(), "Delay not capped after many attempts");
+        }
+
+        backoff.reset();
+        random[0] = 0.99;
+        assertEquals(99, backoff.nextDelay(), "Delay not reset");
+    }
+}
@@ -0,0 +1,506 @@
+package org.nullinside.twitch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link TwitchChatPool}.
+ */
+class TwitchChatPoolTest {
+    /**
+     * The connections created by the pool under test, in order.
+     */
+    private final List<FakeConnection> connections = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * Creates a pool whose connections are {@link FakeConnection}s.
+     *
+     * @return The pool.
+     */
+    private TwitchChatPool createPool() {
+        return new TwitchChatPool((username, oauth, listener) -> {
+            var connection = new FakeConnection(username, listener);
+            connections.add(connection);
+            return connection;
+        });
+    }
+
+    /**
+     * Waits for the pool to have created and started a number of connections.
+     *
+     * @param count The number of connections.
+     * @return The last connection created.
+     * @throws InterruptedException Thrown if interrupted while waiting.
+     */
+    private FakeConnection awaitConnections(int count) throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while ((connections.size() < count || !connections.get(count - 1).isStarted) &&
+                System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        assertEquals(count, connections.size(), "Wrong number of connections created");
+        return connections.get(count - 1);
+    }
+
+    /**
+     * Waits for something the pool does on its own thread, like sending JOINs, to have happened.
+     *
+     * @param condition True once it happened.
+     * @throws InterruptedException Thrown if interrupted while waiting.
+     */
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Tests that subscriptions to the same channel share one JOIN, get every message and only leave the channel
+     * once the last one is closed.
+     */
+    @Test
+    void sharesChannelsBetweenSubscriptions() throws InterruptedException {
+        var pool = createPool();
+        var first = new ArrayList<String>();
+        var second = new ArrayList<String>();
+        var firstSubscription = pool.subscribe("user", "token", "#Channel", (sender, message) -> first.add(message));
+        var secondSubscription = pool.subscribe("User", "token", "channel", (sender, message) -> second.add(message));
+        assertEquals(1, connections.size(), "Connection not shared");
+        assertEquals(1, pool.getChannelCount(), "Channel not shared");
+
+        var connection = connections.get(0);
+        assertTrue(connection.isStarted, "Connection not started");
+        assertEquals(List.of(), connection.joins, "Joined before connecting");
+        connection.connect();
+        await(() -> !connection.joins.isEmpty());
+        assertEquals(List.of("channel"), connection.joins, "Wrong JOINs");
+
+        connection.message("#channel", "hello");
+        connection.message("#other", "ignored");
+        assertEquals(List.of("hello"), first, "Message not handed to the first subscription");
+        assertEquals(List.of("hello"), second, "Message not handed to the second subscription");
+
+        firstSubscription.close();
+        firstSubscription.close();
+        assertFalse(connection.isClosed, "Connection closed while still in use");
+        connection.message("#channel", "again");
+        assertEquals(List.of("hello"), first, "Message handed to a closed subscription");
+        assertEquals(List.of("hello", "again"), second, "Message not handed to the remaining subscription");
+
+        secondSubscription.close();
+        await(() -> connection.isClosed);
+        assertTrue(connection.isClosed, "Connection left open");
+        assertEquals(0, pool.getConnectionCount(), "Connection still counted");
+    }
+
+    /**
+     * Tests that channels are spread over connections, accounts don't share connections and channels are left
+     * when the connection stays open.
+     */
+    @Test
+    void spreadsChannelsOverConnections() throws InterruptedException {
+        var pool = createPool();
+        pool.setChannelsPerConnection(2);
+        pool.setReconnectBackoff(1, 1);
+        var one = pool.subscribe("user", "token", "one", (sender, message) -> {
+        });
+        pool.subscribe("user", "token", "two", (sender, message) -> {
+        });
+        pool.subscribe("user", "token", "three", (sender, message) -> {
+        });
+        pool.subscribe("other", "token", "one", (sender, message) -> {
+        });
+        assertEquals(3, pool.getConnectionCount(), "Wrong number of connections");
+        assertEquals("other", connections.get(2).username, "Accounts share a connection");
+
+        var first = connections.get(0);
+        first.connect();
+        await(() -> first.joins.size() >= 2);
+        assertEquals(List.of("one", "two"), sortedCopy(first.joins), "Wrong channels on the first connection");
+        one.close();
+        await(() -> !first.parts.isEmpty());
+        assertEquals(List.of("one"), first.parts, "Channel not left");
+        assertFalse(first.isClosed, "Connection closed while still in use");
+
+        // Reconnecting joins the remaining channel again, over a new connection.
+        first.disconnect();
+        var reconnected = awaitConnections(4);
+        reconnected.connect();
+        await(() -> !reconnected.joins.isEmpty());
+        assertEquals(List.of("two"), reconnected.joins, "Channel not joined again");
+        assertEquals(3, pool.getConnectionCount(), "Reconnecting changed the number of connections");
+    }
+
+    /**
+     * Tests that a lost connection is replaced after the backoff, that the old connection is ignored from then on
+     * and that the subscriptions are told about every state along the way.
+     */
+    @Test
+    void reconnectsLostConnections() throws InterruptedException {
+        var pool = createPool();
+        pool.setReconnectBackoff(20, 20);
+        var states = Collections.synchronizedList(new ArrayList<ChatConnectionState>());
+        var messages = new ArrayList<String>();
+        var subscription = pool.subscribe("user", "token", "channel", (sender, message) -> messages.add(message),
+                states::add);
+        var first = connections.get(0);
+        first.connect();
+        assertEquals(ChatConnectionState.CONNECTED, subscription.getState(), "Wrong state once connected");
+
+        var start = System.nanoTime();
+        first.disconnect();
+        assertEquals(ChatConnectionState.RECONNECTING, subscription.getState(), "Wrong state once lost");
+        await(() -> first.isClosed);
+        assertTrue(first.isClosed, "Lost connection not closed");
+        var second = awaitConnections(2);
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(10), "Reconnected without a backoff");
+        assertTrue(second.isStarted, "New connection not started");
+        assertEquals(ChatConnectionState.CONNECTING, subscription.getState(), "Wrong state while reconnecting");
+
+        // The old connection reporting in late mustn't count.
+        first.disconnect();
+        first.connect();
+        first.message("#channel", "stale");
+        second.connect();
+        second.message("#channel", "hello");
+        await(() -> !second.joins.isEmpty());
+        assertEquals(List.of("channel"), second.joins, "Channel not joined again");
+        assertEquals(List.of("hello"), messages, "Wrong messages");
+        assertEquals(1, pool.getMetrics().getReconnectCount(), "Wrong number of reconnects");
+        assertEquals(2, connections.size(), "Reconnected more than once");
+
+        var expected = List.of(ChatConnectionState.CONNECTING, ChatConnectionState.CONNECTED,
+                ChatConnectionState.RECONNECTING, ChatConnectionState.CONNECTING, ChatConnectionState.CONNECTED);
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (states.size() < expected.size() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        assertEquals(expected, states, "Wrong states");
+    }
+
+    /**
+     * Tests that connections are PINGed, that the answers are timed and that a connection that stops answering is
+     * replaced.
+     */
+    @Test
+    void reconnectsUnansweredPings() throws InterruptedException {
+        var pool = createPool();
+        pool.setReconnectBackoff(1, 1);
+        pool.setPingInterval(20, 250);
+        pool.subscribe("user", "token", "channel", (sender, message) -> {
+        });
+        var first = connections.get(0);
+        first.connect();
+
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (0 == first.pings.get() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        assertEquals(1, first.pings.get(), "Connection not PINGed");
+        first.pong();
+        assertEquals(1, pool.getMetrics().getPongCount(), "PONG not recorded");
+
+        // Stop answering.
+        awaitConnections(2);
+        assertEquals(2, first.pings.get(), "PINGed while waiting for an answer");
+        assertTrue(first.isClosed, "Unanswering connection not closed");
+        assertEquals(1, pool.getMetrics().getPingTimeoutCount(), "PING timeout not recorded");
+        assertEquals(1, pool.getMetrics().getReconnectCount(), "Reconnect not recorded");
+    }
+
+    /**
+     * Tests that connections lost at the same time don't reconnect at the same time.
+     */
+    @Test
+    void staggersReconnects() throws InterruptedException {
+        var pool = createPool();
+        pool.setChannelsPerConnection(1);
+        pool.setReconnectBackoff(1, 1);
+        pool.setReconnectSpacing(200);
+        pool.subscribe("user", "token", "one", (sender, message) -> {
+        });
+        pool.subscribe("user", "token", "two", (sender, message) -> {
+        });
+        connections.get(0).connect();
+        connections.get(1).connect();
+        await(() -> !connections.get(0).joins.isEmpty() && !connections.get(1).joins.isEmpty());
+
+        connections.get(0).disconnect();
+        connections.get(1).disconnect();
+        awaitConnections(4);
+        var spacing = connections.get(3).createdTime - connections.get(2).createdTime;
+        assertTrue(spacing >= TimeUnit.MILLISECONDS.toNanos(190), "Reconnects not spaced out: " + spacing);
+    }
+
+    /**
+     * Tests that JOINs over the rate limit are sent once the limit allows it.
+     */
+    @Test
+    void limitsJoinRate() throws InterruptedException {
+        var pool = createPool();
+        pool.setJoinRateLimit(5, 200);
+        for (int i = 0; i < 8; i++) {
+            pool.subscribe("user", "token", "channel" + i, (sender, message) -> {
+            });
+        }
+
+        var connection = connections.get(0);
+        var start = System.nanoTime();
+        connection.connect();
+        await(() -> connection.joins.size() >= 5);
+        assertEquals(5, connection.joins.size(), "Wrong number of JOINs before the limit");
+        var deadline = start + TimeUnit.SECONDS.toNanos(10);
+        while (connection.joins.size() < 8 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(8, connection.joins.size(), "JOINs over the limit never sent");
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(190), "JOINs sent over the limit");
+    }
+
+    /**
+     * Tests that subscribing doesn't wait on a JOIN stuck on a stalled connection.
+     */
+    @Test
+    void joinsWithoutBlockingSubscribers() throws InterruptedException {
+        var pool = createPool();
+        pool.subscribe("user", "token", "one", (sender, message) -> {
+        });
+        var connection = connections.get(0);
+        connection.stall = new CountDownLatch(1);
+        connection.connect();
+        await(() -> 1 == connection.stalled.get());
+        assertEquals(1, connection.stalled.get(), "JOIN not sent");
+
+        // The JOIN of the first channel is stuck, none of this may wait on it.
+        var start = System.nanoTime();
+        var two = pool.subscribe("user", "token", "two", (sender, message) -> {
+        });
+        two.close();
+        pool.subscribe("user", "token", "three", (sender, message) -> {
+        });
+        assertEquals(2, pool.getChannelCount(), "Wrong number of channels");
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1), "Subscribing waited on the JOIN");
+
+        // Whatever was written for the closed subscription comes after the JOIN it waited behind.
+        connection.stall.countDown();
+        await(() -> connection.joins.contains("three"));
+        assertTrue(connection.joins.containsAll(List.of("one", "three")), "Wrong JOINs");
+        assertEquals(connection.joins.contains("two"), connection.parts.contains("two"), "Closed channel not left");
+    }
+
+    /**
+     * Tests that a PING stuck on a stalled connection holds up neither the other connections nor subscribing, and
+     * that the stalled connection is replaced.
+     */
+    @Test
+    void pingsWithoutBlockingOnStalledConnections() throws InterruptedException {
+        var pool = createPool();
+        pool.setChannelsPerConnection(1);
+        pool.setReconnectBackoff(1, 1);
+        pool.setPingInterval(20, 250);
+        pool.subscribe("user", "token", "one", (sender, message) -> {
+        });
+        pool.subscribe("user", "token", "two", (sender, message) -> {
+        });
+        var stalled = connections.get(0);
+        var healthy = connections.get(1);
+        healthy.isAnswering = true;
+        stalled.stall = new CountDownLatch(1);
+        stalled.connect();
+        healthy.connect();
+        await(() -> 1 == stalled.stalled.get());
+        assertEquals(1, stalled.stalled.get(), "Stalled connection not written to");
+
+        // Whichever got stuck first, the JOIN or the PING, none of this may wait on it.
+        var start = System.nanoTime();
+        pool.subscribe("user", "token", "three", (sender, message) -> {
+        });
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1), "Subscribing waited on the stall");
+        var pings = healthy.pings.get();
+        await(() -> healthy.pings.get() > pings);
+        assertTrue(healthy.pings.get() > pings, "Other connection not PINGed");
+
+        // The stalled connection never answers, so it's closed, which frees the stuck write, and replaced.
+        await(() -> stalled.isClosed);
+        assertTrue(stalled.isClosed, "Stalled connection not closed");
+        var replaced = awaitConnections(4);
+        assertEquals(3, pool.getConnectionCount(), "Stalled connection not replaced");
+        replaced.connect();
+        await(() -> !replaced.joins.isEmpty());
+        assertEquals(List.of("one"), replaced.joins, "Channel not joined again");
+    }
+
+    /**
+     * Copies and sorts a list.
+     *
+     * @param list The list.
+     * @return The sorted copy.
+     */
+    private static List<String> sortedCopy(List<String> list) {
+        synchronized (list) {
+            var copy = new ArrayList<>(list);
+            Collections.sort(copy);
+            return copy;
+        }
+    }
+
+    /**
+     * A connection that records what the pool asks of it.
+     */
+    private static class FakeConnection implements TwitchChatConnection {
+        /**
+         * The Twitch username.
+         */
+        final String username;
+        /**
+         * Notified of what happens on the connection.
+         */
+        final Listener listener;
+        /**
+         * The channels joined, in order.
+         */
+        final List<String> joins = Collections.synchronizedList(new ArrayList<>());
+        /**
+         * The channels left, in order.
+         */
+        final List<String> parts = Collections.synchronizedList(new ArrayList<>());
+        /**
+         * The number of PINGs sent.
+         */
+        final AtomicInteger pings = new AtomicInteger();
+        /**
+         * The {@link System#nanoTime()} the connection was created at.
+         */
+        final long createdTime = System.nanoTime();
+        /**
+         * True once started, false otherwise.
+         */
+        volatile boolean isStarted;
+        /**
+         * True once closed, false otherwise.
+         */
+        volatile boolean isClosed;
+        /**
+         * Every write waits on it, like a write to a connection that stopped reading. Null to not wait.
+         */
+        volatile CountDownLatch stall;
+        /**
+         * The number of writes that waited on {@link #stall}.
+         */
+        final AtomicInteger stalled = new AtomicInteger();
+        /**
+         * True to answer every PING straight away, false otherwise.
+         */
+        volatile boolean isAnswering;
+
+        /**
+         * Instantiates a new instance of the class.
+         *
+         * @param username The Twitch username.
+         * @param listener Notified of what happens on the connection.
+         */
+        FakeConnection(String username, Listener listener) {
+            this.username = username;
+            this.listener = listener;
+        }
+
+        /**
+         * Pretends the connection was established.
+         */
+        void connect() {
+            listener.onConnected(this);
+        }
+
+        /**
+         * Pretends the connection was lost.
+         */
+        void disconnect() {
+            listener.onDisconnected(this);
+        }
+
+        /**
+         * Pretends Twitch answered a PING.
+         */
+        void pong() {
+            listener.onPong(this);
+        }
+
+        /**
+         * Pretends someone typed in a channel.
+         *
+         * @param channel The channel.
+         * @param message The message.
+         */
+        void message(String channel, String message) {
+            listener.onMessage(this, channel, "someone", message);
+        }
+
+        /**
+         * Waits on {@link #stall}, if it's set.
+         */
+        void awaitStall() {
+            var latch = stall;
+            if (null == latch) {
+                return;
+            }
+
+            stalled.incrementAndGet();
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void start() {
+            isStarted = true;
+        }
+
+        @Override
+        public void ping() {
+            awaitStall();
+            pings.incrementAndGet();
+            if (isAnswering) {
+                pong();
+            }
+        }
+
+        @Override
+        public void join(String channel) {
+            awaitStall();
+            joins.add(channel);
+        }
+
+        @Override
+        public void part(String channel) {
+            awaitStall();
+            parts.add(channel);
+        }
+
+        @Override
+        public void close() {
+            isClosed = true;
+
+            // A closed connection fails the writes stuck on it.
+            var latch = stall;
+            if (null != latch) {
+                latch.countDown();
+            }
+        }
+    }
+}